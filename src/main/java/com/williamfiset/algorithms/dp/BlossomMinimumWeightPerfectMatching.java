@@ -0,0 +1,704 @@
+/**
+ * Implementation of Edmonds' weighted Blossom algorithm for the Minimum Weight Perfect Matching
+ * (MWPM) problem on general graphs. Unlike the bitmask DPs in this package, which are limited to a
+ * few dozen nodes, the running time is polynomial, so graphs with thousands of nodes are fine.
+ *
+ * <p>The algorithm is the primal-dual method of Edmonds with Gabow's O(n³) bookkeeping (following
+ * the well known description by Galil, "Efficient algorithms for finding maximum matching in
+ * graphs"). Every stage grows alternating trees from the free nodes over tight edges, shrinks odd
+ * cycles into blossoms and augments the matching once two trees meet. When no tight edge is left
+ * the dual variables of the nodes and blossoms are adjusted to make a new edge tight or to expand a
+ * blossom. Minimum weight perfect matching is solved as a maximum weight maximum cardinality
+ * matching on the weights C - cost, where C exceeds every cost.
+ *
+ * <p>The graph can be given as a symmetric cost matrix, where infinite entries mark missing edges,
+ * or edge by edge through {@link #addEdge} for sparse graphs. Integer costs are handled exactly.
+ *
+ * <p>Time Complexity: O(n³) for complete graphs, O(nm log n) in practice for sparse graphs
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.dp;
+
+import java.util.Arrays;
+
+public class BlossomMinimumWeightPerfectMatching implements MwpmInterface {
+
+  // Labels of the top level blossoms: free, outer (S) and inner (T). The BREADCRUMB bit marks
+  // blossoms visited while looking for the base of a new blossom.
+  private static final int FREE = 0, OUTER = 1, INNER = 2, BREADCRUMB = 4;
+
+  // Inputs
+  private final int n;
+  private int edgeCount;
+  private int[] edgeU = new int[16], edgeV = new int[16];
+  private double[] edgeCost = new double[16];
+
+  // Internal
+  private boolean solved;
+
+  // Edge k has the endpoints 2k (at edgeU[k]) and 2k + 1 (at edgeV[k]), endpoint[p] is the node of
+  // endpoint p and the endpoints facing away from node v are neighbors[offsets[v] ... ].
+  private int[] endpoint, offsets, neighbors;
+  private double[] weight;
+
+  // mate[v] is the remote endpoint of the matched edge of node v or -1. Nodes are the blossoms
+  // [0, n) and non trivial blossoms use the ids [n, 2n).
+  private int[] mate, label, labelEnd, inBlossom, blossomParent, blossomBase, bestEdge;
+  private int[][] blossomChildren, blossomEndpoints, blossomBestEdges;
+  private double[] dual;
+  private boolean[] allowEdge;
+  private int[] unusedBlossoms;
+  private int unusedCount;
+
+  private int[] queue;
+  private int queueSize;
+  private int[] leaves, stack;
+
+  // Outputs
+  private double minWeightCost;
+  private int[] matching;
+
+  /**
+   * Creates a matching problem on n nodes without edges, use {@link #addEdge} to add them.
+   *
+   * @param n - The number of nodes, which must be even for a perfect matching to exist.
+   */
+  public BlossomMinimumWeightPerfectMatching(int n) {
+    if (n < 0) throw new IllegalArgumentException("Negative node count");
+    if (n % 2 != 0)
+      throw new IllegalArgumentException("Odd number of nodes, no perfect matching exists.");
+    this.n = n;
+  }
+
+  // The cost matrix should be symmetric (i.e cost[i][j] = cost[j][i]), infinite costs mark pairs
+  // which cannot be matched.
+  public BlossomMinimumWeightPerfectMatching(double[][] cost) {
+    this(cost == null ? 0 : cost.length);
+    if (cost == null) throw new IllegalArgumentException("Input cannot be null");
+    for (int i = 0; i < n; i++) {
+      if (cost[i].length != n) throw new IllegalArgumentException("Matrix is not square");
+      for (int j = i + 1; j < n; j++) {
+        if (cost[i][j] != Double.POSITIVE_INFINITY) addEdge(i, j, cost[i][j]);
+      }
+    }
+  }
+
+  // Adds an undirected edge between nodes u and v.
+  public void addEdge(int u, int v, double cost) {
+    if (u < 0 || u >= n || v < 0 || v >= n || u == v)
+      throw new IllegalArgumentException("Invalid edge (" + u + ", " + v + ")");
+    if (Double.isNaN(cost) || Double.isInfinite(cost))
+      throw new IllegalArgumentException("Edge cost must be finite");
+    if (edgeCount == edgeU.length) {
+      edgeU = Arrays.copyOf(edgeU, 2 * edgeCount);
+      edgeV = Arrays.copyOf(edgeV, 2 * edgeCount);
+      edgeCost = Arrays.copyOf(edgeCost, 2 * edgeCount);
+    }
+    edgeU[edgeCount] = u;
+    edgeV[edgeCount] = v;
+    edgeCost[edgeCount++] = cost;
+    solved = false;
+  }
+
+  public double getMinWeightCost() {
+    solve();
+    return minWeightCost;
+  }
+
+  /**
+   * Get the minimum weight cost matching. The matching is returned as an array where the nodes at
+   * index 2*i and 2*i+1 form a matched pair, ordered by the smaller node of each pair.
+   */
+  public int[] getMatching() {
+    solve();
+    return matching.clone();
+  }
+
+  public int[] getMinWeightCostMatching() {
+    return getMatching();
+  }
+
+  private void solve() {
+    if (solved) return;
+    solved = true;
+    init();
+    greedyMatching();
+    while (augmentOnce())
+      ;
+
+    matching = new int[n];
+    minWeightCost = 0;
+    for (int v = 0, k = 0; v < n; v++) {
+      if (mate[v] == -1) throw new IllegalStateException("No perfect matching exists");
+      int w = endpoint[mate[v]];
+      if (v < w) {
+        matching[k++] = v;
+        matching[k++] = w;
+        minWeightCost += edgeCost[mate[v] / 2];
+      }
+    }
+  }
+
+  private void init() {
+    // Maximize the weights C - cost, which are positive.
+    double maxCost = 0;
+    for (int k = 0; k < edgeCount; k++) maxCost = Math.max(maxCost, edgeCost[k]);
+    double maxWeight = 0;
+    weight = new double[edgeCount];
+    for (int k = 0; k < edgeCount; k++) {
+      weight[k] = maxCost + 1 - edgeCost[k];
+      maxWeight = Math.max(maxWeight, weight[k]);
+    }
+
+    endpoint = new int[2 * edgeCount];
+    offsets = new int[n + 1];
+    neighbors = new int[2 * edgeCount];
+    for (int k = 0; k < edgeCount; k++) {
+      endpoint[2 * k] = edgeU[k];
+      endpoint[2 * k + 1] = edgeV[k];
+      offsets[edgeU[k] + 1]++;
+      offsets[edgeV[k] + 1]++;
+    }
+    for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+    int[] pos = Arrays.copyOf(offsets, n);
+    for (int k = 0; k < edgeCount; k++) {
+      neighbors[pos[edgeU[k]]++] = 2 * k + 1;
+      neighbors[pos[edgeV[k]]++] = 2 * k;
+    }
+
+    mate = new int[n];
+    label = new int[2 * n];
+    labelEnd = new int[2 * n];
+    inBlossom = new int[n];
+    blossomParent = new int[2 * n];
+    blossomBase = new int[2 * n];
+    bestEdge = new int[2 * n];
+    blossomChildren = new int[2 * n][];
+    blossomEndpoints = new int[2 * n][];
+    blossomBestEdges = new int[2 * n][];
+    dual = new double[2 * n];
+    allowEdge = new boolean[edgeCount];
+    unusedBlossoms = new int[n];
+    queue = new int[16];
+    leaves = new int[n];
+    stack = new int[2 * n];
+
+    Arrays.fill(mate, -1);
+    Arrays.fill(blossomParent, -1);
+    Arrays.fill(blossomBase, -1);
+    for (int v = 0; v < n; v++) {
+      inBlossom[v] = v;
+      blossomBase[v] = v;
+      dual[v] = maxWeight;
+    }
+    unusedCount = 0;
+    for (int b = 2 * n - 1; b >= n; b--) unusedBlossoms[unusedCount++] = b;
+  }
+
+  // Lowers the dual of every node as far as feasibility allows, which leaves every node with at
+  // least one tight edge, and then greedily matches nodes along tight edges. Only the nodes left
+  // free need the (much more expensive) stages of the blossom algorithm.
+  private void greedyMatching() {
+    for (int v = 0; v < n; v++) {
+      double best = Double.NEGATIVE_INFINITY;
+      for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+        best = Math.max(best, weight[neighbors[i] / 2]);
+      }
+      if (best != Double.NEGATIVE_INFINITY) dual[v] = best;
+    }
+    for (int v = 0; v < n; v++) {
+      double best = Double.NEGATIVE_INFINITY;
+      for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+        int p = neighbors[i];
+        best = Math.max(best, 2 * weight[p / 2] - dual[endpoint[p]]);
+      }
+      if (best != Double.NEGATIVE_INFINITY) dual[v] = best;
+    }
+    for (int v = 0; v < n; v++) {
+      if (mate[v] != -1) continue;
+      for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+        int p = neighbors[i], w = endpoint[p];
+        if (mate[w] == -1 && slack(p / 2) == 0) {
+          mate[v] = p;
+          mate[w] = p ^ 1;
+          break;
+        }
+      }
+    }
+  }
+
+  // Runs one stage: grows alternating trees from all free nodes until the matching is augmented.
+  // Returns false if the matching is already of maximum cardinality.
+  private boolean augmentOnce() {
+    Arrays.fill(label, FREE);
+    Arrays.fill(bestEdge, -1);
+    for (int b = n; b < 2 * n; b++) blossomBestEdges[b] = null;
+    Arrays.fill(allowEdge, false);
+    queueSize = 0;
+
+    for (int v = 0; v < n; v++) {
+      if (mate[v] == -1 && label[inBlossom[v]] == FREE) assignLabel(v, OUTER, -1);
+    }
+
+    boolean augmented = false;
+    while (true) {
+      while (queueSize > 0 && !augmented) {
+        int v = queue[--queueSize];
+        for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+          int p = neighbors[i], k = p / 2, w = endpoint[p];
+          if (inBlossom[v] == inBlossom[w]) continue;
+          double kSlack = 0;
+          if (!allowEdge[k]) {
+            kSlack = slack(k);
+            if (kSlack <= 0) allowEdge[k] = true;
+          }
+          if (allowEdge[k]) {
+            if (label[inBlossom[w]] == FREE) {
+              // w is matched, so label it inner and its mate outer.
+              assignLabel(w, INNER, p ^ 1);
+            } else if (label[inBlossom[w]] == OUTER) {
+              // Either a new blossom or an augmenting path.
+              int base = scanBlossom(v, w);
+              if (base >= 0) {
+                addBlossom(base, k);
+              } else {
+                augmentMatching(k);
+                augmented = true;
+                break;
+              }
+            } else if (label[w] == FREE) {
+              // w is inside an inner blossom but has not been reached yet, keep track of how
+              // to reach it in case the blossom is expanded.
+              label[w] = INNER;
+              labelEnd[w] = p ^ 1;
+            }
+          } else if (label[inBlossom[w]] == OUTER) {
+            int b = inBlossom[v];
+            if (bestEdge[b] == -1 || kSlack < slack(bestEdge[b])) bestEdge[b] = k;
+          } else if (label[w] == FREE) {
+            if (bestEdge[w] == -1 || kSlack < slack(bestEdge[w])) bestEdge[w] = k;
+          }
+        }
+      }
+      if (augmented) break;
+
+      // No tight edge is left, compute the largest dual change that keeps the duals feasible.
+      int deltaType = -1, deltaEdge = -1, deltaBlossom = -1;
+      double delta = 0;
+
+      // An edge from a free node to an outer blossom becomes tight.
+      for (int v = 0; v < n; v++) {
+        if (label[inBlossom[v]] == FREE && bestEdge[v] != -1) {
+          double d = slack(bestEdge[v]);
+          if (deltaType == -1 || d < delta) {
+            delta = d;
+            deltaType = 2;
+            deltaEdge = bestEdge[v];
+          }
+        }
+      }
+      // An edge between two outer blossoms becomes tight.
+      for (int b = 0; b < 2 * n; b++) {
+        if (blossomParent[b] == -1 && label[b] == OUTER && bestEdge[b] != -1) {
+          double d = slack(bestEdge[b]) / 2;
+          if (deltaType == -1 || d < delta) {
+            delta = d;
+            deltaType = 3;
+            deltaEdge = bestEdge[b];
+          }
+        }
+      }
+      // The dual of an inner blossom drops to zero so it can be expanded.
+      for (int b = n; b < 2 * n; b++) {
+        if (blossomBase[b] >= 0
+            && blossomParent[b] == -1
+            && label[b] == INNER
+            && (deltaType == -1 || dual[b] < delta)) {
+          delta = dual[b];
+          deltaType = 4;
+          deltaBlossom = b;
+        }
+      }
+      if (deltaType == -1) {
+        // No further improvement is possible, the matching has maximum cardinality. Do a final
+        // dual update to make the optimum verifiable.
+        deltaType = 1;
+        delta = Double.POSITIVE_INFINITY;
+        for (int v = 0; v < n; v++) delta = Math.min(delta, dual[v]);
+        delta = Math.max(0, delta);
+      }
+
+      for (int v = 0; v < n; v++) {
+        if (label[inBlossom[v]] == OUTER) dual[v] -= delta;
+        else if (label[inBlossom[v]] == INNER) dual[v] += delta;
+      }
+      for (int b = n; b < 2 * n; b++) {
+        if (blossomBase[b] >= 0 && blossomParent[b] == -1) {
+          if (label[b] == OUTER) dual[b] += delta;
+          else if (label[b] == INNER) dual[b] -= delta;
+        }
+      }
+
+      if (deltaType == 1) {
+        break;
+      } else if (deltaType == 2) {
+        allowEdge[deltaEdge] = true;
+        int i = edgeU[deltaEdge];
+        if (label[inBlossom[i]] == FREE) i = edgeV[deltaEdge];
+        push(i);
+      } else if (deltaType == 3) {
+        allowEdge[deltaEdge] = true;
+        push(edgeU[deltaEdge]);
+      } else {
+        expandBlossom(deltaBlossom, false);
+      }
+    }
+    if (!augmented) return false;
+
+    // Outer blossoms with a zero dual can be expanded now, which keeps the nesting shallow.
+    for (int b = n; b < 2 * n; b++) {
+      if (blossomParent[b] == -1 && blossomBase[b] >= 0 && label[b] == OUTER && dual[b] == 0) {
+        expandBlossom(b, true);
+      }
+    }
+    return true;
+  }
+
+  private double slack(int k) {
+    return dual[edgeU[k]] + dual[edgeV[k]] - 2 * weight[k];
+  }
+
+  private void push(int v) {
+    if (queueSize == queue.length) queue = Arrays.copyOf(queue, 2 * queueSize);
+    queue[queueSize++] = v;
+  }
+
+  // Stores the nodes contained in blossom b in 'leaves' and returns how many there are.
+  private int collectLeaves(int b) {
+    int count = 0, size = 0;
+    stack[size++] = b;
+    while (size > 0) {
+      int t = stack[--size];
+      if (t < n) leaves[count++] = t;
+      else for (int c : blossomChildren[t]) stack[size++] = c;
+    }
+    return count;
+  }
+
+  // Labels the top level blossom containing node w with label t, reached through endpoint p. An
+  // inner blossom also labels the blossom of its mate as outer.
+  private void assignLabel(int w, int t, int p) {
+    while (true) {
+      int b = inBlossom[w];
+      label[w] = label[b] = t;
+      labelEnd[w] = labelEnd[b] = p;
+      bestEdge[w] = bestEdge[b] = -1;
+      if (t == OUTER) {
+        int count = collectLeaves(b);
+        for (int i = 0; i < count; i++) push(leaves[i]);
+        return;
+      }
+      int base = blossomBase[b];
+      w = endpoint[mate[base]];
+      p = mate[base] ^ 1;
+      t = OUTER;
+    }
+  }
+
+  // Traces back from nodes v and w towards the roots of their trees to find the base of a new
+  // blossom. Returns -1 if the trees are different, meaning an augmenting path was found.
+  private int scanBlossom(int v, int w) {
+    int pathLength = 0, base = -1;
+    while (v != -1 || w != -1) {
+      int b = inBlossom[v];
+      if ((label[b] & BREADCRUMB) != 0) {
+        base = blossomBase[b];
+        break;
+      }
+      stack[pathLength++] = b;
+      label[b] = OUTER | BREADCRUMB;
+      if (labelEnd[b] == -1) {
+        // Reached the root of the tree.
+        v = -1;
+      } else {
+        v = endpoint[labelEnd[b]];
+        b = inBlossom[v];
+        v = endpoint[labelEnd[b]];
+      }
+      if (w != -1) {
+        int tmp = v;
+        v = w;
+        w = tmp;
+      }
+    }
+    for (int i = 0; i < pathLength; i++) label[stack[i]] = OUTER;
+    return base;
+  }
+
+  // Shrinks the odd cycle formed by edge k and the tree paths from its endpoints to 'base' into a
+  // new blossom.
+  private void addBlossom(int base, int k) {
+    int v = edgeU[k], w = edgeV[k];
+    int bb = inBlossom[base], bv = inBlossom[v], bw = inBlossom[w];
+    int b = unusedBlossoms[--unusedCount];
+    blossomBase[b] = base;
+    blossomParent[b] = -1;
+    blossomParent[bb] = b;
+
+    // Children are listed around the cycle starting from the base, together with the endpoints of
+    // the edges connecting consecutive children.
+    int[] path = new int[16], endps = new int[16];
+    int size = 0;
+    while (bv != bb) {
+      if (size + 1 >= path.length) {
+        path = Arrays.copyOf(path, 2 * path.length);
+        endps = Arrays.copyOf(endps, 2 * endps.length);
+      }
+      blossomParent[bv] = b;
+      path[size] = bv;
+      endps[size++] = labelEnd[bv];
+      v = endpoint[labelEnd[bv]];
+      bv = inBlossom[v];
+    }
+    path[size++] = bb;
+    reverse(path, size);
+    reverse(endps, size - 1);
+    int count = size;
+    endps[count - 1] = 2 * k;
+    while (bw != bb) {
+      if (count + 1 >= path.length) {
+        path = Arrays.copyOf(path, 2 * path.length);
+        endps = Arrays.copyOf(endps, 2 * endps.length);
+      }
+      blossomParent[bw] = b;
+      path[count] = bw;
+      endps[count++] = labelEnd[bw] ^ 1;
+      w = endpoint[labelEnd[bw]];
+      bw = inBlossom[w];
+    }
+    int[] children = Arrays.copyOf(path, count);
+    blossomChildren[b] = children;
+    blossomEndpoints[b] = Arrays.copyOf(endps, count);
+
+    label[b] = OUTER;
+    labelEnd[b] = labelEnd[bb];
+    dual[b] = 0;
+    int leafCount = collectLeaves(b);
+    for (int i = 0; i < leafCount; i++) {
+      int leaf = leaves[i];
+      // Inner nodes become outer, so they need to be scanned.
+      if (label[inBlossom[leaf]] == INNER) push(leaf);
+      inBlossom[leaf] = b;
+    }
+
+    // Find the least slack edge from the new blossom to every other outer blossom.
+    int[] bestEdgeTo = new int[2 * n];
+    Arrays.fill(bestEdgeTo, -1);
+    for (int child : children) {
+      if (blossomBestEdges[child] == null) {
+        int childLeaves = collectLeaves(child);
+        for (int i = 0; i < childLeaves; i++) {
+          int leaf = leaves[i];
+          for (int j = offsets[leaf]; j < offsets[leaf + 1]; j++) {
+            considerBestEdge(b, neighbors[j] / 2, bestEdgeTo);
+          }
+        }
+      } else {
+        for (int e : blossomBestEdges[child]) considerBestEdge(b, e, bestEdgeTo);
+      }
+      blossomBestEdges[child] = null;
+      bestEdge[child] = -1;
+    }
+    int bestCount = 0;
+    for (int e : bestEdgeTo) if (e != -1) bestEdgeTo[bestCount++] = e;
+    blossomBestEdges[b] = Arrays.copyOf(bestEdgeTo, bestCount);
+    bestEdge[b] = -1;
+    for (int e : blossomBestEdges[b]) {
+      if (bestEdge[b] == -1 || slack(e) < slack(bestEdge[b])) bestEdge[b] = e;
+    }
+  }
+
+  private void considerBestEdge(int b, int k, int[] bestEdgeTo) {
+    int j = inBlossom[edgeV[k]] == b ? edgeU[k] : edgeV[k];
+    int bj = inBlossom[j];
+    if (bj != b
+        && label[bj] == OUTER
+        && (bestEdgeTo[bj] == -1 || slack(k) < slack(bestEdgeTo[bj]))) {
+      bestEdgeTo[bj] = k;
+    }
+  }
+
+  // Expands blossom b into its children. In the middle of a stage an inner blossom is replaced by
+  // the even length path through it, relabeling its children.
+  private void expandBlossom(int b, boolean endStage) {
+    int[] children = blossomChildren[b], endps = blossomEndpoints[b];
+    for (int s : children) {
+      blossomParent[s] = -1;
+      if (s < n) {
+        inBlossom[s] = s;
+      } else if (endStage && dual[s] == 0) {
+        expandBlossom(s, true);
+      } else {
+        int count = collectLeaves(s);
+        for (int i = 0; i < count; i++) inBlossom[leaves[i]] = s;
+      }
+    }
+
+    if (!endStage && label[b] == INNER) {
+      // Walk from the child through which the blossom was reached to the base, along the even
+      // length side of the cycle, and relabel the children on the way.
+      int entryChild = inBlossom[endpoint[labelEnd[b] ^ 1]];
+      int j = indexOf(children, entryChild), jStep, endpTrick;
+      if ((j & 1) != 0) {
+        j -= children.length;
+        jStep = 1;
+        endpTrick = 0;
+      } else {
+        jStep = -1;
+        endpTrick = 1;
+      }
+      int p = labelEnd[b];
+      while (j != 0) {
+        label[endpoint[p ^ 1]] = FREE;
+        label[endpoint[at(endps, j - endpTrick) ^ endpTrick ^ 1]] = FREE;
+        assignLabel(endpoint[p ^ 1], INNER, p);
+        allowEdge[at(endps, j - endpTrick) / 2] = true;
+        j += jStep;
+        p = at(endps, j - endpTrick) ^ endpTrick;
+        allowEdge[p / 2] = true;
+        j += jStep;
+      }
+      // The base child becomes inner without relabeling its mate.
+      int bv = at(children, j);
+      label[endpoint[p ^ 1]] = label[bv] = INNER;
+      labelEnd[endpoint[p ^ 1]] = labelEnd[bv] = p;
+      bestEdge[bv] = -1;
+
+      // Children on the odd length side lose their labels unless one of their nodes was reached
+      // from outside the blossom.
+      j += jStep;
+      while (at(children, j) != entryChild) {
+        bv = at(children, j);
+        if (label[bv] == OUTER) {
+          j += jStep;
+          continue;
+        }
+        int count = collectLeaves(bv), reached = -1;
+        for (int i = 0; i < count && reached == -1; i++) {
+          if (label[leaves[i]] != FREE) reached = leaves[i];
+        }
+        if (reached != -1) {
+          label[reached] = FREE;
+          label[endpoint[mate[blossomBase[bv]]]] = FREE;
+          assignLabel(reached, INNER, labelEnd[reached]);
+        }
+        j += jStep;
+      }
+    }
+
+    label[b] = labelEnd[b] = -1;
+    blossomChildren[b] = blossomEndpoints[b] = blossomBestEdges[b] = null;
+    blossomBase[b] = -1;
+    bestEdge[b] = -1;
+    unusedBlossoms[unusedCount++] = b;
+  }
+
+  // Swaps matched and unmatched edges on the even length path through blossom b from node v to
+  // the base, which makes v the new base.
+  private void augmentBlossom(int b, int v) {
+    int t = v;
+    while (blossomParent[t] != b) t = blossomParent[t];
+    if (t >= n) augmentBlossom(t, v);
+
+    int[] children = blossomChildren[b], endps = blossomEndpoints[b];
+    int i = indexOf(children, t), j = i, jStep, endpTrick;
+    if ((i & 1) != 0) {
+      j -= children.length;
+      jStep = 1;
+      endpTrick = 0;
+    } else {
+      jStep = -1;
+      endpTrick = 1;
+    }
+    while (j != 0) {
+      j += jStep;
+      t = at(children, j);
+      int p = at(endps, j - endpTrick) ^ endpTrick;
+      if (t >= n) augmentBlossom(t, endpoint[p]);
+      j += jStep;
+      t = at(children, j);
+      if (t >= n) augmentBlossom(t, endpoint[p ^ 1]);
+      mate[endpoint[p]] = p ^ 1;
+      mate[endpoint[p ^ 1]] = p;
+    }
+
+    // Rotate the children so that the child containing v comes first.
+    blossomChildren[b] = rotate(children, i);
+    blossomEndpoints[b] = rotate(endps, i);
+    blossomBase[b] = blossomBase[blossomChildren[b][0]];
+  }
+
+  // Augments the matching along the path through edge k between the roots of two trees.
+  private void augmentMatching(int k) {
+    for (int side = 0; side < 2; side++) {
+      int s = side == 0 ? edgeU[k] : edgeV[k];
+      int p = side == 0 ? 2 * k + 1 : 2 * k;
+      while (true) {
+        int bs = inBlossom[s];
+        if (bs >= n) augmentBlossom(bs, s);
+        mate[s] = p;
+        if (labelEnd[bs] == -1) break;
+        int t = endpoint[labelEnd[bs]];
+        int bt = inBlossom[t];
+        s = endpoint[labelEnd[bt]];
+        int j = endpoint[labelEnd[bt] ^ 1];
+        if (bt >= n) augmentBlossom(bt, j);
+        mate[j] = labelEnd[bt];
+        p = labelEnd[bt] ^ 1;
+      }
+    }
+  }
+
+  // Returns a[j] where negative indexes count from the end.
+  private static int at(int[] a, int j) {
+    return a[j < 0 ? j + a.length : j];
+  }
+
+  private static int indexOf(int[] a, int value) {
+    for (int i = 0; i < a.length; i++) if (a[i] == value) return i;
+    return -1;
+  }
+
+  private static int[] rotate(int[] a, int shift) {
+    int[] rotated = new int[a.length];
+    for (int i = 0; i < a.length; i++) rotated[i] = a[(i + shift) % a.length];
+    return rotated;
+  }
+
+  private static void reverse(int[] a, int length) {
+    for (int i = 0, j = length - 1; i < j; i++, j--) {
+      int tmp = a[i];
+      a[i] = a[j];
+      a[j] = tmp;
+    }
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    // A triangle 0-1-2 and a triangle 3-4-5 joined by the edge 2-3. A perfect matching has to use
+    // the bridge even though it is expensive.
+    BlossomMinimumWeightPerfectMatching mwpm = new BlossomMinimumWeightPerfectMatching(6);
+    mwpm.addEdge(0, 1, 1);
+    mwpm.addEdge(1, 2, 1);
+    mwpm.addEdge(0, 2, 1);
+    mwpm.addEdge(3, 4, 1);
+    mwpm.addEdge(4, 5, 1);
+    mwpm.addEdge(3, 5, 1);
+    mwpm.addEdge(2, 3, 10);
+
+    System.out.println(mwpm.getMinWeightCost()); // 12.0
+    System.out.println(Arrays.toString(mwpm.getMatching())); // [0, 1, 2, 3, 4, 5]
+  }
+}
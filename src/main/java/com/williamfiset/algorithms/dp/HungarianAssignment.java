@@ -0,0 +1,224 @@
+/**
+ * Implementation of the Hungarian (Kuhn-Munkres) algorithm for the assignment problem, in its
+ * shortest augmenting path form as used by Jonker and Volgenant. Given a cost matrix where
+ * cost[i][j] is the cost of assigning row i to column j, it finds the cheapest assignment of every
+ * row to a distinct column (or, if there are more rows than columns, of every column to a distinct
+ * row).
+ *
+ * <p>This is the bipartite special case of the Minimum Weight Perfect Matching problem which the
+ * bitmask DPs in this package solve in exponential time. Here node i (0 <= i < rows) is row i and
+ * node rows + j is column j.
+ *
+ * <p>The matrix is stored row by row in a flat double[] so that scanning a row is cache friendly.
+ * The algorithm starts from row minima with a greedy assignment and then adds the remaining rows
+ * one at a time with Dijkstra-like searches on the reduced costs, maintaining dual potentials.
+ *
+ * <p>Time Complexity: O(n²m) for an n x m matrix with n <= m
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.dp;
+
+import java.util.Arrays;
+
+public class HungarianAssignment implements MwpmInterface {
+
+  private static final double INF = Double.POSITIVE_INFINITY;
+
+  // Inputs
+  private final int rows, cols;
+  private final double[] cost;
+
+  // Internal
+  private boolean solved;
+
+  // Outputs
+  private double minWeightCost;
+  private int[] assignment;
+
+  public HungarianAssignment(double[][] cost) {
+    this(flatten(cost), cost.length, cost.length == 0 ? 0 : cost[0].length);
+  }
+
+  /**
+   * Creates an assignment problem from a flat cost matrix.
+   *
+   * @param cost - The cost matrix stored row by row: the cost of row i and column j is at index i *
+   *     cols + j. Infinite costs mark forbidden pairs.
+   * @param rows - The number of rows.
+   * @param cols - The number of columns.
+   */
+  public HungarianAssignment(double[] cost, int rows, int cols) {
+    if (cost == null) throw new IllegalArgumentException("Input cannot be null");
+    if (rows < 0 || cols < 0 || (long) rows * cols != cost.length)
+      throw new IllegalArgumentException("Matrix size does not match rows * cols");
+    this.rows = rows;
+    this.cols = cols;
+    this.cost = cost;
+  }
+
+  private static double[] flatten(double[][] matrix) {
+    if (matrix == null) throw new IllegalArgumentException("Input cannot be null");
+    int cols = matrix.length == 0 ? 0 : matrix[0].length;
+    double[] flat = new double[matrix.length * cols];
+    for (int i = 0; i < matrix.length; i++) {
+      if (matrix[i].length != cols) throw new IllegalArgumentException("Matrix is not rectangular");
+      System.arraycopy(matrix[i], 0, flat, i * cols, cols);
+    }
+    return flat;
+  }
+
+  public double getMinWeightCost() {
+    solve();
+    return minWeightCost;
+  }
+
+  /**
+   * Get the minimum weight cost matching. The matching is returned as an array where the nodes at
+   * index 2*i and 2*i+1 form a matched pair. Node i < rows is row i and node rows + j is column j.
+   */
+  public int[] getMatching() {
+    solve();
+    int pairs = 0;
+    for (int j : assignment) if (j != -1) pairs++;
+    int[] matching = new int[2 * pairs];
+    for (int i = 0, k = 0; i < rows; i++) {
+      if (assignment[i] == -1) continue;
+      matching[k++] = i;
+      matching[k++] = rows + assignment[i];
+    }
+    return matching;
+  }
+
+  // Returns the column assigned to every row, or -1 for rows left out because there are more rows
+  // than columns.
+  public int[] getAssignment() {
+    solve();
+    return assignment.clone();
+  }
+
+  private void solve() {
+    if (solved) return;
+    solved = true;
+    assignment = new int[rows];
+    Arrays.fill(assignment, -1);
+    if (rows <= cols) {
+      int[] rowOf = assign(cost, rows, cols);
+      for (int j = 0; j < cols; j++) if (rowOf[j] != -1) assignment[rowOf[j]] = j;
+    } else {
+      // Assign the columns to the rows of the transposed matrix instead.
+      double[] transposed = new double[cost.length];
+      for (int i = 0; i < rows; i++) {
+        for (int j = 0; j < cols; j++) transposed[j * rows + i] = cost[i * cols + j];
+      }
+      int[] colOf = assign(transposed, cols, rows);
+      for (int i = 0; i < rows; i++) assignment[i] = colOf[i];
+    }
+    for (int i = 0; i < rows; i++) {
+      if (assignment[i] != -1) minWeightCost += cost[i * cols + assignment[i]];
+    }
+  }
+
+  // Assigns every row of an n x m matrix (n <= m) to a distinct column and returns the row assigned
+  // to every column, or -1 for unassigned columns.
+  private static int[] assign(double[] a, int n, int m) {
+    // Dual potentials: a[i][j] - u[i] - v[j] >= 0 for all pairs, with equality on assigned pairs.
+    double[] u = new double[n], v = new double[m];
+    int[] rowOf = new int[m], colOf = new int[n];
+    Arrays.fill(rowOf, -1);
+    Arrays.fill(colOf, -1);
+
+    // Row reduction and greedy assignment of every row to its cheapest column if that column is
+    // still free.
+    for (int i = 0; i < n; i++) {
+      double best = INF;
+      int arg = -1;
+      for (int j = 0, k = i * m; j < m; j++, k++) {
+        if (a[k] < best) {
+          best = a[k];
+          arg = j;
+        }
+      }
+      if (arg == -1) throw new IllegalStateException("Row " + i + " cannot be assigned");
+      u[i] = best;
+      if (rowOf[arg] == -1) {
+        rowOf[arg] = i;
+        colOf[i] = arg;
+      }
+    }
+
+    // Add the remaining rows one at a time along shortest augmenting paths.
+    double[] dist = new double[m];
+    int[] prev = new int[m], scanned = new int[m];
+    boolean[] done = new boolean[m];
+    for (int root = 0; root < n; root++) {
+      if (colOf[root] != -1) continue;
+      Arrays.fill(dist, INF);
+      Arrays.fill(done, false);
+      int scannedCount = 0;
+
+      // Dijkstra over the columns on reduced costs, starting from the free row 'root'. prev[j] is
+      // the row from which column j was reached.
+      int i = root, sink = -1;
+      double pathLength = 0;
+      while (sink == -1) {
+        double best = INF;
+        int next = -1;
+        for (int j = 0, k = i * m; j < m; j++, k++) {
+          if (done[j]) continue;
+          double d = pathLength + a[k] - u[i] - v[j];
+          if (d < dist[j]) {
+            dist[j] = d;
+            prev[j] = i;
+          }
+          if (dist[j] < best) {
+            best = dist[j];
+            next = j;
+          }
+        }
+        if (next == -1 || best == INF)
+          throw new IllegalStateException("Row " + root + " cannot be assigned");
+        done[next] = true;
+        scanned[scannedCount++] = next;
+        pathLength = best;
+        if (rowOf[next] == -1) sink = next;
+        else i = rowOf[next];
+      }
+
+      // Update the potentials so that the reduced costs stay non negative and the new path is
+      // tight. Rows and columns settled before the sink moved by pathLength - dist[j].
+      u[root] += pathLength;
+      for (int s = 0; s < scannedCount; s++) {
+        int j = scanned[s];
+        if (j == sink) continue;
+        double shift = pathLength - dist[j];
+        v[j] -= shift;
+        u[rowOf[j]] += shift;
+      }
+
+      // Flip the assignment along the augmenting path.
+      for (int j = sink; ; ) {
+        int r = prev[j], previousCol = colOf[r];
+        rowOf[j] = r;
+        colOf[r] = j;
+        if (r == root) break;
+        j = previousCol;
+      }
+    }
+    return rowOf;
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    // Three workers and four jobs, every worker gets a job.
+    double[][] cost = {
+      {9, 2, 7, 8},
+      {6, 4, 3, 7},
+      {5, 8, 1, 8},
+    };
+    HungarianAssignment solver = new HungarianAssignment(cost);
+    System.out.println(solver.getMinWeightCost()); // 9.0
+    System.out.println(Arrays.toString(solver.getAssignment())); // [1, 0, 2]
+  }
+}
@@ -0,0 +1,292 @@
+/**
+ * An incremental 2SAT solver meant for answering many satisfiability queries against the same set
+ * of clauses, where every query only differs by a few temporary unit assumptions.
+ *
+ * <p>The implication graph is stored in primitive arrays (CSR form) and the strongly connected
+ * components are only recomputed when new clauses have been added since the last query. Queries
+ * under assumptions are answered with unit propagation over the implication graph: if the clauses
+ * are satisfiable, a set of assumptions is consistent if and only if propagating them never sets
+ * both a literal and its negation to true. Every propagated literal is recorded on a trail so that
+ * retracting an assumption only undoes the literals it implied.
+ *
+ * <p>Like in {@link TwoSatSolverAdjacencyList}, variable i is represented by the literal 2i and
+ * its negation by the literal 2i + 1, so the negation of any literal p is p ^ 1.
+ *
+ * <p>Time Complexity: O(n + m) to (re)compute the SCCs after adding clauses, O(n + m) per
+ * assumption or forced literal query, where m is the number of clauses.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import java.util.Arrays;
+
+public class IncrementalTwoSatSolver {
+
+  private static final byte UNASSIGNED = 0, TRUE = 1, FALSE = 2;
+
+  private final int n;
+
+  // Implication edges in insertion order, edge i goes from edgeFrom[i] to edgeTo[i].
+  private int edgeCount;
+  private int[] edgeFrom = new int[16], edgeTo = new int[16];
+
+  // CSR form of the implication graph, rebuilt lazily after clauses are added.
+  private boolean dirty = true;
+  private int[] start, adj;
+  private boolean satisfiable;
+
+  // SCC id of every literal, in reverse topological order of the condensation.
+  private int[] scc;
+
+  // Current value of every variable and the trail of literals set to true in assignment order.
+  private final byte[] value;
+  private final int[] trail;
+  private int trailSize;
+
+  // Trail size before each active assumption was made.
+  private int[] assumptionMarks = new int[16];
+  private int assumptionCount;
+
+  public IncrementalTwoSatSolver(int n) {
+    if (n <= 0) throw new IllegalArgumentException("n must be positive.");
+    this.n = n;
+    value = new byte[n];
+    trail = new int[n];
+  }
+
+  // Adds the clause (p or q) as the implications ~p -> q and ~q -> p. Clauses are permanent and
+  // can only be added while no assumptions are active.
+  public void addOrClause(int p, int q) {
+    checkLiteral(p);
+    checkLiteral(q);
+    if (assumptionCount > 0)
+      throw new IllegalStateException("Retract all assumptions before adding clauses.");
+    addEdge(p ^ 1, q);
+    addEdge(q ^ 1, p);
+    dirty = true;
+  }
+
+  // Adds the clause xor(p, q) = (p or q) and (~p or ~q).
+  public void addXorClause(int p, int q) {
+    addOrClause(p, q);
+    addOrClause(p ^ 1, q ^ 1);
+  }
+
+  // Forces literal p to be true in every solution, i.e. the clause (p or p).
+  public void addUnitClause(int p) {
+    addOrClause(p, p);
+  }
+
+  // Returns true if the clauses together with the active assumptions are satisfiable.
+  public boolean isSatisfiable() {
+    rebuild();
+    return satisfiable;
+  }
+
+  // Temporarily assumes literal p is true. Returns false and leaves the solver unchanged if the
+  // assumption contradicts the clauses and the assumptions already made.
+  public boolean assume(int p) {
+    checkLiteral(p);
+    rebuild();
+    if (!satisfiable) return false;
+    int mark = trailSize;
+    if (!propagate(p)) return false;
+    if (assumptionCount == assumptionMarks.length)
+      assumptionMarks = Arrays.copyOf(assumptionMarks, 2 * assumptionCount);
+    assumptionMarks[assumptionCount++] = mark;
+    return true;
+  }
+
+  // Retracts the most recent assumption along with every literal it implied.
+  public void retract() {
+    if (assumptionCount == 0) throw new IllegalStateException("No assumptions to retract.");
+    undo(assumptionMarks[--assumptionCount]);
+  }
+
+  public void retractAll() {
+    while (assumptionCount > 0) retract();
+  }
+
+  // Returns true if the clauses are satisfiable when all the given literals are true. The
+  // assumptions are retracted before returning.
+  public boolean isSatisfiable(int... assumptions) {
+    int before = assumptionCount;
+    boolean result = isSatisfiable();
+    for (int i = 0; result && i < assumptions.length; i++) result = assume(assumptions[i]);
+    while (assumptionCount > before) retract();
+    return result;
+  }
+
+  // Returns true if literal p is true in every solution consistent with the active assumptions.
+  public boolean isForced(int p) {
+    checkLiteral(p);
+    rebuild();
+    if (!satisfiable) return true;
+    if (isTrue(p)) return true;
+    if (isTrue(p ^ 1)) return false;
+    int mark = trailSize;
+    // p is forced exactly when assuming ~p leads to a contradiction.
+    if (!propagate(p ^ 1)) return true;
+    undo(mark);
+    return false;
+  }
+
+  // Returns a satisfying assignment consistent with the active assumptions, or null if there is
+  // none. Unassigned variables are given the value suggested by the SCC topological order first,
+  // which is consistent with the clauses alone and rarely needs to be flipped.
+  public boolean[] getAssignment() {
+    rebuild();
+    if (!satisfiable) return null;
+    int mark = trailSize;
+    for (int i = 0; i < n; i++) {
+      if (value[i] != UNASSIGNED) continue;
+      int preferred = scc[2 * i] < scc[2 * i + 1] ? 2 * i : 2 * i + 1;
+      if (!propagate(preferred)) propagate(preferred ^ 1);
+    }
+    boolean[] assignment = new boolean[n];
+    for (int i = 0; i < n; i++) assignment[i] = value[i] == TRUE;
+    undo(mark);
+    return assignment;
+  }
+
+  // Sets literal p to true and everything it implies. On a contradiction the trail is restored to
+  // where it was before the call and false is returned.
+  private boolean propagate(int p) {
+    if (isTrue(p)) return true;
+    if (isTrue(p ^ 1)) return false;
+    int mark = trailSize;
+    set(p);
+    for (int i = mark; i < trailSize; i++) {
+      int at = trail[i];
+      for (int e = start[at]; e < start[at + 1]; e++) {
+        int q = adj[e];
+        if (isTrue(q)) continue;
+        if (isTrue(q ^ 1)) {
+          undo(mark);
+          return false;
+        }
+        set(q);
+      }
+    }
+    return true;
+  }
+
+  private void set(int p) {
+    value[p >> 1] = (p & 1) == 0 ? TRUE : FALSE;
+    trail[trailSize++] = p;
+  }
+
+  private boolean isTrue(int p) {
+    return value[p >> 1] == ((p & 1) == 0 ? TRUE : FALSE);
+  }
+
+  private void undo(int mark) {
+    while (trailSize > mark) value[trail[--trailSize] >> 1] = UNASSIGNED;
+  }
+
+  private void addEdge(int from, int to) {
+    if (edgeCount == edgeFrom.length) {
+      edgeFrom = Arrays.copyOf(edgeFrom, 2 * edgeCount);
+      edgeTo = Arrays.copyOf(edgeTo, 2 * edgeCount);
+    }
+    edgeFrom[edgeCount] = from;
+    edgeTo[edgeCount++] = to;
+  }
+
+  // Rebuilds the CSR graph and the SCCs if clauses were added since the last query.
+  private void rebuild() {
+    if (!dirty) return;
+    int nodes = 2 * n;
+    start = new int[nodes + 1];
+    for (int e = 0; e < edgeCount; e++) start[edgeFrom[e] + 1]++;
+    for (int i = 0; i < nodes; i++) start[i + 1] += start[i];
+    int[] next = Arrays.copyOf(start, nodes);
+    adj = new int[edgeCount];
+    for (int e = 0; e < edgeCount; e++) adj[next[edgeFrom[e]]++] = edgeTo[e];
+
+    computeSccs();
+    satisfiable = true;
+    for (int i = 0; i < nodes; i += 2) {
+      if (scc[i] == scc[i ^ 1]) {
+        satisfiable = false;
+        break;
+      }
+    }
+    dirty = false;
+  }
+
+  // Iterative version of Tarjan's strongly connected components algorithm.
+  private void computeSccs() {
+    int nodes = 2 * n;
+    scc = new int[nodes];
+    int[] ids = new int[nodes], low = new int[nodes], edgeAt = new int[nodes];
+    int[] stack = new int[nodes], callStack = new int[nodes];
+    boolean[] onStack = new boolean[nodes];
+    Arrays.fill(ids, -1);
+    int id = 0, sccCount = 0, stackSize = 0;
+
+    for (int root = 0; root < nodes; root++) {
+      if (ids[root] != -1) continue;
+      int depth = 0;
+      callStack[depth++] = root;
+      ids[root] = low[root] = id++;
+      edgeAt[root] = start[root];
+      stack[stackSize++] = root;
+      onStack[root] = true;
+
+      while (depth > 0) {
+        int at = callStack[depth - 1];
+        if (edgeAt[at] < start[at + 1]) {
+          int to = adj[edgeAt[at]++];
+          if (ids[to] == -1) {
+            ids[to] = low[to] = id++;
+            edgeAt[to] = start[to];
+            stack[stackSize++] = to;
+            onStack[to] = true;
+            callStack[depth++] = to;
+          } else if (onStack[to]) {
+            low[at] = Math.min(low[at], ids[to]);
+          }
+          continue;
+        }
+        depth--;
+        if (depth > 0) {
+          int parent = callStack[depth - 1];
+          low[parent] = Math.min(low[parent], low[at]);
+        }
+        if (ids[at] == low[at]) {
+          while (true) {
+            int node = stack[--stackSize];
+            onStack[node] = false;
+            scc[node] = sccCount;
+            if (node == at) break;
+          }
+          sccCount++;
+        }
+      }
+    }
+  }
+
+  private void checkLiteral(int p) {
+    if (p < 0 || p >= 2 * n) throw new IllegalArgumentException("Literal out of range: " + p);
+  }
+
+  public static void main(String[] args) {
+    // Variables: 0 = feature A, 1 = feature B, 2 = feature C
+    IncrementalTwoSatSolver solver = new IncrementalTwoSatSolver(3);
+    int a = 0, b = 2, c = 4;
+
+    solver.addOrClause(a ^ 1, b); // A requires B
+    solver.addOrClause(b ^ 1, c ^ 1); // B conflicts with C
+
+    System.out.println(solver.isSatisfiable()); // true
+    System.out.println(solver.isSatisfiable(a, c)); // false, A implies B which excludes C
+
+    solver.assume(a);
+    System.out.println(solver.isForced(b)); // true
+    System.out.println(solver.isForced(c ^ 1)); // true
+    solver.retract();
+    System.out.println(solver.isForced(b)); // false
+  }
+}
@@ -0,0 +1,313 @@
+/**
+ * This file contains an implementation of the Dreyfus-Wagner Steiner tree algorithm (in the form
+ * given by Erickson, Monma and Veinott) for sparse undirected graphs. Unlike {@link SteinerTree},
+ * which first computes all pairs shortest paths with Floyd-Warshall, this implementation relaxes
+ * every subset of terminals with a multi-source Dijkstra so that only O(V * 2^T) memory is needed
+ * and graphs with many thousands of nodes can be handled.
+ *
+ * <p>dp[S][v] is the cost of the cheapest tree connecting the terminals in S and node v. For every
+ * subset S the table is first seeded by merging two complementary subtrees rooted at v, and then
+ * improved by growing a path out of the cheapest roots with Dijkstra. All subsets of the same size
+ * only depend on smaller subsets, so they are evaluated in parallel.
+ *
+ * <p>Edge weights must be non-negative.
+ *
+ * <p>Time Complexity: O(V * 3^T + (E + V) * log(V) * 2^T)
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.IntStream;
+
+public class SteinerTreeAdjacencyList {
+
+  // An undirected edge of the Steiner tree.
+  public static class Edge {
+    public final int from, to;
+    public final double cost;
+
+    public Edge(int from, int to, double cost) {
+      this.from = from;
+      this.to = to;
+      this.cost = cost;
+    }
+
+    @Override
+    public String toString() {
+      return String.format("%d <-> %d (%.2f)", from, to, cost);
+    }
+  }
+
+  private final int n;
+
+  // Edge list, edge i connects nodes edgeFrom[i] and edgeTo[i].
+  private int edgeCount;
+  private int[] edgeFrom = new int[16], edgeTo = new int[16];
+  private double[] edgeCost = new double[16];
+
+  // Compressed adjacency (CSR) built from the edge list when solving. The outgoing arcs of node u
+  // are at indexes [start[u], start[u + 1]).
+  private int[] start, arcTo, arcEdge;
+  private double[] arcCost;
+
+  private double minCost;
+  private List<Edge> treeEdges;
+
+  public SteinerTreeAdjacencyList(int n) {
+    if (n <= 0) throw new IllegalArgumentException("n must be positive.");
+    this.n = n;
+  }
+
+  public void addUndirectedEdge(int u, int v, double cost) {
+    if (u < 0 || u >= n || v < 0 || v >= n) throw new IllegalArgumentException("Invalid node.");
+    if (cost < 0) throw new IllegalArgumentException("Edge costs must be non-negative.");
+    if (edgeCount == edgeFrom.length) {
+      edgeFrom = Arrays.copyOf(edgeFrom, 2 * edgeCount);
+      edgeTo = Arrays.copyOf(edgeTo, 2 * edgeCount);
+      edgeCost = Arrays.copyOf(edgeCost, 2 * edgeCount);
+    }
+    edgeFrom[edgeCount] = u;
+    edgeTo[edgeCount] = v;
+    edgeCost[edgeCount++] = cost;
+  }
+
+  // Returns the edges of the Steiner tree found by the last call to solve().
+  public List<Edge> getTreeEdges() {
+    return treeEdges;
+  }
+
+  /**
+   * Finds the cheapest tree connecting all the terminal nodes.
+   *
+   * @param terminals - The 0-based indices of the terminal nodes
+   * @return the minimum cost required to connect the terminal nodes or positive infinity if they
+   *     are not all connected. The tree itself can be retrieved with {@link #getTreeEdges}.
+   */
+  public double solve(int[] terminals) {
+    for (int terminal : terminals)
+      if (terminal < 0 || terminal >= n) throw new IllegalArgumentException("Invalid terminal.");
+    if (terminals.length > 30 || ((long) n << terminals.length) > Integer.MAX_VALUE)
+      throw new IllegalArgumentException("Too many terminal nodes for a graph of this size.");
+
+    treeEdges = new ArrayList<>();
+    minCost = 0;
+    if (terminals.length <= 1) return minCost;
+
+    buildCsr();
+
+    final int t = terminals.length;
+    final int fullMask = (1 << t) - 1;
+
+    // dp[mask * n + v] and how that value was obtained: 0 for a terminal on its own, a positive
+    // submask if the entry merges two subtrees, or -(edge + 1) if v was reached by an edge.
+    final double[] dp = new double[(fullMask + 1) * n];
+    final int[] how = new int[(fullMask + 1) * n];
+    Arrays.fill(dp, Double.POSITIVE_INFINITY);
+
+    for (int size = 1; size <= t; size++) {
+      final int layer = size;
+      IntStream.rangeClosed(1, fullMask)
+          .filter(mask -> Integer.bitCount(mask) == layer)
+          .parallel()
+          .forEach(
+              mask -> {
+                int offset = mask * n;
+                if (layer == 1) {
+                  int terminal = terminals[Integer.numberOfTrailingZeros(mask)];
+                  dp[offset + terminal] = 0;
+                } else {
+                  merge(dp, how, mask);
+                }
+                dijkstra(dp, how, offset);
+              });
+    }
+
+    minCost = dp[fullMask * n + terminals[0]];
+    if (minCost != Double.POSITIVE_INFINITY) reconstruct(how, fullMask, terminals[0]);
+    return minCost;
+  }
+
+  // Joins two subtrees for complementary subsets at every node. Only submasks containing the
+  // lowest bit of the mask are enumerated since the other half gives the same pairs.
+  private void merge(double[] dp, int[] how, int mask) {
+    int offset = mask * n;
+    int lowBit = mask & -mask;
+    int rest = mask ^ lowBit;
+    for (int sub = (rest - 1) & rest; ; sub = (sub - 1) & rest) {
+      int a = sub | lowBit, b = mask ^ a;
+      int offsetA = a * n, offsetB = b * n;
+      for (int v = 0; v < n; v++) {
+        double cost = dp[offsetA + v] + dp[offsetB + v];
+        if (cost < dp[offset + v]) {
+          dp[offset + v] = cost;
+          how[offset + v] = a;
+        }
+      }
+      if (sub == 0) break;
+    }
+  }
+
+  // Multi-source Dijkstra where every node starts at its current dp value.
+  private void dijkstra(double[] dp, int[] how, int offset) {
+    MinIndexedHeap heap = new MinIndexedHeap(n);
+    for (int v = 0; v < n; v++) {
+      if (dp[offset + v] != Double.POSITIVE_INFINITY) heap.insertOrDecrease(v, dp[offset + v]);
+    }
+    while (!heap.isEmpty()) {
+      int u = heap.pollMin();
+      double du = dp[offset + u];
+      for (int arc = start[u]; arc < start[u + 1]; arc++) {
+        int v = arcTo[arc];
+        double newDist = du + arcCost[arc];
+        if (newDist < dp[offset + v]) {
+          dp[offset + v] = newDist;
+          how[offset + v] = -(arcEdge[arc] + 1);
+          heap.insertOrDecrease(v, newDist);
+        }
+      }
+    }
+  }
+
+  // Walks the decisions stored in the table to collect the edges of the tree. An explicit stack
+  // is used since paths can be as long as the number of nodes in the graph.
+  private void reconstruct(int[] how, int fullMask, int root) {
+    boolean[] used = new boolean[edgeCount];
+    int[] stack = new int[64];
+    int top = 0;
+    stack[top++] = fullMask;
+    stack[top++] = root;
+    while (top > 0) {
+      int v = stack[--top];
+      int mask = stack[--top];
+      int choice = how[mask * n + v];
+      if (top + 4 > stack.length) stack = Arrays.copyOf(stack, 2 * stack.length);
+      if (choice > 0) {
+        stack[top++] = choice;
+        stack[top++] = v;
+        stack[top++] = mask ^ choice;
+        stack[top++] = v;
+      } else if (choice < 0) {
+        int edge = -choice - 1;
+        if (!used[edge]) {
+          used[edge] = true;
+          treeEdges.add(new Edge(edgeFrom[edge], edgeTo[edge], edgeCost[edge]));
+        }
+        stack[top++] = mask;
+        stack[top++] = edgeFrom[edge] == v ? edgeTo[edge] : edgeFrom[edge];
+      }
+    }
+  }
+
+  private void buildCsr() {
+    start = new int[n + 1];
+    for (int e = 0; e < edgeCount; e++) {
+      start[edgeFrom[e] + 1]++;
+      start[edgeTo[e] + 1]++;
+    }
+    for (int i = 0; i < n; i++) start[i + 1] += start[i];
+
+    int[] next = Arrays.copyOf(start, n);
+    arcTo = new int[2 * edgeCount];
+    arcEdge = new int[2 * edgeCount];
+    arcCost = new double[2 * edgeCount];
+    for (int e = 0; e < edgeCount; e++) {
+      int u = edgeFrom[e], v = edgeTo[e];
+      int i = next[u]++, j = next[v]++;
+      arcTo[i] = v;
+      arcTo[j] = u;
+      arcEdge[i] = arcEdge[j] = e;
+      arcCost[i] = arcCost[j] = edgeCost[e];
+    }
+  }
+
+  // A binary min heap over node indexes keyed by a double value supporting decrease key.
+  private static class MinIndexedHeap {
+    private int size;
+    private final int[] heap, pos;
+    private final double[] key;
+
+    MinIndexedHeap(int n) {
+      heap = new int[n];
+      pos = new int[n];
+      key = new double[n];
+      Arrays.fill(pos, -1);
+    }
+
+    boolean isEmpty() {
+      return size == 0;
+    }
+
+    void insertOrDecrease(int v, double value) {
+      if (pos[v] == -1) {
+        heap[size] = v;
+        pos[v] = size++;
+      }
+      key[v] = value;
+      swim(pos[v]);
+    }
+
+    int pollMin() {
+      int min = heap[0];
+      heap[0] = heap[--size];
+      pos[heap[0]] = 0;
+      pos[min] = -2;
+      if (size > 0) sink(0);
+      return min;
+    }
+
+    private void swim(int i) {
+      while (i > 0) {
+        int parent = (i - 1) / 2;
+        if (key[heap[parent]] <= key[heap[i]]) break;
+        swap(i, parent);
+        i = parent;
+      }
+    }
+
+    private void sink(int i) {
+      while (true) {
+        int left = 2 * i + 1, right = left + 1, smallest = i;
+        if (left < size && key[heap[left]] < key[heap[smallest]]) smallest = left;
+        if (right < size && key[heap[right]] < key[heap[smallest]]) smallest = right;
+        if (smallest == i) return;
+        swap(i, smallest);
+        i = smallest;
+      }
+    }
+
+    private void swap(int i, int j) {
+      int tmp = heap[i];
+      heap[i] = heap[j];
+      heap[j] = tmp;
+      pos[heap[i]] = i;
+      pos[heap[j]] = j;
+    }
+  }
+
+  // Examples
+  public static void main(String[] args) {
+
+    /**
+     * Visualization of the graph:
+     *
+     * <p>[0]-3-[1] | | 5 4 | | [2] [3] | \ | 7 8 1 | \ | [4]-2-[5]
+     */
+    SteinerTreeAdjacencyList solver = new SteinerTreeAdjacencyList(6);
+    solver.addUndirectedEdge(0, 1, 3);
+    solver.addUndirectedEdge(0, 2, 5);
+    solver.addUndirectedEdge(1, 3, 4);
+    solver.addUndirectedEdge(2, 4, 7);
+    solver.addUndirectedEdge(2, 5, 8);
+    solver.addUndirectedEdge(3, 5, 1);
+    solver.addUndirectedEdge(4, 5, 2);
+
+    System.out.println(solver.solve(new int[] {0, 4, 5})); // Expected answer: 10.0
+
+    // Prints the edges 0 <-> 1, 1 <-> 3, 3 <-> 5 and 4 <-> 5 in some order
+    System.out.println(solver.getTreeEdges());
+  }
+}
@@ -2,6 +2,12 @@
  * An implementation of the traveling salesman problem in Java using dynamic programming to improve
  * the time complexity from O(n!) to O(n^2 * 2^n).
  *
+ * <p>The memo table is a single flat primitive array indexed by (subset, end node). Since every
+ * partial tour contains the starting node, the starting node's bit is dropped from the subset
+ * which halves the size of the table compared to a naive N x 2^N table. Subsets are enumerated
+ * layer by layer (by the number of bits set) using Gosper's hack, and because all subsets within
+ * a layer only depend on the previous layer, each layer is evaluated in parallel.
+ *
  * <p>Time Complexity: O(n^2 * 2^n) Space Complexity: O(n * 2^n)
  *
  * @author William Fiset, william.alexandre.fiset@gmail.com
@@ -11,15 +17,32 @@ package com.williamfiset.algorithms.graphtheory;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.stream.IntStream;
 
 public class TspDynamicProgrammingIterative {
 
+  // The largest number of nodes for which the flat memo table of size (N-1) * 2^(N-1) can still be
+  // indexed by an int. This limit only comes from the array index range, the heap runs out much
+  // earlier: at N = 27 the table holds 26 * 2^26 doubles, about 14 GB, and every node less halves
+  // that (N = 24 needs about 1.5 GB).
+  private static final int MAX_N = 27;
+
+  // Number of subsets each parallel task processes before another task is scheduled.
+  private static final int CHUNK_SIZE = 1 << 12;
+
   private final int N, start;
   private final double[][] distance;
   private List<Integer> tour = new ArrayList<>();
   private double minTourCost = Double.POSITIVE_INFINITY;
   private boolean ranSolver = false;
 
+  // The number of nodes other than the starting node and the DP table over those nodes.
+  private int M;
+  private double[] memo;
+
+  // Maps the bit positions in a subset back to node indexes in the distance matrix.
+  private int[] nodeAt;
+
   public TspDynamicProgrammingIterative(double[][] distance) {
     this(0, distance);
   }
@@ -30,7 +53,7 @@ public class TspDynamicProgrammingIterative {
     if (N <= 2) throw new IllegalStateException("N <= 2 not yet supported.");
     if (N != distance[0].length) throw new IllegalStateException("Matrix must be square (n x n)");
     if (start < 0 || start >= N) throw new IllegalArgumentException("Invalid start node.");
-    if (N > 32)
+    if (N > MAX_N)
       throw new IllegalArgumentException(
           "Matrix too large! A matrix that size for the DP TSP problem with a time complexity of"
               + "O(n^2*2^n) requires way too much computation for any modern home computer to handle");
@@ -56,38 +79,42 @@ public class TspDynamicProgrammingIterative {
 
     if (ranSolver) return;
 
-    final int END_STATE = (1 << N) - 1;
-    Double[][] memo = new Double[N][1 << N];
+    M = N - 1;
+    nodeAt = new int[M];
+    for (int i = 0, node = 0; node < N; node++) if (node != start) nodeAt[i++] = node;
+
+    final int END_STATE = (1 << M) - 1;
+    memo = new double[M << M];
 
     // Add all outgoing edges from the starting node to memo table.
-    for (int end = 0; end < N; end++) {
-      if (end == start) continue;
-      memo[end][(1 << start) | (1 << end)] = distance[start][end];
+    for (int end = 0; end < M; end++) {
+      memo[index(1 << end, end)] = distance[start][nodeAt[end]];
     }
 
-    for (int r = 3; r <= N; r++) {
-      for (int subset : combinations(r, N)) {
-        if (notIn(start, subset)) continue;
-        for (int next = 0; next < N; next++) {
-          if (next == start || notIn(next, subset)) continue;
-          int subsetWithoutNext = subset ^ (1 << next);
-          double minDist = Double.POSITIVE_INFINITY;
-          for (int end = 0; end < N; end++) {
-            if (end == start || end == next || notIn(end, subset)) continue;
-            double newDistance = memo[end][subsetWithoutNext] + distance[end][next];
-            if (newDistance < minDist) {
-              minDist = newDistance;
+    for (int r = 2; r <= M; r++) {
+      final int layer = r;
+      final long subsets = binomial(M, r);
+      final int chunks = (int) ((subsets + CHUNK_SIZE - 1) / CHUNK_SIZE);
+
+      // Every subset in this layer only reads subsets from the previous layer and writes to its
+      // own disjoint region of the memo table, so the chunks can be processed independently.
+      IntStream stream = IntStream.range(0, chunks);
+      if (chunks > 1) stream = stream.parallel();
+      stream.forEach(
+          chunk -> {
+            long from = (long) chunk * CHUNK_SIZE;
+            long to = Math.min(subsets, from + CHUNK_SIZE);
+            int subset = unrankCombination(from, layer);
+            for (long i = from; i < to; i++) {
+              relax(subset);
+              if (i + 1 < to) subset = nextCombination(subset);
             }
-          }
-          memo[next][subset] = minDist;
-        }
-      }
+          });
     }
 
     // Connect tour back to starting node and minimize cost.
-    for (int i = 0; i < N; i++) {
-      if (i == start) continue;
-      double tourCost = memo[i][END_STATE] + distance[i][start];
+    for (int i = 0; i < M; i++) {
+      double tourCost = memo[index(END_STATE, i)] + distance[nodeAt[i]][start];
       if (tourCost < minTourCost) {
         minTourCost = tourCost;
       }
@@ -102,63 +129,83 @@ public class TspDynamicProgrammingIterative {
 
       int bestIndex = -1;
       double bestDist = Double.POSITIVE_INFINITY;
-      for (int j = 0; j < N; j++) {
-        if (j == start || notIn(j, state)) continue;
-        double newDist = memo[j][state] + distance[j][lastIndex];
+      for (int j = 0; j < M; j++) {
+        if (notIn(j, state)) continue;
+        double newDist = memo[index(state, j)] + distance[nodeAt[j]][lastIndex];
         if (newDist < bestDist) {
           bestIndex = j;
           bestDist = newDist;
         }
       }
 
-      tour.add(bestIndex);
+      tour.add(nodeAt[bestIndex]);
       state = state ^ (1 << bestIndex);
-      lastIndex = bestIndex;
+      lastIndex = nodeAt[bestIndex];
     }
 
     tour.add(start);
     Collections.reverse(tour);
 
+    // The table is only needed during the solve, release it so it can be garbage collected.
+    memo = null;
     ranSolver = true;
   }
 
+  // Computes the best partial tour ending at each node in 'subset'.
+  private void relax(int subset) {
+    for (int next = 0; next < M; next++) {
+      if (notIn(next, subset)) continue;
+      int subsetWithoutNext = subset ^ (1 << next);
+      int base = index(subsetWithoutNext, 0);
+      int nextNode = nodeAt[next];
+      double minDist = Double.POSITIVE_INFINITY;
+      for (int end = 0; end < M; end++) {
+        if (notIn(end, subsetWithoutNext)) continue;
+        double newDistance = memo[base + end] + distance[nodeAt[end]][nextNode];
+        if (newDistance < minDist) {
+          minDist = newDistance;
+        }
+      }
+      memo[index(subset, next)] = minDist;
+    }
+  }
+
+  // The memo table is laid out subset-major so that all the end nodes of one subset are contiguous.
+  private int index(int subset, int end) {
+    return subset * M + end;
+  }
+
   private static boolean notIn(int elem, int subset) {
     return ((1 << elem) & subset) == 0;
   }
 
-  // This method generates all bit sets of size n where r bits
-  // are set to one. The result is returned as a list of integer masks.
-  public static List<Integer> combinations(int r, int n) {
-    List<Integer> subsets = new ArrayList<>();
-    combinations(0, 0, r, n, subsets);
-    return subsets;
+  // Returns the next larger integer with the same number of bits set as 'set' (Gosper's hack).
+  static int nextCombination(int set) {
+    int c = set & -set;
+    int r = set + c;
+    return (((r ^ set) >>> 2) / c) | r;
   }
 
-  // To find all the combinations of size r we need to recurse until we have
-  // selected r elements (aka r = 0), otherwise if r != 0 then we still need to
-  // select
-  // an element which is found after the position of our last selected element
-  private static void combinations(int set, int at, int r, int n, List<Integer> subsets) {
-
-    // Return early if there are more elements left to select than what is
-    // available.
-    int elementsLeftToPick = n - at;
-    if (elementsLeftToPick < r) return;
-
-    // We selected 'r' elements so we found a valid subset!
-    if (r == 0) {
-      subsets.add(set);
-    } else {
-      for (int i = at; i < n; i++) {
-        // Try including this element
-        set ^= (1 << i);
-
-        combinations(set, i + 1, r - 1, n, subsets);
-
-        // Backtrack and try the instance where we did not include this element
-        set ^= (1 << i);
+  // Returns the k-th (0-based) smallest integer with exactly r bits set. This lets each parallel
+  // task jump directly to the start of its chunk without enumerating the preceding subsets.
+  private static int unrankCombination(long k, int r) {
+    int set = 0;
+    for (int bit = 30; r > 0 && bit >= 0; bit--) {
+      long below = binomial(bit, r);
+      if (k >= below) {
+        set |= 1 << bit;
+        k -= below;
+        r--;
       }
     }
+    return set;
+  }
+
+  private static long binomial(int n, int r) {
+    if (r < 0 || r > n) return 0;
+    long result = 1;
+    for (int i = 1; i <= r; i++) result = result * (n - r + i) / i;
+    return result;
   }
 
   public static void main(String[] args) {
@@ -0,0 +1,466 @@
+/**
+ * A heuristic solver for the symmetric traveling salesman problem based on iterated local search.
+ * Unlike the dynamic programming solvers which are limited to a few dozen nodes, this solver is
+ * meant for instances with hundreds to thousands of nodes where an optimal tour is out of reach
+ * but a tour within a few percent of optimal is good enough.
+ *
+ * <p>Each search starts from a nearest neighbor tour and improves it with 2-opt and Or-opt moves.
+ * Only the k nearest neighbors of a node are considered as candidates for new edges, and a
+ * "don't look bit" (here, membership in a work queue) skips nodes whose surroundings did not
+ * change since they were last examined. Once a local optimum is reached the tour is perturbed with
+ * a double-bridge kick (the move used by chained Lin-Kernighan) and locally re-optimized around the
+ * kicked edges. Several independent searches run in parallel until the time budget expires and
+ * the best tour found is returned.
+ *
+ * <p>The distance function must be symmetric, i.e. distance[i][j] == distance[j][i].
+ *
+ * <p>Time Complexity: O(n^2 * k) to build the neighbor lists, the search itself runs until the
+ * time budget expires.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory;
+
+import java.util.Random;
+import java.util.stream.IntStream;
+
+public class TspLocalSearch {
+
+  private static final double EPS = 1e-9;
+  private static final int DEFAULT_NEIGHBORS = 10;
+
+  // The longest segment Or-opt tries to move and the longest segment swapped by a kick.
+  private static final int MAX_OR_OPT_SEGMENT = 3;
+  private static final int MAX_KICK_SEGMENT = 50;
+
+  private final int n, k;
+
+  // Either a distance matrix or the coordinates of the nodes in the plane.
+  private final double[][] distance;
+  private final double[] x, y;
+
+  // Flat neighbor lists, the k nearest neighbors of node i sorted by increasing distance are
+  // stored at indexes [i * k, (i + 1) * k).
+  private final int[] neighbors;
+
+  private int[] bestTour;
+  private double bestTourCost = Double.POSITIVE_INFINITY;
+
+  public TspLocalSearch(double[][] distance) {
+    this(distance, DEFAULT_NEIGHBORS);
+  }
+
+  public TspLocalSearch(double[][] distance, int neighborCount) {
+    if (distance == null || distance.length == 0)
+      throw new IllegalArgumentException("Distance matrix cannot be empty.");
+    if (distance.length != distance[0].length)
+      throw new IllegalStateException("Matrix must be square (n x n)");
+    if (neighborCount <= 0) throw new IllegalArgumentException("neighborCount must be positive.");
+    this.n = distance.length;
+    this.k = Math.min(neighborCount, n - 1);
+    this.distance = distance;
+    this.x = this.y = null;
+    this.neighbors = buildNeighborLists();
+  }
+
+  // Creates a solver for points in the plane using the euclidean distance between them. This
+  // avoids storing a n x n distance matrix for large instances.
+  public TspLocalSearch(double[] x, double[] y) {
+    this(x, y, DEFAULT_NEIGHBORS);
+  }
+
+  public TspLocalSearch(double[] x, double[] y, int neighborCount) {
+    if (x == null || y == null || x.length == 0)
+      throw new IllegalArgumentException("Coordinates cannot be empty.");
+    if (x.length != y.length)
+      throw new IllegalArgumentException("x and y must have the same length.");
+    if (neighborCount <= 0) throw new IllegalArgumentException("neighborCount must be positive.");
+    this.n = x.length;
+    this.k = Math.min(neighborCount, n - 1);
+    this.distance = null;
+    this.x = x;
+    this.y = y;
+    this.neighbors = buildNeighborLists();
+  }
+
+  // Searches for a good tour for at most 'timeBudgetMillis' milliseconds using one independent
+  // search per available processor and returns the best tour found.
+  public int[] solve(long timeBudgetMillis) {
+    return solve(timeBudgetMillis, Runtime.getRuntime().availableProcessors(), System.nanoTime());
+  }
+
+  // Runs 'starts' independent searches in parallel, each seeded from 'seed', for at most
+  // 'timeBudgetMillis' milliseconds. Returns the best tour found as a permutation of the nodes.
+  public int[] solve(long timeBudgetMillis, int starts, long seed) {
+    long deadline = System.nanoTime() + timeBudgetMillis * 1_000_000L;
+    return search(deadline, Integer.MAX_VALUE, starts, seed);
+  }
+
+  // Runs 'starts' independent searches in parallel, each seeded from 'seed', where every search
+  // stops after 'kicks' perturbations. Without a time budget the result only depends on the seed
+  // and the number of starts, not on the speed of the machine.
+  public int[] solveWithKicks(int kicks, int starts, long seed) {
+    if (kicks < 0) throw new IllegalArgumentException("kicks cannot be negative.");
+    return search(Long.MAX_VALUE, kicks, starts, seed);
+  }
+
+  private int[] search(long deadline, int kicks, int starts, long seed) {
+    if (starts <= 0) throw new IllegalArgumentException("starts must be positive.");
+    IntStream.range(0, starts)
+        .parallel()
+        .forEach(
+            i -> {
+              Search search = new Search(new Random(seed + i));
+              search.run(deadline, kicks);
+              offer(search.best);
+            });
+    return getTour();
+  }
+
+  // Returns the best tour found so far as a permutation of the nodes, or null if no search ran.
+  public synchronized int[] getTour() {
+    return bestTour == null ? null : bestTour.clone();
+  }
+
+  // Returns the cost of the best tour found so far (including the edge back to the first node).
+  public synchronized double getTourCost() {
+    return bestTourCost;
+  }
+
+  private synchronized void offer(int[] tour) {
+    double cost = computeTourCost(tour);
+    if (cost < bestTourCost) {
+      bestTourCost = cost;
+      bestTour = tour.clone();
+    }
+  }
+
+  public double computeTourCost(int[] tour) {
+    double cost = 0;
+    for (int i = 1; i < tour.length; i++) cost += dist(tour[i - 1], tour[i]);
+    return cost + dist(tour[tour.length - 1], tour[0]);
+  }
+
+  private double dist(int i, int j) {
+    if (distance != null) return distance[i][j];
+    double dx = x[i] - x[j], dy = y[i] - y[j];
+    return Math.sqrt(dx * dx + dy * dy);
+  }
+
+  // Finds the k nearest neighbors of every node by keeping a small sorted buffer per node.
+  private int[] buildNeighborLists() {
+    final int[] lists = new int[n * k];
+    IntStream.range(0, n)
+        .parallel()
+        .forEach(
+            i -> {
+              double[] best = new double[k];
+              int count = 0, offset = i * k;
+              for (int j = 0; j < n; j++) {
+                if (i == j) continue;
+                double d = dist(i, j);
+                if (count == k && d >= best[k - 1]) continue;
+                int at = count < k ? count++ : k - 1;
+                while (at > 0 && best[at - 1] > d) {
+                  best[at] = best[at - 1];
+                  lists[offset + at] = lists[offset + at - 1];
+                  at--;
+                }
+                best[at] = d;
+                lists[offset + at] = j;
+              }
+            });
+    return lists;
+  }
+
+  // A single iterated local search. The tour is stored as an array of nodes together with the
+  // position of every node in that array.
+  private class Search {
+
+    final Random random;
+    final int[] tour = new int[n], pos = new int[n];
+    int[] best;
+    double cost, bestCost;
+
+    // Circular queue of nodes whose "don't look bit" is off.
+    final int[] queue = new int[n];
+    final boolean[] queued = new boolean[n];
+    int head, size;
+
+    Search(Random random) {
+      this.random = random;
+    }
+
+    void run(long deadline, int kicks) {
+      buildNearestNeighborTour(random.nextInt(n));
+      cost = computeTourCost(tour);
+      best = tour.clone();
+      bestCost = cost;
+      if (n <= 3) return;
+
+      int[] order = new int[n];
+      for (int i = 0; i < n; i++) order[i] = i;
+      shuffle(order);
+      for (int node : order) push(node);
+
+      localSearch(deadline);
+      saveIfBetter();
+
+      // Double-bridge kicks need four non-empty segments.
+      if (n < 8) return;
+
+      for (int kick = 0; kick < kicks && System.nanoTime() < deadline; kick++) {
+        kick();
+        localSearch(deadline);
+        if (cost < bestCost - EPS) {
+          saveIfBetter();
+        } else if (cost > bestCost + EPS) {
+          // Revert to the best tour, equal cost tours are kept to drift across plateaus.
+          System.arraycopy(best, 0, tour, 0, n);
+          for (int i = 0; i < n; i++) pos[tour[i]] = i;
+          cost = bestCost;
+        }
+      }
+    }
+
+    void saveIfBetter() {
+      if (cost <= bestCost) {
+        System.arraycopy(tour, 0, best, 0, n);
+        bestCost = cost;
+      }
+    }
+
+    void buildNearestNeighborTour(int start) {
+      boolean[] visited = new boolean[n];
+      int at = start;
+      for (int i = 0; i < n; i++) {
+        tour[i] = at;
+        pos[at] = i;
+        visited[at] = true;
+        if (i == n - 1) break;
+
+        int nextNode = -1;
+        for (int j = 0; j < k && nextNode == -1; j++) {
+          int c = neighbors[at * k + j];
+          if (!visited[c]) nextNode = c;
+        }
+        // All candidates were used up, fall back to scanning every node.
+        if (nextNode == -1) {
+          double bestDist = Double.POSITIVE_INFINITY;
+          for (int c = 0; c < n; c++) {
+            if (visited[c]) continue;
+            double d = dist(at, c);
+            if (nextNode == -1 || d < bestDist) {
+              bestDist = d;
+              nextNode = c;
+            }
+          }
+        }
+        at = nextNode;
+      }
+    }
+
+    void localSearch(long deadline) {
+      int iterations = 0;
+      while (size > 0) {
+        if ((++iterations & 255) == 0 && System.nanoTime() >= deadline) return;
+        int a = pop();
+        if (improveWith2Opt(a) || improveWithOrOpt(a)) push(a);
+      }
+    }
+
+    // Tries to replace an edge touching 'a' and another edge with two shorter edges.
+    boolean improveWith2Opt(int a) {
+      for (int dir = 0; dir < 2; dir++) {
+        int b = dir == 0 ? next(a) : prev(a);
+        double dab = dist(a, b);
+        for (int j = 0; j < k; j++) {
+          int c = neighbors[a * k + j];
+          double dac = dist(a, c);
+          // Neighbors are sorted so no later candidate can produce a gain either.
+          if (dac >= dab - EPS) break;
+          int d = dir == 0 ? next(c) : prev(c);
+          if (c == b || d == a) continue;
+          double gain = dab + dist(c, d) - dac - dist(b, d);
+          if (gain > EPS) {
+            make2OptMove(a, b, c, d);
+            cost -= gain;
+            push(b);
+            push(c);
+            push(d);
+            return true;
+          }
+        }
+      }
+      return false;
+    }
+
+    // Tries to move a segment of up to three nodes starting at 's1' between two other nodes,
+    // possibly reversing the segment.
+    boolean improveWithOrOpt(int s1) {
+      for (int len = 1; len <= MAX_OR_OPT_SEGMENT && len + 3 <= n; len++) {
+        int s2 = tour[(pos[s1] + len - 1) % n];
+        int p = prev(s1), nx = next(s2);
+        double removeGain = dist(p, s1) + dist(s2, nx) - dist(p, nx);
+        if (removeGain <= EPS) continue;
+
+        for (int end = 0; end < 2; end++) {
+          int s = end == 0 ? s1 : s2;
+          for (int j = 0; j < k; j++) {
+            int c = neighbors[s * k + j];
+            if (dist(s, c) >= removeGain) break;
+            if (inSegment(c, s1, len)) continue;
+
+            // Try inserting the segment on either side of 'c'.
+            for (int side = 0; side < 2; side++) {
+              int u = side == 0 ? c : prev(c);
+              int w = side == 0 ? next(c) : c;
+              if (w == p || inSegment(u, s1, len) || inSegment(w, s1, len)) continue;
+              double duw = dist(u, w);
+              double forward = dist(u, s1) + dist(s2, w) - duw;
+              double reversed = dist(u, s2) + dist(s1, w) - duw;
+              double gain = removeGain - Math.min(forward, reversed);
+              if (gain > EPS) {
+                moveSegment(p, s1, s2, nx, u, w, reversed < forward);
+                cost -= gain;
+                push(p);
+                push(nx);
+                push(u);
+                push(w);
+                push(s2);
+                return true;
+              }
+            }
+          }
+        }
+      }
+      return false;
+    }
+
+    // Moves the segment s1..s2 (currently between p and nx) between u and w, where w follows u.
+    // The move is carried out as a sequence of 2-opt moves.
+    void moveSegment(int p, int s1, int s2, int nx, int u, int w, boolean reversed) {
+      // p s1..s2 nx..u w  ->  p u..nx s2..s1 w
+      make2OptMove(p, s1, u, w);
+      // p u..nx s2..s1 w  ->  p nx..u s2..s1 w
+      if (u != nx) make2OptMove(p, u, nx, s2);
+      // p nx..u s2..s1 w  ->  p nx..u s1..s2 w
+      if (!reversed && s1 != s2) make2OptMove(u, s2, s1, w);
+    }
+
+    // Replaces the tour edges (a, b) and (c, d) with (a, c) and (b, d). Either b and d both
+    // follow a and c in the tour or they both precede them.
+    void make2OptMove(int a, int b, int c, int d) {
+      if (next(a) == b) reversePath(b, c);
+      else reversePath(a, d);
+    }
+
+    // Reverses the tour path going forward from node 'from' to node 'to'. If that path is longer
+    // than half the tour the complementary path is reversed instead, which yields the same cycle.
+    void reversePath(int from, int to) {
+      int i = pos[from], j = pos[to];
+      int len = ((j - i + n) % n) + 1;
+      if (2 * len > n) {
+        int t = (j + 1) % n;
+        j = (i - 1 + n) % n;
+        i = t;
+        len = n - len;
+      }
+      for (int s = 0; s < len / 2; s++) {
+        int ni = tour[i], nj = tour[j];
+        tour[i] = nj;
+        pos[nj] = i;
+        tour[j] = ni;
+        pos[ni] = j;
+        i = (i + 1) % n;
+        j = (j - 1 + n) % n;
+      }
+    }
+
+    // Perturbs the tour with a double-bridge move A B C D -> A C B D where B and C are short
+    // adjacent segments, so that only a small region of the tour needs to be re-optimized.
+    void kick() {
+      int maxLen = Math.min(MAX_KICK_SEGMENT, (n - 2) / 2);
+      int lenB = 1 + random.nextInt(maxLen), lenC = 1 + random.nextInt(maxLen);
+      int i = random.nextInt(n), start = (i + 1) % n;
+
+      int a = tour[i];
+      int b1 = tour[start], b2 = tour[(start + lenB - 1) % n];
+      int c1 = tour[(start + lenB) % n], c2 = tour[(start + lenB + lenC - 1) % n];
+      int d = tour[(start + lenB + lenC) % n];
+
+      cost +=
+          dist(a, c1) + dist(c2, b1) + dist(b2, d) - dist(a, b1) - dist(b2, c1) - dist(c2, d);
+
+      int[] segment = new int[lenB + lenC];
+      for (int s = 0; s < lenC; s++) segment[s] = tour[(start + lenB + s) % n];
+      for (int s = 0; s < lenB; s++) segment[lenC + s] = tour[(start + s) % n];
+      for (int s = 0; s < segment.length; s++) {
+        int at = (start + s) % n;
+        tour[at] = segment[s];
+        pos[segment[s]] = at;
+      }
+
+      push(a);
+      push(b1);
+      push(b2);
+      push(c1);
+      push(c2);
+      push(d);
+    }
+
+    boolean inSegment(int node, int s1, int len) {
+      return ((pos[node] - pos[s1] + n) % n) < len;
+    }
+
+    int next(int node) {
+      int i = pos[node] + 1;
+      return tour[i == n ? 0 : i];
+    }
+
+    int prev(int node) {
+      int i = pos[node] - 1;
+      return tour[i < 0 ? n - 1 : i];
+    }
+
+    void push(int node) {
+      if (queued[node]) return;
+      queued[node] = true;
+      queue[(head + size++) % n] = node;
+    }
+
+    int pop() {
+      int node = queue[head];
+      head = (head + 1) % n;
+      size--;
+      queued[node] = false;
+      return node;
+    }
+
+    void shuffle(int[] ar) {
+      for (int i = ar.length - 1; i > 0; i--) {
+        int j = random.nextInt(i + 1);
+        int tmp = ar[i];
+        ar[i] = ar[j];
+        ar[j] = tmp;
+      }
+    }
+  }
+
+  public static void main(String[] args) {
+    // Place 1000 random points in the unit square.
+    int n = 1000;
+    Random random = new Random(0);
+    double[] x = new double[n], y = new double[n];
+    for (int i = 0; i < n; i++) {
+      x[i] = random.nextDouble();
+      y[i] = random.nextDouble();
+    }
+
+    TspLocalSearch solver = new TspLocalSearch(x, y);
+    int[] tour = solver.solve(1000);
+
+    // For random uniform points the optimal tour length is about 0.7124 * sqrt(n * area) ~ 22.5
+    System.out.printf("Tour of %d nodes with cost %.3f%n", tour.length, solver.getTourCost());
+  }
+}
@@ -0,0 +1,94 @@
+/*
+ * Compares building a CompactTree from an edge list against building TreeNode objects with
+ * RootingTree.rootTree from the same edges as an adjacency list. The trees are random with
+ * parent[v] chosen uniformly among the nodes before v.
+ *
+ * Results (median of 5 runs, time per node and retained heap per node):
+ *
+ * n=100000     CompactTree:  355.8 ns   28.0 bytes   RootingTree:  617.9 ns  195.8 bytes
+ * n=1000000    CompactTree:  193.2 ns   28.0 bytes   RootingTree: 1351.8 ns  196.0 bytes
+ * n=10000000   CompactTree:  425.2 ns   28.0 bytes
+ *
+ * Both are dominated by cache misses on random trees. CompactTree keeps exactly 7 ints per node,
+ * so 10^8 nodes fit in under 3 GB, while the TreeNode objects and their adjacency list need about
+ * 7 times as much.
+ *
+ * The heap numbers include the adjacency list RootingTree needs as input, since that is what a
+ * caller has to keep around to use it.
+ *
+ * RootingTree recurses once per level, run with a large stack (e.g. -Xss64m).
+ */
+
+package com.williamfiset.algorithms.graphtheory.analysis;
+
+import com.williamfiset.algorithms.graphtheory.treealgorithms.CompactTree;
+import com.williamfiset.algorithms.graphtheory.treealgorithms.RootingTree;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+public class CompactTreeAnalysis {
+
+  private static final int RUNS = 5;
+
+  public static void main(String[] args) {
+    for (int n : new int[] {100_000, 1_000_000, 10_000_000}) {
+      Random random = new Random(n);
+      int[] from = new int[n - 1], to = new int[n - 1];
+      for (int v = 1; v < n; v++) {
+        from[v - 1] = random.nextInt(v);
+        to[v - 1] = v;
+      }
+
+      double compactTime = median(() -> new CompactTree(n, from, to, 0)) / n;
+      double compactBytes = retained(() -> new CompactTree(n, from, to, 0)) / n;
+      System.out.printf("n=%-10d CompactTree: %6.1f ns %6.1f bytes", n, compactTime, compactBytes);
+
+      // The object graph does not fit comfortably at the largest size.
+      if (n <= 1_000_000) {
+        double rootingTime = median(() -> rootingTree(n, from, to)) / n;
+        double rootingBytes = retained(() -> rootingTree(n, from, to)) / n;
+        System.out.printf("   RootingTree: %6.1f ns %6.1f bytes", rootingTime, rootingBytes);
+      }
+      System.out.println();
+    }
+  }
+
+  static Object[] rootingTree(int n, int[] from, int[] to) {
+    List<List<Integer>> graph = new ArrayList<>(n);
+    for (int v = 0; v < n; v++) graph.add(new ArrayList<>());
+    for (int i = 0; i < n - 1; i++) {
+      graph.get(from[i]).add(to[i]);
+      graph.get(to[i]).add(from[i]);
+    }
+    return new Object[] {graph, RootingTree.rootTree(graph, 0)};
+  }
+
+  static double median(Supplier<Object> task) {
+    long[] times = new long[RUNS];
+    for (int run = 0; run < RUNS; run++) {
+      long start = System.nanoTime();
+      task.get();
+      times[run] = System.nanoTime() - start;
+    }
+    Arrays.sort(times);
+    return times[RUNS / 2];
+  }
+
+  // Returns the number of heap bytes still reachable from the result of the task.
+  static double retained(Supplier<Object> task) {
+    long before = usedHeap();
+    Object result = task.get();
+    long after = usedHeap();
+    if (result == null) throw new IllegalStateException();
+    return after - before;
+  }
+
+  static long usedHeap() {
+    Runtime runtime = Runtime.getRuntime();
+    for (int i = 0; i < 3; i++) System.gc();
+    return runtime.totalMemory() - runtime.freeMemory();
+  }
+}
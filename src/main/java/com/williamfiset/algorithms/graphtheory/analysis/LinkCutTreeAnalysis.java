@@ -0,0 +1,159 @@
+/*
+ * Compares LinkCutTree against recomputing the rooted tree with RootingTree after every change on
+ * a dynamic tree. Every step moves a random subtree under a random node outside of it (a cut and a
+ * link) and then asks for the sum of the values on the path between two random nodes.
+ *
+ * The baseline keeps the edges as an adjacency list, roots the tree with RootingTree.rootTree for
+ * every query and walks the parent pointers of the resulting TreeNodes.
+ *
+ * Results (median of 5 runs, microseconds per step):
+ *
+ * n=1000       LinkCutTree:     3.93   RootingTree:     92.09
+ * n=10000      LinkCutTree:     4.91   RootingTree:   1201.48
+ * n=100000     LinkCutTree:     7.85   RootingTree:  59319.67
+ *
+ * The link-cut tree stays within a small factor of log n per step while the baseline is linear in
+ * the size of the tree (and allocates a TreeNode per node on every query).
+ *
+ * RootingTree recurses once per level, run with a large stack (e.g. -Xss64m).
+ */
+
+package com.williamfiset.algorithms.graphtheory.analysis;
+
+import com.williamfiset.algorithms.graphtheory.treealgorithms.LinkCutTree;
+import com.williamfiset.algorithms.graphtheory.treealgorithms.RootingTree;
+import com.williamfiset.algorithms.graphtheory.treealgorithms.RootingTree.TreeNode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+public class LinkCutTreeAnalysis {
+
+  private static final int RUNS = 5;
+
+  // A random workload: step i moves node move[i] under node newParent[i] and then queries the path
+  // between queryU[i] and queryV[i]. The moves are valid for the tree given by 'parent'.
+  static class Workload {
+    final int n;
+    final int[] parent;
+    final long[] values;
+    final int[] move, newParent, queryU, queryV;
+
+    Workload(int n, int steps, long seed) {
+      this.n = n;
+      Random random = new Random(seed);
+      values = new long[n];
+      for (int v = 0; v < n; v++) values[v] = random.nextInt(1000);
+      parent = new int[n];
+      parent[0] = -1;
+      for (int v = 1; v < n; v++) parent[v] = random.nextInt(v);
+
+      move = new int[steps];
+      newParent = new int[steps];
+      queryU = new int[steps];
+      queryV = new int[steps];
+      int[] current = parent.clone();
+      for (int i = 0; i < steps; i++) {
+        int v, p;
+        do {
+          v = 1 + random.nextInt(n - 1);
+          p = random.nextInt(n);
+        } while (isAncestor(current, v, p));
+        current[v] = p;
+        move[i] = v;
+        newParent[i] = p;
+        queryU[i] = random.nextInt(n);
+        queryV[i] = random.nextInt(n);
+      }
+    }
+
+    static boolean isAncestor(int[] parent, int a, int v) {
+      for (; v != -1; v = parent[v]) if (v == a) return true;
+      return false;
+    }
+  }
+
+  public static void main(String[] args) {
+    for (int n : new int[] {1000, 10_000, 100_000}) {
+      // The baseline is linear per step, give it fewer steps on large trees.
+      Workload fast = new Workload(n, 100_000, n);
+      Workload slow = new Workload(n, Math.max(20, 2_000_000 / n), n);
+      long[] expected = runLinkCutTree(slow);
+      if (!Arrays.equals(expected, runRootingTree(slow)))
+        throw new IllegalStateException("Results differ");
+
+      double lct = median(() -> runLinkCutTree(fast)) / fast.move.length / 1e3;
+      double rooting = median(() -> runRootingTree(slow)) / slow.move.length / 1e3;
+      System.out.printf("n=%-10d LinkCutTree: %8.2f   RootingTree: %9.2f\n", n, lct, rooting);
+    }
+  }
+
+  static double median(Runnable task) {
+    long[] times = new long[RUNS];
+    for (int run = 0; run < RUNS; run++) {
+      long start = System.nanoTime();
+      task.run();
+      times[run] = System.nanoTime() - start;
+    }
+    Arrays.sort(times);
+    return times[RUNS / 2];
+  }
+
+  static long[] runLinkCutTree(Workload w) {
+    LinkCutTree forest = new LinkCutTree(w.values);
+    for (int v = 0; v < w.n; v++) if (w.parent[v] != -1) forest.link(v, w.parent[v]);
+    long[] answers = new long[w.move.length];
+    for (int i = 0; i < w.move.length; i++) {
+      forest.cut(w.move[i]);
+      forest.link(w.move[i], w.newParent[i]);
+      answers[i] = forest.pathSum(w.queryU[i], w.queryV[i]);
+    }
+    return answers;
+  }
+
+  static long[] runRootingTree(Workload w) {
+    int[] parent = w.parent.clone();
+    long[] answers = new long[w.move.length];
+    for (int i = 0; i < w.move.length; i++) {
+      parent[w.move[i]] = w.newParent[i];
+
+      // Rebuild the tree from its edges and root it.
+      List<List<Integer>> graph = new ArrayList<>(w.n);
+      for (int v = 0; v < w.n; v++) graph.add(new ArrayList<>());
+      for (int v = 1; v < w.n; v++) {
+        graph.get(v).add(parent[v]);
+        graph.get(parent[v]).add(v);
+      }
+      TreeNode root = RootingTree.rootTree(graph, 0);
+
+      // Index the nodes and their depths, then walk up from both query nodes.
+      TreeNode[] node = new TreeNode[w.n];
+      int[] depth = new int[w.n];
+      List<TreeNode> layer = new ArrayList<>();
+      layer.add(root);
+      for (int d = 0; !layer.isEmpty(); d++) {
+        List<TreeNode> next = new ArrayList<>();
+        for (TreeNode x : layer) {
+          node[x.id()] = x;
+          depth[x.id()] = d;
+          next.addAll(x.children());
+        }
+        layer = next;
+      }
+      TreeNode a = node[w.queryU[i]], b = node[w.queryV[i]];
+      long sum = 0;
+      while (a != b) {
+        if (depth[a.id()] >= depth[b.id()]) {
+          sum += w.values[a.id()];
+          a = a.parent();
+        } else {
+          sum += w.values[b.id()];
+          b = b.parent();
+        }
+      }
+      answers[i] = sum + w.values[a.id()];
+    }
+    return answers;
+  }
+}
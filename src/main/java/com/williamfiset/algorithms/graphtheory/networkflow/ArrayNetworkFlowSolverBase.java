@@ -0,0 +1,257 @@
+/**
+ * Base class for max flow solvers which store the residual graph in flat primitive arrays instead
+ * of {@link NetworkFlowSolverBase.Edge} objects. Every call to {@link #addEdge(int, int, long)}
+ * creates a pair of arcs: the forward arc gets an even index e and its residual arc is e ^ 1, so
+ * finding the reverse of an arc is a single xor rather than a pointer dereference.
+ *
+ * <p>Before solving, the arcs are sorted by their tail into compressed sparse row (CSR) form: the
+ * indexes of the arcs leaving node u are adj[offsets[u]] through adj[offsets[u + 1] - 1], in the
+ * order the edges were added.
+ *
+ * <p>Solvers extending this class implement {@link #computeMaxFlow()} instead of {@link #solve()}.
+ * Callers can still inspect the flow through {@link #getGraph()}, which materializes the familiar
+ * Edge view from the arrays the first time it is called.
+ *
+ * <p>Unlike the Edge based solvers, the network may be changed after it has been solved with
+ * {@link #setCapacity} and {@link #addEdge}. The next query then starts from the current flow
+ * rather than from zero, so re-solving after a few changes only costs a few augmenting paths.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import java.util.Arrays;
+import java.util.List;
+
+public abstract class ArrayNetworkFlowSolverBase extends NetworkFlowSolverBase {
+
+  // Arc e goes from node to[e ^ 1] to node to[e] and has flow[e] units of flow out of cap[e]. The
+  // residual arc of a forward arc has capacity 0 and carries the negated flow.
+  protected int arcCount;
+  protected int[] to = new int[16];
+  protected long[] cap = new long[16], flow = new long[16];
+
+  // cost[e] is the cost of arc e, null until an edge with a non-zero cost is added. The solvers
+  // ignore costs, they are only carried over to the Edge view.
+  private long[] cost;
+
+  // CSR adjacency of arc indexes, built by buildAdjacency().
+  protected int[] offsets, adj;
+
+  private boolean edgeViewCreated;
+
+  /**
+   * Creates an instance of a flow network solver. Use the {@link #addEdge} method to add edges to
+   * the graph.
+   *
+   * @param n - The number of nodes in the graph including source and sink nodes.
+   * @param s - The index of the source node, 0 <= s < n
+   * @param t - The index of the sink node, 0 <= t < n, t != s
+   */
+  public ArrayNetworkFlowSolverBase(int n, int s, int t) {
+    super(n, s, t);
+  }
+
+  /**
+   * Adds a directed edge (and residual edge) to the flow graph.
+   *
+   * @param from - The index of the node the directed edge starts at.
+   * @param to - The index of the node the directed edge ends at.
+   * @param capacity - The capacity of the edge.
+   */
+  @Override
+  public void addEdge(int from, int to, long capacity) {
+    if (capacity < 0) throw new IllegalArgumentException("Capacity < 0");
+    if (arcCount + 2 > this.to.length) {
+      int newLength = 2 * this.to.length;
+      this.to = Arrays.copyOf(this.to, newLength);
+      cap = Arrays.copyOf(cap, newLength);
+      flow = Arrays.copyOf(flow, newLength);
+      if (cost != null) cost = Arrays.copyOf(cost, newLength);
+    }
+    this.to[arcCount] = to;
+    cap[arcCount++] = capacity;
+    this.to[arcCount] = from;
+    cap[arcCount++] = 0;
+    offsets = adj = null;
+    invalidate();
+  }
+
+  // Array based solvers only compute a max flow, the cost is stored with the edge but does not
+  // affect the flow.
+  @Override
+  public void addEdge(int from, int to, long capacity, long cost) {
+    addEdge(from, to, capacity);
+    if (cost == 0) return;
+    if (this.cost == null) this.cost = new long[this.to.length];
+    this.cost[arcCount - 2] = cost;
+    this.cost[arcCount - 1] = -cost;
+  }
+
+  // Returns the number of edges added so far. Edges are numbered 0, 1, 2, ... in the order they
+  // were added with addEdge.
+  public int edgeCount() {
+    return arcCount / 2;
+  }
+
+  public long getCapacity(int edge) {
+    return cap[arcIndex(edge)];
+  }
+
+  // Returns the flow on an edge in the current solution.
+  public long getFlow(int edge) {
+    getMaxFlow();
+    return flow[arcIndex(edge)];
+  }
+
+  /**
+   * Raises or lowers the capacity of an edge. The current flow is kept: if the edge now carries
+   * more flow than its new capacity, the surplus is rerouted around the edge where possible and
+   * otherwise cancelled along paths back to the source and from the sink. The next query augments
+   * from the repaired flow.
+   *
+   * @param edge - The index of the edge, edges are numbered in the order they were added.
+   * @param capacity - The new capacity of the edge.
+   */
+  public void setCapacity(int edge, long capacity) {
+    if (capacity < 0) throw new IllegalArgumentException("Capacity < 0");
+    int e = arcIndex(edge);
+    cap[e] = capacity;
+    if (flow[e] > capacity) {
+      if (offsets == null) buildAdjacency();
+      long surplus = flow[e] - capacity;
+      augment(e, -surplus);
+      int u = tail(e), v = to[e];
+      if (u != v) repair(u, v, surplus);
+      maxFlow = 0;
+      for (int i = offsets[s]; i < offsets[s + 1]; i++) maxFlow += flow[adj[i]];
+    }
+    invalidate();
+  }
+
+  // Restores flow conservation after 'surplus' units were removed from an arc u -> v, which left
+  // u with too much incoming flow and v with too little.
+  private void repair(int u, int v, long surplus) {
+    long remaining = surplus - pushPaths(u, v, surplus);
+    if (remaining == 0) return;
+    long excess = remaining, deficit = remaining;
+    if (u == s || u == t) excess = 0;
+    if (v == s || v == t) deficit = 0;
+    excess -= pushPaths(u, s, excess);
+    excess -= pushPaths(u, t, excess);
+    deficit -= pushPaths(t, v, deficit);
+    deficit -= pushPaths(s, v, deficit);
+    if (excess != 0 || deficit != 0) throw new IllegalStateException("Unable to repair flow");
+  }
+
+  // Sends up to 'limit' units of flow from node a to node b along shortest augmenting paths and
+  // returns the amount sent.
+  private long pushPaths(int a, int b, long limit) {
+    int[] prev = new int[n];
+    int[] queue = new int[n];
+    long sent = 0;
+    while (sent < limit) {
+      markAllNodesAsUnvisited();
+      visit(a);
+      int head = 0, tail = 0;
+      queue[tail++] = a;
+      while (head < tail && !visited(b)) {
+        int node = queue[head++];
+        for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+          int e = adj[i];
+          if (remainingCapacity(e) > 0 && !visited(to[e])) {
+            visit(to[e]);
+            prev[to[e]] = e;
+            queue[tail++] = to[e];
+          }
+        }
+      }
+      if (!visited(b)) break;
+      long bottleNeck = limit - sent;
+      for (int node = b; node != a; node = tail(prev[node]))
+        bottleNeck = Math.min(bottleNeck, remainingCapacity(prev[node]));
+      for (int node = b; node != a; node = tail(prev[node])) augment(prev[node], bottleNeck);
+      sent += bottleNeck;
+    }
+    return sent;
+  }
+
+  private int arcIndex(int edge) {
+    if (edge < 0 || 2 * edge >= arcCount)
+      throw new IndexOutOfBoundsException("No edge with index " + edge);
+    return 2 * edge;
+  }
+
+  // Makes the next query re-solve from the current flow and rebuild the Edge view.
+  private void invalidate() {
+    invalidateSolution();
+    if (edgeViewCreated) {
+      edgeViewCreated = false;
+      for (List<Edge> edges : graph) edges.clear();
+    }
+  }
+
+  // Returns the node arc e starts at.
+  protected final int tail(int e) {
+    return to[e ^ 1];
+  }
+
+  protected final long remainingCapacity(int e) {
+    return cap[e] - flow[e];
+  }
+
+  protected final void augment(int e, long bottleNeck) {
+    flow[e] += bottleNeck;
+    flow[e ^ 1] -= bottleNeck;
+  }
+
+  // Sorts the arc indexes by tail into CSR form with a counting sort, keeping insertion order.
+  protected void buildAdjacency() {
+    offsets = new int[n + 1];
+    adj = new int[arcCount];
+    for (int e = 0; e < arcCount; e++) offsets[tail(e) + 1]++;
+    for (int u = 0; u < n; u++) offsets[u + 1] += offsets[u];
+    int[] next = Arrays.copyOf(offsets, n);
+    for (int e = 0; e < arcCount; e++) adj[next[tail(e)]++] = e;
+  }
+
+  @Override
+  public final void solve() {
+    if (offsets == null) buildAdjacency();
+    Arrays.fill(minCut, false);
+    computeMaxFlow();
+  }
+
+  // Method to implement which computes the max flow and min cut on the arc arrays. The arrays may
+  // already hold a valid flow of value maxFlow, which should be augmented rather than reset.
+  protected abstract void computeMaxFlow();
+
+  /**
+   * Returns the graph after the solver has been executed as lists of {@link Edge} objects. The
+   * edges are created from the arc arrays on the first call, so later changes to the edges are not
+   * seen by the solver. Changing the network creates a new view on the next call.
+   */
+  @Override
+  public List<Edge>[] getGraph() {
+    super.getGraph();
+    if (!edgeViewCreated) {
+      edgeViewCreated = true;
+      Edge[] edges = new Edge[arcCount];
+      for (int e = 0; e < arcCount; e += 2) {
+        long c = cost == null ? 0 : cost[e];
+        Edge e1 = new Edge(tail(e), to[e], cap[e], c);
+        Edge e2 = new Edge(to[e], tail(e), cap[e + 1], -c);
+        e1.flow = flow[e];
+        e2.flow = flow[e + 1];
+        e1.residual = e2;
+        e2.residual = e1;
+        edges[e] = e1;
+        edges[e + 1] = e2;
+      }
+      for (int u = 0; u < n; u++) {
+        for (int i = offsets[u]; i < offsets[u + 1]; i++) graph[u].add(edges[adj[i]]);
+      }
+    }
+    return graph;
+  }
+}
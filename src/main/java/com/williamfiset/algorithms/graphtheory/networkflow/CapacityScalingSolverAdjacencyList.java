@@ -11,15 +11,16 @@ package com.williamfiset.algorithms.graphtheory.networkflow;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
 
-import java.util.List;
-
-public class CapacityScalingSolverAdjacencyList extends NetworkFlowSolverBase {
+public class CapacityScalingSolverAdjacencyList extends ArrayNetworkFlowSolverBase {
 
   private long delta;
 
+  // Metrics of the current scaling phase, null unless a listener is set.
+  private PhaseMetrics metrics;
+
   /**
-   * Creates an instance of a flow network solver. Use the {@link #addEdge(int, int, int)} method to
-   * add edges to the graph.
+   * Creates an instance of a flow network solver. Use the {@link #addEdge(int, int, long)} method
+   * to add edges to the graph.
    *
    * @param n - The number of nodes in the graph including source and sink nodes.
    * @param s - The index of the source node, 0 <= s < n
@@ -29,36 +30,32 @@ public class CapacityScalingSolverAdjacencyList extends NetworkFlowSolverBase {
     super(n, s, t);
   }
 
-  /**
-   * Adds a directed edge (and residual edge) to the flow graph.
-   *
-   * @param from - The index of the node the directed edge starts at.
-   * @param to - The index of the node the directed edge end at.
-   * @param capacity - The capacity of the edge.
-   */
-  @Override
-  public void addEdge(int from, int to, long capacity) {
-    super.addEdge(from, to, capacity);
-    delta = max(delta, capacity);
-  }
-
   // Performs the Ford-Fulkerson method applying a depth first search as
   // a means of finding an augmenting path.
   @Override
-  public void solve() {
+  protected void computeMaxFlow() {
     // Start delta at the largest power of 2 <= the largest capacity.
     // Equivalent of: delta = (long) pow(2, (int)floor(log(delta)/log(2)))
+    delta = 0;
+    for (int e = 0; e < arcCount; e += 2) delta = max(delta, cap[e]);
     delta = Long.highestOneBit(delta);
 
     // Repeatedly find augmenting paths from source to sink using only edges
     // with a remaining capacity >= delta. Half delta every time we become unable
     // to find an augmenting path from source to sink until the graph is saturated.
     for (long f = 0; delta > 0; delta /= 2) {
+      metrics = beginPhase();
+      long paths = -1;
       do {
         markAllNodesAsUnvisited();
         f = dfs(s, INF);
         maxFlow += f;
+        paths++;
       } while (f != 0);
+      if (metrics != null) {
+        metrics.augmentingPaths = paths;
+        endPhase(metrics);
+      }
     }
 
     // Find min cut.
@@ -69,22 +66,24 @@ public class CapacityScalingSolverAdjacencyList extends NetworkFlowSolverBase {
     // At sink node, return augmented path flow.
     if (node == t) return flow;
 
-    List<Edge> edges = graph[node];
     visit(node);
 
-    for (Edge edge : edges) {
-      long cap = edge.remainingCapacity();
-      if (cap >= delta && !visited(edge.to)) {
+    for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+      int e = adj[i];
+      long cap = remainingCapacity(e);
+      if (cap >= delta && !visited(to[e])) {
 
-        long bottleNeck = dfs(edge.to, min(flow, cap));
+        long bottleNeck = dfs(to[e], min(flow, cap));
 
         // Augment flow with bottle neck value
         if (bottleNeck > 0) {
-          edge.augment(bottleNeck);
+          augment(e, bottleNeck);
+          if (metrics != null) metrics.edgeScans += i - offsets[node] + 1;
           return bottleNeck;
         }
       }
     }
+    if (metrics != null) metrics.edgeScans += offsets[node + 1] - offsets[node];
     return 0;
   }
 
@@ -0,0 +1,189 @@
+/**
+ * Implementation of Goldberg and Tarjan's cost scaling push-relabel algorithm for min cost flow.
+ * The algorithm works with ε-optimal flows: flows for which node potentials exist such that no
+ * residual edge has a reduced cost below -ε. Starting with ε as large as the largest cost, every
+ * refine step divides ε by a constant factor and turns an ε-optimal flow into an ε/α-optimal flow
+ * by saturating all edges of negative reduced cost and then pushing the resulting excesses along
+ * admissible edges (residual edges of negative reduced cost), relabeling nodes when they have no
+ * admissible edges left.
+ *
+ * <p>Costs are multiplied by n + 1 internally, so once ε reaches 1 the flow is optimal. The number
+ * of refine steps is logarithmic in the largest cost and, like network simplex, the running time
+ * does not depend on the size of the supplies.
+ *
+ * <p>Time Complexity: O(V²E log(VC)), where C is the largest edge cost
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.max;
+import static java.lang.Math.min;
+
+import java.util.Arrays;
+
+public class CostScalingMinCostFlow extends MinCostFlowSolverBase {
+
+  // The factor ε is divided by after every refine step.
+  private static final int ALPHA = 16;
+
+  // Residual graph with paired arcs: arc 2i is edge i and arc 2i + 1 its reverse.
+  private int[] arcTo, offsets, adj;
+  private long[] residual, arcCost;
+
+  private long[] excess, potential;
+  private int[] current, queue;
+
+  /**
+   * Creates a min cost max flow solver. Use the {@link #addEdge} method to add edges to the graph.
+   *
+   * @param n - The number of nodes in the graph including source and sink nodes.
+   * @param s - The index of the source node, 0 <= s < n
+   * @param t - The index of the sink node, 0 <= t < n, t != s
+   */
+  public CostScalingMinCostFlow(int n, int s, int t) {
+    super(n, s, t);
+  }
+
+  /**
+   * Creates a min cost flow solver for a network with node supplies and demands.
+   *
+   * @param n - The number of nodes in the graph.
+   */
+  public CostScalingMinCostFlow(int n) {
+    super(n);
+  }
+
+  @Override
+  protected void computeMinCostFlow(long[] b) {
+    // Refine only terminates if the supplies can be routed, so check that first.
+    if (!isFeasible(b)) throw new IllegalStateException("No feasible flow exists");
+    init();
+    excess = b.clone();
+    potential = new long[n];
+    current = new int[n];
+    queue = new int[n];
+
+    long epsilon = 1;
+    for (long c : arcCost) epsilon = max(epsilon, abs(c));
+    do {
+      epsilon = max(1, epsilon / ALPHA);
+      refine(epsilon);
+    } while (epsilon > 1);
+
+    for (int i = 0; i < edgeCount; i++) flow[i] = residual[2 * i + 1];
+  }
+
+  private void init() {
+    int arcCount = 2 * edgeCount;
+    arcTo = new int[arcCount];
+    residual = new long[arcCount];
+    arcCost = new long[arcCount];
+    offsets = new int[n + 1];
+    adj = new int[arcCount];
+    for (int i = 0; i < edgeCount; i++) {
+      arcTo[2 * i] = to[i];
+      arcTo[2 * i + 1] = from[i];
+      residual[2 * i] = cap[i];
+      arcCost[2 * i] = cost[i] * (n + 1);
+      arcCost[2 * i + 1] = -arcCost[2 * i];
+    }
+    for (int e = 0; e < arcCount; e++) offsets[arcTo[e ^ 1] + 1]++;
+    for (int u = 0; u < n; u++) offsets[u + 1] += offsets[u];
+    int[] next = Arrays.copyOf(offsets, n);
+    for (int e = 0; e < arcCount; e++) adj[next[arcTo[e ^ 1]]++] = e;
+  }
+
+  private long reducedCost(int u, int e) {
+    return arcCost[e] + potential[u] - potential[arcTo[e]];
+  }
+
+  // Turns an (α ε)-optimal pseudo flow into an ε-optimal flow.
+  private void refine(long epsilon) {
+    // Saturate every residual arc with a negative reduced cost, the flow is then 0-optimal but
+    // nodes may have excesses and deficits.
+    for (int u = 0; u < n; u++) {
+      for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+        int e = adj[i];
+        long r = residual[e];
+        if (r > 0 && reducedCost(u, e) < 0) {
+          push(u, e, r);
+        }
+      }
+    }
+
+    // Discharge the active nodes in FIFO order.
+    int head = 0, size = 0;
+    boolean[] active = new boolean[n];
+    for (int u = 0; u < n; u++) {
+      current[u] = offsets[u];
+      if (excess[u] > 0) {
+        active[u] = true;
+        queue[(head + size++) % n] = u;
+      }
+    }
+    while (size > 0) {
+      int u = queue[head];
+      head = (head + 1) % n;
+      size--;
+      active[u] = false;
+      while (excess[u] > 0) {
+        if (current[u] == offsets[u + 1]) {
+          relabel(u, epsilon);
+          continue;
+        }
+        int e = adj[current[u]];
+        if (residual[e] > 0 && reducedCost(u, e) < 0) {
+          int v = arcTo[e];
+          push(u, e, min(excess[u], residual[e]));
+          if (excess[v] > 0 && !active[v]) {
+            active[v] = true;
+            queue[(head + size++) % n] = v;
+          }
+        } else {
+          current[u]++;
+        }
+      }
+    }
+  }
+
+  private void push(int u, int e, long amount) {
+    residual[e] -= amount;
+    residual[e ^ 1] += amount;
+    excess[u] -= amount;
+    excess[arcTo[e]] += amount;
+  }
+
+  // Lowers the potential of u as far as possible while keeping its residual arcs ε-optimal, which
+  // makes at least one of them admissible.
+  private void relabel(int u, long epsilon) {
+    long best = Long.MIN_VALUE;
+    for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+      int e = adj[i];
+      if (residual[e] > 0) best = max(best, potential[arcTo[e]] - arcCost[e]);
+    }
+    potential[u] = best - epsilon;
+    current[u] = offsets[u];
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    // Two warehouses supplying three stores.
+    CostScalingMinCostFlow solver = new CostScalingMinCostFlow(5);
+    solver.setSupply(0, 300);
+    solver.setSupply(1, 200);
+    solver.setSupply(2, -150);
+    solver.setSupply(3, -250);
+    solver.setSupply(4, -100);
+    solver.addEdge(0, 2, 1000, 4);
+    solver.addEdge(0, 3, 1000, 6);
+    solver.addEdge(0, 4, 1000, 9);
+    solver.addEdge(1, 2, 1000, 5);
+    solver.addEdge(1, 3, 1000, 3);
+    solver.addEdge(1, 4, 1000, 8);
+
+    System.out.println(solver.getMinCost()); // 2400
+  }
+}
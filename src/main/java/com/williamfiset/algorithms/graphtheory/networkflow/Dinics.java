@@ -14,13 +14,12 @@ package com.williamfiset.algorithms.graphtheory.networkflow;
 
 import static java.lang.Math.min;
 
-import java.util.ArrayDeque;
 import java.util.Arrays;
-import java.util.Deque;
 
-public class Dinics extends NetworkFlowSolverBase {
+public class Dinics extends ArrayNetworkFlowSolverBase {
 
-  private int[] level;
+  private int[] level, queue;
+  private int queueSize;
 
   /**
    * Creates an instance of a flow network solver. Use the {@link #addEdge} method to add edges to
@@ -33,21 +32,41 @@ public class Dinics extends NetworkFlowSolverBase {
   public Dinics(int n, int s, int t) {
     super(n, s, t);
     level = new int[n];
+    queue = new int[n];
   }
 
   @Override
-  public void solve() {
-    // next[i] indicates the next unused edge index in the adjacency list for node
+  protected void computeMaxFlow() {
+    // next[i] indicates the next unused arc position in the adjacency of node
     // i. This is part
     // of the Shimon Even and Alon Itai optimization of pruning deads ends as part
     // of the DFS phase.
     int[] next = new int[n];
 
-    while (bfs()) {
-      Arrays.fill(next, 0);
-      // Find max flow by adding all augmenting path flows.
-      for (long f = dfs(s, next, INF); f != 0; f = dfs(s, next, INF)) {
-        maxFlow += f;
+    for (boolean reachable = true; reachable; ) {
+      PhaseMetrics metrics = beginPhase();
+      reachable = bfs();
+      long paths = 0;
+      if (reachable) {
+        System.arraycopy(offsets, 0, next, 0, n);
+        // Find max flow by adding all augmenting path flows.
+        for (long f = dfs(s, next, INF); f != 0; f = dfs(s, next, INF)) {
+          maxFlow += f;
+          paths++;
+        }
+      }
+      if (metrics != null) {
+        // The BFS scans every arc of the nodes it reaches. The DFSs scan every arc they move past
+        // plus the level[t] arcs of every augmenting path.
+        metrics.augmentingPaths = paths;
+        for (int i = 0; i < queueSize; i++) {
+          metrics.edgeScans += offsets[queue[i] + 1] - offsets[queue[i]];
+        }
+        if (reachable) {
+          for (int i = 0; i < n; i++) metrics.edgeScans += next[i] - offsets[i];
+          metrics.edgeScans += paths * level[t];
+        }
+        endPhase(metrics);
       }
     }
 
@@ -59,33 +78,34 @@ public class Dinics extends NetworkFlowSolverBase {
   private boolean bfs() {
     Arrays.fill(level, -1);
     level[s] = 0;
-    Deque<Integer> q = new ArrayDeque<>(n);
-    q.offer(s);
-    while (!q.isEmpty()) {
-      int node = q.poll();
-      for (Edge edge : graph[node]) {
-        long cap = edge.remainingCapacity();
-        if (cap > 0 && level[edge.to] == -1) {
-          level[edge.to] = level[node] + 1;
-          q.offer(edge.to);
+    int head = 0, tail = 0;
+    queue[tail++] = s;
+    while (head < tail) {
+      int node = queue[head++];
+      for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+        int e = adj[i];
+        if (remainingCapacity(e) > 0 && level[to[e]] == -1) {
+          level[to[e]] = level[node] + 1;
+          queue[tail++] = to[e];
         }
       }
     }
+    queueSize = tail;
     return level[t] != -1;
   }
 
   private long dfs(int at, int[] next, long flow) {
     if (at == t) return flow;
-    final int numEdges = graph[at].size();
+    final int end = offsets[at + 1];
 
-    for (; next[at] < numEdges; next[at]++) {
-      Edge edge = graph[at].get(next[at]);
-      long cap = edge.remainingCapacity();
-      if (cap > 0 && level[edge.to] == level[at] + 1) {
+    for (; next[at] < end; next[at]++) {
+      int e = adj[next[at]];
+      long cap = remainingCapacity(e);
+      if (cap > 0 && level[to[e]] == level[at] + 1) {
 
-        long bottleNeck = dfs(edge.to, next, min(flow, cap));
+        long bottleNeck = dfs(to[e], next, min(flow, cap));
         if (bottleNeck > 0) {
-          edge.augment(bottleNeck);
+          augment(e, bottleNeck);
           return bottleNeck;
         }
       }
@@ -11,14 +11,11 @@ package com.williamfiset.algorithms.graphtheory.networkflow;
 
 import static java.lang.Math.min;
 
-import java.util.ArrayDeque;
-import java.util.Queue;
-
-public class EdmondsKarpAdjacencyList extends NetworkFlowSolverBase {
+public class EdmondsKarpAdjacencyList extends ArrayNetworkFlowSolverBase {
 
   /**
-   * Creates an instance of a flow network solver. Use the {@link #addEdge(int, int, int)} method to
-   * add edges to the graph.
+   * Creates an instance of a flow network solver. Use the {@link #addEdge(int, int, long)} method
+   * to add edges to the graph.
    *
    * @param n - The number of nodes in the graph including source and sink nodes.
    * @param s - The index of the source node, 0 <= s < n
@@ -30,51 +27,68 @@ public class EdmondsKarpAdjacencyList extends NetworkFlowSolverBase {
 
   // Run Edmonds-Karp and compute the max flow from the source to the sink node.
   @Override
-  public void solve() {
+  protected void computeMaxFlow() {
+    int[] prev = new int[n];
+    int[] queue = new int[n];
     long flow;
     do {
+      PhaseMetrics metrics = beginPhase();
       markAllNodesAsUnvisited();
-      flow = bfs();
+      flow = bfs(prev, queue, metrics);
       maxFlow += flow;
+      if (metrics != null) {
+        metrics.augmentingPaths = flow != 0 ? 1 : 0;
+        endPhase(metrics);
+      }
     } while (flow != 0);
 
     for (int i = 0; i < n; i++) if (visited(i)) minCut[i] = true;
   }
 
-  private long bfs() {
-    Edge[] prev = new Edge[n];
-
-    // The queue can be optimized to use a faster queue
-    Queue<Integer> q = new ArrayDeque<>(n);
+  // prev[i] is the arc used to reach node i in the BFS. Counts the scanned arcs in 'metrics' unless
+  // it is null.
+  private long bfs(int[] prev, int[] queue, PhaseMetrics metrics) {
+    int head = 0, tail = 0;
     visit(s);
-    q.offer(s);
+    queue[tail++] = s;
 
     // Perform BFS from source to sink
-    while (!q.isEmpty()) {
-      int node = q.poll();
-      if (node == t) break;
-
-      for (Edge edge : graph[node]) {
-        long cap = edge.remainingCapacity();
-        if (cap > 0 && !visited(edge.to)) {
-          visit(edge.to);
-          prev[edge.to] = edge;
-          q.offer(edge.to);
+    boolean reachedSink = false;
+    while (head < tail) {
+      int node = queue[head++];
+      if (node == t) {
+        reachedSink = true;
+        break;
+      }
+
+      for (int i = offsets[node]; i < offsets[node + 1]; i++) {
+        int e = adj[i];
+        if (remainingCapacity(e) > 0 && !visited(to[e])) {
+          visit(to[e]);
+          prev[to[e]] = e;
+          queue[tail++] = to[e];
         }
       }
     }
 
+    if (metrics != null) {
+      for (int i = 0; i < head; i++) {
+        int node = queue[i];
+        if (node != t) metrics.edgeScans += offsets[node + 1] - offsets[node];
+      }
+    }
+
     // Sink not reachable!
-    if (prev[t] == null) return 0;
+    if (!reachedSink) return 0;
 
     long bottleNeck = Long.MAX_VALUE;
 
     // Find augmented path and bottle neck
-    for (Edge edge = prev[t]; edge != null; edge = prev[edge.from])
-      bottleNeck = min(bottleNeck, edge.remainingCapacity());
+    for (int node = t; node != s; node = tail(prev[node]))
+      bottleNeck = min(bottleNeck, remainingCapacity(prev[node]));
 
     // Retrace augmented path and update flow values.
-    for (Edge edge = prev[t]; edge != null; edge = prev[edge.from]) edge.augment(bottleNeck);
+    for (int node = t; node != s; node = tail(prev[node])) augment(prev[node], bottleNeck);
 
     // Return bottleneck flow
     return bottleNeck;
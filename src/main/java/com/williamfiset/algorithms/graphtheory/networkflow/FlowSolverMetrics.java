@@ -0,0 +1,89 @@
+/**
+ * A {@link NetworkFlowSolverBase.SolverListener} which records the metrics of every phase of a
+ * solver and sums them up. Attach one to a solver to see where the time goes, to compare solvers
+ * on the same network or to spot inputs which need an unusual number of phases.
+ *
+ * <pre>{@code
+ * FlowSolverMetrics metrics = new FlowSolverMetrics();
+ * Dinics solver = new Dinics(n, s, t);
+ * solver.setListener(metrics);
+ * ...
+ * solver.getMaxFlow();
+ * System.out.println(metrics);
+ * }</pre>
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import com.williamfiset.algorithms.graphtheory.networkflow.NetworkFlowSolverBase.PhaseMetrics;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+public class FlowSolverMetrics implements NetworkFlowSolverBase.SolverListener {
+
+  private final List<PhaseMetrics> phases = new ArrayList<>();
+  private long augmentingPaths, edgeScans, pushes, relabels, nanos, maxPhaseNanos;
+
+  @Override
+  public void phaseFinished(PhaseMetrics metrics) {
+    phases.add(metrics);
+    augmentingPaths += metrics.augmentingPaths;
+    edgeScans += metrics.edgeScans;
+    pushes += metrics.pushes;
+    relabels += metrics.relabels;
+    nanos += metrics.nanos;
+    maxPhaseNanos = Math.max(maxPhaseNanos, metrics.nanos);
+  }
+
+  // Returns the metrics of every phase in the order the phases ran.
+  public List<PhaseMetrics> getPhases() {
+    return Collections.unmodifiableList(phases);
+  }
+
+  public int getPhaseCount() {
+    return phases.size();
+  }
+
+  public long getAugmentingPaths() {
+    return augmentingPaths;
+  }
+
+  public long getEdgeScans() {
+    return edgeScans;
+  }
+
+  public long getPushes() {
+    return pushes;
+  }
+
+  public long getRelabels() {
+    return relabels;
+  }
+
+  // Returns the total time spent in phases, in nanoseconds.
+  public long getNanos() {
+    return nanos;
+  }
+
+  // Returns the time of the slowest phase, in nanoseconds.
+  public long getMaxPhaseNanos() {
+    return maxPhaseNanos;
+  }
+
+  // Forgets all recorded phases.
+  public void clear() {
+    phases.clear();
+    augmentingPaths = edgeScans = pushes = relabels = nanos = maxPhaseNanos = 0;
+  }
+
+  @Override
+  public String toString() {
+    return String.format(
+        "phases = %d | augmenting paths = %d | edge scans = %d | pushes = %d | relabels = %d"
+            + " | total %.3f ms | slowest phase %.3f ms",
+        phases.size(), augmentingPaths, edgeScans, pushes, relabels, nanos / 1e6,
+        maxPhaseNanos / 1e6);
+  }
+}
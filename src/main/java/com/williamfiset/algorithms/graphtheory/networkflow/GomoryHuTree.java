@@ -0,0 +1,206 @@
+/**
+ * Builds a Gomory-Hu tree of an undirected network using Gusfield's algorithm. The tree has the
+ * property that the min cut between any two nodes u and v of the network equals the smallest edge
+ * weight on the path between u and v in the tree, so after n - 1 max flow computations the min cut
+ * of every pair of nodes can be answered with a path minimum query on the tree.
+ *
+ * <p>Gusfield's variant never contracts nodes: the i-th step runs one max flow between node i and
+ * its current tree parent on the original network and then moves the later nodes on i's side of
+ * the cut under i. The max flows are computed with any {@link NetworkFlowSolverBase} implementation
+ * ({@link Dinics} by default), each on its own fresh solver.
+ *
+ * <p>Optionally the max flows are run in parallel. Since step i depends on the parents assigned by
+ * earlier steps, a batch of steps is computed speculatively with the current parents and then
+ * committed in order, recomputing the few steps whose parent changed in the meantime. The result is
+ * identical to the sequential construction.
+ *
+ * <p>Path minimum queries use binary lifting and take O(log n).
+ *
+ * <p>Time Complexity: (n - 1) max flow computations to build, O(log n) per query
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import static java.lang.Math.min;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+public class GomoryHuTree {
+
+  // Creates the max flow solver used for a single s-t min cut.
+  public interface SolverFactory {
+    NetworkFlowSolverBase create(int n, int s, int t);
+  }
+
+  private final int n;
+  private final SolverFactory factory;
+  private boolean parallel;
+
+  private int edgeCount;
+  private int[] from = new int[16], to = new int[16];
+  private long[] capacity = new long[16];
+
+  // parent[i] is the parent of node i in the tree rooted at node 0 and weight[i] the min cut
+  // between i and parent[i]. Gusfield's algorithm always gives parent[i] < i.
+  private int[] parent;
+  private long[] weight;
+
+  // Binary lifting tables: up[k][i] is the 2^k-th ancestor of i and low[k][i] the smallest weight
+  // on the way there.
+  private int[] depth;
+  private int[][] up;
+  private long[][] low;
+
+  private boolean built;
+
+  public GomoryHuTree(int n) {
+    this(n, Dinics::new);
+  }
+
+  public GomoryHuTree(int n, SolverFactory factory) {
+    if (n <= 0) throw new IllegalArgumentException("n <= 0");
+    if (factory == null) throw new IllegalArgumentException("factory cannot be null");
+    this.n = n;
+    this.factory = factory;
+  }
+
+  // Runs the max flow computations in parallel on separate solvers when building the tree.
+  public void setParallel(boolean parallel) {
+    this.parallel = parallel;
+  }
+
+  // Adds an undirected edge with the given capacity between nodes u and v.
+  public void addUndirectedEdge(int u, int v, long cap) {
+    if (built) throw new IllegalStateException("Cannot add edges after the tree has been built");
+    if (u < 0 || u >= n || v < 0 || v >= n) throw new IllegalArgumentException("Invalid node");
+    if (cap < 0) throw new IllegalArgumentException("Capacity < 0");
+    if (edgeCount == from.length) {
+      from = Arrays.copyOf(from, 2 * edgeCount);
+      to = Arrays.copyOf(to, 2 * edgeCount);
+      capacity = Arrays.copyOf(capacity, 2 * edgeCount);
+    }
+    from[edgeCount] = u;
+    to[edgeCount] = v;
+    capacity[edgeCount++] = cap;
+  }
+
+  // Returns the value of the min cut (equivalently the max flow) between nodes u and v.
+  public long minCut(int u, int v) {
+    build();
+    if (u < 0 || u >= n || v < 0 || v >= n) throw new IllegalArgumentException("Invalid node");
+    if (u == v) throw new IllegalArgumentException("u == v");
+    long best = Long.MAX_VALUE;
+    if (depth[u] < depth[v]) {
+      int tmp = u;
+      u = v;
+      v = tmp;
+    }
+    for (int k = up.length - 1; k >= 0; k--) {
+      if (depth[u] - (1 << k) >= depth[v]) {
+        best = min(best, low[k][u]);
+        u = up[k][u];
+      }
+    }
+    if (u == v) return best;
+    for (int k = up.length - 1; k >= 0; k--) {
+      if (up[k][u] != up[k][v]) {
+        best = min(best, min(low[k][u], low[k][v]));
+        u = up[k][u];
+        v = up[k][v];
+      }
+    }
+    return min(best, min(weight[u], weight[v]));
+  }
+
+  // Returns the parent of every node in the tree rooted at node 0 (parent[0] = -1).
+  public int[] getParents() {
+    build();
+    return parent;
+  }
+
+  // Returns the weight of the tree edge between every node and its parent (weight[0] is unused).
+  public long[] getWeights() {
+    build();
+    return weight;
+  }
+
+  private void build() {
+    if (built) return;
+    built = true;
+    parent = new int[n];
+    weight = new long[n];
+    boolean[][] sides = new boolean[n][];
+    int batchSize = parallel ? ForkJoinPool.commonPool().getParallelism() + 1 : 1;
+
+    for (int first = 1; first < n; first += batchSize) {
+      final int lo = first, hi = Math.min(n, first + batchSize);
+      final int[] guess = Arrays.copyOf(parent, n);
+      IntStream range = IntStream.range(lo, hi);
+      if (parallel) range = range.parallel();
+      range.forEach(i -> sides[i] = computeCut(i, guess[i], weight));
+
+      for (int i = lo; i < hi; i++) {
+        // An earlier step of this batch moved i under a new parent, redo the cut.
+        if (parent[i] != guess[i]) sides[i] = computeCut(i, parent[i], weight);
+        for (int j = i + 1; j < n; j++) {
+          if (parent[j] == parent[i] && sides[i][j]) parent[j] = i;
+        }
+        sides[i] = null;
+      }
+    }
+    parent[0] = -1;
+    buildLiftingTables();
+  }
+
+  // Computes the min cut between s and t, stores its value in cut[s] and returns the source side.
+  private boolean[] computeCut(int s, int t, long[] cut) {
+    NetworkFlowSolverBase solver = factory.create(n, s, t);
+    for (int i = 0; i < edgeCount; i++) {
+      solver.addEdge(from[i], to[i], capacity[i]);
+      solver.addEdge(to[i], from[i], capacity[i]);
+    }
+    cut[s] = solver.getMaxFlow();
+    return solver.getMinCut();
+  }
+
+  private void buildLiftingTables() {
+    int levels = 1;
+    while ((1 << levels) < n) levels++;
+    depth = new int[n];
+    up = new int[levels][n];
+    low = new long[levels][n];
+    for (int i = 1; i < n; i++) depth[i] = depth[parent[i]] + 1;
+    for (int i = 0; i < n; i++) {
+      up[0][i] = i == 0 ? 0 : parent[i];
+      low[0][i] = i == 0 ? Long.MAX_VALUE : weight[i];
+    }
+    for (int k = 1; k < levels; k++) {
+      for (int i = 0; i < n; i++) {
+        int mid = up[k - 1][i];
+        up[k][i] = up[k - 1][mid];
+        low[k][i] = min(low[k - 1][i], low[k - 1][mid]);
+      }
+    }
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    GomoryHuTree tree = new GomoryHuTree(6);
+    tree.addUndirectedEdge(0, 1, 1);
+    tree.addUndirectedEdge(0, 2, 7);
+    tree.addUndirectedEdge(1, 2, 1);
+    tree.addUndirectedEdge(1, 3, 3);
+    tree.addUndirectedEdge(1, 4, 2);
+    tree.addUndirectedEdge(2, 4, 4);
+    tree.addUndirectedEdge(3, 4, 1);
+    tree.addUndirectedEdge(3, 5, 6);
+    tree.addUndirectedEdge(4, 5, 2);
+
+    System.out.println(tree.minCut(0, 5)); // 6
+    System.out.println(tree.minCut(3, 5)); // 8
+  }
+}
@@ -0,0 +1,256 @@
+/**
+ * Implementation of the Hopcroft-Karp algorithm to find a Maximum Cardinality Bipartite Matching.
+ * Instead of augmenting one path at a time, every phase does a BFS from all free left nodes to
+ * build a layered graph of shortest alternating paths and then augments along a maximal set of
+ * vertex disjoint shortest paths with DFSs that never revisit a dead end. Only O(√V) phases are
+ * needed.
+ *
+ * <p>The graph is stored in compressed sparse row (CSR) form, the DFS is iterative and the search
+ * starts from a greedy matching, so graphs with millions of nodes are fine.
+ *
+ * <p>The matching can be repaired incrementally: after edges are added or removed, the next query
+ * continues from the current matching instead of starting over. A single change alters the size of
+ * a maximum matching by at most one, so this only costs a phase or two.
+ *
+ * <p>Time Complexity: O(E√V)
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import java.util.Arrays;
+
+public class HopcroftKarpMatching {
+
+  static final int FREE = -1;
+  private static final int INF = Integer.MAX_VALUE;
+
+  // Left nodes are [0, leftCount) and right nodes are [0, rightCount).
+  private final int leftCount, rightCount;
+
+  // Edge i connects left node 'edgeLeft[i]' to right node 'edgeRight[i]'.
+  private int edgeCount;
+  private int[] edgeLeft = new int[16], edgeRight = new int[16];
+
+  // CSR adjacency of the left nodes, adj holds right nodes and adjEdge the matching edge ids.
+  private int[] offsets, adj, adjEdge;
+  private boolean adjacencyValid;
+
+  private final int[] matchLeft, matchRight;
+  private int matchingSize;
+  private boolean initialized, solved;
+
+  // dist[u] is the layer of left node u in the current phase and 'limit' the layer of the left
+  // nodes which end shortest augmenting paths.
+  private int[] dist, queue, stack, next;
+  private int limit;
+
+  public HopcroftKarpMatching(int leftCount, int rightCount) {
+    if (leftCount < 0 || rightCount < 0) throw new IllegalArgumentException("Negative node count");
+    this.leftCount = leftCount;
+    this.rightCount = rightCount;
+    matchLeft = new int[leftCount];
+    matchRight = new int[rightCount];
+    Arrays.fill(matchLeft, FREE);
+    Arrays.fill(matchRight, FREE);
+  }
+
+  // Adds an edge between left node 'l' and right node 'r'.
+  public void addEdge(int l, int r) {
+    checkNodes(l, r);
+    if (edgeCount == edgeLeft.length) {
+      edgeLeft = Arrays.copyOf(edgeLeft, 2 * edgeCount);
+      edgeRight = Arrays.copyOf(edgeRight, 2 * edgeCount);
+    }
+    edgeLeft[edgeCount] = l;
+    edgeRight[edgeCount++] = r;
+    adjacencyValid = false;
+    solved = false;
+  }
+
+  // Removes one edge between left node 'l' and right node 'r' and returns whether it existed. If
+  // the edge was part of the matching, its endpoints become free until the next query repairs it.
+  public boolean removeEdge(int l, int r) {
+    checkNodes(l, r);
+    buildAdjacency();
+    int id = -1, copies = 0;
+    for (int i = offsets[l]; i < offsets[l + 1]; i++) {
+      if (adj[i] == r) {
+        id = adjEdge[i];
+        copies++;
+      }
+    }
+    if (id == -1) return false;
+
+    // Move the last edge into the freed slot.
+    edgeCount--;
+    edgeLeft[id] = edgeLeft[edgeCount];
+    edgeRight[id] = edgeRight[edgeCount];
+    adjacencyValid = false;
+    solved = false;
+
+    if (copies == 1 && matchLeft[l] == r) {
+      matchLeft[l] = FREE;
+      matchRight[r] = FREE;
+      matchingSize--;
+    }
+    return true;
+  }
+
+  // Returns the size of a maximum matching.
+  public int getMatchingSize() {
+    solve();
+    return matchingSize;
+  }
+
+  // Returns the right node matched to every left node, or -1 if the left node is free.
+  public int[] getLeftMatches() {
+    solve();
+    return matchLeft.clone();
+  }
+
+  // Returns the left node matched to every right node, or -1 if the right node is free.
+  public int[] getRightMatches() {
+    solve();
+    return matchRight.clone();
+  }
+
+  private void solve() {
+    if (solved) return;
+    solved = true;
+    buildAdjacency();
+    if (dist == null) {
+      dist = new int[leftCount];
+      queue = new int[leftCount];
+      stack = new int[leftCount];
+      next = new int[leftCount];
+    }
+    if (!initialized) {
+      initialized = true;
+      greedyMatching();
+    }
+    while (bfs()) {
+      System.arraycopy(offsets, 0, next, 0, leftCount);
+      for (int u = 0; u < leftCount; u++) {
+        if (matchLeft[u] == FREE && dfs(u)) matchingSize++;
+      }
+    }
+  }
+
+  // Matches every left node to its first free neighbor.
+  private void greedyMatching() {
+    for (int u = 0; u < leftCount; u++) {
+      for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+        int r = adj[i];
+        if (matchRight[r] == FREE) {
+          matchLeft[u] = r;
+          matchRight[r] = u;
+          matchingSize++;
+          break;
+        }
+      }
+    }
+  }
+
+  // Layers the left nodes by their alternating path distance from the free left nodes. Stores the
+  // layer of the left nodes which end shortest augmenting paths in 'limit' and returns whether
+  // there is an augmenting path.
+  private boolean bfs() {
+    int head = 0, tail = 0;
+    for (int u = 0; u < leftCount; u++) {
+      if (matchLeft[u] == FREE) {
+        dist[u] = 0;
+        queue[tail++] = u;
+      } else {
+        dist[u] = INF;
+      }
+    }
+    limit = INF;
+    while (head < tail) {
+      int u = queue[head++];
+      if (dist[u] >= limit) continue;
+      for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+        int w = matchRight[adj[i]];
+        if (w == FREE) {
+          if (limit == INF) limit = dist[u];
+        } else if (dist[w] == INF) {
+          dist[w] = dist[u] + 1;
+          queue[tail++] = w;
+        }
+      }
+    }
+    return limit != INF;
+  }
+
+  // Looks for a shortest augmenting path from the free left node 'root' in the layered graph with
+  // an explicit stack and flips it if one is found. Dead ends are removed from the layered graph.
+  private boolean dfs(int root) {
+    int size = 0;
+    stack[size++] = root;
+    while (size > 0) {
+      int u = stack[size - 1];
+      if (next[u] == offsets[u + 1]) {
+        dist[u] = INF;
+        size--;
+        continue;
+      }
+      int w = matchRight[adj[next[u]]];
+      if (w == FREE) {
+        if (dist[u] == limit) {
+          // Flip the matching along the path on the stack.
+          for (int j = size - 1; j >= 0; j--) {
+            int v = stack[j], r = adj[next[v]];
+            matchLeft[v] = r;
+            matchRight[r] = v;
+          }
+          return true;
+        }
+        next[u]++;
+      } else if (dist[u] < limit && dist[w] == dist[u] + 1) {
+        stack[size++] = w;
+      } else {
+        next[u]++;
+      }
+    }
+    return false;
+  }
+
+  // Sorts the edges by left node into CSR form with a counting sort.
+  private void buildAdjacency() {
+    if (adjacencyValid) return;
+    adjacencyValid = true;
+    offsets = new int[leftCount + 1];
+    adj = new int[edgeCount];
+    adjEdge = new int[edgeCount];
+    for (int i = 0; i < edgeCount; i++) offsets[edgeLeft[i] + 1]++;
+    for (int u = 0; u < leftCount; u++) offsets[u + 1] += offsets[u];
+    int[] pos = Arrays.copyOf(offsets, leftCount);
+    for (int i = 0; i < edgeCount; i++) {
+      int p = pos[edgeLeft[i]]++;
+      adj[p] = edgeRight[i];
+      adjEdge[p] = i;
+    }
+  }
+
+  private void checkNodes(int l, int r) {
+    if (l < 0 || l >= leftCount) throw new IllegalArgumentException("Invalid left node: " + l);
+    if (r < 0 || r >= rightCount) throw new IllegalArgumentException("Invalid right node: " + r);
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    // Three jobs (left) and three workers (right), worker 0 is qualified for every job.
+    HopcroftKarpMatching matching = new HopcroftKarpMatching(3, 3);
+    matching.addEdge(0, 0);
+    matching.addEdge(1, 0);
+    matching.addEdge(1, 1);
+    matching.addEdge(2, 0);
+    matching.addEdge(2, 2);
+    System.out.println(matching.getMatchingSize()); // 3
+
+    // Worker 2 quits, job 2 can only be done by worker 0 which leaves job 0 without a worker.
+    matching.removeEdge(2, 2);
+    System.out.println(matching.getMatchingSize()); // 2
+  }
+}
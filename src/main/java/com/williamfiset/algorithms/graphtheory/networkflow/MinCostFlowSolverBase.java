@@ -0,0 +1,168 @@
+/**
+ * Base class for min cost flow solvers which, besides the usual min cost max flow between a source
+ * and a sink, also solve transportation style problems where every node has a supply (positive) or
+ * a demand (negative) and the goal is the cheapest flow which satisfies all of them.
+ *
+ * <p>Use the {@link #MinCostFlowSolverBase(int, int, int)} constructor for min cost max flow; the
+ * max flow value is found first and then shipped as cheaply as possible from s to t. Use the {@link
+ * #MinCostFlowSolverBase(int)} constructor together with {@link #setSupply} for supplies and
+ * demands, in which case {@link #getMaxFlow()} returns the total amount shipped.
+ *
+ * <p>Edges are stored in flat arrays and the solution is read through {@link #getMinCost()}, {@link
+ * #getFlow(int)} or the Edge view returned by {@link #getGraph()}.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import java.util.Arrays;
+import java.util.List;
+
+public abstract class MinCostFlowSolverBase extends NetworkFlowSolverBase {
+
+  // Edge i goes from 'from[i]' to 'to[i]' with capacity 'cap[i]' and unit cost 'cost[i]'. The
+  // solver stores the flow it sends along edge i in 'flow[i]'.
+  protected int edgeCount;
+  protected int[] from = new int[16], to = new int[16];
+  protected long[] cap = new long[16], cost = new long[16], flow;
+
+  private final long[] supply;
+  private boolean edgeViewCreated;
+
+  /**
+   * Creates a min cost max flow solver. Use the {@link #addEdge} method to add edges to the graph.
+   *
+   * @param n - The number of nodes in the graph including source and sink nodes.
+   * @param s - The index of the source node, 0 <= s < n
+   * @param t - The index of the sink node, 0 <= t < n, t != s
+   */
+  public MinCostFlowSolverBase(int n, int s, int t) {
+    super(n, s, t);
+    if (s < 0 || s >= n || t < 0 || t >= n || s == t)
+      throw new IllegalArgumentException("Invalid source or sink");
+    supply = null;
+  }
+
+  /**
+   * Creates a min cost flow solver for a network with node supplies and demands. Use {@link
+   * #setSupply} to set them and the {@link #addEdge} method to add edges to the graph.
+   *
+   * @param n - The number of nodes in the graph.
+   */
+  public MinCostFlowSolverBase(int n) {
+    super(n, -1, -1);
+    supply = new long[n];
+  }
+
+  // Sets the supply of a node: positive values are supplies and negative values are demands. The
+  // supplies of all nodes must sum up to zero.
+  public void setSupply(int node, long value) {
+    if (supply == null)
+      throw new IllegalStateException("Supplies are only available without a source and sink");
+    supply[node] = value;
+  }
+
+  public long getSupply(int node) {
+    return supply == null ? 0 : supply[node];
+  }
+
+  @Override
+  public void addEdge(int from, int to, long capacity) {
+    addEdge(from, to, capacity, 0);
+  }
+
+  @Override
+  public void addEdge(int from, int to, long capacity, long cost) {
+    if (capacity < 0) throw new IllegalArgumentException("Capacity < 0");
+    if (from < 0 || from >= n || to < 0 || to >= n)
+      throw new IllegalArgumentException("Invalid edge (" + from + ", " + to + ")");
+    if (edgeCount == this.from.length) {
+      int newLength = 2 * edgeCount;
+      this.from = Arrays.copyOf(this.from, newLength);
+      this.to = Arrays.copyOf(this.to, newLength);
+      cap = Arrays.copyOf(cap, newLength);
+      this.cost = Arrays.copyOf(this.cost, newLength);
+    }
+    this.from[edgeCount] = from;
+    this.to[edgeCount] = to;
+    cap[edgeCount] = capacity;
+    this.cost[edgeCount++] = cost;
+  }
+
+  // Returns the flow on the i-th edge added in the optimal solution.
+  public long getFlow(int edge) {
+    getMinCost();
+    if (edge < 0 || edge >= edgeCount)
+      throw new IndexOutOfBoundsException("No edge with index " + edge);
+    return flow[edge];
+  }
+
+  @Override
+  public final void solve() {
+    long[] b;
+    if (supply == null) {
+      // Find the max flow with Dinic's (which also gives the min cut) and then ship it cheaply.
+      Dinics dinics = new Dinics(n, s, t);
+      for (int i = 0; i < edgeCount; i++) dinics.addEdge(from[i], to[i], cap[i]);
+      maxFlow = dinics.getMaxFlow();
+      System.arraycopy(dinics.getMinCut(), 0, minCut, 0, n);
+      b = new long[n];
+      b[s] = maxFlow;
+      b[t] = -maxFlow;
+    } else {
+      long total = 0;
+      for (long value : supply) total += value;
+      if (total != 0) throw new IllegalStateException("Supplies and demands do not sum to zero");
+      b = supply.clone();
+      for (long value : b) if (value > 0) maxFlow += value;
+    }
+    flow = new long[edgeCount];
+    computeMinCostFlow(b);
+    for (int i = 0; i < edgeCount; i++) minCost += flow[i] * cost[i];
+  }
+
+  // Method to implement which fills 'flow' with a min cost flow where node i has supply b[i]. The
+  // supplies sum up to zero. Throws an IllegalStateException if no flow satisfies them.
+  protected abstract void computeMinCostFlow(long[] b);
+
+  // Returns whether there is a flow satisfying the supplies 'b' by routing them with Dinic's from a
+  // super source to a super sink.
+  protected boolean isFeasible(long[] b) {
+    int superSource = n, superSink = n + 1;
+    Dinics dinics = new Dinics(n + 2, superSource, superSink);
+    for (int i = 0; i < edgeCount; i++) dinics.addEdge(from[i], to[i], cap[i]);
+    long total = 0;
+    for (int i = 0; i < n; i++) {
+      if (b[i] > 0) {
+        dinics.addEdge(superSource, i, b[i]);
+        total += b[i];
+      } else if (b[i] < 0) {
+        dinics.addEdge(i, superSink, -b[i]);
+      }
+    }
+    return dinics.getMaxFlow() == total;
+  }
+
+  /**
+   * Returns the graph after the solver has been executed as lists of {@link Edge} objects, which
+   * are created from the flow arrays on the first call.
+   */
+  @Override
+  public List<Edge>[] getGraph() {
+    super.getGraph();
+    if (!edgeViewCreated) {
+      edgeViewCreated = true;
+      for (int i = 0; i < edgeCount; i++) {
+        Edge e1 = new Edge(from[i], to[i], cap[i], cost[i]);
+        Edge e2 = new Edge(to[i], from[i], 0, -cost[i]);
+        e1.flow = flow[i];
+        e2.flow = -flow[i];
+        e1.residual = e2;
+        e2.residual = e1;
+        graph[from[i]].add(e1);
+        graph[to[i]].add(e2);
+      }
+    }
+    return graph;
+  }
+}
@@ -48,6 +48,30 @@ public abstract class NetworkFlowSolverBase {
     }
   }
 
+  /**
+   * Receives the work done by a solver, one phase at a time. What a phase is depends on the
+   * algorithm: a BFS plus blocking flow in Dinic's, one scaling round in capacity scaling, one
+   * augmenting path in Edmonds-Karp and the work between two global relabels in push-relabel.
+   * Solvers which are not instrumented never call the listener.
+   */
+  public interface SolverListener {
+    void phaseFinished(PhaseMetrics metrics);
+  }
+
+  // The work done by a solver during one phase. Counters which do not apply to a solver stay 0.
+  public static class PhaseMetrics {
+    public int phase;
+    public long augmentingPaths, edgeScans, pushes, relabels, nanos;
+
+    @Override
+    public String toString() {
+      return String.format(
+          "phase %d | augmenting paths = %d | edge scans = %d | pushes = %d | relabels = %d"
+              + " | %.3f ms",
+          phase, augmentingPaths, edgeScans, pushes, relabels, nanos / 1e6);
+    }
+  }
+
   // Inputs: n = number of nodes, s = source, t = sink
   protected final int n, s, t;
 
@@ -68,6 +92,10 @@ public abstract class NetworkFlowSolverBase {
   // run the solver multiple times, because it always yields the same result.
   private boolean solved;
 
+  // Metrics are only collected while a listener is set, see beginPhase().
+  private SolverListener listener;
+  private int phaseCount;
+
   /**
    * Creates an instance of a flow network solver. Use the {@link #addEdge} method to add edges to
    * the graph.
@@ -167,6 +195,36 @@ public abstract class NetworkFlowSolverBase {
     return minCut;
   }
 
+  // Sets the listener which receives the metrics of every phase of the solver, or null to stop
+  // collecting metrics.
+  public void setListener(SolverListener listener) {
+    this.listener = listener;
+  }
+
+  // Starts a new phase and returns the metrics to fill in, or null if no listener is set. Solvers
+  // should only do extra work for the metrics when this is not null, so that uninstrumented runs
+  // pay for nothing but a null check per phase.
+  protected final PhaseMetrics beginPhase() {
+    if (listener == null) return null;
+    PhaseMetrics metrics = new PhaseMetrics();
+    metrics.phase = ++phaseCount;
+    metrics.nanos = System.nanoTime();
+    return metrics;
+  }
+
+  // Ends the phase started by beginPhase() and reports it to the listener.
+  protected final void endPhase(PhaseMetrics metrics) {
+    if (metrics == null || listener == null) return;
+    metrics.nanos = System.nanoTime() - metrics.nanos;
+    listener.phaseFinished(metrics);
+  }
+
+  // Discards the current solution so that the next query calls solve() again. Only solvers which
+  // support changing the network after it was solved should use this.
+  protected void invalidateSolution() {
+    solved = false;
+  }
+
   // Wrapper method that ensures we only call solve() once
   private void execute() {
     if (solved) return;
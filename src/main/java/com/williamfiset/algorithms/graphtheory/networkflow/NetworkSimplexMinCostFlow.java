@@ -0,0 +1,292 @@
+/**
+ * Implementation of the primal network simplex algorithm for min cost flow with the block search
+ * pivot rule. Unlike the successive shortest path solvers, which augment one path at a time and
+ * need as many iterations as there are units of flow in the worst case, the number of pivots of
+ * network simplex does not depend on the size of the supplies, which makes it a good fit for
+ * transportation problems with large supplies.
+ *
+ * <p>The algorithm maintains a spanning tree of the network (plus an artificial root connected to
+ * every node) together with node potentials that make every tree edge have zero reduced cost. At
+ * each pivot a non tree edge with a negative reduced cost enters the tree, flow is sent around the
+ * cycle it closes and a blocking edge of the cycle leaves the tree. The block search pivot rule
+ * scans the edges in blocks of about √m and picks the most violating edge of the first block which
+ * contains one. A strongly feasible tree is kept to avoid cycling.
+ *
+ * <p>Time Complexity: exponential in the worst case, but in practice one of the fastest min cost
+ * flow algorithms.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import static java.lang.Math.abs;
+import static java.lang.Math.max;
+
+import java.util.Arrays;
+
+public class NetworkSimplexMinCostFlow extends MinCostFlowSolverBase {
+
+  // The state of a non tree edge, which also gives the sign of the change in cost when the edge
+  // enters the tree.
+  private static final int STATE_UPPER = -1, STATE_TREE = 0, STATE_LOWER = 1;
+
+  // The arcs of the network followed by one artificial arc per node to or from the root.
+  private int arcCount, root;
+  private int[] source, target, state;
+  private long[] capacity, arcCost, arcFlow;
+
+  // The spanning tree: parent node, the arc to the parent, whether that arc points up (from the
+  // node to its parent), depth and children as doubly linked sibling lists.
+  private int[] parent, pred, depth, firstChild, nextSibling, prevSibling;
+  private boolean[] up;
+  private long[] potential;
+
+  private int blockSize, nextArc;
+
+  /**
+   * Creates a min cost max flow solver. Use the {@link #addEdge} method to add edges to the graph.
+   *
+   * @param n - The number of nodes in the graph including source and sink nodes.
+   * @param s - The index of the source node, 0 <= s < n
+   * @param t - The index of the sink node, 0 <= t < n, t != s
+   */
+  public NetworkSimplexMinCostFlow(int n, int s, int t) {
+    super(n, s, t);
+  }
+
+  /**
+   * Creates a min cost flow solver for a network with node supplies and demands.
+   *
+   * @param n - The number of nodes in the graph.
+   */
+  public NetworkSimplexMinCostFlow(int n) {
+    super(n);
+  }
+
+  @Override
+  protected void computeMinCostFlow(long[] b) {
+    init(b);
+    int in;
+    while ((in = findEnteringArc()) != -1) pivot(in);
+
+    for (int u = 0; u < n; u++) {
+      if (arcFlow[edgeCount + u] != 0) throw new IllegalStateException("No feasible flow exists");
+    }
+    System.arraycopy(arcFlow, 0, flow, 0, edgeCount);
+  }
+
+  private void init(long[] b) {
+    arcCount = edgeCount + n;
+    root = n;
+    source = Arrays.copyOf(from, arcCount);
+    target = Arrays.copyOf(to, arcCount);
+    capacity = Arrays.copyOf(cap, arcCount);
+    arcCost = Arrays.copyOf(cost, arcCount);
+    arcFlow = new long[arcCount];
+    state = new int[arcCount];
+    Arrays.fill(state, STATE_LOWER);
+
+    // The artificial arcs are so expensive that any flow which avoids them is cheaper.
+    long maxCost = 0;
+    for (int i = 0; i < edgeCount; i++) maxCost = max(maxCost, abs(cost[i]));
+    long artificialCost = (maxCost + 1) * (n + 1);
+
+    parent = new int[n + 1];
+    pred = new int[n + 1];
+    depth = new int[n + 1];
+    firstChild = new int[n + 1];
+    nextSibling = new int[n + 1];
+    prevSibling = new int[n + 1];
+    up = new boolean[n + 1];
+    potential = new long[n + 1];
+    Arrays.fill(firstChild, -1);
+    parent[root] = pred[root] = -1;
+
+    // Start with a star around the root. Nodes with a supply send it to the root and nodes with a
+    // demand receive it from the root, which gives a strongly feasible tree: every tree arc with no
+    // flow points towards the root.
+    for (int u = 0; u < n; u++) {
+      int e = edgeCount + u;
+      capacity[e] = INF;
+      arcCost[e] = artificialCost;
+      state[e] = STATE_TREE;
+      if (b[u] >= 0) {
+        source[e] = u;
+        target[e] = root;
+        arcFlow[e] = b[u];
+        potential[u] = -artificialCost;
+        up[u] = true;
+      } else {
+        source[e] = root;
+        target[e] = u;
+        arcFlow[e] = -b[u];
+        potential[u] = artificialCost;
+      }
+      parent[u] = root;
+      pred[u] = e;
+      depth[u] = 1;
+      addChild(root, u);
+    }
+
+    blockSize = max(10, (int) Math.sqrt(arcCount));
+    nextArc = 0;
+  }
+
+  private long reducedCost(int e) {
+    return arcCost[e] + potential[source[e]] - potential[target[e]];
+  }
+
+  // Block search pivot rule: returns the most violating arc of the first block (starting after the
+  // last entering arc) which contains a violating arc, or -1 if the current tree is optimal.
+  private int findEnteringArc() {
+    long best = 0;
+    int in = -1, count = blockSize;
+    for (int k = 0; k < arcCount; k++) {
+      int e = nextArc + k;
+      if (e >= arcCount) e -= arcCount;
+      long violation = state[e] * reducedCost(e);
+      if (violation < best) {
+        best = violation;
+        in = e;
+      }
+      if (--count == 0) {
+        if (in != -1) break;
+        count = blockSize;
+      }
+    }
+    if (in != -1) nextArc = in + 1 == arcCount ? 0 : in + 1;
+    return in;
+  }
+
+  private void pivot(int in) {
+    // Flow is sent around the cycle from 'first' over the entering arc to 'second' and back up the
+    // tree to 'join'.
+    int first, second;
+    if (state[in] == STATE_LOWER) {
+      first = source[in];
+      second = target[in];
+    } else {
+      first = target[in];
+      second = source[in];
+    }
+    int join = findJoin(first, second);
+
+    // Find the leaving arc. Ties are broken towards the last blocking arc in the direction of the
+    // flow, starting from 'join', which keeps the tree strongly feasible.
+    long delta = capacity[in];
+    int leaving = -1, result = 0;
+    for (int u = first; u != join; u = parent[u]) {
+      long d = up[u] ? arcFlow[pred[u]] : residual(pred[u]);
+      if (d < delta) {
+        delta = d;
+        leaving = u;
+        result = 1;
+      }
+    }
+    for (int u = second; u != join; u = parent[u]) {
+      long d = up[u] ? residual(pred[u]) : arcFlow[pred[u]];
+      if (d <= delta) {
+        delta = d;
+        leaving = u;
+        result = 2;
+      }
+    }
+
+    if (delta > 0) {
+      arcFlow[in] += state[in] * delta;
+      for (int u = first; u != join; u = parent[u]) arcFlow[pred[u]] += up[u] ? -delta : delta;
+      for (int u = second; u != join; u = parent[u]) arcFlow[pred[u]] += up[u] ? delta : -delta;
+    }
+
+    if (result == 0) {
+      // The entering arc is itself blocking, it moves to its other bound.
+      state[in] = -state[in];
+      return;
+    }
+
+    int out = pred[leaving];
+    state[out] = arcFlow[out] == 0 ? STATE_LOWER : STATE_UPPER;
+    state[in] = STATE_TREE;
+    int uIn = result == 1 ? first : second;
+    int vIn = result == 1 ? second : first;
+    rehang(uIn, vIn, in, leaving);
+  }
+
+  private long residual(int e) {
+    return capacity[e] - arcFlow[e];
+  }
+
+  private int findJoin(int u, int v) {
+    while (depth[u] > depth[v]) u = parent[u];
+    while (depth[v] > depth[u]) v = parent[v];
+    while (u != v) {
+      u = parent[u];
+      v = parent[v];
+    }
+    return u;
+  }
+
+  // Cuts the subtree below 'leaving' off the tree and hangs it back under 'vIn' through the
+  // entering arc, which reverses the tree path from 'uIn' up to 'leaving'. Then shifts the
+  // potentials and depths of the moved subtree.
+  private void rehang(int uIn, int vIn, int in, int leaving) {
+    int newParent = vIn, newPred = in, u = uIn;
+    while (true) {
+      int oldParent = parent[u], oldPred = pred[u];
+      removeChild(oldParent, u);
+      parent[u] = newParent;
+      pred[u] = newPred;
+      up[u] = source[newPred] == u;
+      addChild(newParent, u);
+      if (u == leaving) break;
+      newParent = u;
+      newPred = oldPred;
+      u = oldParent;
+    }
+
+    long newPotential = up[uIn] ? potential[vIn] - arcCost[in] : potential[vIn] + arcCost[in];
+    long shift = newPotential - potential[uIn];
+    int[] stack = new int[n + 1];
+    int size = 0;
+    stack[size++] = uIn;
+    while (size > 0) {
+      int node = stack[--size];
+      potential[node] += shift;
+      depth[node] = depth[parent[node]] + 1;
+      for (int c = firstChild[node]; c != -1; c = nextSibling[c]) stack[size++] = c;
+    }
+  }
+
+  private void addChild(int p, int c) {
+    prevSibling[c] = -1;
+    nextSibling[c] = firstChild[p];
+    if (firstChild[p] != -1) prevSibling[firstChild[p]] = c;
+    firstChild[p] = c;
+  }
+
+  private void removeChild(int p, int c) {
+    if (prevSibling[c] != -1) nextSibling[prevSibling[c]] = nextSibling[c];
+    else firstChild[p] = nextSibling[c];
+    if (nextSibling[c] != -1) prevSibling[nextSibling[c]] = prevSibling[c];
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    // Two warehouses supplying three stores.
+    NetworkSimplexMinCostFlow solver = new NetworkSimplexMinCostFlow(5);
+    solver.setSupply(0, 300);
+    solver.setSupply(1, 200);
+    solver.setSupply(2, -150);
+    solver.setSupply(3, -250);
+    solver.setSupply(4, -100);
+    solver.addEdge(0, 2, 1000, 4);
+    solver.addEdge(0, 3, 1000, 6);
+    solver.addEdge(0, 4, 1000, 9);
+    solver.addEdge(1, 2, 1000, 5);
+    solver.addEdge(1, 3, 1000, 3);
+    solver.addEdge(1, 4, 1000, 8);
+
+    System.out.println(solver.getMinCost()); // 2400
+  }
+}
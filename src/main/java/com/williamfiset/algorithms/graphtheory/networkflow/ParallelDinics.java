@@ -0,0 +1,262 @@
+/**
+ * A multi-threaded version of Dinic's algorithm. Both parts of a phase run in parallel on the
+ * common fork join pool:
+ *
+ * <p>- The level graph is built by a level synchronous BFS: the nodes of the current frontier are
+ * split among the threads and every newly reached node is claimed with a compare-and-set on its
+ * level, so each node joins the next frontier exactly once.
+ *
+ * <p>- The blocking flow is found by several workers at once, each searching for augmenting paths
+ * in the level graph from the source. The workers share the current arc pointers of Dinic's
+ * algorithm, so dead ends found by one worker are skipped by all others. Residual capacities live
+ * in an {@link AtomicLongArray} and a worker reserves the capacity of its path arc by arc with
+ * compare-and-set, shrinking the amount if another worker got there first, so no locks are
+ * needed.
+ *
+ * <p>An arc of the level graph never regains capacity during a phase (flow on its reverse arc
+ * would go against the levels), which is what makes sharing the arc pointers safe. The one
+ * exception is capacity handed back when a reservation shrinks: a worker which saw the arc empty
+ * in between may already have moved past it, so the phase can end before its flow is blocking.
+ * That never gives a wrong result, since the algorithm only stops when the sink is no longer
+ * reachable, but such a phase need not increase the distance from the source to the sink. The
+ * pointers themselves only move forward, by compare-and-set.
+ *
+ * <p>The answer is the same as for {@link Dinics}: same max flow and same min cut.
+ *
+ * <p>Time Complexity: O(EV²) with a single worker, where every phase is a blocking flow. With
+ * several workers the phases cut short by a shrunk reservation come on top of the O(V) phases of
+ * that bound.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import static java.lang.Math.min;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+public class ParallelDinics extends ArrayNetworkFlowSolverBase {
+
+  // Frontiers with fewer nodes than this are expanded by a single thread.
+  private static final int MIN_PARALLEL_FRONTIER = 1024;
+
+  private final int workers;
+
+  // Residual capacity of every arc while solving, copied back into 'flow' at the end.
+  private AtomicLongArray residual;
+
+  // Levels are claimed atomically by the BFS and then copied into a plain array for the workers.
+  private AtomicIntegerArray claimed;
+  private int[] level;
+
+  // next.get(u) is the current arc position of node u, shared by all workers. A node is a dead end
+  // once its pointer reaches offsets[u + 1].
+  private AtomicIntegerArray next;
+
+  /**
+   * Creates an instance of a flow network solver. Use the {@link #addEdge} method to add edges to
+   * the graph.
+   *
+   * @param n - The number of nodes in the graph including source and sink nodes.
+   * @param s - The index of the source node, 0 <= s < n
+   * @param t - The index of the sink node, 0 <= t < n, t != s
+   */
+  public ParallelDinics(int n, int s, int t) {
+    this(n, s, t, ForkJoinPool.commonPool().getParallelism() + 1);
+  }
+
+  /**
+   * Creates an instance of a flow network solver which searches for augmenting paths with the
+   * given number of workers.
+   */
+  public ParallelDinics(int n, int s, int t, int workers) {
+    super(n, s, t);
+    if (workers < 1) throw new IllegalArgumentException("Need at least one worker");
+    this.workers = workers;
+    level = new int[n];
+  }
+
+  @Override
+  protected void computeMaxFlow() {
+    residual = new AtomicLongArray(arcCount);
+    for (int e = 0; e < arcCount; e++) residual.set(e, remainingCapacity(e));
+    claimed = new AtomicIntegerArray(n);
+
+    for (boolean reachable = true; reachable; ) {
+      PhaseMetrics metrics = beginPhase();
+      reachable = bfs();
+      long[] results = new long[2 * workers];
+      if (reachable) {
+        next = new AtomicIntegerArray(Arrays.copyOf(offsets, n));
+        IntStream.range(0, workers).parallel().forEach(w -> blockingFlow(results, w));
+        for (int w = 0; w < workers; w++) maxFlow += results[2 * w];
+      }
+      if (metrics != null) {
+        for (int u = 0; u < n; u++) {
+          if (level[u] != -1) metrics.edgeScans += offsets[u + 1] - offsets[u];
+          if (reachable) metrics.edgeScans += next.get(u) - offsets[u];
+        }
+        for (int w = 0; w < workers; w++) metrics.augmentingPaths += results[2 * w + 1];
+        endPhase(metrics);
+      }
+    }
+
+    for (int e = 0; e < arcCount; e++) flow[e] = cap[e] - residual.get(e);
+    for (int i = 0; i < n; i++) if (level[i] != -1) minCut[i] = true;
+  }
+
+  // Computes the level of every node reachable from the source with a level synchronous BFS and
+  // returns whether the sink is reachable.
+  private boolean bfs() {
+    for (int i = 0; i < n; i++) claimed.set(i, -1);
+    claimed.set(s, 0);
+    int[] frontier = {s};
+    for (int depth = 1; frontier.length > 0; depth++) {
+      final int[] current = frontier;
+      final int d = depth;
+      if (current.length < MIN_PARALLEL_FRONTIER) {
+        frontier = expand(current, 0, current.length, d);
+      } else {
+        int chunks = 4 * workers, length = current.length;
+        int[][] parts =
+            IntStream.range(0, chunks)
+                .parallel()
+                .mapToObj(c -> expand(current, c * length / chunks, (c + 1) * length / chunks, d))
+                .toArray(int[][]::new);
+        int size = 0;
+        for (int[] part : parts) size += part.length;
+        frontier = new int[size];
+        size = 0;
+        for (int[] part : parts) {
+          System.arraycopy(part, 0, frontier, size, part.length);
+          size += part.length;
+        }
+      }
+    }
+    for (int i = 0; i < n; i++) level[i] = claimed.get(i);
+    return level[t] != -1;
+  }
+
+  // Claims the unvisited neighbors of the frontier nodes in [from, to) for the given depth and
+  // returns them.
+  private int[] expand(int[] frontier, int from, int to, int depth) {
+    int[] found = new int[16];
+    int size = 0;
+    for (int i = from; i < to; i++) {
+      int u = frontier[i];
+      for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+        int e = adj[j], v = this.to[e];
+        if (claimed.get(v) == -1 && residual.get(e) > 0 && claimed.compareAndSet(v, -1, depth)) {
+          if (size == found.length) found = Arrays.copyOf(found, 2 * size);
+          found[size++] = v;
+        }
+      }
+    }
+    return Arrays.copyOf(found, size);
+  }
+
+  // Repeatedly searches the level graph for an augmenting path and sends flow along it until the
+  // source is a dead end. Stores the flow sent and the number of paths found in results[2 * w] and
+  // results[2 * w + 1].
+  private void blockingFlow(long[] results, int w) {
+    int[] path = new int[n], pathIndex = new int[n];
+    long sent = 0, paths = 0;
+    int depth = 0, u = s;
+    while (true) {
+      if (u == t) {
+        long f = augmentPath(path, depth);
+        if (f > 0) {
+          sent += f;
+          paths++;
+        }
+        depth = 0;
+        u = s;
+        continue;
+      }
+      int i = next.get(u);
+      if (i == offsets[u + 1]) {
+        // Dead end, back up and move the parent past the arc leading here.
+        if (depth == 0) break;
+        depth--;
+        u = tail(path[depth]);
+        advance(u, pathIndex[depth]);
+        continue;
+      }
+      int e = adj[i], v = to[e];
+      if (level[v] == level[u] + 1
+          && residual.get(e) > 0
+          && (v == t || next.get(v) != offsets[v + 1])) {
+        path[depth] = e;
+        pathIndex[depth++] = i;
+        u = v;
+      } else {
+        advance(u, i);
+      }
+    }
+    results[2 * w] = sent;
+    results[2 * w + 1] = paths;
+  }
+
+  // Moves the arc pointer of node u past position i. Nothing happens if another worker already
+  // moved it further, so a worker with a stale view never moves a pointer back.
+  private void advance(int u, int i) {
+    next.compareAndSet(u, i, i + 1);
+  }
+
+  // Reserves as much capacity as possible along the path and returns the amount of flow sent.
+  private long augmentPath(int[] path, int depth) {
+    long amount = Long.MAX_VALUE;
+    for (int k = 0; k < depth; k++) amount = min(amount, residual.get(path[k]));
+
+    // 'amount' units are reserved on the arcs before arc k.
+    for (int k = 0; k < depth && amount > 0; k++) {
+      int e = path[k];
+      while (true) {
+        long r = residual.get(e);
+        long take = min(r, amount);
+        if (take == 0 || residual.compareAndSet(e, r, r - take)) {
+          if (take < amount) {
+            for (int j = 0; j < k; j++) residual.addAndGet(path[j], amount - take);
+            amount = take;
+          }
+          break;
+        }
+      }
+    }
+    if (amount > 0) {
+      for (int k = 0; k < depth; k++) residual.addAndGet(path[k] ^ 1, amount);
+    }
+    return amount;
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    int n = 6;
+    int s = n - 1;
+    int t = n - 2;
+
+    ParallelDinics solver = new ParallelDinics(n, s, t);
+
+    // Source edges
+    solver.addEdge(s, 0, 10);
+    solver.addEdge(s, 1, 10);
+
+    // Sink edges
+    solver.addEdge(2, t, 10);
+    solver.addEdge(3, t, 10);
+
+    // Middle edges
+    solver.addEdge(0, 1, 2);
+    solver.addEdge(0, 2, 4);
+    solver.addEdge(0, 3, 8);
+    solver.addEdge(1, 3, 9);
+    solver.addEdge(3, 2, 6);
+
+    System.out.println(solver.getMaxFlow()); // 19
+  }
+}
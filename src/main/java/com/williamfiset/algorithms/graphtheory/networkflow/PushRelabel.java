@@ -0,0 +1,326 @@
+/**
+ * Implementation of the highest-label push-relabel maximum flow algorithm (Goldberg and Tarjan).
+ * Instead of finding augmenting paths, every node is given a height (a lower bound on its distance
+ * to the sink) and excess flow is pushed "downhill" from the node with the highest label until no
+ * node has excess left.
+ *
+ * <p>Two heuristics make this the fastest practical max flow algorithm on dense networks:
+ *
+ * <p>- Global relabeling: every so often the exact heights are recomputed with a reverse BFS from
+ * the sink over the residual graph.
+ *
+ * <p>- Gap heuristic: if no node is left at some height h < n, nodes above h can no longer reach
+ * the sink and are lifted to height n at once.
+ *
+ * <p>The algorithm runs in two phases. The first phase only moves excess towards the sink and
+ * stops with a maximum preflow, which already determines the max flow value and the min cut
+ * (nodes that cannot reach the sink in the residual graph). The second phase returns the excess
+ * stranded on the source side of the cut back to the source so that {@link #getGraph()} contains a
+ * valid flow.
+ *
+ * <p>Time Complexity: O(V²√E)
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import static java.lang.Math.min;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class PushRelabel extends NetworkFlowSolverBase {
+
+  // A global relabel is done once the relabel work exceeds this many times the number of nodes
+  // plus the number of edges.
+  private static final double GLOBAL_RELABEL_FREQUENCY = 1.0;
+
+  private int[] height, current;
+  private long[] excess;
+
+  // Active nodes (nodes with excess) bucketed by height as singly linked lists.
+  private int[] activeHead, activeNext;
+  private int maxActive;
+
+  // All nodes with height < n bucketed by height as doubly linked lists, used by the gap heuristic.
+  private int[] allHead, allNext, allPrev;
+  private int maxHeight;
+
+  private long work;
+  private int edgeCount;
+
+  // Metrics of the current phase, a phase ends with every global relabel. Null unless a listener
+  // is set, in which case the work is counted directly into it.
+  private PhaseMetrics metrics;
+
+  /**
+   * Creates an instance of a flow network solver. Use the {@link #addEdge} method to add edges to
+   * the graph.
+   *
+   * @param n - The number of nodes in the graph including source and sink nodes.
+   * @param s - The index of the source node, 0 <= s < n
+   * @param t - The index of the sink node, 0 <= t < n, t != s
+   */
+  public PushRelabel(int n, int s, int t) {
+    super(n, s, t);
+  }
+
+  @Override
+  public void solve() {
+    height = new int[n];
+    current = new int[n];
+    excess = new long[n];
+    activeHead = new int[2 * n + 1];
+    activeNext = new int[n];
+    allHead = new int[n + 1];
+    allNext = new int[n];
+    allPrev = new int[n];
+    for (List<Edge> edges : graph) edgeCount += edges.size();
+    metrics = beginPhase();
+
+    // Phase 1: saturate all edges leaving the source and push excess towards the sink.
+    height[s] = n;
+    for (Edge edge : graph[s]) {
+      long cap = edge.remainingCapacity();
+      if (cap > 0) {
+        edge.augment(cap);
+        excess[s] -= cap;
+        excess[edge.to] += cap;
+      }
+    }
+    globalRelabel();
+    while (maxActive >= 0) {
+      int v = activeHead[maxActive];
+      if (v == -1) {
+        maxActive--;
+        continue;
+      }
+      activeHead[maxActive] = activeNext[v];
+      // The gap heuristic may have lifted this node after it was made active.
+      if (height[v] >= n) continue;
+      discharge(v, true);
+      if (work > GLOBAL_RELABEL_FREQUENCY * (n + edgeCount)) {
+        nextPhase();
+        globalRelabel();
+      }
+    }
+
+    // The preflow is maximum, a last global relabel separates the nodes which can still reach the
+    // sink (height < n) from those on the source side of the min cut.
+    nextPhase();
+    globalRelabel();
+    maxFlow = excess[t];
+    for (int i = 0; i < n; i++) minCut[i] = height[i] >= n;
+
+    // Phase 2: send the excess left on the source side of the cut back to the source.
+    returnExcessToSource();
+    reportPhase();
+  }
+
+  // Reports the work done since the last phase ended, if a listener is set.
+  private void reportPhase() {
+    if (metrics != null) endPhase(metrics);
+  }
+
+  private void nextPhase() {
+    reportPhase();
+    metrics = beginPhase();
+  }
+
+  // Pushes the excess of node v through admissible edges, relabeling v whenever it runs out of
+  // admissible edges. In the first phase nodes which are lifted to height n are left alone.
+  private void discharge(int v, boolean firstPhase) {
+    List<Edge> edges = graph[v];
+    while (excess[v] > 0) {
+      if (current[v] == edges.size()) {
+        if (metrics != null) metrics.relabels++;
+        if (firstPhase) {
+          relabelFirstPhase(v);
+          if (height[v] >= n) return;
+        } else {
+          height[v] = minResidualNeighborHeight(v) + 1;
+          current[v] = 0;
+        }
+        continue;
+      }
+      Edge edge = edges.get(current[v]);
+      long cap = edge.remainingCapacity();
+      if (cap > 0 && height[v] == height[edge.to] + 1) {
+        push(edge, min(excess[v], cap));
+      } else {
+        current[v]++;
+        if (metrics != null) metrics.edgeScans++;
+      }
+    }
+  }
+
+  private void push(Edge edge, long amount) {
+    int w = edge.to;
+    if (metrics != null) metrics.pushes++;
+    if (excess[w] == 0 && w != s && w != t) activate(w);
+    edge.augment(amount);
+    excess[edge.from] -= amount;
+    excess[w] += amount;
+  }
+
+  private void relabelFirstPhase(int v) {
+    int oldHeight = height[v];
+    removeFromAll(v);
+    if (allHead[oldHeight] == -1) {
+      // Gap: v and everything above it can no longer reach the sink.
+      for (int h = oldHeight + 1; h <= maxHeight; h++) {
+        for (int u = allHead[h]; u != -1; u = allNext[u]) height[u] = n;
+        allHead[h] = -1;
+      }
+      maxHeight = oldHeight - 1;
+      height[v] = n;
+      return;
+    }
+    int newHeight = minResidualNeighborHeight(v) + 1;
+    current[v] = 0;
+    if (newHeight >= n) {
+      height[v] = n;
+      return;
+    }
+    height[v] = newHeight;
+    addToAll(v);
+  }
+
+  private int minResidualNeighborHeight(int v) {
+    int minHeight = Integer.MAX_VALUE / 2;
+    for (Edge edge : graph[v]) {
+      if (edge.remainingCapacity() > 0) minHeight = min(minHeight, height[edge.to]);
+    }
+    work += graph[v].size() + 12;
+    if (metrics != null) metrics.edgeScans += graph[v].size();
+    return minHeight;
+  }
+
+  // Recomputes the exact distance from every node to the sink in the residual graph with a
+  // reverse BFS. Nodes which cannot reach the sink are given height n.
+  private void globalRelabel() {
+    work = 0;
+    Arrays.fill(height, n);
+    Arrays.fill(activeHead, -1);
+    Arrays.fill(allHead, -1);
+    maxActive = maxHeight = 0;
+
+    int[] queue = new int[n];
+    int head = 0, tail = 0;
+    height[t] = 0;
+    queue[tail++] = t;
+    while (head < tail) {
+      int v = queue[head++];
+      if (metrics != null) metrics.edgeScans += graph[v].size();
+      for (Edge edge : graph[v]) {
+        int u = edge.to;
+        if (u != s && height[u] == n && edge.residual.remainingCapacity() > 0) {
+          height[u] = height[v] + 1;
+          queue[tail++] = u;
+        }
+      }
+    }
+
+    for (int v = 0; v < n; v++) {
+      current[v] = 0;
+      if (height[v] >= n) continue;
+      addToAll(v);
+      if (excess[v] > 0 && v != t) activate(v);
+    }
+  }
+
+  // Lifts every node on the source side of the cut to n plus its distance to the source and
+  // discharges the remaining excess in highest label order.
+  private void returnExcessToSource() {
+    Arrays.fill(activeHead, -1);
+    maxActive = -1;
+
+    int[] queue = new int[n];
+    int head = 0, tail = 0;
+    boolean[] seen = new boolean[n];
+    height[s] = n;
+    seen[s] = true;
+    queue[tail++] = s;
+    while (head < tail) {
+      int v = queue[head++];
+      for (Edge edge : graph[v]) {
+        int u = edge.to;
+        if (!seen[u] && minCut[u] && edge.residual.remainingCapacity() > 0) {
+          seen[u] = true;
+          height[u] = height[v] + 1;
+          queue[tail++] = u;
+        }
+      }
+    }
+
+    for (int v = 0; v < n; v++) {
+      current[v] = 0;
+      if (v != s && v != t && excess[v] > 0) activate(v);
+    }
+    while (maxActive >= 0) {
+      int v = activeHead[maxActive];
+      if (v == -1) {
+        maxActive--;
+        continue;
+      }
+      activeHead[maxActive] = activeNext[v];
+      discharge(v, false);
+    }
+  }
+
+  private void activate(int v) {
+    int h = height[v];
+    activeNext[v] = activeHead[h];
+    activeHead[h] = v;
+    if (h > maxActive) maxActive = h;
+  }
+
+  private void addToAll(int v) {
+    int h = height[v];
+    allPrev[v] = -1;
+    allNext[v] = allHead[h];
+    if (allHead[h] != -1) allPrev[allHead[h]] = v;
+    allHead[h] = v;
+    if (h > maxHeight) maxHeight = h;
+  }
+
+  private void removeFromAll(int v) {
+    int h = height[v];
+    if (allPrev[v] != -1) allNext[allPrev[v]] = allNext[v];
+    else allHead[h] = allNext[v];
+    if (allNext[v] != -1) allPrev[allNext[v]] = allPrev[v];
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    testSmallFlowGraph();
+  }
+
+  // Testing graph from:
+  // http://crypto.cs.mcgill.ca/~crepeau/COMP251/KeyNoteSlides/07demo-maxflowCS-C.pdf
+  private static void testSmallFlowGraph() {
+    int n = 6;
+    int s = n - 1;
+    int t = n - 2;
+
+    PushRelabel solver = new PushRelabel(n, s, t);
+
+    // Source edges
+    solver.addEdge(s, 0, 10);
+    solver.addEdge(s, 1, 10);
+
+    // Sink edges
+    solver.addEdge(2, t, 10);
+    solver.addEdge(3, t, 10);
+
+    // Middle edges
+    solver.addEdge(0, 1, 2);
+    solver.addEdge(0, 2, 4);
+    solver.addEdge(0, 3, 8);
+    solver.addEdge(1, 3, 9);
+    solver.addEdge(3, 2, 6);
+
+    System.out.println(solver.getMaxFlow()); // 19
+  }
+}
@@ -0,0 +1,379 @@
+/**
+ * Centroid decomposition of a tree. The centroid of a tree is a node whose removal leaves no
+ * component with more than half of the nodes; removing it and recursively decomposing the
+ * remaining components gives the centroid tree, which has depth O(log n). Every path of the
+ * original tree passes through the shallowest centroid tree ancestor of its endpoints, so distance
+ * based queries only need to look at the O(log n) centroid ancestors of a node.
+ *
+ * <p>The decomposition is built without recursion and stores, for every level of the centroid
+ * tree, the distance of every node to its centroid ancestor on that level in a primitive array.
+ * {@link #forEachAncestor} exposes the ancestors and distances so that custom per centroid
+ * aggregates can be maintained, and two ready made structures are included:
+ *
+ * <p>- {@link NearestMarkedNode}: mark nodes and ask for the distance to the nearest marked node in
+ * O(log n).
+ *
+ * <p>- {@link DistanceCounter}: node weights which can be changed, and the total weight of the
+ * nodes within distance k of a node in O(log² n).
+ *
+ * <p>Time Complexity: O(n log n) to build
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class CentroidDecomposition {
+
+  // Visits a centroid ancestor of a node, see forEachAncestor.
+  @FunctionalInterface
+  public interface AncestorVisitor {
+    void visit(int centroid, int child, int distance);
+  }
+
+  private final int n;
+
+  // The neighbors of node v are its parent (unless v is the root) and its children
+  // children[childOffsets[v]] through children[childOffsets[v + 1] - 1], see neighbor().
+  private final int[] parent, childOffsets, children;
+
+  // centroidParent[c] is the parent of c in the centroid tree (-1 for the top centroid) and
+  // level[c] its depth in the centroid tree.
+  private final int[] centroidParent, level;
+
+  // dist[l][v] is the distance from node v to its centroid ancestor on level l.
+  private int[][] dist = new int[0][];
+
+  // radius[c] is the largest distance from centroid c to a node of its component.
+  private final int[] radius;
+
+  private int root = -1;
+
+  // Creates the decomposition of an undirected tree given as an adjacency list.
+  public CentroidDecomposition(List<List<Integer>> tree) {
+    this(tree != null && tree.isEmpty() ? new CompactTree(new int[0]) : new CompactTree(tree, 0));
+  }
+
+  // Creates the decomposition of a rooted tree, e.g. one built from a parent array. The root does
+  // not matter, the decomposition walks the parent and children arrays in both directions.
+  public static CentroidDecomposition of(CompactTree tree) {
+    if (tree == null) throw new IllegalArgumentException("Input cannot be null");
+    return new CentroidDecomposition(tree);
+  }
+
+  private CentroidDecomposition(CompactTree tree) {
+    n = tree.size();
+    parent = tree.parentArray();
+    childOffsets = tree.childOffsets();
+    children = tree.children();
+    centroidParent = new int[n];
+    level = new int[n];
+    radius = new int[n];
+    decompose();
+  }
+
+  // Returns the neighbor of node v at position j in [childOffsets[v] - 1, childOffsets[v + 1]),
+  // the first position is the parent of v, which is -1 for the root.
+  private int neighbor(int v, int j) {
+    return j < childOffsets[v] ? parent[v] : children[j];
+  }
+
+  private void decompose() {
+    boolean[] removed = new boolean[n];
+    int[] queue = new int[n], bfsParent = new int[n], size = new int[n];
+
+    // Components still to decompose: a node of the component and the centroid above it.
+    int[] stackNode = new int[n], stackCentroid = new int[n];
+    int stackSize = 0;
+    if (n > 0) {
+      stackNode[stackSize] = 0;
+      stackCentroid[stackSize++] = -1;
+    }
+
+    while (stackSize > 0) {
+      stackSize--;
+      int r = stackNode[stackSize], above = stackCentroid[stackSize];
+
+      // Size the subtrees of the component rooted at r.
+      int count = bfs(r, removed, queue, bfsParent, null);
+      for (int i = count - 1; i >= 0; i--) {
+        int v = queue[i];
+        size[v] = 1;
+        for (int j = childOffsets[v] - 1; j < childOffsets[v + 1]; j++) {
+          int w = neighbor(v, j);
+          if (w != -1 && !removed[w] && w != bfsParent[v]) size[v] += size[w];
+        }
+      }
+
+      // Walk towards the heavy side until no child subtree holds more than half the component.
+      int c = r;
+      for (boolean moved = true; moved; ) {
+        moved = false;
+        for (int j = childOffsets[c] - 1; j < childOffsets[c + 1]; j++) {
+          int w = neighbor(c, j);
+          if (w != -1 && !removed[w] && w != bfsParent[c] && 2 * size[w] > count) {
+            c = w;
+            moved = true;
+            break;
+          }
+        }
+      }
+
+      int l = above == -1 ? 0 : level[above] + 1;
+      centroidParent[c] = above;
+      level[c] = l;
+      if (above == -1) root = c;
+      if (l == dist.length) {
+        dist = Arrays.copyOf(dist, l + 1);
+        dist[l] = new int[n];
+      }
+      bfs(c, removed, queue, bfsParent, dist[l]);
+      radius[c] = dist[l][queue[count - 1]];
+
+      removed[c] = true;
+      for (int j = childOffsets[c] - 1; j < childOffsets[c + 1]; j++) {
+        int w = neighbor(c, j);
+        if (w == -1 || removed[w]) continue;
+        stackNode[stackSize] = w;
+        stackCentroid[stackSize++] = c;
+      }
+    }
+  }
+
+  // BFS over the nodes which are not removed. Fills the queue in visiting order and returns the
+  // number of nodes reached. Also records distances from the start if 'distance' is not null.
+  private int bfs(int start, boolean[] removed, int[] queue, int[] bfsParent, int[] distance) {
+    int head = 0, tail = 0;
+    queue[tail++] = start;
+    bfsParent[start] = -1;
+    if (distance != null) distance[start] = 0;
+    while (head < tail) {
+      int v = queue[head++];
+      for (int j = childOffsets[v] - 1; j < childOffsets[v + 1]; j++) {
+        int w = neighbor(v, j);
+        if (w == -1 || removed[w] || w == bfsParent[v]) continue;
+        bfsParent[w] = v;
+        if (distance != null) distance[w] = distance[v] + 1;
+        queue[tail++] = w;
+      }
+    }
+    return tail;
+  }
+
+  /**
+   * Calls the visitor for every centroid tree ancestor of node v, starting with v itself and moving
+   * up to the top centroid, with the distance from v to that centroid and the previous centroid
+   * visited (-1 for v itself). The nodes within distance d of v through centroid c are those in c's
+   * component at distance d - distance from c, minus those in the child's component.
+   */
+  public void forEachAncestor(int v, AncestorVisitor visitor) {
+    checkNode(v);
+    for (int c = v, child = -1; c != -1; child = c, c = centroidParent[c]) {
+      visitor.visit(c, child, dist[level[c]][v]);
+    }
+  }
+
+  // Returns the distance between nodes u and v in O(log n).
+  public int distance(int u, int v) {
+    checkNode(u);
+    checkNode(v);
+    int a = u, b = v;
+    while (a != b) {
+      if (level[a] >= level[b]) a = centroidParent[a];
+      else b = centroidParent[b];
+    }
+    return dist[level[a]][u] + dist[level[a]][v];
+  }
+
+  // Returns the parent of centroid c in the centroid tree, or -1 for the top centroid.
+  public int centroidParent(int c) {
+    return centroidParent[c];
+  }
+
+  // Returns the depth of centroid c in the centroid tree, the top centroid has level 0.
+  public int level(int c) {
+    return level[c];
+  }
+
+  // Returns the top centroid, the root of the centroid tree.
+  public int root() {
+    return root;
+  }
+
+  // Returns the depth of the centroid tree, at most floor(log2(n)) + 1.
+  public int height() {
+    return dist.length;
+  }
+
+  public int size() {
+    return n;
+  }
+
+  private void checkNode(int v) {
+    if (v < 0 || v >= n) throw new IllegalArgumentException("Invalid node: " + v);
+  }
+
+  /** Tracks a set of marked nodes and answers the distance from any node to the nearest one. */
+  public static class NearestMarkedNode {
+    private static final int INF = Integer.MAX_VALUE;
+
+    private final CentroidDecomposition cd;
+
+    // best[c] is the distance from centroid c to the nearest marked node in its component.
+    private final int[] best;
+
+    public NearestMarkedNode(CentroidDecomposition cd) {
+      this.cd = cd;
+      best = new int[cd.n];
+      Arrays.fill(best, INF);
+    }
+
+    // Marks node v in O(log n).
+    public void mark(int v) {
+      cd.checkNode(v);
+      for (int c = v; c != -1; c = cd.centroidParent[c]) {
+        best[c] = Math.min(best[c], cd.dist[cd.level[c]][v]);
+      }
+    }
+
+    // Returns the distance from node v to the nearest marked node, or -1 if none is marked.
+    public int nearest(int v) {
+      cd.checkNode(v);
+      int result = INF;
+      for (int c = v; c != -1; c = cd.centroidParent[c]) {
+        if (best[c] != INF) result = Math.min(result, best[c] + cd.dist[cd.level[c]][v]);
+      }
+      return result == INF ? -1 : result;
+    }
+  }
+
+  /**
+   * Keeps a weight per node and answers the total weight of the nodes within a given distance of a
+   * node. With all weights equal to one this counts the nodes within distance k.
+   */
+  public static class DistanceCounter {
+    private final CentroidDecomposition cd;
+
+    // Every centroid c has two Fenwick trees indexed by distance, stored back to back in 'tree':
+    // 'own' at ownOffset[c] sums the weights of c's component by distance to c, and 'up' at
+    // upOffset[c] sums the same weights by distance to the parent centroid of c.
+    private final long[] tree;
+    private final int[] ownOffset, ownLength, upOffset, upLength;
+
+    // Creates a counter where every node has weight one.
+    public DistanceCounter(CentroidDecomposition cd) {
+      this(cd, null);
+    }
+
+    public DistanceCounter(CentroidDecomposition cd, long[] weights) {
+      if (weights != null && weights.length != cd.n)
+        throw new IllegalArgumentException("Expected one weight per node");
+      this.cd = cd;
+      int n = cd.n;
+      ownOffset = new int[n];
+      ownLength = new int[n];
+      upOffset = new int[n];
+      upLength = new int[n];
+
+      // The farthest node of a child component from the parent centroid.
+      int[] upRadius = new int[n];
+      for (int v = 0; v < n; v++) {
+        for (int c = v; cd.centroidParent[c] != -1; c = cd.centroidParent[c]) {
+          int d = cd.dist[cd.level[c] - 1][v];
+          if (d > upRadius[c]) upRadius[c] = d;
+        }
+      }
+      long total = 0;
+      for (int c = 0; c < n; c++) {
+        ownOffset[c] = (int) total;
+        ownLength[c] = cd.radius[c] + 1;
+        total += ownLength[c];
+        upOffset[c] = (int) total;
+        upLength[c] = cd.centroidParent[c] == -1 ? 0 : upRadius[c] + 1;
+        total += upLength[c];
+      }
+      if (total > Integer.MAX_VALUE - 8) throw new IllegalArgumentException("Tree is too large");
+      tree = new long[(int) total];
+
+      // Place the weights at their distances, then turn every array into a Fenwick tree in
+      // linear time.
+      for (int v = 0; v < n; v++) {
+        long w = weights == null ? 1 : weights[v];
+        for (int c = v, child = -1; c != -1; child = c, c = cd.centroidParent[c]) {
+          int d = cd.dist[cd.level[c]][v];
+          tree[ownOffset[c] + d] += w;
+          if (child != -1) tree[upOffset[child] + d] += w;
+        }
+      }
+      for (int c = 0; c < n; c++) {
+        buildFenwick(ownOffset[c], ownLength[c]);
+        buildFenwick(upOffset[c], upLength[c]);
+      }
+    }
+
+    // Adds delta to the weight of node v in O(log² n).
+    public void add(int v, long delta) {
+      cd.checkNode(v);
+      for (int c = v, child = -1; c != -1; child = c, c = cd.centroidParent[c]) {
+        int d = cd.dist[cd.level[c]][v];
+        fenwickAdd(ownOffset[c], ownLength[c], d, delta);
+        if (child != -1) fenwickAdd(upOffset[child], upLength[child], d, delta);
+      }
+    }
+
+    // Returns the total weight of the nodes within distance k of node v in O(log² n).
+    public long sumWithin(int v, int k) {
+      cd.checkNode(v);
+      long sum = 0;
+      for (int c = v, child = -1; c != -1; child = c, c = cd.centroidParent[c]) {
+        int r = k - cd.dist[cd.level[c]][v];
+        if (r < 0) continue;
+        sum += fenwickPrefix(ownOffset[c], ownLength[c], r);
+        if (child != -1) sum -= fenwickPrefix(upOffset[child], upLength[child], r);
+      }
+      return sum;
+    }
+
+    // Fenwick trees over positions 0..length-1 stored at tree[offset..offset+length-1], where
+    // entry i covers positions (i + 1) - lsb(i + 1) through i.
+    private void buildFenwick(int offset, int length) {
+      for (int i = 0; i < length; i++) {
+        int j = i | (i + 1);
+        if (j < length) tree[offset + j] += tree[offset + i];
+      }
+    }
+
+    private void fenwickAdd(int offset, int length, int i, long delta) {
+      for (; i < length; i |= i + 1) tree[offset + i] += delta;
+    }
+
+    private long fenwickPrefix(int offset, int length, int i) {
+      long sum = 0;
+      for (i = Math.min(i, length - 1); i >= 0; i = (i & (i + 1)) - 1) sum += tree[offset + i];
+      return sum;
+    }
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    // The path 0 - 1 - 2 - 3 - 4 with 5 attached to 2.
+    int[] parent = {-1, 0, 1, 2, 3, 2};
+    CentroidDecomposition cd = CentroidDecomposition.of(new CompactTree(parent));
+    System.out.println(cd.root()); // 2
+    System.out.println(cd.distance(0, 5)); // 3
+
+    NearestMarkedNode nearest = new NearestMarkedNode(cd);
+    nearest.mark(4);
+    System.out.println(nearest.nearest(0)); // 4
+    nearest.mark(5);
+    System.out.println(nearest.nearest(0)); // 3
+
+    DistanceCounter counter = new DistanceCounter(cd);
+    System.out.println(counter.sumWithin(0, 2)); // 3
+    counter.add(1, -1);
+    System.out.println(counter.sumWithin(0, 2)); // 2
+  }
+}
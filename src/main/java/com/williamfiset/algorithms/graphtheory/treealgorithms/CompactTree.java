@@ -0,0 +1,321 @@
+/**
+ * A rooted tree stored in a handful of int arrays: the parent of every node, the children of every
+ * node in compressed sparse row (CSR) form, depths, subtree sizes and a preorder numbering. It uses
+ * 7 ints (28 bytes) per node, compared to a TreeNode object with its own children list as built by
+ * {@link RootingTree}, and it is built without recursion so trees of any depth are fine.
+ *
+ * <p>The preorder numbering visits the children of every node in the order they are stored, so
+ * the subtree of node v is exactly the nodes at preorder positions [preorder(v), preorder(v) +
+ * subtreeSize(v)).
+ *
+ * <p>The parent array, as returned by {@link #parentArray()}, is the input format of the other
+ * classes in this package. They all build a CompactTree from it and work on its arrays, and most
+ * of them also take an existing CompactTree through a static {@code of} method, which skips the
+ * validation and the construction of the arrays.
+ *
+ * <p>Time Complexity: O(n) to build, O(1) for every query.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class CompactTree {
+
+  private final int n, root;
+  private final int[] parent, depth, subtreeSize;
+
+  // The children of node v are children[childOffsets[v]] through children[childOffsets[v+1] - 1].
+  private final int[] childOffsets, children;
+
+  // pre[v] is the preorder position of node v and order[i] the node at preorder position i.
+  private final int[] pre, order;
+
+  /**
+   * Builds a tree from a parent array.
+   *
+   * @param parent - parent[v] is the parent of node v, or -1 for the root. There must be exactly
+   *     one root and every node must be connected to it.
+   */
+  public CompactTree(int[] parent) {
+    this(parent == null ? null : parent.clone(), findRoot(parent));
+  }
+
+  /**
+   * Builds a tree from the n - 1 undirected edges (from[i], to[i]) of a tree on nodes [0, n) and
+   * roots it at 'root'.
+   */
+  public CompactTree(int n, int[] from, int[] to, int root) {
+    this(rootEdges(n, from, to, root), root);
+  }
+
+  /** Builds a tree from an undirected adjacency list and roots it at 'root'. */
+  public CompactTree(List<List<Integer>> tree, int root) {
+    this(rootAdjacencyList(tree, root), root);
+  }
+
+  // Takes ownership of a parent array whose root is known to be valid.
+  private CompactTree(int[] parent, int root) {
+    n = parent.length;
+    this.root = root;
+    this.parent = parent;
+    int[][] csr = childCsr(parent);
+    childOffsets = csr[0];
+    children = csr[1];
+    depth = new int[n];
+    subtreeSize = new int[n];
+    pre = new int[n];
+    order = new int[n];
+    build();
+  }
+
+  // Validates a parent array and returns its root, or -1 if it is empty. Cycles are only found
+  // when the tree is built.
+  static int findRoot(int[] parent) {
+    if (parent == null) throw new IllegalArgumentException("Input cannot be null");
+    int n = parent.length, root = -1;
+    for (int v = 0; v < n; v++) {
+      int p = parent[v];
+      if (p == -1) {
+        if (root != -1) throw new IllegalArgumentException("More than one root");
+        root = v;
+      } else if (p < 0 || p >= n) {
+        throw new IllegalArgumentException("Invalid parent of node " + v + ": " + p);
+      }
+    }
+    if (n > 0 && root == -1) throw new IllegalArgumentException("No root");
+    return root;
+  }
+
+  // Returns the children of every node in CSR form, as {childOffsets, children}, ordered by
+  // index. The parents must be in range, roots have parent -1 and there may be several of them.
+  static int[][] childCsr(int[] parent) {
+    int n = parent.length;
+    int[] offsets = new int[n + 1];
+    for (int v = 0; v < n; v++) if (parent[v] != -1) offsets[parent[v] + 1]++;
+    for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+    int[] children = new int[offsets[n]];
+    int[] next = Arrays.copyOf(offsets, n);
+    for (int v = 0; v < n; v++) if (parent[v] != -1) children[next[parent[v]]++] = v;
+    return new int[][] {offsets, children};
+  }
+
+  // Returns the parent array of the tree with the given edges rooted at 'root'.
+  private static int[] rootEdges(int n, int[] from, int[] to, int root) {
+    if (from == null || to == null) throw new IllegalArgumentException("Input cannot be null");
+    if (n < 1) throw new IllegalArgumentException("A tree needs at least one node");
+    if (from.length != n - 1 || to.length != n - 1)
+      throw new IllegalArgumentException("A tree with n nodes has n - 1 edges");
+    int[] offsets = new int[n + 1];
+    for (int i = 0; i < n - 1; i++) {
+      if (from[i] < 0 || from[i] >= n)
+        throw new IllegalArgumentException("Invalid node: " + from[i]);
+      if (to[i] < 0 || to[i] >= n) throw new IllegalArgumentException("Invalid node: " + to[i]);
+      offsets[from[i] + 1]++;
+      offsets[to[i] + 1]++;
+    }
+    for (int v = 0; v < n; v++) offsets[v + 1] += offsets[v];
+    int[] adj = new int[2 * (n - 1)];
+    int[] next = Arrays.copyOf(offsets, n);
+    for (int i = 0; i < n - 1; i++) {
+      adj[next[from[i]]++] = to[i];
+      adj[next[to[i]]++] = from[i];
+    }
+    return rootCsr(offsets, adj, root);
+  }
+
+  private static int[] rootAdjacencyList(List<List<Integer>> tree, int root) {
+    if (tree == null) throw new IllegalArgumentException("Input cannot be null");
+    int n = tree.size();
+    int[] offsets = new int[n + 1];
+    for (int v = 0; v < n; v++) offsets[v + 1] = offsets[v] + tree.get(v).size();
+    int[] adj = new int[offsets[n]];
+    for (int v = 0, i = 0; v < n; v++) {
+      for (int w : tree.get(v)) {
+        if (w < 0 || w >= n) throw new IllegalArgumentException("Invalid node: " + w);
+        adj[i++] = w;
+      }
+    }
+    return rootCsr(offsets, adj, root);
+  }
+
+  // Walks an undirected graph in CSR form from the root with an explicit stack and returns the
+  // parent of every node. The graph must be connected and have exactly n - 1 edges.
+  private static int[] rootCsr(int[] offsets, int[] adj, int root) {
+    int n = offsets.length - 1;
+    if (root < 0 || root >= n) throw new IllegalArgumentException("Invalid root: " + root);
+    if (adj.length != 2 * (n - 1))
+      throw new IllegalArgumentException("A tree with n nodes has n - 1 edges");
+    int[] parent = new int[n];
+    Arrays.fill(parent, -2);
+    int[] stack = new int[n];
+    int size = 0, reached = 1;
+    parent[root] = -1;
+    stack[size++] = root;
+    while (size > 0) {
+      int v = stack[--size];
+      for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+        int w = adj[i];
+        if (parent[w] != -2) continue;
+        parent[w] = v;
+        stack[size++] = w;
+        reached++;
+      }
+    }
+    if (reached != n) throw new IllegalArgumentException("The graph is not connected");
+    return parent;
+  }
+
+  // Numbers the nodes in preorder with an explicit stack and computes depths and subtree sizes.
+  private void build() {
+    if (n == 0) return;
+    // The subtree sizes are computed last, their array serves as the stack until then.
+    int[] stack = subtreeSize;
+    int size = 0, count = 0;
+    stack[size++] = root;
+    while (size > 0) {
+      int v = stack[--size];
+      pre[v] = count;
+      order[count++] = v;
+      if (v != root) depth[v] = depth[parent[v]] + 1;
+      for (int i = childOffsets[v + 1] - 1; i >= childOffsets[v]; i--) stack[size++] = children[i];
+    }
+    if (count != n) throw new IllegalArgumentException("The parent array contains a cycle");
+
+    Arrays.fill(subtreeSize, 0);
+    for (int i = n - 1; i >= 0; i--) {
+      int v = order[i];
+      subtreeSize[v]++;
+      if (v != root) subtreeSize[parent[v]] += subtreeSize[v];
+    }
+  }
+
+  public int size() {
+    return n;
+  }
+
+  public int root() {
+    return root;
+  }
+
+  // Returns the parent of node v, or -1 for the root.
+  public int parent(int v) {
+    checkNode(v);
+    return parent[v];
+  }
+
+  public int depth(int v) {
+    checkNode(v);
+    return depth[v];
+  }
+
+  public int subtreeSize(int v) {
+    checkNode(v);
+    return subtreeSize[v];
+  }
+
+  public int childCount(int v) {
+    checkNode(v);
+    return childOffsets[v + 1] - childOffsets[v];
+  }
+
+  // Returns the i-th child of node v.
+  public int child(int v, int i) {
+    if (i < 0 || i >= childCount(v)) throw new IllegalArgumentException("Invalid child: " + i);
+    return children[childOffsets[v] + i];
+  }
+
+  // Returns the preorder position of node v.
+  public int preorder(int v) {
+    checkNode(v);
+    return pre[v];
+  }
+
+  // Returns the node at preorder position i.
+  public int nodeAt(int i) {
+    if (i < 0 || i >= n) throw new IllegalArgumentException("Invalid position: " + i);
+    return order[i];
+  }
+
+  // Returns true if node a is an ancestor of node v (every node is an ancestor of itself).
+  public boolean isAncestor(int a, int v) {
+    checkNode(a);
+    checkNode(v);
+    return pre[a] <= pre[v] && pre[v] < pre[a] + subtreeSize[a];
+  }
+
+  // The array accessors below return the internal arrays without copying them, so that trees with
+  // hundreds of millions of nodes can be handed around. They must not be modified.
+
+  public int[] parentArray() {
+    return parent;
+  }
+
+  public int[] childOffsets() {
+    return childOffsets;
+  }
+
+  public int[] children() {
+    return children;
+  }
+
+  public int[] depthArray() {
+    return depth;
+  }
+
+  public int[] subtreeSizeArray() {
+    return subtreeSize;
+  }
+
+  // Returns the nodes in preorder.
+  public int[] preorderArray() {
+    return order;
+  }
+
+  // Returns the preorder position of every node, the inverse of preorderArray().
+  public int[] preorderPositionArray() {
+    return pre;
+  }
+
+  // Returns the tree as an undirected adjacency list, the input format of TreeCenter, TreeDiameter,
+  // RootingTree, LowestCommonAncestor and TreeIsomorphism.
+  public List<List<Integer>> toAdjacencyList() {
+    List<List<Integer>> tree = new ArrayList<>(n);
+    for (int v = 0; v < n; v++) tree.add(new ArrayList<>(childCount(v) + 1));
+    for (int v = 0; v < n; v++) {
+      if (v == root) continue;
+      tree.get(v).add(parent[v]);
+      tree.get(parent[v]).add(v);
+    }
+    return tree;
+  }
+
+  private void checkNode(int v) {
+    if (v < 0 || v >= n) throw new IllegalArgumentException("Invalid node: " + v);
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    //       0
+    //     /   \
+    //    1     2
+    //   / \     \
+    //  3   4     5
+    int[] from = {0, 0, 1, 4, 5};
+    int[] to = {1, 2, 3, 1, 2};
+    CompactTree tree = new CompactTree(6, from, to, 0);
+    System.out.println(Arrays.toString(tree.parentArray())); // [-1, 0, 0, 1, 1, 2]
+    System.out.println(Arrays.toString(tree.preorderArray())); // [0, 1, 3, 4, 2, 5]
+    System.out.println(tree.depth(5)); // 2
+    System.out.println(tree.subtreeSize(1)); // 3
+
+    // The same tree rooted at node 4.
+    tree = new CompactTree(6, from, to, 4);
+    System.out.println(Arrays.toString(tree.parentArray())); // [1, 4, 0, 1, -1, 2]
+    System.out.println(TreeIndex.of(tree).lca(3, 5)); // 1
+  }
+}
@@ -0,0 +1,277 @@
+/**
+ * Flattens a rooted tree with an Euler tour so that every subtree is a contiguous range of
+ * positions: node v is entered at position tin[v] and the tour leaves its subtree after position
+ * tout[v], so the subtree of v is exactly the positions [tin[v], tout[v]]. Positions are one based
+ * to line up with the Fenwick trees in {@link
+ * com.williamfiset.algorithms.datastructures.fenwicktree}.
+ *
+ * <p>On top of the flattening:
+ *
+ * <ul>
+ *   <li>{@link SubtreeSums} adds to single nodes or whole subtrees and sums over subtrees,
+ *       backed by {@link FenwickTreeRangeQueryPointUpdate}.
+ *   <li>{@link RootPathSums} adds to single nodes and sums over the path from a node up to the
+ *       root. Adding x to node v adds x to the root path sum of every node in the subtree of v, a
+ *       range update on [tin[v], tout[v]], so it is backed by {@link
+ *       FenwickTreeRangeUpdatePointQuery}.
+ * </ul>
+ *
+ * <p>The tour is the preorder of a {@link CompactTree}, which is computed with an explicit stack,
+ * so deep trees are fine.
+ *
+ * <p>Time Complexity: O(n) to build the tour, O(n) to build a Fenwick tree over it and O(log n) per
+ * update or query.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import com.williamfiset.algorithms.datastructures.fenwicktree.FenwickTreeRangeQueryPointUpdate;
+import com.williamfiset.algorithms.datastructures.fenwicktree.FenwickTreeRangeUpdatePointQuery;
+
+public class EulerTourIndex {
+
+  private final int n, root;
+  private final int[] parent, subtreeSize;
+
+  // The tour is the preorder of the tree shifted by one: pre[v] + 1 is the position of node v and
+  // order[i - 1] the node at position i.
+  private final int[] pre, order;
+
+  /**
+   * Builds the Euler tour of a tree given as a parent array.
+   *
+   * @param parent - parent[v] is the parent of node v, or -1 for the root. There must be exactly
+   *     one root and every node must be connected to it.
+   */
+  public EulerTourIndex(int[] parent) {
+    this(new CompactTree(parent));
+  }
+
+  // Builds the Euler tour of an existing tree from its preorder, without copying it.
+  public static EulerTourIndex of(CompactTree tree) {
+    if (tree == null) throw new IllegalArgumentException("Input cannot be null");
+    return new EulerTourIndex(tree);
+  }
+
+  private EulerTourIndex(CompactTree tree) {
+    n = tree.size();
+    root = tree.root();
+    parent = tree.parentArray();
+    subtreeSize = tree.subtreeSizeArray();
+    pre = tree.preorderPositionArray();
+    order = tree.preorderArray();
+  }
+
+  private int in(int v) {
+    return pre[v] + 1;
+  }
+
+  private int out(int v) {
+    return pre[v] + subtreeSize[v];
+  }
+
+  // Returns the position of node v in the tour, in [1, n].
+  public int tin(int v) {
+    checkNode(v);
+    return in(v);
+  }
+
+  // Returns the last position of the subtree of node v.
+  public int tout(int v) {
+    checkNode(v);
+    return out(v);
+  }
+
+  // Returns the node at tour position i.
+  public int node(int i) {
+    if (i < 1 || i > n) throw new IllegalArgumentException("Invalid position: " + i);
+    return order[i - 1];
+  }
+
+  // Returns the parent of node v, or -1 for the root.
+  public int parent(int v) {
+    checkNode(v);
+    return parent[v];
+  }
+
+  public int subtreeSize(int v) {
+    checkNode(v);
+    return subtreeSize[v];
+  }
+
+  // Returns true if node a is an ancestor of node v (every node is an ancestor of itself).
+  public boolean isAncestor(int a, int v) {
+    checkNode(a);
+    checkNode(v);
+    return pre[a] <= pre[v] && pre[v] < pre[a] + subtreeSize[a];
+  }
+
+  public int root() {
+    return root;
+  }
+
+  public int size() {
+    return n;
+  }
+
+  private void checkNode(int v) {
+    if (v < 0 || v >= n) throw new IllegalArgumentException("Invalid node: " + v);
+  }
+
+  // Copies the values into a one based array in tour order, the layout the Fenwick trees expect.
+  private long[] byPosition(long[] values) {
+    if (values == null) throw new IllegalArgumentException("Values array cannot be null!");
+    if (values.length != n) throw new IllegalArgumentException("Expected " + n + " values");
+    long[] positions = new long[n + 1];
+    for (int v = 0; v < n; v++) positions[in(v)] = values[v];
+    return positions;
+  }
+
+  /**
+   * Node values with point and subtree updates and subtree sums.
+   *
+   * <p>Single node updates go into one Fenwick tree. Subtree updates are range updates on the
+   * tour; to also answer range sums they are kept in two more Fenwick trees, 'slope' and 'offset',
+   * such that the sum of all subtree updates over positions [1, i] is slope(1..i) * i -
+   * offset(1..i).
+   */
+  public static class SubtreeSums {
+    private final EulerTourIndex tour;
+    private final FenwickTreeRangeQueryPointUpdate points, slope, offset;
+
+    // Starts with every node value at 0.
+    public SubtreeSums(EulerTourIndex tour) {
+      this(tour, new long[tour.n]);
+    }
+
+    public SubtreeSums(EulerTourIndex tour, long[] values) {
+      if (tour == null) throw new IllegalArgumentException("Input cannot be null");
+      this.tour = tour;
+      points = new FenwickTreeRangeQueryPointUpdate(tour.byPosition(values));
+      slope = new FenwickTreeRangeQueryPointUpdate(tour.n);
+      offset = new FenwickTreeRangeQueryPointUpdate(tour.n);
+    }
+
+    // Adds x to the value of node v, O(log(n))
+    public void add(int v, long x) {
+      tour.checkNode(v);
+      points.add(tour.in(v), x);
+    }
+
+    // Adds x to the value of every node in the subtree of v, O(log(n))
+    public void addSubtree(int v, long x) {
+      tour.checkNode(v);
+      int l = tour.in(v), r = tour.out(v);
+      slope.add(l, x);
+      slope.add(r + 1, -x);
+      offset.add(l, x * (l - 1));
+      offset.add(r + 1, -x * r);
+    }
+
+    // Returns the value of node v, O(log(n))
+    public long get(int v) {
+      tour.checkNode(v);
+      int i = tour.in(v);
+      return points.get(i) + slope.sum(1, i);
+    }
+
+    // Sets the value of node v, O(log(n))
+    public void set(int v, long x) {
+      add(v, x - get(v));
+    }
+
+    // Returns the sum of the values in the subtree of v, O(log(n))
+    public long sumSubtree(int v) {
+      tour.checkNode(v);
+      int l = tour.in(v), r = tour.out(v);
+      return points.sum(l, r) + rangeUpdates(r) - rangeUpdates(l - 1);
+    }
+
+    // Returns the sum of all subtree updates over the positions [1, i].
+    private long rangeUpdates(int i) {
+      if (i == 0) return 0;
+      return slope.sum(1, i) * i - offset.sum(1, i);
+    }
+  }
+
+  /**
+   * Node values with point updates and sums over the path from a node up to the root. A value at
+   * node v is a range update over the subtree of v in a {@link FenwickTreeRangeUpdatePointQuery},
+   * and the root path sum of node u is the point value at position tin[u].
+   */
+  public static class RootPathSums {
+    private final EulerTourIndex tour;
+    private final long[] values;
+    private final FenwickTreeRangeUpdatePointQuery sums;
+
+    // Starts with every node value at 0.
+    public RootPathSums(EulerTourIndex tour) {
+      this(tour, new long[tour.n]);
+    }
+
+    public RootPathSums(EulerTourIndex tour, long[] values) {
+      if (tour == null) throw new IllegalArgumentException("Input cannot be null");
+      this.tour = tour;
+      this.values = tour.byPosition(values);
+      // The initial root path sums, accumulated in tour order so parents come first.
+      long[] initial = new long[tour.n + 1];
+      for (int i = 1; i <= tour.n; i++) {
+        int p = tour.parent[tour.order[i - 1]];
+        initial[i] = (p == -1 ? 0 : initial[tour.in(p)]) + this.values[i];
+      }
+      sums = new FenwickTreeRangeUpdatePointQuery(initial);
+    }
+
+    // Adds x to the value of node v, O(log(n))
+    public void add(int v, long x) {
+      tour.checkNode(v);
+      values[tour.in(v)] += x;
+      sums.updateRange(tour.in(v), tour.out(v), x);
+    }
+
+    // Returns the value of node v, O(1)
+    public long get(int v) {
+      tour.checkNode(v);
+      return values[tour.in(v)];
+    }
+
+    // Sets the value of node v, O(log(n))
+    public void set(int v, long x) {
+      add(v, x - get(v));
+    }
+
+    // Returns the sum of the values on the path from node v up to the root, both included.
+    // O(log(n))
+    public long sumToRoot(int v) {
+      tour.checkNode(v);
+      return sums.get(tour.in(v));
+    }
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    //       0
+    //     /   \
+    //    1     2
+    //   / \     \
+    //  3   4     5
+    int[] parent = {-1, 0, 0, 1, 1, 2};
+    long[] values = {1, 2, 3, 4, 5, 6};
+    EulerTourIndex tour = new EulerTourIndex(parent);
+
+    SubtreeSums subtree = new SubtreeSums(tour, values);
+    System.out.println(subtree.sumSubtree(1)); // 11
+    subtree.addSubtree(1, 10);
+    System.out.println(subtree.sumSubtree(1)); // 41
+    System.out.println(subtree.sumSubtree(0)); // 51
+    System.out.println(subtree.get(4)); // 15
+
+    RootPathSums paths = new RootPathSums(tour, values);
+    System.out.println(paths.sumToRoot(4)); // 8
+    paths.add(1, 100);
+    System.out.println(paths.sumToRoot(4)); // 108
+    System.out.println(paths.sumToRoot(5)); // 10
+  }
+}
@@ -0,0 +1,229 @@
+/**
+ * Heavy-light decomposition of a rooted tree. Every node picks the child with the largest subtree
+ * as its heavy child; the heavy edges split the tree into chains, and any root path crosses at most
+ * O(log n) of them. The nodes are laid out in a DFS order which visits heavy children first, so
+ * every chain and every subtree occupies a contiguous range of positions.
+ *
+ * <p>This turns path and subtree operations on the tree into O(log n) range operations on an
+ * array, which can be handled by any range structure, for instance the segment trees in {@code
+ * datastructures.segmenttree}:
+ *
+ * <pre>{@code
+ * HeavyLightDecomposition hld = new HeavyLightDecomposition(tree, 0);
+ * SumQuerySumUpdateSegmentTree st = new SumQuerySumUpdateSegmentTree(hld.arrange(values));
+ * hld.updatePath(u, v, 5, st::rangeUpdate1);
+ * long sum = hld.queryPath(u, v, st::rangeQuery1, Long::sum);
+ * }</pre>
+ *
+ * <p>The decomposition is built without recursion from a parent array or from an undirected tree
+ * given as an adjacency list, like the input of {@link RootingTree}.
+ *
+ * <p>Time Complexity: O(n) to build, O(log n) range operations per path operation and one range
+ * operation per subtree operation.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import com.williamfiset.algorithms.datastructures.segmenttree.SumQuerySumUpdateSegmentTree;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongBinaryOperator;
+
+public class HeavyLightDecomposition {
+
+  // Answers a query over the positions [l, r], e.g. SumQuerySumUpdateSegmentTree::rangeQuery1
+  @FunctionalInterface
+  public interface RangeQuery {
+    long query(int l, int r);
+  }
+
+  // Applies an update with value x to the positions [l, r], e.g. GenericSegmentTree::rangeUpdate1
+  @FunctionalInterface
+  public interface RangeUpdate {
+    void update(int l, int r, long x);
+  }
+
+  private final int n, root;
+  private final int[] parent, depth, subtreeSize;
+
+  // head[v] is the topmost node of the chain containing v, pos[v] the position of node v and
+  // nodeAt[i] the node at position i.
+  private final int[] head, pos, nodeAt;
+
+  /**
+   * @param tree - An undirected tree as an adjacency list.
+   * @param root - The node to root the tree at.
+   */
+  public HeavyLightDecomposition(List<List<Integer>> tree, int root) {
+    this(new CompactTree(tree, root));
+  }
+
+  /**
+   * @param parent - parent[v] is the parent of node v, or -1 for the root. There must be exactly
+   *     one root and every node must be connected to it.
+   */
+  public HeavyLightDecomposition(int[] parent) {
+    this(new CompactTree(parent));
+  }
+
+  // Decomposes an existing tree, using its parent, depth and subtree size arrays.
+  public static HeavyLightDecomposition of(CompactTree tree) {
+    if (tree == null) throw new IllegalArgumentException("Input cannot be null");
+    return new HeavyLightDecomposition(tree);
+  }
+
+  private HeavyLightDecomposition(CompactTree tree) {
+    n = tree.size();
+    root = tree.root();
+    parent = tree.parentArray();
+    depth = tree.depthArray();
+    subtreeSize = tree.subtreeSizeArray();
+    head = new int[n];
+    pos = new int[n];
+    nodeAt = new int[n];
+    if (n > 0) decompose(tree.childOffsets(), tree.children());
+  }
+
+  private void decompose(int[] offsets, int[] children) {
+    // DFS which pushes the heavy child last so that it is visited right after its parent.
+    int[] stack = new int[n];
+    int size = 0;
+    stack[size++] = root;
+    head[root] = root;
+    for (int count = 0; size > 0; count++) {
+      int v = stack[--size];
+      pos[v] = count;
+      nodeAt[count] = v;
+      int heavy = -1;
+      for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+        int c = children[j];
+        if (heavy == -1 || subtreeSize[c] > subtreeSize[heavy]) heavy = c;
+      }
+      for (int j = offsets[v]; j < offsets[v + 1]; j++) {
+        int c = children[j];
+        if (c == heavy) continue;
+        head[c] = c;
+        stack[size++] = c;
+      }
+      if (heavy != -1) {
+        head[heavy] = head[v];
+        stack[size++] = heavy;
+      }
+    }
+  }
+
+  // Returns the lowest common ancestor of nodes u and v.
+  public int lca(int u, int v) {
+    checkNode(u);
+    checkNode(v);
+    while (head[u] != head[v]) {
+      if (depth[head[u]] > depth[head[v]]) u = parent[head[u]];
+      else v = parent[head[v]];
+    }
+    return depth[u] < depth[v] ? u : v;
+  }
+
+  /**
+   * Combines the query results of all ranges covering the nodes on the path between u and v. The
+   * combine function must be associative and commutative, like sum, min or max.
+   */
+  public long queryPath(int u, int v, RangeQuery query, LongBinaryOperator combine) {
+    checkNode(u);
+    checkNode(v);
+    long result = 0;
+    boolean first = true;
+    while (head[u] != head[v]) {
+      if (depth[head[u]] < depth[head[v]]) {
+        int tmp = u;
+        u = v;
+        v = tmp;
+      }
+      long x = query.query(pos[head[u]], pos[u]);
+      result = first ? x : combine.applyAsLong(result, x);
+      first = false;
+      u = parent[head[u]];
+    }
+    long x = query.query(Math.min(pos[u], pos[v]), Math.max(pos[u], pos[v]));
+    return first ? x : combine.applyAsLong(result, x);
+  }
+
+  // Applies an update with value x to all nodes on the path between u and v.
+  public void updatePath(int u, int v, long x, RangeUpdate update) {
+    checkNode(u);
+    checkNode(v);
+    while (head[u] != head[v]) {
+      if (depth[head[u]] < depth[head[v]]) {
+        int tmp = u;
+        u = v;
+        v = tmp;
+      }
+      update.update(pos[head[u]], pos[u], x);
+      u = parent[head[u]];
+    }
+    update.update(Math.min(pos[u], pos[v]), Math.max(pos[u], pos[v]), x);
+  }
+
+  // Returns the query result over the subtree of node v.
+  public long querySubtree(int v, RangeQuery query) {
+    checkNode(v);
+    return query.query(pos[v], pos[v] + subtreeSize[v] - 1);
+  }
+
+  // Applies an update with value x to all nodes in the subtree of node v.
+  public void updateSubtree(int v, long x, RangeUpdate update) {
+    checkNode(v);
+    update.update(pos[v], pos[v] + subtreeSize[v] - 1, x);
+  }
+
+  // Reorders per node values into position order, ready to build a range structure from.
+  public long[] arrange(long[] values) {
+    if (values == null || values.length != n)
+      throw new IllegalArgumentException("Expected one value per node");
+    long[] arranged = new long[n];
+    for (int i = 0; i < n; i++) arranged[i] = values[nodeAt[i]];
+    return arranged;
+  }
+
+  // Returns the position of node v in the range structure.
+  public int position(int v) {
+    return pos[v];
+  }
+
+  public int parent(int v) {
+    return parent[v];
+  }
+
+  public int depth(int v) {
+    return depth[v];
+  }
+
+  public int subtreeSize(int v) {
+    return subtreeSize[v];
+  }
+
+  private void checkNode(int v) {
+    if (v < 0 || v >= n) throw new IllegalArgumentException("Invalid node: " + v);
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    // 0 - 1 - 2 - 3 with 4 and 5 hanging off node 1.
+    List<List<Integer>> tree = LowestCommonAncestor.createEmptyGraph(6);
+    LowestCommonAncestor.addUndirectedEdge(tree, 0, 1);
+    LowestCommonAncestor.addUndirectedEdge(tree, 1, 2);
+    LowestCommonAncestor.addUndirectedEdge(tree, 2, 3);
+    LowestCommonAncestor.addUndirectedEdge(tree, 1, 4);
+    LowestCommonAncestor.addUndirectedEdge(tree, 4, 5);
+    long[] values = {1, 2, 3, 4, 5, 6};
+
+    HeavyLightDecomposition hld = new HeavyLightDecomposition(tree, 0);
+    SumQuerySumUpdateSegmentTree st = new SumQuerySumUpdateSegmentTree(hld.arrange(values));
+
+    System.out.println(hld.queryPath(3, 5, st::rangeQuery1, Long::sum)); // 20
+    hld.updatePath(0, 3, 10, st::rangeUpdate1);
+    System.out.println(hld.queryPath(3, 5, st::rangeQuery1, Long::sum)); // 50
+    System.out.println(hld.querySubtree(4, st::rangeQuery1)); // 11
+  }
+}
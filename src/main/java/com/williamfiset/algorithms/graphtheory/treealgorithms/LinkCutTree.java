@@ -0,0 +1,291 @@
+/**
+ * Link-cut tree (Sleator and Tarjan) for a forest of rooted trees which changes over time. Trees
+ * can be linked and cut, and connectivity, roots, lowest common ancestors and the sum, minimum and
+ * maximum of node values along a path are all answered online in amortized O(log n).
+ *
+ * <p>Every tree is split into preferred paths, each stored in a splay tree keyed by depth. The
+ * splay trees keep path aggregates in their nodes, and the root of every splay tree keeps a path
+ * parent pointer to the node above its path. 'access(v)' makes the path from the root to v
+ * preferred, after which v is the root of a splay tree holding exactly that path.
+ *
+ * <p>The splay trees use the same rotations as {@link
+ * com.williamfiset.algorithms.datastructures.binarysearchtree.SplayTree}, but all nodes live in
+ * primitive arrays indexed by node id, with a lazy reversal flag to support rerooting.
+ *
+ * <p>Time Complexity: amortized O(log n) per operation
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import java.util.Arrays;
+
+public class LinkCutTree {
+
+  private final int n;
+
+  // Node n is a sentinel standing in for missing children and parents, its aggregates are the
+  // identities so no null checks are needed.
+  private final int nil;
+
+  // Splay tree links. parent[v] is either the splay tree parent or, at the root of a splay tree,
+  // the path parent.
+  private final int[] left, right, parent;
+
+  // Lazy flag: the children of every node in the subtree must be swapped.
+  private final boolean[] flip;
+
+  private final long[] value, sum, min, max;
+
+  // Creates a forest of n single node trees with value 0.
+  public LinkCutTree(int n) {
+    this(new long[n]);
+  }
+
+  // Creates a forest of single node trees with the given values.
+  public LinkCutTree(long[] values) {
+    if (values == null) throw new IllegalArgumentException("Input cannot be null");
+    n = values.length;
+    nil = n;
+    left = new int[n + 1];
+    right = new int[n + 1];
+    parent = new int[n + 1];
+    Arrays.fill(left, nil);
+    Arrays.fill(right, nil);
+    Arrays.fill(parent, nil);
+    flip = new boolean[n + 1];
+    value = Arrays.copyOf(values, n + 1);
+    sum = Arrays.copyOf(values, n + 1);
+    min = Arrays.copyOf(values, n + 1);
+    max = Arrays.copyOf(values, n + 1);
+    min[nil] = Long.MAX_VALUE;
+    max[nil] = Long.MIN_VALUE;
+  }
+
+  /* Splay tree primitives */
+
+  private boolean isSplayRoot(int x) {
+    int p = parent[x];
+    return p == nil || (left[p] != x && right[p] != x);
+  }
+
+  private void push(int x) {
+    if (!flip[x]) return;
+    int l = left[x];
+    left[x] = right[x];
+    right[x] = l;
+    if (left[x] != nil) flip[left[x]] ^= true;
+    if (right[x] != nil) flip[right[x]] ^= true;
+    flip[x] = false;
+  }
+
+  private void pull(int x) {
+    int l = left[x], r = right[x];
+    sum[x] = sum[l] + value[x] + sum[r];
+    min[x] = Math.min(Math.min(min[l], value[x]), min[r]);
+    max[x] = Math.max(Math.max(max[l], value[x]), max[r]);
+  }
+
+  private void rotate(int x) {
+    int p = parent[x], g = parent[p];
+    if (!isSplayRoot(p)) {
+      if (left[g] == p) left[g] = x;
+      else right[g] = x;
+    }
+    parent[x] = g;
+    if (left[p] == x) {
+      left[p] = right[x];
+      if (right[x] != nil) parent[right[x]] = p;
+      right[x] = p;
+    } else {
+      right[p] = left[x];
+      if (left[x] != nil) parent[left[x]] = p;
+      left[x] = p;
+    }
+    parent[p] = x;
+    pull(p);
+    pull(x);
+  }
+
+  // Pending flips from the splay root down to x are pushed before any rotation.
+  private int[] pushStack = new int[16];
+
+  private void splay(int x) {
+    int size = 0;
+    for (int y = x; ; y = parent[y]) {
+      if (size == pushStack.length) pushStack = Arrays.copyOf(pushStack, 2 * size);
+      pushStack[size++] = y;
+      if (isSplayRoot(y)) break;
+    }
+    while (size > 0) push(pushStack[--size]);
+
+    while (!isSplayRoot(x)) {
+      int p = parent[x], g = parent[p];
+      if (!isSplayRoot(p)) rotate((left[g] == p) == (left[p] == x) ? p : x);
+      rotate(x);
+    }
+  }
+
+  // Makes the path from the root to x preferred and splays x to the top. Returns the last node
+  // where the path joined the previous preferred path, which is the LCA when called right after
+  // access(u).
+  private int access(int x) {
+    int last = nil;
+    for (int y = x; y != nil; y = parent[y]) {
+      splay(y);
+      right[y] = last;
+      pull(y);
+      last = y;
+    }
+    splay(x);
+    return last;
+  }
+
+  /* Forest operations */
+
+  /**
+   * Makes node 'child', which must be the root of its tree, a child of node 'parent' in another
+   * tree.
+   */
+  public void link(int child, int parent) {
+    checkNode(child);
+    checkNode(parent);
+    if (findRoot(child) != child)
+      throw new IllegalArgumentException("Node is not a root: " + child);
+    if (findRoot(parent) == child) throw new IllegalArgumentException("Nodes are connected");
+    access(child);
+    this.parent[child] = parent;
+  }
+
+  // Removes the edge between node v and its parent. Throws if v is a root.
+  public void cut(int v) {
+    checkNode(v);
+    access(v);
+    int l = left[v];
+    if (l == nil) throw new IllegalArgumentException("Node is a root: " + v);
+    parent[l] = nil;
+    left[v] = nil;
+    pull(v);
+  }
+
+  // Reroots the tree containing node v at v.
+  public void makeRoot(int v) {
+    checkNode(v);
+    access(v);
+    flip[v] ^= true;
+  }
+
+  // Returns the root of the tree containing node v.
+  public int findRoot(int v) {
+    checkNode(v);
+    access(v);
+    int x = v;
+    push(x);
+    while (left[x] != nil) {
+      x = left[x];
+      push(x);
+    }
+    // Splaying the root keeps repeated calls cheap.
+    splay(x);
+    return x;
+  }
+
+  // Returns the parent of node v, or -1 if v is a root.
+  public int parent(int v) {
+    checkNode(v);
+    access(v);
+    int x = left[v];
+    if (x == nil) return -1;
+    push(x);
+    while (right[x] != nil) {
+      x = right[x];
+      push(x);
+    }
+    splay(x);
+    return x;
+  }
+
+  public boolean connected(int u, int v) {
+    return findRoot(u) == findRoot(v);
+  }
+
+  // Returns the lowest common ancestor of nodes u and v, or -1 if they are not connected.
+  public int lca(int u, int v) {
+    if (!connected(u, v)) return -1;
+    access(u);
+    return access(v);
+  }
+
+  public long getValue(int v) {
+    checkNode(v);
+    return value[v];
+  }
+
+  public void setValue(int v, long x) {
+    checkNode(v);
+    // After splaying, v is the root of its splay tree so no other aggregate contains it.
+    splay(v);
+    value[v] = x;
+    pull(v);
+  }
+
+  // Returns the sum of the values on the path between nodes u and v.
+  public long pathSum(int u, int v) {
+    int root = exposePath(u, v);
+    long result = sum[v];
+    makeRoot(root);
+    return result;
+  }
+
+  // Returns the smallest value on the path between nodes u and v.
+  public long pathMin(int u, int v) {
+    int root = exposePath(u, v);
+    long result = min[v];
+    makeRoot(root);
+    return result;
+  }
+
+  // Returns the largest value on the path between nodes u and v.
+  public long pathMax(int u, int v) {
+    int root = exposePath(u, v);
+    long result = max[v];
+    makeRoot(root);
+    return result;
+  }
+
+  // Reroots the tree at u and accesses v, so that v is the root of a splay tree holding exactly
+  // the path between u and v. Returns the original root, which the caller restores afterwards.
+  private int exposePath(int u, int v) {
+    int root = findRoot(u);
+    if (findRoot(v) != root) throw new IllegalArgumentException("Nodes are not connected");
+    makeRoot(u);
+    access(v);
+    return root;
+  }
+
+  public int size() {
+    return n;
+  }
+
+  private void checkNode(int v) {
+    if (v < 0 || v >= n) throw new IllegalArgumentException("Invalid node: " + v);
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    LinkCutTree forest = new LinkCutTree(new long[] {5, 3, 8, 1, 7});
+    forest.link(1, 0);
+    forest.link(2, 1);
+    forest.link(3, 0);
+    System.out.println(forest.pathSum(2, 3)); // 17
+    System.out.println(forest.pathMin(2, 3)); // 1
+    System.out.println(forest.lca(2, 3)); // 0
+    System.out.println(forest.connected(2, 4)); // false
+
+    forest.cut(1);
+    forest.link(1, 4);
+    System.out.println(forest.findRoot(2)); // 4
+    System.out.println(forest.pathMax(2, 4)); // 8
+  }
+}
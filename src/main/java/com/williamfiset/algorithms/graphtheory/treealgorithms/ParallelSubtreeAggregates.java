@@ -0,0 +1,443 @@
+/**
+ * Computes subtree sizes, subtree sums, heights and depths of a rooted tree in parallel on a fork
+ * join pool. The results are the same numbers {@link
+ * com.williamfiset.algorithms.graphtheory.treealgorithms.examples.TreeSum} and {@link
+ * com.williamfiset.algorithms.graphtheory.treealgorithms.examples.TreeHeight} compute recursively
+ * for a single node, for all nodes at once and stored in primitive arrays.
+ *
+ * <p>The tree is turned into its Euler tour, a linked list of 2n arcs which enters every node,
+ * visits its children and leaves it again. The successor of every arc only depends on the node's
+ * first child, next sibling and parent, so the list is linked by a parallel loop over the nodes.
+ *
+ * <p>The list is ranked by cutting it into sublists at pseudo random head arcs, on average SAMPLE
+ * arcs apart. The heads walk their sublists in parallel, then the heads alone are ranked in order
+ * and every arc adds the position of its head. A parent array with a cycle leaves arcs which are
+ * never reached from the root.
+ *
+ * <p>On the tour, the subtree of a node is the range between entering and leaving it. Parallel
+ * prefix sums over blocks of the tour give the depth of every node (the number of nodes entered
+ * but not left), its subtree sum (the growth of the sum of the entered values over its range) and
+ * its subtree size (half the length of its range). The height is the largest depth in the range:
+ * ranges inside one block are resolved by a stack while the block is scanned, longer ranges
+ * combine both ends with a sparse table over the block maxima.
+ *
+ * <p>Apart from checking the parent array, the only sequential steps are ranking the O(n / SAMPLE)
+ * heads and summing the O(n / GRAIN) block totals. The expected span is O(n / SAMPLE + SAMPLE log n
+ * + GRAIN) whatever the height of the tree, so a single long path scales like a bushy tree.
+ *
+ * <p>Time Complexity: O(n) work
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+public class ParallelSubtreeAggregates {
+
+  // Loops over fewer nodes, arcs or tour positions than this run on a single thread, and the tour
+  // is scanned in blocks of this many positions.
+  private static final int GRAIN = 1 << 13;
+
+  // One in 2^SAMPLE_BITS arcs heads a sublist of the list ranking.
+  private static final int SAMPLE_BITS = 10;
+
+  // The tour keeps 2n arcs in int arrays, which the VM limits to a little under 2^31 elements.
+  static final int MAX_NODES = (Integer.MAX_VALUE - 8) / 2;
+
+  private final int n, root;
+
+  private final int[] subtreeSize, height, depth;
+  private final long[] subtreeSum;
+
+  /**
+   * Computes the aggregates on the common fork join pool.
+   *
+   * @param parent - parent[v] is the parent of node v, or -1 for the root. There must be exactly
+   *     one root and every node must be connected to it.
+   * @param values - The value of every node, summed up by {@link #subtreeSums()}.
+   */
+  public ParallelSubtreeAggregates(int[] parent, long[] values) {
+    this(parent, values, ForkJoinPool.commonPool());
+  }
+
+  public ParallelSubtreeAggregates(int[] parent, long[] values, ForkJoinPool pool) {
+    this(parent, CompactTree.findRoot(parent), null, values, pool);
+  }
+
+  // Computes the aggregates of an existing tree on the common fork join pool, using its children
+  // arrays to link the tour.
+  public static ParallelSubtreeAggregates of(CompactTree tree, long[] values) {
+    if (tree == null) throw new IllegalArgumentException("Input cannot be null");
+    int[][] csr = {tree.childOffsets(), tree.children()};
+    return new ParallelSubtreeAggregates(
+        tree.parentArray(), tree.root(), csr, values, ForkJoinPool.commonPool());
+  }
+
+  // The parent array passed CompactTree.findRoot, which leaves finding cycles to the ranking. The
+  // children are linked from the parent array if there is no CSR.
+  private ParallelSubtreeAggregates(
+      int[] parent, int root, int[][] csr, long[] values, ForkJoinPool pool) {
+    if (values == null || pool == null) throw new IllegalArgumentException("Input cannot be null");
+    n = parent.length;
+    if (values.length != n) throw new IllegalArgumentException("Expected " + n + " values");
+    checkNodeCount(n);
+    this.root = root;
+    subtreeSize = new int[n];
+    subtreeSum = new long[n];
+    height = new int[n];
+    depth = new int[n];
+    if (n == 0) return;
+
+    int[] tour = successors(parent, root, csr, pool);
+    int[] rank = rankArcs(tour, 2 * root, pool);
+    scanTour(tour, rank, values, pool);
+  }
+
+  // Rejects trees whose tour arrays could not be allocated.
+  static void checkNodeCount(int n) {
+    if (n > MAX_NODES) throw new IllegalArgumentException("Too many nodes: " + n);
+  }
+
+  private interface RangeBody {
+    void run(int lo, int hi);
+  }
+
+  // Runs the body on pieces of [lo, hi) with at most 'grain' elements each, in parallel.
+  private static class ForRange extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    final int lo, hi, grain;
+    final RangeBody body;
+
+    ForRange(int lo, int hi, int grain, RangeBody body) {
+      this.lo = lo;
+      this.hi = hi;
+      this.grain = grain;
+      this.body = body;
+    }
+
+    @Override
+    protected void compute() {
+      if (hi - lo > grain) {
+        int mid = (lo + hi) >>> 1;
+        invokeAll(new ForRange(lo, mid, grain, body), new ForRange(mid, hi, grain, body));
+      } else if (lo < hi) {
+        body.run(lo, hi);
+      }
+    }
+  }
+
+  private static void forRange(ForkJoinPool pool, int lo, int hi, int grain, RangeBody body) {
+    pool.invoke(new ForRange(lo, hi, grain, body));
+  }
+
+  // Returns next[a], the arc after arc a on the Euler tour or -1 after leaving the root. Arc 2v
+  // enters node v and arc 2v+1 leaves it. After entering v the tour enters v's first child, or
+  // leaves v if it is a leaf, and after leaving v it enters v's next sibling, or leaves v's parent
+  // if v is the last child. Nodes on a cycle get closed loops of arcs.
+  private static int[] successors(int[] parent, int root, int[][] csr, ForkJoinPool pool) {
+    int n = parent.length;
+    int[] next = new int[2 * n];
+    if (csr == null) {
+      // Every node pushes itself onto the list of its parent's children, first.get(p) - 1 is the
+      // child pushed last and the node it replaced is its next sibling.
+      AtomicIntegerArray first = new AtomicIntegerArray(n);
+      forRange(
+          pool,
+          0,
+          n,
+          GRAIN,
+          (lo, hi) -> {
+            for (int v = lo; v < hi; v++) {
+              int p = parent[v];
+              if (p == -1) {
+                next[2 * v + 1] = -1;
+                continue;
+              }
+              int sibling = first.getAndSet(p, v + 1) - 1;
+              next[2 * v + 1] = sibling == -1 ? 2 * p + 1 : 2 * sibling;
+            }
+          });
+      forRange(
+          pool,
+          0,
+          n,
+          GRAIN,
+          (lo, hi) -> {
+            for (int v = lo; v < hi; v++) {
+              int child = first.get(v) - 1;
+              next[2 * v] = child == -1 ? 2 * v + 1 : 2 * child;
+            }
+          });
+    } else {
+      int[] childOffsets = csr[0], children = csr[1];
+      next[2 * root + 1] = -1;
+      forRange(
+          pool,
+          0,
+          n,
+          GRAIN,
+          (lo, hi) -> {
+            for (int v = lo; v < hi; v++) {
+              int from = childOffsets[v];
+              next[2 * v] = from == childOffsets[v + 1] ? 2 * v + 1 : 2 * children[from];
+            }
+          });
+      forRange(
+          pool,
+          0,
+          childOffsets[n],
+          GRAIN,
+          (lo, hi) -> {
+            for (int i = lo; i < hi; i++) {
+              int c = children[i], p = parent[c];
+              next[2 * c + 1] = i + 1 < childOffsets[p + 1] ? 2 * children[i + 1] : 2 * p + 1;
+            }
+          });
+    }
+    return next;
+  }
+
+  // The heads are picked by the top bits of a multiplicative hash, so that they do not follow the
+  // labels of the nodes. The first arc of the tour is always a head.
+  private static boolean isHead(int a, int start) {
+    return a == start || (a * 0x9E3779B9) >>> (32 - SAMPLE_BITS) == 0;
+  }
+
+  // Ranks the list of arcs starting at 'start' and returns the position of every arc on the tour.
+  // Overwrites 'next' with the tour, i.e. the arc at every position.
+  private static int[] rankArcs(int[] next, int start, ForkJoinPool pool) {
+    int m = next.length;
+    int[] rank = new int[m], head = new int[m];
+    forRange(
+        pool,
+        0,
+        m,
+        GRAIN,
+        (lo, hi) -> {
+          for (int h = lo; h < hi; h++) {
+            if (!isHead(h, start)) continue;
+            int a = h, length = 0;
+            while (true) {
+              head[a] = h;
+              rank[a] = length++;
+              if (next[a] == -1 || isHead(next[a], start)) break;
+              a = next[a];
+            }
+            // Nobody else reads the entries of the head, they now hold the following head and
+            // the length of the sublist.
+            next[h] = next[a];
+            rank[h] = length;
+          }
+        });
+
+    int position = 0;
+    for (int h = start; h != -1; h = next[h]) {
+      int length = rank[h];
+      rank[h] = position;
+      position += length;
+    }
+    // Arcs on a cycle are never reached from the root.
+    if (position != m) throw new IllegalArgumentException("The parent array contains a cycle");
+
+    int[] tour = next;
+    forRange(
+        pool,
+        0,
+        m,
+        GRAIN,
+        (lo, hi) -> {
+          for (int a = lo; a < hi; a++) {
+            if (head[a] != a) rank[a] += rank[head[a]];
+            tour[rank[a]] = a;
+          }
+        });
+    return rank;
+  }
+
+  // Scans the tour in blocks of GRAIN positions, every block starting from the depth and value
+  // sum of the blocks before it. A node which is entered and left in the same block is finished
+  // there. For a node left in a later block, the block entering it stores its depth, the value
+  // sum before it and the largest depth after it, and the block leaving it stores the value sum
+  // and the largest depth up to there. A last pass over the nodes combines both sides.
+  private void scanTour(int[] tour, int[] rank, long[] values, ForkJoinPool pool) {
+    int m = tour.length, blocks = (m - 1) / GRAIN + 1;
+    int[] blockDepth = new int[blocks + 1];
+    long[] blockSum = new long[blocks + 1];
+    forRange(
+        pool,
+        0,
+        blocks,
+        1,
+        (lo, hi) -> {
+          for (int b = lo; b < hi; b++) {
+            int from = b * GRAIN, to = from + Math.min(GRAIN, m - from), d = 0;
+            long sum = 0;
+            for (int i = from; i < to; i++) {
+              int a = tour[i];
+              if ((a & 1) == 0) {
+                d++;
+                sum += values[a >> 1];
+              } else {
+                d--;
+              }
+            }
+            blockDepth[b + 1] = d;
+            blockSum[b + 1] = sum;
+          }
+        });
+    for (int b = 0; b < blocks; b++) {
+      blockDepth[b + 1] += blockDepth[b];
+      blockSum[b + 1] += blockSum[b];
+    }
+
+    // The value sum when leaving nodes which were entered in an earlier block.
+    long[] exitSum = new long[n];
+    // The largest depth of a node entered in every block, or -1.
+    int[] blockMax = new int[blocks];
+    forRange(
+        pool,
+        0,
+        blocks,
+        1,
+        (lo, hi) -> {
+          // The nodes entered in this block and not left yet, and the largest depth below each.
+          int[] open = new int[16], openMax = new int[16];
+          for (int b = lo; b < hi; b++) {
+            int from = b * GRAIN, to = from + Math.min(GRAIN, m - from);
+            int d = blockDepth[b], max = -1, size = 0;
+            long sum = blockSum[b];
+            for (int i = from; i < to; i++) {
+              int a = tour[i], v = a >> 1;
+              if ((a & 1) == 0) {
+                depth[v] = d++;
+                subtreeSum[v] = sum;
+                sum += values[v];
+                max = Math.max(max, depth[v]);
+                if (size == open.length) {
+                  open = Arrays.copyOf(open, 2 * size);
+                  openMax = Arrays.copyOf(openMax, 2 * size);
+                }
+                open[size] = v;
+                openMax[size++] = depth[v];
+              } else if (size > 0) {
+                // v is on top of the stack.
+                d--;
+                int below = openMax[--size];
+                subtreeSum[v] = sum - subtreeSum[v];
+                height[v] = below - depth[v];
+                if (size > 0) openMax[size - 1] = Math.max(openMax[size - 1], below);
+              } else {
+                // Everything entered in this block so far is below v, the size is set later.
+                d--;
+                exitSum[v] = sum;
+                subtreeSize[v] = max;
+              }
+            }
+            // The height of the nodes still open is finished by the last pass.
+            for (int k = size - 1; k >= 0; k--) {
+              height[open[k]] = openMax[k];
+              if (k > 0) openMax[k - 1] = Math.max(openMax[k - 1], openMax[k]);
+            }
+            blockMax[b] = max;
+          }
+        });
+
+    int[][] table = sparseTable(blockMax);
+    forRange(
+        pool,
+        0,
+        n,
+        GRAIN,
+        (lo, hi) -> {
+          for (int v = lo; v < hi; v++) {
+            int in = rank[2 * v], out = rank[2 * v + 1];
+            if (in / GRAIN != out / GRAIN) {
+              int max = Math.max(height[v], subtreeSize[v]);
+              max = Math.max(max, rangeMax(table, in / GRAIN + 1, out / GRAIN - 1));
+              height[v] = max - depth[v];
+              subtreeSum[v] = exitSum[v] - subtreeSum[v];
+            }
+            subtreeSize[v] = (out - in + 1) / 2;
+          }
+        });
+  }
+
+  // table[k][i] is the largest of values[i] through values[i + 2^k - 1].
+  private static int[][] sparseTable(int[] values) {
+    int levels = 32 - Integer.numberOfLeadingZeros(values.length);
+    int[][] table = new int[levels][];
+    table[0] = values;
+    for (int k = 1; k < levels; k++) {
+      int[] prev = table[k - 1];
+      table[k] = new int[values.length - (1 << k) + 1];
+      for (int i = 0; i < table[k].length; i++) {
+        table[k][i] = Math.max(prev[i], prev[i + (1 << (k - 1))]);
+      }
+    }
+    return table;
+  }
+
+  // Returns the largest value in [lo, hi], or -1 if the range is empty.
+  private static int rangeMax(int[][] table, int lo, int hi) {
+    if (lo > hi) return -1;
+    int k = 31 - Integer.numberOfLeadingZeros(hi - lo + 1);
+    return Math.max(table[k][lo], table[k][hi - (1 << k) + 1]);
+  }
+
+  public int size() {
+    return n;
+  }
+
+  public int root() {
+    return root;
+  }
+
+  // The accessors below return the internal arrays without copying them. They must not be
+  // modified.
+
+  // Returns the number of nodes in the subtree of every node.
+  public int[] subtreeSizes() {
+    return subtreeSize;
+  }
+
+  // Returns the sum of the values in the subtree of every node, see TreeSum.
+  public long[] subtreeSums() {
+    return subtreeSum;
+  }
+
+  // Returns the number of edges from every node to the deepest leaf below it, see TreeHeight.
+  public int[] heights() {
+    return height;
+  }
+
+  // Returns the number of edges from the root to every node.
+  public int[] depths() {
+    return depth;
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    // The tree of the TreeSum example:
+    //
+    //            5
+    //         /     \
+    //        4       3
+    //       / \    / | \
+    //      1  -6  0  7  -4
+    //     / \        |
+    //    2   9       8
+    int[] parent = {-1, 0, 0, 1, 1, 2, 2, 2, 3, 3, 6};
+    long[] values = {5, 4, 3, 1, -6, 0, 7, -4, 2, 9, 8};
+    ParallelSubtreeAggregates aggregates = new ParallelSubtreeAggregates(parent, values);
+    System.out.println(aggregates.subtreeSums()[0]); // 29, as TreeSum
+    System.out.println(aggregates.heights()[0]); // 3
+    System.out.println(Arrays.toString(aggregates.subtreeSizes())); // [11, 5, 5, 3, 1, 1, 2, ...]
+    System.out.println(Arrays.toString(aggregates.depths())); // [0, 1, 1, 2, 2, 2, 2, 2, 3, 3, 3]
+  }
+}
@@ -0,0 +1,183 @@
+/**
+ * Rerooting dynamic programming: computes a tree DP for every possible root in two linear passes
+ * instead of n separate traversals. Examples are the sum of distances from every node, the
+ * eccentricity (height when rooted there) of every node or a canonical hash of the tree rooted at
+ * every node.
+ *
+ * <p>A DP is described by a {@link Rule}. Seen from a node, every neighbor w contributes the value
+ * of the component behind w, which is the subtree rooted at w if the tree were rooted at the node.
+ * The contributions of a node's children are combined with 'combine' and turned into the
+ * contribution of the node's own subtree with 'addNode'. The answer for node v is the combination
+ * of the contributions of all neighbors of v.
+ *
+ * <p>The first pass computes the contributions of all subtrees for a fixed root bottom up, the
+ * second pass computes top down the contribution of the rest of the tree above every node. Both
+ * passes walk the preorder of a {@link CompactTree}, so there is no recursion. To leave out one
+ * child when passing values down, the framework uses the rule's 'exclude' function if it
+ * implements {@link InvertibleRule} (for sums, xors, ...) and otherwise prefix and suffix
+ * combinations over the children (for min, max, ...).
+ *
+ * <p>The nodes of smallest {@link #ECCENTRICITY} are the centers found by {@link TreeCenter} and
+ * the largest eccentricity is the length found by {@link TreeDiameter}.
+ *
+ * <p>Time Complexity: O(n)
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class RerootingDp {
+
+  public interface Rule {
+    // The combination of no contributions.
+    long identity();
+
+    // Combines two contributions, must be associative and commutative.
+    long combine(long a, long b);
+
+    // Returns the contribution of the subtree rooted at node v, which has 'size' nodes, given the
+    // combined contributions of v's children.
+    long addNode(long children, int v, int size);
+  }
+
+  // A rule whose combine function can be undone.
+  public interface InvertibleRule extends Rule {
+    // Returns x such that combine(x, part) == total.
+    long exclude(long total, long part);
+  }
+
+  // The sum over all other nodes of their distance to the root.
+  public static final InvertibleRule SUM_OF_DISTANCES =
+      new InvertibleRule() {
+        public long identity() {
+          return 0;
+        }
+
+        public long combine(long a, long b) {
+          return a + b;
+        }
+
+        // Every node of the subtree is one edge further away from the parent.
+        public long addNode(long children, int v, int size) {
+          return children + size;
+        }
+
+        public long exclude(long total, long part) {
+          return total - part;
+        }
+      };
+
+  // The largest distance from the root to any other node.
+  public static final Rule ECCENTRICITY =
+      new Rule() {
+        public long identity() {
+          return 0;
+        }
+
+        public long combine(long a, long b) {
+          return Math.max(a, b);
+        }
+
+        public long addNode(long children, int v, int size) {
+          return children + 1;
+        }
+      };
+
+  private final int n;
+
+  // The tree rooted at an arbitrary node: the nodes in preorder, so parents come before their
+  // children, and the parent, subtree size and children of every node in CSR form.
+  private final int[] order, parent, size, childOffsets, children;
+
+  // Creates the framework for an undirected tree given as an adjacency list.
+  public RerootingDp(List<List<Integer>> tree) {
+    this(tree != null && tree.isEmpty() ? new CompactTree(new int[0]) : new CompactTree(tree, 0));
+  }
+
+  // Creates the framework for a rooted tree, e.g. one built from a parent array. The answers do
+  // not depend on the root, the first pass merely starts there.
+  public static RerootingDp of(CompactTree tree) {
+    if (tree == null) throw new IllegalArgumentException("Input cannot be null");
+    return new RerootingDp(tree);
+  }
+
+  private RerootingDp(CompactTree tree) {
+    n = tree.size();
+    order = tree.preorderArray();
+    parent = tree.parentArray();
+    size = tree.subtreeSizeArray();
+    childOffsets = tree.childOffsets();
+    children = tree.children();
+  }
+
+  /**
+   * Evaluates the rule for every root.
+   *
+   * @return answer where answer[v] is the combination of the contributions of all neighbors of v,
+   *     i.e. the combined children of v when the tree is rooted at v.
+   */
+  public long[] solve(Rule rule) {
+    if (rule == null) throw new IllegalArgumentException("Rule cannot be null");
+    long identity = rule.identity();
+
+    // down[v] is the contribution of v's subtree for the fixed root, below[v] the combination of
+    // the contributions of v's children.
+    long[] down = new long[n], below = new long[n];
+    Arrays.fill(below, identity);
+    for (int i = n - 1; i >= 0; i--) {
+      int v = order[i];
+      down[v] = rule.addNode(below[v], v, size[v]);
+      if (i > 0) below[parent[v]] = rule.combine(below[parent[v]], down[v]);
+    }
+
+    // up[v] is the contribution of the part of the tree above v, seen from v. answer[v] combines
+    // it with v's children.
+    long[] up = new long[n], answer = new long[n];
+    InvertibleRule invertible = rule instanceof InvertibleRule ? (InvertibleRule) rule : null;
+    long[] suffix = invertible == null ? new long[n + 1] : null;
+    for (int i = 0; i < n; i++) {
+      int v = order[i];
+      long above = i == 0 ? identity : up[v];
+      answer[v] = i == 0 ? below[v] : rule.combine(below[v], above);
+      if (invertible != null) {
+        for (int j = childOffsets[v]; j < childOffsets[v + 1]; j++) {
+          int c = children[j];
+          long rest = invertible.exclude(answer[v], down[c]);
+          up[c] = rule.addNode(rest, v, n - size[c]);
+        }
+      } else {
+        // suffix[k] combines the k-th child of v and the children after it.
+        int from = childOffsets[v], to = childOffsets[v + 1];
+        suffix[to - from] = identity;
+        for (int j = to - 1; j >= from; j--) {
+          suffix[j - from] = rule.combine(down[children[j]], suffix[j - from + 1]);
+        }
+        long prefix = above;
+        for (int j = from; j < to; j++) {
+          int c = children[j];
+          long rest = rule.combine(prefix, suffix[j - from + 1]);
+          up[c] = rule.addNode(rest, v, n - size[c]);
+          prefix = rule.combine(prefix, down[c]);
+        }
+      }
+    }
+    return answer;
+  }
+
+  public int size() {
+    return n;
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    // 0 - 1 - 2 - 3 with 4 attached to 1.
+    int[] parent = {-1, 0, 1, 2, 1};
+    RerootingDp dp = RerootingDp.of(new CompactTree(parent));
+    System.out.println(Arrays.toString(dp.solve(SUM_OF_DISTANCES))); // [8, 5, 6, 9, 8]
+    System.out.println(Arrays.toString(dp.solve(ECCENTRICITY))); // [3, 2, 2, 3, 3]
+  }
+}
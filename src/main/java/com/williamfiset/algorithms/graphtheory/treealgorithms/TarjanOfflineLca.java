@@ -0,0 +1,134 @@
+/**
+ * Tarjan's offline Lowest Common Ancestor (LCA) algorithm. When all queries are known up front
+ * they can be answered in a single DFS over the tree: once the DFS has finished a node w, the
+ * union find set containing w is tagged with the deepest ancestor of w still on the DFS stack,
+ * and for any query (v, w) answered while v is finishing, that ancestor is the LCA.
+ *
+ * <p>The queries are bucketed per node in compressed sparse row (CSR) form and the DFS is
+ * iterative, so both the tree and the query batch are scanned sequentially and deep trees are
+ * fine. Unlike {@link TreeIndex} no per query lookup structure is kept, which makes this the
+ * better choice for very large batches against a tree which is only queried once.
+ *
+ * <p>Time Complexity: O((n + q)·α(n)) for a tree with n nodes and q queries
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import com.williamfiset.algorithms.datastructures.unionfind.UnionFind;
+import java.util.Arrays;
+
+public class TarjanOfflineLca {
+
+  private final int n, root;
+
+  // The children of node v are children[childOffsets[v]] through children[childOffsets[v+1]-1].
+  private final int[] childOffsets, children;
+
+  /**
+   * @param parent - parent[v] is the parent of node v, or -1 for the root. There must be exactly
+   *     one root and every node must be connected to it.
+   */
+  public TarjanOfflineLca(int[] parent) {
+    this(new CompactTree(parent));
+  }
+
+  // Answers queries on an existing tree, using its children arrays.
+  public static TarjanOfflineLca of(CompactTree tree) {
+    if (tree == null) throw new IllegalArgumentException("Input cannot be null");
+    return new TarjanOfflineLca(tree);
+  }
+
+  private TarjanOfflineLca(CompactTree tree) {
+    n = tree.size();
+    root = tree.root();
+    childOffsets = tree.childOffsets();
+    children = tree.children();
+  }
+
+  /**
+   * Answers a batch of LCA queries.
+   *
+   * @param u - The first node of every query.
+   * @param v - The second node of every query, u.length == v.length.
+   * @return lca where lca[i] is the lowest common ancestor of u[i] and v[i].
+   */
+  public int[] lca(int[] u, int[] v) {
+    if (u == null || v == null) throw new IllegalArgumentException("Input cannot be null");
+    if (u.length != v.length) throw new IllegalArgumentException("Query arrays differ in length");
+    int q = u.length;
+    int[] lca = new int[q];
+    if (q == 0) return lca;
+    for (int i = 0; i < q; i++) {
+      checkNode(u[i]);
+      checkNode(v[i]);
+    }
+
+    // Every query is stored in the buckets of both of its endpoints, together with the other
+    // endpoint, so that it is answered by whichever endpoint finishes last.
+    int[] queryOffsets = new int[n + 1];
+    for (int i = 0; i < q; i++) {
+      queryOffsets[u[i] + 1]++;
+      queryOffsets[v[i] + 1]++;
+    }
+    for (int x = 0; x < n; x++) queryOffsets[x + 1] += queryOffsets[x];
+    int[] other = new int[2 * q], queryId = new int[2 * q];
+    int[] pos = Arrays.copyOf(queryOffsets, n);
+    for (int i = 0; i < q; i++) {
+      int p = pos[u[i]]++;
+      other[p] = v[i];
+      queryId[p] = i;
+      p = pos[v[i]]++;
+      other[p] = u[i];
+      queryId[p] = i;
+    }
+
+    UnionFind uf = new UnionFind(n);
+    // ancestor[r] is the LCA tag of the set with representative r.
+    int[] ancestor = new int[n];
+    boolean[] finished = new boolean[n];
+
+    // Iterative DFS, next[v] is the position of the next child of v to visit.
+    int[] stack = new int[n], next = Arrays.copyOf(childOffsets, n);
+    int size = 0;
+    stack[size++] = root;
+    ancestor[root] = root;
+    while (size > 0) {
+      int x = stack[size - 1];
+      if (next[x] < childOffsets[x + 1]) {
+        int c = children[next[x]++];
+        ancestor[c] = c;
+        stack[size++] = c;
+        continue;
+      }
+      size--;
+      finished[x] = true;
+      for (int i = queryOffsets[x]; i < queryOffsets[x + 1]; i++) {
+        int y = other[i];
+        if (finished[y]) lca[queryId[i]] = ancestor[uf.find(y)];
+      }
+      if (size > 0) {
+        int p = stack[size - 1];
+        uf.unify(p, x);
+        ancestor[uf.find(p)] = p;
+      }
+    }
+    return lca;
+  }
+
+  private void checkNode(int v) {
+    if (v < 0 || v >= n) throw new IllegalArgumentException("Invalid node: " + v);
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    // The tree from LowestCommonAncestorEulerTour, given by its parent array.
+    int[] parent = {-1, 0, 0, 1, 1, 2, 2, 2, 3, 3, 5, 5, 7, 7, 11, 11, 11};
+    TarjanOfflineLca solver = new TarjanOfflineLca(parent);
+
+    int[] u = {13, 9, 10, 4};
+    int[] v = {14, 11, 16, 4};
+    System.out.println(Arrays.toString(solver.lca(u, v))); // [2, 0, 5, 4]
+  }
+}
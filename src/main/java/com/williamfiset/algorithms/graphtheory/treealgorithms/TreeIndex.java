@@ -0,0 +1,256 @@
+/**
+ * A static index over a rooted tree stored in primitive arrays which answers Lowest Common
+ * Ancestor (LCA) queries in O(1), k-th ancestor queries in O(log n) and distance queries in O(1).
+ * Unlike {@link LowestCommonAncestorEulerTour} it needs no TreeNode objects, uses O(n) memory and
+ * never recurses, so trees with tens of millions of nodes (or a path of that length) are fine.
+ *
+ * <p>LCA: the nodes are numbered in DFS preorder. For two different nodes u and v with pre[u] <
+ * pre[v], the LCA is the parent of the shallowest node in the preorder range (pre[u], pre[v]]. That
+ * range minimum is answered in O(1) with a sparse table over blocks of 64 positions and, inside a
+ * block, with a 64 bit mask per position which records the stack of suffix minima.
+ *
+ * <p>K-th ancestor: besides its parent every node keeps one jump pointer chosen so that the jump
+ * lengths along any root path follow the skew binary number system. This gives the O(log n) bound
+ * of binary lifting with a single int per node instead of log(n) of them.
+ *
+ * <p>Time Complexity: O(n) pre-processing, O(1) LCA and distance queries, O(log n) k-th ancestor
+ * queries.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import java.util.Arrays;
+
+public class TreeIndex {
+
+  private static final int BLOCK = 64;
+
+  private final int n, root;
+  private final int[] parent, depth, jump;
+
+  // pre[v] is the preorder position of node v and order[i] the node at preorder position i.
+  // subtreeSize[v] is the number of nodes in the subtree of v.
+  private final int[] pre, order, subtreeSize;
+
+  // orderDepth[i] = depth[order[i]], the array the range minimum queries run on.
+  private final int[] orderDepth;
+
+  // Bit j of mask[i] is set if position i - j is a suffix minimum of the window ending at i.
+  private final long[] mask;
+
+  // blockMin[k][b] is the position of the minimum of blocks b, b + 1, ..., b + 2^k - 1.
+  private final int[][] blockMin;
+
+  /**
+   * Builds the index from a parent array.
+   *
+   * @param parent - parent[v] is the parent of node v, or -1 for the root. There must be exactly
+   *     one root and every node must be connected to it.
+   */
+  public TreeIndex(int[] parent) {
+    this(new CompactTree(parent));
+  }
+
+  // Builds the index on top of the arrays of an existing tree.
+  public static TreeIndex of(CompactTree tree) {
+    if (tree == null) throw new IllegalArgumentException("Input cannot be null");
+    return new TreeIndex(tree);
+  }
+
+  private TreeIndex(CompactTree tree) {
+    n = tree.size();
+    root = tree.root();
+    parent = tree.parentArray();
+    depth = tree.depthArray();
+    pre = tree.preorderPositionArray();
+    order = tree.preorderArray();
+    subtreeSize = tree.subtreeSizeArray();
+    jump = new int[n];
+    orderDepth = new int[n];
+    mask = new long[n];
+    build();
+    blockMin = buildBlockTable();
+  }
+
+  /**
+   * Builds the index from the children of every node in compressed sparse row (CSR) form.
+   *
+   * @param childOffsets - The children of node v are children[childOffsets[v]] through
+   *     children[childOffsets[v + 1] - 1].
+   * @param children - The children of all nodes.
+   * @param root - The root of the tree.
+   */
+  public TreeIndex(int[] childOffsets, int[] children, int root) {
+    this(toParentArray(childOffsets, children, root));
+  }
+
+  private static int[] toParentArray(int[] childOffsets, int[] children, int root) {
+    if (childOffsets == null || children == null)
+      throw new IllegalArgumentException("Input cannot be null");
+    int n = childOffsets.length - 1;
+    if (root < 0 || root >= n) throw new IllegalArgumentException("Invalid root: " + root);
+    int[] parent = new int[n];
+    Arrays.fill(parent, -2);
+    parent[root] = -1;
+    for (int v = 0; v < n; v++) {
+      for (int i = childOffsets[v]; i < childOffsets[v + 1]; i++) {
+        int c = children[i];
+        if (c < 0 || c >= n || parent[c] != -2)
+          throw new IllegalArgumentException("Node " + c + " has more than one parent");
+        parent[c] = v;
+      }
+    }
+    for (int v = 0; v < n; v++) {
+      if (parent[v] == -2) throw new IllegalArgumentException("Node " + v + " has no parent");
+    }
+    return parent;
+  }
+
+  // Fills the jump pointers in preorder, parents before children, and the suffix minima masks.
+  private void build() {
+    if (n == 0) return;
+    jump[root] = root;
+    for (int i = 1; i < n; i++) {
+      int v = order[i], p = parent[v];
+      // Skew binary jump pointers: merge two equal jumps above the parent into one.
+      int j = jump[p];
+      jump[v] = depth[p] - depth[j] == depth[j] - depth[jump[j]] ? jump[j] : p;
+    }
+
+    long current = 0;
+    for (int i = 0; i < n; i++) {
+      orderDepth[i] = depth[order[i]];
+      current <<= 1;
+      while (current != 0
+          && orderDepth[i] <= orderDepth[i - Long.numberOfTrailingZeros(current)]) {
+        current &= current - 1;
+      }
+      current |= 1;
+      mask[i] = current;
+    }
+  }
+
+  private int[][] buildBlockTable() {
+    int blocks = (n + BLOCK - 1) / BLOCK;
+    int levels = blocks <= 1 ? 1 : 32 - Integer.numberOfLeadingZeros(blocks - 1) + 1;
+    int[][] table = new int[levels][];
+    table[0] = new int[blocks];
+    for (int b = 0; b < blocks; b++) {
+      int end = Math.min(n - 1, b * BLOCK + BLOCK - 1);
+      table[0][b] = minInWindow(end, end - b * BLOCK + 1);
+    }
+    for (int k = 1; k < levels; k++) {
+      int half = 1 << (k - 1);
+      table[k] = new int[Math.max(0, blocks - (1 << k) + 1)];
+      for (int b = 0; b < table[k].length; b++) {
+        table[k][b] = minPosition(table[k - 1][b], table[k - 1][b + half]);
+      }
+    }
+    return table;
+  }
+
+  // Returns the position of the minimum of orderDepth in [end - size + 1, end], size <= 64.
+  private int minInWindow(int end, int size) {
+    long m = size == BLOCK ? mask[end] : mask[end] & ((1L << size) - 1);
+    return end - (63 - Long.numberOfLeadingZeros(m));
+  }
+
+  private int minPosition(int i, int j) {
+    return orderDepth[i] <= orderDepth[j] ? i : j;
+  }
+
+  // Returns the position of the minimum of orderDepth in [l, r].
+  private int rangeMin(int l, int r) {
+    if (r - l + 1 <= BLOCK) return minInWindow(r, r - l + 1);
+    int best = minPosition(minInWindow(l + BLOCK - 1, BLOCK), minInWindow(r, BLOCK));
+    int x = l / BLOCK + 1, y = r / BLOCK - 1;
+    if (x <= y) {
+      int k = 31 - Integer.numberOfLeadingZeros(y - x + 1);
+      best = minPosition(best, minPosition(blockMin[k][x], blockMin[k][y - (1 << k) + 1]));
+    }
+    return best;
+  }
+
+  // Returns the lowest common ancestor of nodes u and v.
+  public int lca(int u, int v) {
+    checkNode(u);
+    checkNode(v);
+    if (u == v) return u;
+    int l = Math.min(pre[u], pre[v]), r = Math.max(pre[u], pre[v]);
+    return parent[order[rangeMin(l + 1, r)]];
+  }
+
+  // Returns the number of edges on the path between nodes u and v.
+  public int distance(int u, int v) {
+    checkNode(u);
+    checkNode(v);
+    return depth[u] + depth[v] - 2 * depth[lca(u, v)];
+  }
+
+  // Returns the ancestor k levels above node v (v itself for k = 0), or -1 if v has depth < k.
+  public int kthAncestor(int v, int k) {
+    checkNode(v);
+    if (k < 0) throw new IllegalArgumentException("Negative k: " + k);
+    if (k > depth[v]) return -1;
+    int target = depth[v] - k;
+    while (depth[v] > target) v = depth[jump[v]] >= target ? jump[v] : parent[v];
+    return v;
+  }
+
+  // Returns whether node u is an ancestor of node v (a node is an ancestor of itself).
+  public boolean isAncestor(int u, int v) {
+    checkNode(u);
+    checkNode(v);
+    return pre[u] <= pre[v] && pre[v] < pre[u] + subtreeSize[u];
+  }
+
+  public int root() {
+    return root;
+  }
+
+  public int size() {
+    return n;
+  }
+
+  // Returns the parent of node v, or -1 for the root.
+  public int parent(int v) {
+    checkNode(v);
+    return parent[v];
+  }
+
+  public int depth(int v) {
+    checkNode(v);
+    return depth[v];
+  }
+
+  // Returns the number of nodes in the subtree of node v (including v).
+  public int subtreeSize(int v) {
+    checkNode(v);
+    return subtreeSize[v];
+  }
+
+  // Returns the position of node v in DFS preorder. The subtree of v occupies the positions
+  // preorder(v) through preorder(v) + subtreeSize(v) - 1.
+  public int preorder(int v) {
+    checkNode(v);
+    return pre[v];
+  }
+
+  private void checkNode(int v) {
+    if (v < 0 || v >= n) throw new IllegalArgumentException("Invalid node: " + v);
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    // The tree from LowestCommonAncestorEulerTour, given by its parent array.
+    int[] parent = {-1, 0, 0, 1, 1, 2, 2, 2, 3, 3, 5, 5, 7, 7, 11, 11, 11};
+    TreeIndex index = new TreeIndex(parent);
+
+    System.out.println(index.lca(13, 14)); // 2
+    System.out.println(index.lca(9, 11)); // 0
+    System.out.println(index.distance(13, 14)); // 5
+    System.out.println(index.kthAncestor(16, 3)); // 2
+  }
+}
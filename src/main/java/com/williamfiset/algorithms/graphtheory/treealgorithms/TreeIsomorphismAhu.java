@@ -0,0 +1,316 @@
+/**
+ * Linear time tree isomorphism with the Aho, Hopcroft and Ullman (AHU) algorithm using integer
+ * labels instead of parenthesis strings. Both trees are processed together level by level from the
+ * deepest level up to the root (the center of an unrooted tree). Every node gets a small int label
+ * such that two nodes on the same level have the same label iff their subtrees are isomorphic:
+ *
+ * <p>1. The children of the level are bucket sorted by label, which gives every node the sorted
+ * tuple of its children's labels.
+ *
+ * <p>2. The tuples are grouped one position at a time: at position j the pairs (group of the tuple
+ * prefix, label at position j) are radix sorted and equal pairs get the same new group id. The
+ * final group of a tuple is the label of its node.
+ *
+ * <p>Each level costs time linear in the number of its nodes and children, so the whole comparison
+ * is O(n), unlike {@link TreeIsomorphism} and {@link TreeIsomorphismWithBfs} which build and sort
+ * strings.
+ *
+ * <p>For deduplicating many trees, {@link #canonicalHash} and {@link #rootedCanonicalHash} compute
+ * a 64 bit hash which is equal for isomorphic trees. Every node hashes the multiset of its
+ * children's hashes with an order independent sum of mixed values, so no sorting is needed at all.
+ * The hash is fixed and deterministic, not a randomized universal hash, so different trees can
+ * have the same hash (and such collisions can be built on purpose). Treat equal hashes only as
+ * candidates and confirm them with {@link #treesAreIsomorphic} or {@link
+ * #rootedTreesAreIsomorphic}.
+ *
+ * <p>Time Complexity: O(n)
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import java.util.Arrays;
+import java.util.List;
+
+public class TreeIsomorphismAhu {
+
+  private static final long ROOTED_SALT = 0x3C6EF372FE94F82BL;
+  private static final long ONE_CENTER_SALT = 0xA54FF53A5F1D36F1L;
+  private static final long TWO_CENTER_SALT = 0x510E527FADE682D1L;
+
+  // Determines if two unrooted trees given as adjacency lists are isomorphic.
+  public static boolean treesAreIsomorphic(List<List<Integer>> tree1, List<List<Integer>> tree2) {
+    if (tree1 == null || tree2 == null) throw new IllegalArgumentException("Input cannot be null");
+    if (tree1.isEmpty() || tree2.isEmpty()) throw new IllegalArgumentException("Empty tree input");
+    if (tree1.size() != tree2.size()) return false;
+    int[] parent1 = rootAtCenter(tree1), parent2 = rootAtCenter(tree2);
+    // A tree with two centers is rooted at an extra node between them.
+    if (parent1.length != parent2.length) return false;
+    return sameShape(parent1, parent2);
+  }
+
+  /**
+   * Determines if two rooted trees are isomorphic.
+   *
+   * @param parent1 - parent1[v] is the parent of node v in the first tree, or -1 for its root.
+   * @param parent2 - The same for the second tree.
+   */
+  public static boolean rootedTreesAreIsomorphic(int[] parent1, int[] parent2) {
+    checkParents(parent1);
+    checkParents(parent2);
+    if (parent1.length != parent2.length) return false;
+    return sameShape(parent1, parent2);
+  }
+
+  // Returns a 64 bit hash of an unrooted tree which is the same for all isomorphic trees.
+  public static long canonicalHash(List<List<Integer>> tree) {
+    if (tree == null) throw new IllegalArgumentException("Input cannot be null");
+    if (tree.isEmpty()) throw new IllegalArgumentException("Empty tree input");
+    int[] parent = rootAtCenter(tree);
+    long salt = parent.length == tree.size() ? ONE_CENTER_SALT : TWO_CENTER_SALT;
+    return mix(hashRooted(parent) ^ salt);
+  }
+
+  // Returns a 64 bit hash of a rooted tree which is the same for all isomorphic rooted trees.
+  public static long rootedCanonicalHash(int[] parent) {
+    checkParents(parent);
+    return hashRooted(parent);
+  }
+
+  // Returns the nodes of a rooted forest in BFS order from its roots, roots first.
+  private static int[] bfsOrder(int[] parent, int[] childOffsets, int[] children) {
+    int n = parent.length;
+    int[] order = new int[n];
+    int size = 0;
+    for (int v = 0; v < n; v++) if (parent[v] == -1) order[size++] = v;
+    for (int i = 0; i < size; i++) {
+      int v = order[i];
+      for (int j = childOffsets[v]; j < childOffsets[v + 1]; j++) order[size++] = children[j];
+    }
+    if (size != n) throw new IllegalArgumentException("The parent array contains a cycle");
+    return order;
+  }
+
+  private static long hashRooted(int[] parent) {
+    int n = parent.length;
+    int[][] csr = CompactTree.childCsr(parent);
+    int[] order = bfsOrder(parent, csr[0], csr[1]);
+    long[] hash = new long[n];
+    int root = order[0];
+    for (int i = n - 1; i >= 0; i--) {
+      int v = order[i];
+      hash[v] = mix(hash[v] ^ ROOTED_SALT);
+      if (v != root) hash[parent[v]] += mix(hash[v] + 0x9E3779B97F4A7C15L);
+    }
+    return hash[root];
+  }
+
+  // The finalizer of the SplitMix64 generator, a bijection which mixes all bits.
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+    z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+    return z ^ (z >>> 31);
+  }
+
+  // Determines if two rooted trees of equal size are isomorphic with the AHU algorithm.
+  private static boolean sameShape(int[] parent1, int[] parent2) {
+    // Put both trees into one forest so that every level holds the nodes of both.
+    int n1 = parent1.length, n = n1 + parent2.length;
+    int[] parent = new int[n];
+    System.arraycopy(parent1, 0, parent, 0, n1);
+    for (int v = 0; v < parent2.length; v++) {
+      parent[n1 + v] = parent2[v] == -1 ? -1 : parent2[v] + n1;
+    }
+    int[][] csr = CompactTree.childCsr(parent);
+    int[] childOffsets = csr[0];
+    int[] order = bfsOrder(parent, childOffsets, csr[1]);
+    int root1 = order[0], root2 = order[1];
+
+    // Depths, and the number of nodes per level which must match between the two trees.
+    int[] depth = new int[n];
+    int height = 0;
+    for (int i = 2; i < n; i++) {
+      int v = order[i];
+      depth[v] = depth[parent[v]] + 1;
+      height = Math.max(height, depth[v]);
+    }
+    int[] levelStart = new int[height + 3];
+    int[] balance = new int[height + 1];
+    for (int v = 0; v < n; v++) {
+      levelStart[depth[v] + 1]++;
+      balance[depth[v]] += v < n1 ? 1 : -1;
+    }
+    for (int d = 0; d <= height; d++) if (balance[d] != 0) return false;
+    for (int d = 0; d <= height + 1; d++) levelStart[d + 1] += levelStart[d];
+    // BFS order is already sorted by depth.
+    int[] byLevel = order;
+
+    int[] label = new int[n], group = new int[n], filled = new int[n];
+    int[] sorted = new int[n], buckets = new int[n], count = new int[n + 2];
+    int labelCount = 0;
+
+    for (int d = height; d >= 0; d--) {
+      int from = levelStart[d], to = levelStart[d + 1];
+      int childFrom = to, childTo = levelStart[d + 2];
+      int m = childTo - childFrom;
+
+      // 1. Bucket sort the children of this level by label.
+      Arrays.fill(count, 0, labelCount + 1, 0);
+      for (int i = childFrom; i < childTo; i++) count[label[byLevel[i]] + 1]++;
+      for (int k = 0; k < labelCount; k++) count[k + 1] += count[k];
+      for (int i = childFrom; i < childTo; i++) sorted[count[label[byLevel[i]]]++] = byLevel[i];
+
+      // Distribute the children by their position in the sorted tuple of their parent. The
+      // children at position j are stored at buckets[start[j]..start[j + 1]) in label order.
+      int maxDegree = 0;
+      for (int i = from; i < to; i++) {
+        int v = byLevel[i];
+        maxDegree = Math.max(maxDegree, childOffsets[v + 1] - childOffsets[v]);
+        filled[v] = 0;
+        group[v] = 0;
+      }
+      int[] start = new int[maxDegree + 1];
+      for (int i = from; i < to; i++) {
+        int v = byLevel[i], degree = childOffsets[v + 1] - childOffsets[v];
+        if (degree > 0) start[degree - 1]++;
+      }
+      // start[j] is now the number of parents with exactly j + 1 children, turn it into the
+      // number with more than j children and then into bucket offsets.
+      for (int j = maxDegree - 2; j >= 0; j--) start[j] += start[j + 1];
+      for (int j = 0, offset = 0; j <= maxDegree; j++) {
+        int size = j < maxDegree ? start[j] : 0;
+        start[j] = offset;
+        offset += size;
+      }
+      int[] next = Arrays.copyOf(start, maxDegree + 1);
+      for (int i = 0; i < m; i++) {
+        int c = sorted[i];
+        buckets[next[filled[parent[c]]++]++] = c;
+      }
+
+      // 2. Group the tuples position by position. Before position j the groups of the prefixes
+      // are in [low, high), group 0 is the empty tuple.
+      int low = 0, high = 1, groups = 1;
+      for (int j = 0; j < maxDegree; j++) {
+        int bFrom = start[j], bTo = start[j + 1];
+        // Stable counting sort by prefix group keeps the label order within a group.
+        Arrays.fill(count, 0, high - low + 1, 0);
+        for (int i = bFrom; i < bTo; i++) count[group[parent[buckets[i]]] - low + 1]++;
+        for (int k = 0; k < high - low; k++) count[k + 1] += count[k];
+        for (int i = bFrom; i < bTo; i++) {
+          int c = buckets[i];
+          sorted[count[group[parent[c]] - low]++] = c;
+        }
+        int first = groups, previousGroup = -1, previousLabel = -1;
+        for (int i = 0; i < bTo - bFrom; i++) {
+          int c = sorted[i], p = parent[c];
+          if (group[p] != previousGroup || label[c] != previousLabel) {
+            previousGroup = group[p];
+            previousLabel = label[c];
+            groups++;
+          }
+          group[p] = groups - 1;
+        }
+        low = first;
+        high = groups;
+      }
+
+      // Compact the final groups into labels 0, 1, 2, ... for the next level up.
+      Arrays.fill(count, 0, groups, -1);
+      labelCount = 0;
+      for (int i = from; i < to; i++) {
+        int v = byLevel[i];
+        if (count[group[v]] == -1) count[group[v]] = labelCount++;
+        label[v] = count[group[v]];
+      }
+    }
+    return label[root1] == label[root2];
+  }
+
+  // Roots an unrooted tree at its center. If there are two centers an extra node n is added as the
+  // root with both centers as children, so the result has n or n + 1 entries.
+  private static int[] rootAtCenter(List<List<Integer>> tree) {
+    int n = tree.size();
+    int[] offsets = new int[n + 1];
+    for (int u = 0; u < n; u++) offsets[u + 1] = offsets[u] + tree.get(u).size();
+    if (offsets[n] != 2 * (n - 1))
+      throw new IllegalArgumentException("A tree with n nodes has n - 1 edges");
+    int[] adj = new int[offsets[n]];
+    for (int u = 0, i = 0; u < n; u++) for (int v : tree.get(u)) adj[i++] = v;
+
+    // Peel off the leaves layer by layer, the last layer holds the center(s).
+    int[] degree = new int[n], layer = new int[n];
+    int layerFrom = 0, layerTo = 0;
+    for (int u = 0; u < n; u++) {
+      degree[u] = offsets[u + 1] - offsets[u];
+      if (degree[u] <= 1) layer[layerTo++] = u;
+    }
+    int processed = layerTo;
+    while (processed < n) {
+      int nextTo = layerTo;
+      for (int i = layerFrom; i < layerTo; i++) {
+        int u = layer[i];
+        for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+          int v = adj[j];
+          if (--degree[v] == 1) layer[nextTo++] = v;
+        }
+      }
+      if (nextTo == layerTo) throw new IllegalArgumentException("The graph is not a tree");
+      layerFrom = layerTo;
+      layerTo = nextTo;
+      processed += layerTo - layerFrom;
+    }
+    int centers = layerTo - layerFrom;
+
+    int[] parent = new int[centers == 1 ? n : n + 1];
+    Arrays.fill(parent, -2);
+    int[] queue = new int[n];
+    int head = 0, tail = 0;
+    if (centers == 1) {
+      parent[layer[layerFrom]] = -1;
+      queue[tail++] = layer[layerFrom];
+    } else {
+      parent[n] = -1;
+      for (int i = layerFrom; i < layerTo; i++) {
+        parent[layer[i]] = n;
+        queue[tail++] = layer[i];
+      }
+    }
+    while (head < tail) {
+      int u = queue[head++];
+      for (int j = offsets[u]; j < offsets[u + 1]; j++) {
+        int v = adj[j];
+        if (parent[v] != -2) continue;
+        parent[v] = u;
+        queue[tail++] = v;
+      }
+    }
+    if (tail != n) throw new IllegalArgumentException("The graph is not a tree");
+    return parent;
+  }
+
+  private static void checkParents(int[] parent) {
+    if (parent != null && parent.length == 0)
+      throw new IllegalArgumentException("Empty tree input");
+    CompactTree.findRoot(parent);
+  }
+
+  /* Example */
+
+  public static void main(String[] args) {
+    List<List<Integer>> tree1 = TreeIsomorphism.createEmptyGraph(5);
+    TreeIsomorphism.addUndirectedEdge(tree1, 2, 0);
+    TreeIsomorphism.addUndirectedEdge(tree1, 3, 4);
+    TreeIsomorphism.addUndirectedEdge(tree1, 2, 1);
+    TreeIsomorphism.addUndirectedEdge(tree1, 2, 3);
+
+    List<List<Integer>> tree2 = TreeIsomorphism.createEmptyGraph(5);
+    TreeIsomorphism.addUndirectedEdge(tree2, 1, 0);
+    TreeIsomorphism.addUndirectedEdge(tree2, 2, 4);
+    TreeIsomorphism.addUndirectedEdge(tree2, 1, 3);
+    TreeIsomorphism.addUndirectedEdge(tree2, 1, 2);
+
+    System.out.println(treesAreIsomorphic(tree1, tree2)); // true
+    System.out.println(canonicalHash(tree1) == canonicalHash(tree2)); // true
+  }
+}
@@ -0,0 +1,101 @@
+/**
+ * Reads and writes graphs as binary edge files so that generated graphs can be streamed straight to
+ * disk and reloaded without ever holding them in memory as objects.
+ *
+ * <p>File format (big endian): the node count as an int followed by every edge as a pair of ints
+ * (from, to) until the end of the file.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.utils.graphutils;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+public final class BinaryEdgeFile {
+
+  private static final int BUFFER_SIZE = 1 << 16;
+
+  private BinaryEdgeFile() {}
+
+  // An edge sink which appends every edge it receives to a binary edge file.
+  public static final class Writer implements EdgeSink, Closeable {
+
+    private final DataOutputStream out;
+    private long edgeCount;
+
+    public Writer(File file, int n) throws IOException {
+      out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(file), BUFFER_SIZE));
+      out.writeInt(n);
+    }
+
+    @Override
+    public synchronized void addEdges(int[] from, int[] to, int count) {
+      try {
+        for (int i = 0; i < count; i++) {
+          out.writeInt(from[i]);
+          out.writeInt(to[i]);
+        }
+        edgeCount += count;
+      } catch (IOException e) {
+        throw new UncheckedIOException(e);
+      }
+    }
+
+    public synchronized long edgeCount() {
+      return edgeCount;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+      out.close();
+    }
+  }
+
+  // Returns the number of nodes stored in the header of a binary edge file.
+  public static int readNodeCount(File file) throws IOException {
+    try (DataInputStream in = new DataInputStream(new FileInputStream(file))) {
+      return in.readInt();
+    }
+  }
+
+  // Streams every edge of a binary edge file into 'sink' in batches and returns the node count.
+  public static int read(File file, EdgeSink sink) throws IOException {
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(new FileInputStream(file), BUFFER_SIZE))) {
+      int n = in.readInt();
+      int[] from = new int[BUFFER_SIZE], to = new int[BUFFER_SIZE];
+      int count = 0;
+      while (true) {
+        try {
+          from[count] = in.readInt();
+        } catch (EOFException e) {
+          break;
+        }
+        to[count++] = in.readInt();
+        if (count == BUFFER_SIZE) {
+          sink.addEdges(from, to, count);
+          count = 0;
+        }
+      }
+      sink.addEdges(from, to, count);
+      return n;
+    }
+  }
+
+  // Loads a binary edge file into a CSR graph.
+  public static CsrGraph readCsr(File file, boolean undirected) throws IOException {
+    CsrGraph.Builder builder = new CsrGraph.Builder(readNodeCount(file), undirected);
+    read(file, builder);
+    return builder.build();
+  }
+}
@@ -0,0 +1,113 @@
+/**
+ * A compact, immutable directed graph in compressed sparse row (CSR) form. The outgoing edges of
+ * node u are stored in targets[offsets[u]] through targets[offsets[u + 1] - 1], which uses two
+ * ints per edge and one int per node instead of the object overhead of a List<List<Integer>>.
+ *
+ * <p>Use a {@link CsrGraph.Builder} to collect edges (for example from one of the generators in
+ * {@link GraphGenerator}) and then call {@link CsrGraph.Builder#build}.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.utils.graphutils;
+
+import java.util.Arrays;
+
+public final class CsrGraph {
+
+  private final int n;
+  private final int[] offsets, targets;
+
+  public CsrGraph(int n, int[] offsets, int[] targets) {
+    if (offsets.length != n + 1)
+      throw new IllegalArgumentException("offsets must have n + 1 entries");
+    this.n = n;
+    this.offsets = offsets;
+    this.targets = targets;
+  }
+
+  public int nodeCount() {
+    return n;
+  }
+
+  public int edgeCount() {
+    return offsets[n];
+  }
+
+  public int degree(int u) {
+    return offsets[u + 1] - offsets[u];
+  }
+
+  // The edges of node u are at indexes [offsets()[u], offsets()[u + 1]) of targets(). The arrays
+  // are shared with the graph and must not be modified.
+  public int[] offsets() {
+    return offsets;
+  }
+
+  public int[] targets() {
+    return targets;
+  }
+
+  // Collects edges in primitive arrays and sorts them into CSR form with a counting sort.
+  public static final class Builder implements EdgeSink {
+
+    private static final int MAX_EDGES = Integer.MAX_VALUE - 8;
+
+    private final int n;
+    private final boolean undirected;
+    private int edgeCount;
+    private int[] from = new int[16], to = new int[16];
+
+    public Builder(int n) {
+      this(n, false);
+    }
+
+    // If 'undirected' is true every edge (u, v) is stored in both directions.
+    public Builder(int n, boolean undirected) {
+      if (n < 0) throw new IllegalArgumentException("n cannot be negative; received: " + n);
+      this.n = n;
+      this.undirected = undirected;
+    }
+
+    public synchronized void addEdge(int u, int v) {
+      ensureCapacity(edgeCount + 2L);
+      append(u, v);
+    }
+
+    @Override
+    public synchronized void addEdges(int[] us, int[] vs, int count) {
+      ensureCapacity(edgeCount + 2L * count);
+      for (int i = 0; i < count; i++) append(us[i], vs[i]);
+    }
+
+    private void append(int u, int v) {
+      if (u < 0 || u >= n || v < 0 || v >= n)
+        throw new IllegalArgumentException("Edge (" + u + ", " + v + ") out of bounds");
+      from[edgeCount] = u;
+      to[edgeCount++] = v;
+      if (undirected) {
+        from[edgeCount] = v;
+        to[edgeCount++] = u;
+      }
+    }
+
+    public synchronized CsrGraph build() {
+      int[] offsets = new int[n + 1];
+      for (int i = 0; i < edgeCount; i++) offsets[from[i] + 1]++;
+      for (int u = 0; u < n; u++) offsets[u + 1] += offsets[u];
+      int[] next = Arrays.copyOf(offsets, n);
+      int[] targets = new int[edgeCount];
+      for (int i = 0; i < edgeCount; i++) targets[next[from[i]]++] = to[i];
+      return new CsrGraph(n, offsets, targets);
+    }
+
+    // The edge arrays cannot grow beyond the largest array length the VM allows.
+    private void ensureCapacity(long capacity) {
+      if (capacity <= from.length) return;
+      if (capacity > MAX_EDGES)
+        throw new IllegalArgumentException("Too many edges: " + capacity);
+      int newCapacity = (int) Math.min(MAX_EDGES, Math.max(capacity, 2L * from.length));
+      from = Arrays.copyOf(from, newCapacity);
+      to = Arrays.copyOf(to, newCapacity);
+    }
+  }
+}
@@ -0,0 +1,16 @@
+/**
+ * A destination for the edges produced by the graph generators. Edges are handed over in batches
+ * of parallel primitive arrays so that very large graphs never need to be materialized as lists of
+ * objects.
+ *
+ * @author William Fiset, william.alexandre.fiset@gmail.com
+ */
+package com.williamfiset.algorithms.utils.graphutils;
+
+public interface EdgeSink {
+
+  // Receives the directed edges from[i] -> to[i] for all 0 <= i < count. The arrays may be reused
+  // by the caller once this method returns. Generators running in parallel call this method from
+  // several threads, so implementations must be thread safe.
+  public void addEdges(int[] from, int[] to, int count);
+}
@@ -1,9 +1,18 @@
 package com.williamfiset.algorithms.utils.graphutils;
 
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.LongStream;
 
 public class GraphGenerator {
 
+  // Number of edges a parallel task buffers before handing them over to the sink.
+  private static final int BATCH_SIZE = 1 << 13;
+
+  // Number of edges (or rows of nodes) generated by each parallel task.
+  private static final int EDGES_PER_TASK = 1 << 16;
+  private static final int ROWS_PER_TASK = 1 << 8;
+
   public static class DagGenerator {
     double edgeProbability;
     int minLevels, maxLevels, minNodesPerLevel, maxNodesPerLevel;
@@ -57,8 +66,275 @@ public class GraphGenerator {
     }
   }
 
+  /**
+   * Generates a directed R-MAT (recursive matrix) graph with 2^scale nodes, the Kronecker-style
+   * model used by the Graph500 benchmark. Every edge picks one of the four quadrants of the
+   * adjacency matrix with probabilities a, b, c and d = 1 - a - b - c at each of the 'scale'
+   * levels, which produces a skewed, power-law like degree distribution. Self loops and duplicate
+   * edges are kept.
+   */
+  public static class RmatGenerator {
+    final int scale;
+    final long edges;
+    final double a, b, c;
+    final long seed;
+
+    // Uses the Graph500 parameters a = 0.57, b = c = 0.19.
+    public RmatGenerator(int scale, long edges, long seed) {
+      this(scale, edges, 0.57, 0.19, 0.19, seed);
+    }
+
+    public RmatGenerator(int scale, long edges, double a, double b, double c, long seed) {
+      if (scale < 0 || scale > 30) throw new IllegalArgumentException("scale must be in [0, 30]");
+      if (edges < 0) throw new IllegalArgumentException("edges cannot be negative");
+      if (a < 0 || b < 0 || c < 0 || a + b + c > 1)
+        throw new IllegalArgumentException("Invalid quadrant probabilities");
+      this.scale = scale;
+      this.edges = edges;
+      this.a = a;
+      this.b = b;
+      this.c = c;
+      this.seed = seed;
+    }
+
+    public int nodeCount() {
+      return 1 << scale;
+    }
+
+    public void generate(EdgeSink sink) {
+      long tasks = (edges + EDGES_PER_TASK - 1) / EDGES_PER_TASK;
+      LongStream.range(0, tasks)
+          .parallel()
+          .forEach(
+              task -> {
+                SplittableRandom random = new SplittableRandom(mix(seed + task));
+                EdgeBuffer buffer = new EdgeBuffer(sink);
+                long end = Math.min(edges, (task + 1) * EDGES_PER_TASK);
+                for (long i = task * EDGES_PER_TASK; i < end; i++) {
+                  int u = 0, v = 0;
+                  for (int bit = 0; bit < scale; bit++) {
+                    double r = random.nextDouble();
+                    if (r < a) continue;
+                    if (r < a + b) v |= 1 << bit;
+                    else if (r < a + b + c) u |= 1 << bit;
+                    else {
+                      u |= 1 << bit;
+                      v |= 1 << bit;
+                    }
+                  }
+                  buffer.add(u, v);
+                }
+                buffer.flush();
+              });
+    }
+  }
+
+  /**
+   * Generates an Erdős–Rényi G(n, p) random graph where each possible edge exists independently
+   * with probability p. Instead of flipping a coin for all O(n^2) pairs, the number of pairs to
+   * skip until the next edge is drawn from a geometric distribution (Batagelj and Brandes), so the
+   * running time is O(n + m). Undirected graphs emit every edge (v, w) with w < v once.
+   */
+  public static class ErdosRenyiGenerator {
+    final int n;
+    final double p;
+    final boolean directed;
+    final long seed;
+
+    public ErdosRenyiGenerator(int n, double p, boolean directed, long seed) {
+      if (n < 0) throw new IllegalArgumentException("n cannot be negative");
+      if (p < 0 || p > 1) throw new IllegalArgumentException("p must be in [0, 1]");
+      this.n = n;
+      this.p = p;
+      this.directed = directed;
+      this.seed = seed;
+    }
+
+    public int nodeCount() {
+      return n;
+    }
+
+    public void generate(EdgeSink sink) {
+      if (p == 0) return;
+      // log1p keeps logQ away from 0 when p is so small that 1 - p rounds to 1.
+      final double logQ = Math.log1p(-p);
+      long tasks = (n + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+      LongStream.range(0, tasks)
+          .parallel()
+          .forEach(
+              task -> {
+                SplittableRandom random = new SplittableRandom(mix(seed + task));
+                EdgeBuffer buffer = new EdgeBuffer(sink);
+                int v = (int) (task * ROWS_PER_TASK);
+                int end = (int) Math.min(n, v + (long) ROWS_PER_TASK);
+                // Walk over the pairs of rows [v, end) in order, w is the column within row v.
+                long w = -1;
+                while (v < end) {
+                  double skip = p == 1 ? 0 : Math.log1p(-random.nextDouble()) / logQ;
+                  // Capped so that a huge skip moves past the last row without overflowing w.
+                  w += 1 + (long) Math.min(skip, 1L << 62);
+                  while (v < end && w >= rowLength(v)) {
+                    w -= rowLength(v);
+                    v++;
+                  }
+                  if (v < end) buffer.add(v, (int) (directed && w >= v ? w + 1 : w));
+                }
+                buffer.flush();
+              });
+    }
+
+    // Directed graphs pair v with every node except itself, undirected graphs with nodes w < v.
+    private long rowLength(int v) {
+      return directed ? n - 1 : v;
+    }
+  }
+
+  /**
+   * Generates a road-like grid graph of rows x cols nodes, where node (r, c) has index
+   * r * cols + c. Each horizontal and vertical street between neighboring intersections exists with
+   * probability 'keepProbability' and a diagonal shortcut to (r + 1, c + 1) exists with probability
+   * 'diagonalProbability'. Every undirected edge is emitted once.
+   */
+  public static class GridGenerator {
+    final int rows, cols;
+    final double keepProbability, diagonalProbability;
+    final long seed;
+
+    public GridGenerator(
+        int rows, int cols, double keepProbability, double diagonalProbability, long seed) {
+      if (rows < 0 || cols < 0) throw new IllegalArgumentException("Invalid grid dimensions");
+      if ((long) rows * cols > Integer.MAX_VALUE)
+        throw new IllegalArgumentException("Grid has too many nodes");
+      this.rows = rows;
+      this.cols = cols;
+      this.keepProbability = keepProbability;
+      this.diagonalProbability = diagonalProbability;
+      this.seed = seed;
+    }
+
+    public int nodeCount() {
+      return rows * cols;
+    }
+
+    public void generate(EdgeSink sink) {
+      long tasks = (rows + ROWS_PER_TASK - 1) / ROWS_PER_TASK;
+      LongStream.range(0, tasks)
+          .parallel()
+          .forEach(
+              task -> {
+                EdgeBuffer buffer = new EdgeBuffer(sink);
+                int end = (int) Math.min(rows, (task + 1) * ROWS_PER_TASK);
+                for (int r = (int) (task * ROWS_PER_TASK); r < end; r++) {
+                  SplittableRandom random = new SplittableRandom(mix(seed + r));
+                  for (int c = 0; c < cols; c++) {
+                    int u = r * cols + c;
+                    if (c + 1 < cols && random.nextDouble() < keepProbability) buffer.add(u, u + 1);
+                    if (r + 1 < rows && random.nextDouble() < keepProbability)
+                      buffer.add(u, u + cols);
+                    if (r + 1 < rows && c + 1 < cols && random.nextDouble() < diagonalProbability)
+                      buffer.add(u, u + cols + 1);
+                  }
+                }
+                buffer.flush();
+              });
+    }
+  }
+
+  /**
+   * Generates a Barabási-Albert preferential attachment graph where node v attaches to
+   * 'edgesPerNode' earlier nodes chosen with probability proportional to their degree.
+   *
+   * <p>Preferential attachment is inherently sequential, so this uses the approach of Sanders and
+   * Schulz: think of all edges laid out in one array where position 2i holds the source of edge i
+   * and position 2i + 1 its target. The target of edge i is a copy of a uniformly random earlier
+   * position, which is equivalent to picking a node proportionally to its degree. Since every
+   * random choice is a hash of the edge index, any edge can be computed independently of the
+   * others without storing the edge array. As in the original linearized chord diagram model,
+   * self loops and duplicate edges can occur.
+   */
+  public static class BarabasiAlbertGenerator {
+    final int n, edgesPerNode;
+    final long seed;
+
+    public BarabasiAlbertGenerator(int n, int edgesPerNode, long seed) {
+      if (n < 0 || edgesPerNode <= 0) throw new IllegalArgumentException("Invalid parameters");
+      this.n = n;
+      this.edgesPerNode = edgesPerNode;
+      this.seed = seed;
+    }
+
+    public int nodeCount() {
+      return n;
+    }
+
+    public void generate(EdgeSink sink) {
+      final long edges = (long) n * edgesPerNode;
+      long tasks = (edges + EDGES_PER_TASK - 1) / EDGES_PER_TASK;
+      LongStream.range(0, tasks)
+          .parallel()
+          .forEach(
+              task -> {
+                EdgeBuffer buffer = new EdgeBuffer(sink);
+                long end = Math.min(edges, (task + 1) * EDGES_PER_TASK);
+                for (long i = task * EDGES_PER_TASK; i < end; i++) {
+                  buffer.add((int) (i / edgesPerNode), target(i));
+                }
+                buffer.flush();
+              });
+    }
+
+    // Follows copied positions until landing on the source of some edge.
+    private int target(long edge) {
+      long position = randomPosition(edge);
+      while ((position & 1) == 1) position = randomPosition(position >>> 1);
+      return (int) ((position >>> 1) / edgesPerNode);
+    }
+
+    // A uniformly random position in [0, 2 * edge] determined only by the seed and the edge.
+    private long randomPosition(long edge) {
+      return Long.remainderUnsigned(mix(seed ^ mix(edge)), 2 * edge + 1);
+    }
+  }
+
+  // Buffers the edges generated by one parallel task and hands them to the sink in batches.
+  private static final class EdgeBuffer {
+    final EdgeSink sink;
+    final int[] from = new int[BATCH_SIZE], to = new int[BATCH_SIZE];
+    int size;
+
+    EdgeBuffer(EdgeSink sink) {
+      this.sink = sink;
+    }
+
+    void add(int u, int v) {
+      from[size] = u;
+      to[size++] = v;
+      if (size == BATCH_SIZE) flush();
+    }
+
+    void flush() {
+      if (size > 0) sink.addEdges(from, to, size);
+      size = 0;
+    }
+  }
+
+  // The SplitMix64 finalizer, used to derive an independent random stream for every parallel
+  // task so that the generated graph only depends on the seed and not on the thread scheduling.
+  private static long mix(long z) {
+    z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+    z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+    return z ^ (z >>> 31);
+  }
+
   public static void main(String[] args) {
     DagGenerator gen = new DagGenerator(10, 10, 5, 5, 0.9);
     gen.createDag();
+
+    // Generate an R-MAT graph with 2^20 nodes and 16 million edges directly into CSR form.
+    RmatGenerator rmat = new RmatGenerator(20, 16L << 20, 0);
+    CsrGraph.Builder builder = new CsrGraph.Builder(rmat.nodeCount());
+    rmat.generate(builder);
+    CsrGraph graph = builder.build();
+    System.out.printf("R-MAT: %d nodes, %d edges%n", graph.nodeCount(), graph.edgeCount());
   }
 }
@@ -0,0 +1,145 @@
+package com.williamfiset.algorithms.dp;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class BlossomMinimumWeightPerfectMatchingTest {
+
+  private static final double INF = Double.POSITIVE_INFINITY;
+
+  @Test
+  public void testSmallMatrix() {
+    // nodes 0 & 2 and 1 & 3 make the mwpm
+    double[][] cost = {
+      {0, 2, 1, 2},
+      {2, 0, 2, 1},
+      {1, 2, 0, 2},
+      {2, 1, 2, 0},
+    };
+    BlossomMinimumWeightPerfectMatching mwpm = new BlossomMinimumWeightPerfectMatching(cost);
+    assertThat(mwpm.getMinWeightCost()).isEqualTo(2.0);
+    assertThat(mwpm.getMatching()).isEqualTo(new int[] {0, 2, 1, 3});
+  }
+
+  @Test
+  public void testOddCycles() {
+    BlossomMinimumWeightPerfectMatching mwpm = new BlossomMinimumWeightPerfectMatching(6);
+    mwpm.addEdge(0, 1, 1);
+    mwpm.addEdge(1, 2, 1);
+    mwpm.addEdge(0, 2, 1);
+    mwpm.addEdge(3, 4, 1);
+    mwpm.addEdge(4, 5, 1);
+    mwpm.addEdge(3, 5, 1);
+    mwpm.addEdge(2, 3, 10);
+    assertThat(mwpm.getMinWeightCost()).isEqualTo(12.0);
+    assertThat(mwpm.getMinWeightCostMatching()).isEqualTo(new int[] {0, 1, 2, 3, 4, 5});
+  }
+
+  @Test
+  public void testNegativeCosts() {
+    double[][] cost = {
+      {0, -5, 3, 3},
+      {-5, 0, 3, 3},
+      {3, 3, 0, -1},
+      {3, 3, -1, 0},
+    };
+    BlossomMinimumWeightPerfectMatching mwpm = new BlossomMinimumWeightPerfectMatching(cost);
+    assertThat(mwpm.getMinWeightCost()).isEqualTo(-6.0);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testNoPerfectMatching() {
+    // A star has no perfect matching.
+    BlossomMinimumWeightPerfectMatching mwpm = new BlossomMinimumWeightPerfectMatching(4);
+    mwpm.addEdge(0, 1, 1);
+    mwpm.addEdge(0, 2, 1);
+    mwpm.addEdge(0, 3, 1);
+    mwpm.getMinWeightCost();
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testOddNumberOfNodes() {
+    new BlossomMinimumWeightPerfectMatching(3);
+  }
+
+  @Test
+  public void testAgainstMinimumWeightPerfectMatching() {
+    Random random = new Random(38);
+    for (int loop = 0; loop < 200; loop++) {
+      int n = 2 * (1 + random.nextInt(6));
+      double[][] cost = new double[n][n];
+      for (int i = 0; i < n; i++) {
+        for (int j = i + 1; j < n; j++) cost[i][j] = cost[j][i] = random.nextInt(20);
+      }
+      MinimumWeightPerfectMatching dp = new MinimumWeightPerfectMatching(cost);
+      BlossomMinimumWeightPerfectMatching mwpm = new BlossomMinimumWeightPerfectMatching(cost);
+      assertThat(mwpm.getMinWeightCost()).isEqualTo(dp.getMinWeightCost());
+      assertValidMatching(mwpm, cost);
+    }
+  }
+
+  @Test
+  public void testSparseGraphsAgainstWeightedMatchingDp() {
+    Random random = new Random(138);
+    for (int loop = 0; loop < 300; loop++) {
+      int n = 2 * (1 + random.nextInt(6));
+      double[][] cost = new double[n][n];
+      Double[][] graph = new Double[n][n];
+      for (int i = 0; i < n; i++) {
+        for (int j = i + 1; j < n; j++) {
+          cost[i][j] = cost[j][i] = INF;
+          if (random.nextInt(3) == 0) {
+            cost[i][j] = cost[j][i] = random.nextInt(100);
+            graph[i][j] = graph[j][i] = cost[i][j];
+          }
+        }
+      }
+      // Make sure a perfect matching exists.
+      for (int i = 0; i < n; i += 2) {
+        if (cost[i][i + 1] == INF) {
+          cost[i][i + 1] = cost[i + 1][i] = 1000;
+          graph[i][i + 1] = graph[i + 1][i] = 1000.0;
+        }
+      }
+      MwpmInterface dp = new WeightedMaximumCardinalityMatchingRecursive(graph);
+      BlossomMinimumWeightPerfectMatching mwpm = new BlossomMinimumWeightPerfectMatching(cost);
+      assertThat(mwpm.getMinWeightCost()).isEqualTo(dp.getMinWeightCost());
+      assertValidMatching(mwpm, cost);
+    }
+  }
+
+  @Test
+  public void testLargeGraphAgainstHungarian() {
+    // On a bipartite graph the mwpm is an assignment.
+    Random random = new Random(238);
+    int half = 150;
+    double[][] assignmentCost = new double[half][half];
+    BlossomMinimumWeightPerfectMatching mwpm = new BlossomMinimumWeightPerfectMatching(2 * half);
+    for (int i = 0; i < half; i++) {
+      for (int j = 0; j < half; j++) {
+        assignmentCost[i][j] = random.nextInt(1000);
+        mwpm.addEdge(i, half + j, assignmentCost[i][j]);
+      }
+    }
+    HungarianAssignment hungarian = new HungarianAssignment(assignmentCost);
+    assertThat(mwpm.getMinWeightCost()).isEqualTo(hungarian.getMinWeightCost());
+  }
+
+  private static void assertValidMatching(
+      BlossomMinimumWeightPerfectMatching mwpm, double[][] cost) {
+    int n = cost.length;
+    int[] matching = mwpm.getMatching();
+    assertThat(matching.length).isEqualTo(n);
+    boolean[] matched = new boolean[n];
+    double total = 0;
+    for (int i = 0; i < n; i += 2) {
+      int u = matching[i], v = matching[i + 1];
+      assertThat(matched[u] || matched[v]).isFalse();
+      matched[u] = matched[v] = true;
+      total += cost[u][v];
+    }
+    assertThat(total).isEqualTo(mwpm.getMinWeightCost());
+  }
+}
@@ -0,0 +1,128 @@
+package com.williamfiset.algorithms.dp;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import com.williamfiset.algorithms.graphtheory.networkflow.NetworkSimplexMinCostFlow;
+import java.util.Random;
+import org.junit.Test;
+
+public class HungarianAssignmentTest {
+
+  @Test
+  public void testSquareMatrix() {
+    double[][] cost = {
+      {4, 1, 3},
+      {2, 0, 5},
+      {3, 2, 2},
+    };
+    HungarianAssignment solver = new HungarianAssignment(cost);
+    assertThat(solver.getMinWeightCost()).isEqualTo(5.0);
+    assertThat(solver.getAssignment()).isEqualTo(new int[] {1, 0, 2});
+    assertThat(solver.getMatching()).isEqualTo(new int[] {0, 4, 1, 3, 2, 5});
+  }
+
+  @Test
+  public void testMoreRowsThanColumns() {
+    double[][] cost = {
+      {9, 2},
+      {6, 4},
+      {5, 8},
+    };
+    HungarianAssignment solver = new HungarianAssignment(cost);
+    assertThat(solver.getMinWeightCost()).isEqualTo(7.0);
+    assertThat(solver.getAssignment()).isEqualTo(new int[] {1, -1, 0});
+  }
+
+  @Test
+  public void testFlatMatrix() {
+    double[] cost = {9, 2, 7, 8, 6, 4, 3, 7, 5, 8, 1, 8};
+    HungarianAssignment solver = new HungarianAssignment(cost, 3, 4);
+    assertThat(solver.getMinWeightCost()).isEqualTo(9.0);
+    assertThat(solver.getAssignment()).isEqualTo(new int[] {1, 0, 2});
+  }
+
+  @Test
+  public void testEmptyMatrix() {
+    HungarianAssignment solver = new HungarianAssignment(new double[0], 0, 5);
+    assertThat(solver.getMinWeightCost()).isEqualTo(0.0);
+    assertThat(solver.getMatching()).isEqualTo(new int[0]);
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testForbiddenPairs() {
+    double inf = Double.POSITIVE_INFINITY;
+    double[][] cost = {
+      {1, inf},
+      {2, inf},
+    };
+    new HungarianAssignment(cost).getMinWeightCost();
+  }
+
+  @Test
+  public void testAgainstWeightedMatchingDp() {
+    Random random = new Random(37);
+    for (int loop = 0; loop < 50; loop++) {
+      int rows = 1 + random.nextInt(5), cols = 1 + random.nextInt(5);
+      double[][] cost = randomMatrix(random, rows, cols, 100);
+
+      // Embed the bipartite graph into a general graph with no edges within a side.
+      int n = rows + cols;
+      Double[][] graph = new Double[n][n];
+      for (int i = 0; i < rows; i++) {
+        for (int j = 0; j < cols; j++) {
+          graph[i][rows + j] = cost[i][j];
+          graph[rows + j][i] = cost[i][j];
+        }
+      }
+      MwpmInterface dp = new WeightedMaximumCardinalityMatchingRecursive(graph);
+      HungarianAssignment solver = new HungarianAssignment(cost);
+      assertThat(solver.getMinWeightCost()).isEqualTo(dp.getMinWeightCost());
+      assertValidAssignment(solver, cost);
+    }
+  }
+
+  @Test
+  public void testAgainstMinCostFlow() {
+    Random random = new Random(137);
+    for (int loop = 0; loop < 20; loop++) {
+      int rows = 1 + random.nextInt(60), cols = 1 + random.nextInt(60);
+      double[][] cost = randomMatrix(random, rows, cols, 1000);
+
+      int n = rows + cols + 2, s = n - 2, t = n - 1;
+      NetworkSimplexMinCostFlow flow = new NetworkSimplexMinCostFlow(n, s, t);
+      for (int i = 0; i < rows; i++) flow.addEdge(s, i, 1, 0);
+      for (int j = 0; j < cols; j++) flow.addEdge(rows + j, t, 1, 0);
+      for (int i = 0; i < rows; i++) {
+        for (int j = 0; j < cols; j++) flow.addEdge(i, rows + j, 1, (long) cost[i][j]);
+      }
+      HungarianAssignment solver = new HungarianAssignment(cost);
+      assertThat(solver.getMinWeightCost()).isEqualTo((double) flow.getMinCost());
+      assertValidAssignment(solver, cost);
+    }
+  }
+
+  private static double[][] randomMatrix(Random random, int rows, int cols, int maxCost) {
+    double[][] cost = new double[rows][cols];
+    for (int i = 0; i < rows; i++) {
+      for (int j = 0; j < cols; j++) cost[i][j] = random.nextInt(maxCost);
+    }
+    return cost;
+  }
+
+  private static void assertValidAssignment(HungarianAssignment solver, double[][] cost) {
+    int rows = cost.length, cols = cost[0].length;
+    int[] assignment = solver.getAssignment();
+    boolean[] used = new boolean[cols];
+    int assigned = 0;
+    double total = 0;
+    for (int i = 0; i < rows; i++) {
+      if (assignment[i] == -1) continue;
+      assertThat(used[assignment[i]]).isFalse();
+      used[assignment[i]] = true;
+      total += cost[i][assignment[i]];
+      assigned++;
+    }
+    assertThat(assigned).isEqualTo(Math.min(rows, cols));
+    assertThat(total).isEqualTo(solver.getMinWeightCost());
+  }
+}
@@ -0,0 +1,126 @@
+package com.williamfiset.algorithms.graphtheory;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class IncrementalTwoSatSolverTest {
+
+  @Test
+  public void testSimpleSatisfiable() {
+    IncrementalTwoSatSolver solver = new IncrementalTwoSatSolver(1);
+    solver.addOrClause(0, 0 ^ 1);
+    assertThat(solver.isSatisfiable()).isTrue();
+    assertThat(solver.isForced(0)).isFalse();
+    assertThat(solver.isForced(1)).isFalse();
+  }
+
+  @Test
+  public void testSimpleImpossible() {
+    IncrementalTwoSatSolver solver = new IncrementalTwoSatSolver(1);
+    solver.addOrClause(0, 0);
+    solver.addOrClause(0 ^ 1, 0 ^ 1);
+    assertThat(solver.isSatisfiable()).isFalse();
+    assertThat(solver.assume(0)).isFalse();
+    assertThat(solver.getAssignment()).isNull();
+  }
+
+  @Test
+  public void testImpossibleFourNodeCycle() {
+    IncrementalTwoSatSolver solver = new IncrementalTwoSatSolver(2);
+    solver.addOrClause(2 * 0, 2 * 1);
+    solver.addOrClause(2 * 0, 2 * 1 ^ 1);
+    solver.addOrClause(2 * 0 ^ 1, 2 * 1);
+    assertThat(solver.isSatisfiable()).isTrue();
+    assertThat(solver.isForced(0)).isTrue();
+    assertThat(solver.isForced(2)).isTrue();
+
+    solver.addOrClause(2 * 0 ^ 1, 2 * 1 ^ 1);
+    assertThat(solver.isSatisfiable()).isFalse();
+  }
+
+  @Test
+  public void testAssumeAndRetract() {
+    IncrementalTwoSatSolver solver = new IncrementalTwoSatSolver(3);
+    int a = 0, b = 2, c = 4;
+    solver.addOrClause(a ^ 1, b);
+    solver.addOrClause(b ^ 1, c ^ 1);
+
+    assertThat(solver.isSatisfiable(a, c)).isFalse();
+    assertThat(solver.isSatisfiable(a, c ^ 1)).isTrue();
+
+    assertThat(solver.assume(c)).isTrue();
+    assertThat(solver.isForced(a ^ 1)).isTrue();
+    assertThat(solver.assume(a)).isFalse();
+    assertThat(solver.isForced(a ^ 1)).isTrue();
+    solver.retract();
+    assertThat(solver.isForced(a ^ 1)).isFalse();
+    assertThat(solver.assume(a)).isTrue();
+  }
+
+  @Test(expected = IllegalStateException.class)
+  public void testAddingClausesWithActiveAssumptions() {
+    IncrementalTwoSatSolver solver = new IncrementalTwoSatSolver(2);
+    solver.assume(0);
+    solver.addOrClause(1, 2);
+  }
+
+  @Test
+  public void testRandomFormulasAgainstBruteForce() {
+    Random random = new Random(0);
+    for (int iteration = 0; iteration < 300; iteration++) {
+      int n = 1 + random.nextInt(8);
+      int m = random.nextInt(3 * n);
+      IncrementalTwoSatSolver solver = new IncrementalTwoSatSolver(n);
+      List<int[]> clauses = new ArrayList<>();
+      for (int i = 0; i < m; i++) {
+        int p = random.nextInt(2 * n), q = random.nextInt(2 * n);
+        solver.addOrClause(p, q);
+        clauses.add(new int[] {p, q});
+      }
+      assertThat(solver.isSatisfiable()).isEqualTo(bruteForce(n, clauses, new int[0]) != null);
+
+      for (int query = 0; query < 10; query++) {
+        int[] assumptions = random.ints(random.nextInt(3), 0, 2 * n).toArray();
+        boolean[] solution = bruteForce(n, clauses, assumptions);
+        assertThat(solver.isSatisfiable(assumptions)).isEqualTo(solution != null);
+        if (solution == null) continue;
+
+        for (int p : assumptions) assertThat(solver.assume(p)).isTrue();
+        boolean[] assignment = solver.getAssignment();
+        assertThat(satisfies(assignment, clauses, assumptions)).isTrue();
+        for (int p = 0; p < 2 * n; p++) {
+          int[] withNegation = java.util.Arrays.copyOf(assumptions, assumptions.length + 1);
+          withNegation[assumptions.length] = p ^ 1;
+          boolean forced = bruteForce(n, clauses, withNegation) == null;
+          assertThat(solver.isForced(p)).isEqualTo(forced);
+        }
+        solver.retractAll();
+      }
+    }
+  }
+
+  private static boolean[] bruteForce(int n, List<int[]> clauses, int[] assumptions) {
+    for (int mask = 0; mask < 1 << n; mask++) {
+      boolean[] assignment = new boolean[n];
+      for (int i = 0; i < n; i++) assignment[i] = ((mask >> i) & 1) == 1;
+      if (satisfies(assignment, clauses, assumptions)) return assignment;
+    }
+    return null;
+  }
+
+  private static boolean satisfies(boolean[] assignment, List<int[]> clauses, int[] assumptions) {
+    for (int[] clause : clauses) {
+      if (!isTrue(assignment, clause[0]) && !isTrue(assignment, clause[1])) return false;
+    }
+    for (int p : assumptions) if (!isTrue(assignment, p)) return false;
+    return true;
+  }
+
+  private static boolean isTrue(boolean[] assignment, int p) {
+    return assignment[p >> 1] == ((p & 1) == 0);
+  }
+}
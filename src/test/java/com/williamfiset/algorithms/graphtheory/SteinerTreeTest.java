@@ -2,6 +2,7 @@ package com.williamfiset.algorithms.graphtheory;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import java.util.Random;
 import org.junit.Test;
 
 public class SteinerTreeTest {
@@ -95,6 +96,76 @@ public class SteinerTreeTest {
     assertThat(testSteiner(matrix2, 0, 4, 5)).isEqualTo(10.0);
   }
 
+  @Test
+  public void testAdjacencyListMatchesMatrixSolver() {
+    int[][] terminalSets = {{}, {2}, {2, 4}, {0, 3}, {1, 2, 4}, {3, 0, 4}, {0, 1, 2, 3, 4}};
+    for (int[] terminals : terminalSets) {
+      assertThat(testSteinerAdjacencyList(matrix1, terminals))
+          .isEqualTo(testSteiner(matrix1, terminals));
+    }
+    terminalSets = new int[][] {{0, 5}, {4, 0}, {2, 4, 5}, {3, 1, 0}, {3, 0, 5}, {0, 4, 5}};
+    for (int[] terminals : terminalSets) {
+      assertThat(testSteinerAdjacencyList(matrix2, terminals))
+          .isEqualTo(testSteiner(matrix2, terminals));
+    }
+  }
+
+  @Test
+  public void testAdjacencyListRandomGraphs() {
+    Random random = new Random(0);
+    for (int iteration = 0; iteration < 30; iteration++) {
+      int n = 2 + random.nextInt(25);
+      double[][] matrix = new double[n][n];
+      for (int i = 0; i < n; i++) {
+        for (int j = 0; j < n; j++) matrix[i][j] = i == j ? 0 : INF;
+      }
+      SteinerTreeAdjacencyList solver = new SteinerTreeAdjacencyList(n);
+      for (int i = 0; i < 3 * n; i++) {
+        int u = random.nextInt(n), v = random.nextInt(n);
+        double cost = random.nextInt(20);
+        if (u == v || cost >= matrix[u][v]) continue;
+        matrix[u][v] = matrix[v][u] = cost;
+        solver.addUndirectedEdge(u, v, cost);
+      }
+
+      int t = 1 + random.nextInt(Math.min(n, 7));
+      int[] terminals = random.ints(0, n).distinct().limit(t).toArray();
+      double expected = testSteiner(matrix, terminals);
+      double cost = solver.solve(terminals);
+      assertThat(cost).isEqualTo(expected);
+      if (cost == INF) continue;
+
+      // The reconstructed edges must cost exactly as much as the tree and connect the terminals.
+      double edgeSum = 0;
+      int[] id = new int[n];
+      for (int i = 0; i < n; i++) id[i] = i;
+      for (SteinerTreeAdjacencyList.Edge edge : solver.getTreeEdges()) {
+        edgeSum += edge.cost;
+        int a = find(id, edge.from), b = find(id, edge.to);
+        id[a] = b;
+      }
+      assertThat(edgeSum).isEqualTo(cost);
+      for (int terminal : terminals) {
+        assertThat(find(id, terminal)).isEqualTo(find(id, terminals[0]));
+      }
+    }
+  }
+
+  private static int find(int[] id, int i) {
+    while (id[i] != i) i = id[i];
+    return i;
+  }
+
+  private double testSteinerAdjacencyList(double[][] distances, int... subsetToConnect) {
+    SteinerTreeAdjacencyList solver = new SteinerTreeAdjacencyList(distances.length);
+    for (int i = 0; i < distances.length; i++) {
+      for (int j = i + 1; j < distances.length; j++) {
+        if (distances[i][j] != INF) solver.addUndirectedEdge(i, j, distances[i][j]);
+      }
+    }
+    return solver.solve(subsetToConnect);
+  }
+
   private double testSteiner(double[][] distances, int... subsetToConnect) {
     return SteinerTree.minLengthSteinerTree(distances, subsetToConnect);
   }
@@ -2,7 +2,10 @@ package com.williamfiset.algorithms.graphtheory;
 
 import static com.google.common.truth.Truth.assertThat;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Random;
 import org.junit.Test;
 
 public class TravelingSalesmanProblemTest {
@@ -139,6 +142,38 @@ public class TravelingSalesmanProblemTest {
     }
   }
 
+  // Layers with more subsets than a single chunk are split across threads, make sure
+  // the parallel evaluation still agrees with the recursive solver.
+  @Test
+  public void testIterativeVsRecursiveLargerGraphs() {
+    for (int n = 14; n <= 17; n++) {
+      double[][] dist = new double[n][n];
+      randomFillDistMatrix(dist);
+      int startNode = n / 2;
+
+      TspDynamicProgrammingRecursive dpRecursiveSolver =
+          new TspDynamicProgrammingRecursive(startNode, dist);
+      TspDynamicProgrammingIterative dpIterativeSolver =
+          new TspDynamicProgrammingIterative(startNode, dist);
+
+      double dp1 = dpRecursiveSolver.getTourCost();
+      double dp2 = dpIterativeSolver.getTourCost();
+
+      assertThat(dp2).isWithin(EPS).of(dp1);
+      assertThat(getTourCost(dist, dpIterativeSolver.getTour())).isWithin(EPS).of(dp1);
+    }
+  }
+
+  @Test
+  public void testNextCombination() {
+    int set = 0b00111;
+    int[] expected = {0b01011, 0b01101, 0b01110, 0b10011, 0b10101, 0b10110, 0b11001};
+    for (int next : expected) {
+      set = TspDynamicProgrammingIterative.nextCombination(set);
+      assertThat(set).isEqualTo(next);
+    }
+  }
+
   // Try slightly larger matrices to make sure they run is a reasonable amount of
   // time.
   @Test
@@ -163,6 +198,74 @@ public class TravelingSalesmanProblemTest {
     }
   }
 
+  @Test
+  public void testLocalSearchVsBf() {
+    Random random = new Random(7);
+    for (int n = 3; n <= 9; n++) {
+      double[][] dist = new double[n][n];
+      for (int i = 0; i < n; i++)
+        for (int j = i + 1; j < n; j++) dist[i][j] = dist[j][i] = random.nextInt(1000);
+
+      double bf = TspBruteForce.computeTourCost(TspBruteForce.tsp(dist), dist);
+      TspLocalSearch solver = new TspLocalSearch(dist);
+      int[] tour = solver.solveWithKicks(1000, 2, n);
+
+      assertValidTour(tour, n);
+      assertThat(solver.getTourCost()).isWithin(EPS).of(bf);
+      assertThat(TspBruteForce.computeTourCost(tour, dist)).isWithin(EPS).of(bf);
+    }
+  }
+
+  // Points on a circle are in convex position so the optimal tour visits them in angular
+  // order, and any tour without crossing edges (i.e. a 2-opt local optimum) is optimal.
+  @Test
+  public void testLocalSearchPointsOnCircle() {
+    int n = 200;
+    double[] x = new double[n], y = new double[n];
+    List<Integer> order = new ArrayList<>();
+    for (int i = 0; i < n; i++) order.add(i);
+    Collections.shuffle(order, new Random(1));
+    for (int i = 0; i < n; i++) {
+      double angle = 2 * Math.PI * order.get(i) / n;
+      x[i] = Math.cos(angle);
+      y[i] = Math.sin(angle);
+    }
+    double expected = n * 2 * Math.sin(Math.PI / n);
+
+    TspLocalSearch solver = new TspLocalSearch(x, y, n - 1);
+    int[] tour = solver.solveWithKicks(0, 1, 0);
+
+    assertValidTour(tour, n);
+    assertThat(solver.getTourCost()).isWithin(EPS).of(expected);
+  }
+
+  @Test
+  public void testLocalSearchLargeRandomInstance() {
+    int n = 2000;
+    Random random = new Random(3);
+    double[] x = new double[n], y = new double[n];
+    for (int i = 0; i < n; i++) {
+      x[i] = random.nextDouble();
+      y[i] = random.nextDouble();
+    }
+    TspLocalSearch solver = new TspLocalSearch(x, y);
+    int[] tour = solver.solveWithKicks(2000, 1, 3);
+
+    assertValidTour(tour, n);
+    assertThat(solver.computeTourCost(tour)).isWithin(EPS).of(solver.getTourCost());
+    // The optimal tour of n uniform points in the unit square is roughly 0.7124 * sqrt(n).
+    assertThat(solver.getTourCost()).isLessThan(0.7124 * Math.sqrt(n) * 1.1);
+  }
+
+  private static void assertValidTour(int[] tour, int n) {
+    assertThat(tour.length).isEqualTo(n);
+    boolean[] seen = new boolean[n];
+    for (int node : tour) {
+      assertThat(seen[node]).isFalse();
+      seen[node] = true;
+    }
+  }
+
   public void randomFillDistMatrix(double[][] dist) {
     for (int i = 0; i < dist.length; i++) {
       for (int j = 0; j < dist.length; j++) {
@@ -0,0 +1,73 @@
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class GomoryHuTreeTest {
+
+  @Test
+  public void testSmallNetwork() {
+    GomoryHuTree tree = new GomoryHuTree(4);
+    tree.addUndirectedEdge(0, 1, 3);
+    tree.addUndirectedEdge(1, 2, 2);
+    tree.addUndirectedEdge(2, 3, 5);
+    tree.addUndirectedEdge(0, 3, 1);
+    assertThat(tree.minCut(0, 1)).isEqualTo(4);
+    assertThat(tree.minCut(1, 2)).isEqualTo(3);
+    assertThat(tree.minCut(2, 3)).isEqualTo(6);
+    assertThat(tree.minCut(0, 2)).isEqualTo(3);
+    assertThat(tree.minCut(3, 1)).isEqualTo(3);
+  }
+
+  @Test
+  public void testDisconnectedNetwork() {
+    GomoryHuTree tree = new GomoryHuTree(4);
+    tree.addUndirectedEdge(0, 1, 3);
+    tree.addUndirectedEdge(2, 3, 5);
+    assertThat(tree.minCut(0, 1)).isEqualTo(3);
+    assertThat(tree.minCut(2, 3)).isEqualTo(5);
+    assertThat(tree.minCut(0, 3)).isEqualTo(0);
+  }
+
+  @Test
+  public void testSingleNode() {
+    GomoryHuTree tree = new GomoryHuTree(1);
+    assertThat(tree.getParents()).isEqualTo(new int[] {-1});
+  }
+
+  @Test
+  public void testRandomNetworksAgainstDinics() {
+    Random random = new Random(34);
+    for (int loop = 0; loop < 30; loop++) {
+      int n = 2 + random.nextInt(15), m = random.nextInt(3 * n);
+      int[] us = new int[m], vs = new int[m];
+      long[] caps = new long[m];
+      GomoryHuTree sequential = new GomoryHuTree(n);
+      GomoryHuTree parallel = new GomoryHuTree(n, EdmondsKarpAdjacencyList::new);
+      parallel.setParallel(true);
+      for (int i = 0; i < m; i++) {
+        us[i] = random.nextInt(n);
+        vs[i] = random.nextInt(n);
+        caps[i] = random.nextInt(10);
+        sequential.addUndirectedEdge(us[i], vs[i], caps[i]);
+        parallel.addUndirectedEdge(us[i], vs[i], caps[i]);
+      }
+      assertThat(parallel.getParents()).isEqualTo(sequential.getParents());
+      for (int s = 0; s < n; s++) {
+        for (int t = s + 1; t < n; t++) {
+          Dinics solver = new Dinics(n, s, t);
+          for (int i = 0; i < m; i++) {
+            solver.addEdge(us[i], vs[i], caps[i]);
+            solver.addEdge(vs[i], us[i], caps[i]);
+          }
+          long expected = solver.getMaxFlow();
+          assertThat(sequential.minCut(s, t)).isEqualTo(expected);
+          assertThat(sequential.minCut(t, s)).isEqualTo(expected);
+          assertThat(parallel.minCut(s, t)).isEqualTo(expected);
+        }
+      }
+    }
+  }
+}
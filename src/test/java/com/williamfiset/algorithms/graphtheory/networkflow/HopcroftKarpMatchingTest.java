@@ -0,0 +1,99 @@
+package com.williamfiset.algorithms.graphtheory.networkflow;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class HopcroftKarpMatchingTest {
+
+  @Test
+  public void testEmptyGraph() {
+    HopcroftKarpMatching matching = new HopcroftKarpMatching(3, 2);
+    assertThat(matching.getMatchingSize()).isEqualTo(0);
+    assertThat(matching.getLeftMatches()).isEqualTo(new int[] {-1, -1, -1});
+  }
+
+  @Test
+  public void testGreedyMatchingIsImproved() {
+    // Greedy matches left 0 to right 0, which must be undone to match everyone.
+    HopcroftKarpMatching matching = new HopcroftKarpMatching(2, 2);
+    matching.addEdge(0, 0);
+    matching.addEdge(0, 1);
+    matching.addEdge(1, 0);
+    assertThat(matching.getMatchingSize()).isEqualTo(2);
+    assertThat(matching.getLeftMatches()).isEqualTo(new int[] {1, 0});
+    assertThat(matching.getRightMatches()).isEqualTo(new int[] {1, 0});
+  }
+
+  @Test
+  public void testRemoveEdge() {
+    HopcroftKarpMatching matching = new HopcroftKarpMatching(2, 2);
+    matching.addEdge(0, 0);
+    matching.addEdge(1, 1);
+    matching.addEdge(1, 1);
+    assertThat(matching.getMatchingSize()).isEqualTo(2);
+    assertThat(matching.removeEdge(0, 1)).isFalse();
+    assertThat(matching.removeEdge(1, 1)).isTrue();
+    assertThat(matching.getMatchingSize()).isEqualTo(2);
+    assertThat(matching.removeEdge(1, 1)).isTrue();
+    assertThat(matching.getMatchingSize()).isEqualTo(1);
+    assertThat(matching.getLeftMatches()).isEqualTo(new int[] {0, -1});
+  }
+
+  @Test
+  public void testRandomGraphs() {
+    Random random = new Random(36);
+    for (int loop = 0; loop < 300; loop++) {
+      int n = 1 + random.nextInt(20), m = 1 + random.nextInt(20);
+      int edges = random.nextInt(n * m + 1);
+      HopcroftKarpMatching matching = new HopcroftKarpMatching(n, m);
+      List<int[]> edgeList = new ArrayList<>();
+      for (int i = 0; i < edges; i++) {
+        int l = random.nextInt(n), r = random.nextInt(m);
+        matching.addEdge(l, r);
+        edgeList.add(new int[] {l, r});
+      }
+      assertMaximum(matching, edgeList, n, m);
+
+      // Randomly add and remove edges and repair the matching.
+      for (int change = 0; change < 20; change++) {
+        if (!edgeList.isEmpty() && random.nextBoolean()) {
+          int[] edge = edgeList.remove(random.nextInt(edgeList.size()));
+          assertThat(matching.removeEdge(edge[0], edge[1])).isTrue();
+        } else {
+          int l = random.nextInt(n), r = random.nextInt(m);
+          matching.addEdge(l, r);
+          edgeList.add(new int[] {l, r});
+        }
+        assertMaximum(matching, edgeList, n, m);
+      }
+    }
+  }
+
+  // Checks that the matching is valid and as large as the one from the augmenting path algorithm.
+  private static void assertMaximum(
+      HopcroftKarpMatching matching, List<int[]> edgeList, int n, int m) {
+    List<List<Integer>> graph = new ArrayList<>();
+    for (int i = 0; i < n + m; i++) graph.add(new ArrayList<>());
+    boolean[][] hasEdge = new boolean[n][m];
+    for (int[] edge : edgeList) {
+      graph.get(edge[0]).add(n + edge[1]);
+      hasEdge[edge[0]][edge[1]] = true;
+    }
+    int expected = MaximumCardinalityBipartiteMatchingAugmentingPathAdjacencyList.mcbm(graph, n, m);
+    assertThat(matching.getMatchingSize()).isEqualTo(expected);
+
+    int[] left = matching.getLeftMatches(), right = matching.getRightMatches();
+    int matched = 0;
+    for (int l = 0; l < n; l++) {
+      if (left[l] == -1) continue;
+      matched++;
+      assertThat(hasEdge[l][left[l]]).isTrue();
+      assertThat(right[left[l]]).isEqualTo(l);
+    }
+    assertThat(matched).isEqualTo(expected);
+  }
+}
@@ -5,6 +5,7 @@ import static com.google.common.truth.Truth.assertThat;
 import com.williamfiset.algorithms.graphtheory.networkflow.NetworkFlowSolverBase.Edge;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -24,6 +25,8 @@ public class MaxFlowTests {
     solvers.add(new FordFulkersonDfsSolverAdjacencyList(n, s, t));
     solvers.add(new MinCostMaxFlowWithBellmanFord(n, s, t));
     solvers.add(new MinCostMaxFlowJohnsons(n, s, t));
+    solvers.add(new PushRelabel(n, s, t));
+    solvers.add(new ParallelDinics(n, s, t));
   }
 
   void addEdge(int f, int t, int c) {
@@ -192,4 +195,256 @@ public class MaxFlowTests {
       }
     }
   }
+
+  @Test
+  public void testRandomGraphsAgainstDinics() {
+    Random random = new Random(31);
+    for (int loop = 0; loop < 200; loop++) {
+      int n = 2 + random.nextInt(30), s = 0, t = n - 1;
+      int m = random.nextInt(n * n);
+      Dinics dinics = new Dinics(n, s, t);
+      PushRelabel pushRelabel = new PushRelabel(n, s, t);
+      for (int i = 0; i < m; i++) {
+        int from = random.nextInt(n), to = random.nextInt(n);
+        if (from == to) continue;
+        long cap = random.nextInt(20);
+        dinics.addEdge(from, to, cap);
+        pushRelabel.addEdge(from, to, cap);
+      }
+      assertThat(pushRelabel.getMaxFlow()).isEqualTo(dinics.getMaxFlow());
+
+      // The flow must be valid and the capacity of the min cut must equal the max flow.
+      boolean[] cut = pushRelabel.getMinCut();
+      assertThat(cut[s]).isTrue();
+      assertThat(cut[t]).isFalse();
+      long[] balance = new long[n];
+      long cutCapacity = 0;
+      for (List<Edge> edges : pushRelabel.getGraph()) {
+        for (Edge e : edges) {
+          if (e.isResidual()) continue;
+          assertThat(e.flow).isAtLeast(0L);
+          assertThat(e.flow).isAtMost(e.capacity);
+          balance[e.from] -= e.flow;
+          balance[e.to] += e.flow;
+          if (cut[e.from] && !cut[e.to]) cutCapacity += e.capacity;
+        }
+      }
+      for (int i = 0; i < n; i++) {
+        if (i != s && i != t) assertThat(balance[i]).isEqualTo(0L);
+      }
+      assertThat(balance[t]).isEqualTo(pushRelabel.getMaxFlow());
+      assertThat(cutCapacity).isEqualTo(pushRelabel.getMaxFlow());
+    }
+  }
+
+  @Test
+  public void testArraySolversEdgeView() {
+    int n = 4, s = 0, t = 3;
+    Dinics solver = new Dinics(n, s, t);
+    solver.addEdge(s, 1, 5);
+    solver.addEdge(s, 2, 3);
+    solver.addEdge(1, 2, 2);
+    solver.addEdge(1, t, 2);
+    solver.addEdge(2, t, 6);
+    assertThat(solver.getMaxFlow()).isEqualTo(7);
+
+    List<Edge>[] g = solver.getGraph();
+    assertThat(g[s]).hasSize(2);
+    assertThat(g[1]).hasSize(3);
+    Edge e = g[1].get(1);
+    assertThat(e.from).isEqualTo(1);
+    assertThat(e.to).isEqualTo(2);
+    assertThat(e.capacity).isEqualTo(2);
+    assertThat(e.flow).isEqualTo(2);
+    assertThat(e.residual.flow).isEqualTo(-2);
+    assertThat(e.residual.residual).isSameInstanceAs(e);
+    assertThat(g[2]).contains(e.residual);
+  }
+
+  @Test
+  public void testArraySolversKeepCosts() {
+    Dinics solver = new Dinics(3, 0, 2);
+    solver.addEdge(0, 1, 5, 7);
+    solver.addEdge(1, 2, 3);
+    assertThat(solver.getMaxFlow()).isEqualTo(3);
+    Edge e = solver.getGraph()[0].get(0);
+    assertThat(e.cost).isEqualTo(7);
+    assertThat(e.residual.cost).isEqualTo(-7);
+    assertThat(solver.getGraph()[1].get(1).cost).isEqualTo(0);
+  }
+
+  @Test
+  public void testCapacityChangesAfterSolving() {
+    int n = 6, s = n - 1, t = n - 2;
+    Dinics solver = new Dinics(n, s, t);
+    solver.addEdge(s, 0, 10);
+    solver.addEdge(s, 1, 10);
+    solver.addEdge(2, t, 10);
+    solver.addEdge(3, t, 10);
+    solver.addEdge(0, 1, 2);
+    solver.addEdge(0, 2, 4);
+    solver.addEdge(0, 3, 8);
+    solver.addEdge(1, 3, 9);
+    solver.addEdge(3, 2, 6);
+    assertThat(solver.getMaxFlow()).isEqualTo(19);
+
+    solver.setCapacity(3, 5);
+    assertThat(solver.getMaxFlow()).isEqualTo(15);
+    solver.setCapacity(3, 20);
+    assertThat(solver.getMaxFlow()).isEqualTo(19);
+    solver.setCapacity(0, 0);
+    assertThat(solver.getMaxFlow()).isEqualTo(9);
+    assertThat(solver.getFlow(0)).isEqualTo(0);
+    solver.addEdge(s, 2, 3);
+    assertThat(solver.getMaxFlow()).isEqualTo(12);
+    assertThat(solver.getMinCut()[0]).isFalse();
+  }
+
+  @Test
+  public void testRandomCapacityChangesMatchFreshSolve() {
+    Random random = new Random(33);
+    for (int loop = 0; loop < 100; loop++) {
+      int n = 2 + random.nextInt(20), s = 0, t = n - 1;
+      int m = random.nextInt(4 * n);
+      int[] from = new int[m], to = new int[m];
+      long[] caps = new long[m];
+      List<ArrayNetworkFlowSolverBase> incremental = new ArrayList<>();
+      incremental.add(new CapacityScalingSolverAdjacencyList(n, s, t));
+      incremental.add(new Dinics(n, s, t));
+      incremental.add(new EdmondsKarpAdjacencyList(n, s, t));
+      for (int i = 0; i < m; i++) {
+        from[i] = random.nextInt(n);
+        to[i] = random.nextInt(n);
+        caps[i] = random.nextInt(20);
+        for (ArrayNetworkFlowSolverBase solver : incremental) {
+          solver.addEdge(from[i], to[i], caps[i]);
+        }
+      }
+      for (int change = 0; change < 10 && m > 0; change++) {
+        for (ArrayNetworkFlowSolverBase solver : incremental) solver.getMaxFlow();
+        int edge = random.nextInt(m);
+        caps[edge] = random.nextInt(20);
+        Dinics fresh = new Dinics(n, s, t);
+        for (int i = 0; i < m; i++) fresh.addEdge(from[i], to[i], caps[i]);
+        for (ArrayNetworkFlowSolverBase solver : incremental) {
+          solver.setCapacity(edge, caps[edge]);
+          assertThat(solver.getMaxFlow()).isEqualTo(fresh.getMaxFlow());
+          long[] balance = new long[n];
+          for (int i = 0; i < m; i++) {
+            long f = solver.getFlow(i);
+            assertThat(f).isAtLeast(0L);
+            assertThat(f).isAtMost(caps[i]);
+            balance[from[i]] -= f;
+            balance[to[i]] += f;
+          }
+          for (int i = 0; i < n; i++) {
+            if (i != s && i != t) assertThat(balance[i]).isEqualTo(0L);
+          }
+          assertThat(balance[t]).isEqualTo(fresh.getMaxFlow());
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testMetricsOnLineGraph() {
+    int n = 4, s = n - 1, t = n - 2;
+    Dinics solver = new Dinics(n, s, t);
+    FlowSolverMetrics metrics = new FlowSolverMetrics();
+    solver.setListener(metrics);
+    solver.addEdge(s, 0, 5);
+    solver.addEdge(0, 1, 3);
+    solver.addEdge(1, t, 7);
+    assertThat(solver.getMaxFlow()).isEqualTo(3);
+
+    // One phase with the augmenting path and a last BFS which no longer reaches the sink.
+    assertThat(metrics.getPhaseCount()).isEqualTo(2);
+    assertThat(metrics.getAugmentingPaths()).isEqualTo(1);
+    assertThat(metrics.getPhases().get(0).augmentingPaths).isEqualTo(1);
+    assertThat(metrics.getPhases().get(1).augmentingPaths).isEqualTo(0);
+  }
+
+  @Test
+  public void testMetricsOfInstrumentedSolvers() {
+    Random random = new Random(39);
+    int n = 40, s = 0, t = n - 1;
+    List<NetworkFlowSolverBase> instrumented = new ArrayList<>();
+    instrumented.add(new CapacityScalingSolverAdjacencyList(n, s, t));
+    instrumented.add(new Dinics(n, s, t));
+    instrumented.add(new EdmondsKarpAdjacencyList(n, s, t));
+    instrumented.add(new PushRelabel(n, s, t));
+    Dinics plain = new Dinics(n, s, t);
+    for (int i = 0; i < 200; i++) {
+      int u = random.nextInt(n), v = random.nextInt(n);
+      int c = random.nextInt(50);
+      plain.addEdge(u, v, c);
+      for (NetworkFlowSolverBase solver : instrumented) solver.addEdge(u, v, c);
+    }
+    assertThat(plain.getMaxFlow()).isAtLeast(1L);
+
+    for (NetworkFlowSolverBase solver : instrumented) {
+      FlowSolverMetrics metrics = new FlowSolverMetrics();
+      solver.setListener(metrics);
+      assertThat(solver.getMaxFlow()).isEqualTo(plain.getMaxFlow());
+      assertThat(metrics.getPhaseCount()).isAtLeast(1);
+      assertThat(metrics.getEdgeScans()).isAtLeast(1L);
+      assertThat(metrics.getNanos()).isAtLeast(metrics.getMaxPhaseNanos());
+      if (solver instanceof PushRelabel) {
+        assertThat(metrics.getPushes()).isAtLeast(1L);
+      } else {
+        assertThat(metrics.getAugmentingPaths()).isAtLeast(1L);
+        assertThat(metrics.getPushes()).isEqualTo(0L);
+      }
+      for (int i = 0; i < metrics.getPhaseCount(); i++) {
+        assertThat(metrics.getPhases().get(i).phase).isEqualTo(i + 1);
+      }
+    }
+  }
+
+  @Test
+  public void testMetricsAreOptIn() {
+    int n = 4, s = n - 1, t = n - 2;
+    Dinics solver = new Dinics(n, s, t);
+    FlowSolverMetrics metrics = new FlowSolverMetrics();
+    solver.setListener(metrics);
+    solver.setListener(null);
+    solver.addEdge(s, 0, 5);
+    solver.addEdge(0, t, 5);
+    assertThat(solver.getMaxFlow()).isEqualTo(5);
+    assertThat(metrics.getPhaseCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testParallelDinicsAgainstDinics() {
+    Random random = new Random(40);
+    for (int loop = 0; loop < 300; loop++) {
+      int n = 2 + random.nextInt(60), s = 0, t = n - 1;
+      int m = random.nextInt(8 * n);
+      int[] from = new int[m], to = new int[m];
+      Dinics dinics = new Dinics(n, s, t);
+      ParallelDinics parallel = new ParallelDinics(n, s, t, 1 + random.nextInt(8));
+      for (int i = 0; i < m; i++) {
+        from[i] = random.nextInt(n);
+        to[i] = random.nextInt(n);
+        long cap = random.nextInt(20);
+        dinics.addEdge(from[i], to[i], cap);
+        parallel.addEdge(from[i], to[i], cap);
+      }
+      assertThat(parallel.getMaxFlow()).isEqualTo(dinics.getMaxFlow());
+      assertThat(parallel.getMinCut()).isEqualTo(dinics.getMinCut());
+
+      // The flow must be valid.
+      long[] balance = new long[n];
+      for (int i = 0; i < m; i++) {
+        long f = parallel.getFlow(i);
+        assertThat(f).isAtLeast(0L);
+        assertThat(f).isAtMost(parallel.getCapacity(i));
+        balance[from[i]] -= f;
+        balance[to[i]] += f;
+      }
+      for (int i = 0; i < n; i++) {
+        if (i != s && i != t) assertThat(balance[i]).isEqualTo(0L);
+      }
+    }
+  }
 }
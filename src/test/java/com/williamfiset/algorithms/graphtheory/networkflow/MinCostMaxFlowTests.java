@@ -1,9 +1,11 @@
 package com.williamfiset.algorithms.graphtheory.networkflow;
 
 import static com.google.common.truth.Truth.assertThat;
+import static java.lang.Math.max;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 import org.junit.Before;
 import org.junit.Test;
 
@@ -20,6 +22,8 @@ public class MinCostMaxFlowTests {
     // TODO(issue/67): Fix Bellman Ford mincost maxflow
     // solvers.add(new MinCostMaxFlowWithBellmanFord(n, s, t));
     solvers.add(new MinCostMaxFlowJohnsons(n, s, t));
+    solvers.add(new NetworkSimplexMinCostFlow(n, s, t));
+    solvers.add(new CostScalingMinCostFlow(n, s, t));
   }
 
   void addEdge(int f, int t, int cap, int cost) {
@@ -50,4 +54,94 @@ public class MinCostMaxFlowTests {
 
     assertFlowAndCost(10, -10);
   }
+
+  @Test
+  public void testRandomGraphsAgainstJohnsons() {
+    Random random = new Random(35);
+    for (int loop = 0; loop < 200; loop++) {
+      int n = 2 + random.nextInt(12), s = 0, t = n - 1;
+      setUp();
+      createAllSolvers(n, s, t);
+      int m = random.nextInt(4 * n);
+      for (int i = 0; i < m; i++) {
+        addEdge(random.nextInt(n), random.nextInt(n), random.nextInt(30), random.nextInt(20));
+      }
+      NetworkFlowSolverBase johnsons = solvers.get(0);
+      assertFlowAndCost(johnsons.getMaxFlow(), johnsons.getMinCost());
+    }
+  }
+
+  @Test
+  public void testSuppliesAndDemands() {
+    List<MinCostFlowSolverBase> supplySolvers = new ArrayList<>();
+    supplySolvers.add(new NetworkSimplexMinCostFlow(5));
+    supplySolvers.add(new CostScalingMinCostFlow(5));
+    for (MinCostFlowSolverBase solver : supplySolvers) {
+      solver.setSupply(0, 300);
+      solver.setSupply(1, 200);
+      solver.setSupply(2, -150);
+      solver.setSupply(3, -250);
+      solver.setSupply(4, -100);
+      solver.addEdge(0, 2, 1000, 4);
+      solver.addEdge(0, 3, 1000, 6);
+      solver.addEdge(0, 4, 1000, 9);
+      solver.addEdge(1, 2, 1000, 5);
+      solver.addEdge(1, 3, 1000, 3);
+      solver.addEdge(1, 4, 1000, 8);
+      assertThat(solver.getMinCost()).isEqualTo(2400);
+      assertThat(solver.getMaxFlow()).isEqualTo(500);
+      assertThat(solver.getFlow(4)).isEqualTo(200);
+    }
+  }
+
+  @Test
+  public void testRandomSuppliesAgainstJohnsons() {
+    Random random = new Random(135);
+    for (int loop = 0; loop < 200; loop++) {
+      int n = 2 + random.nextInt(12), m = random.nextInt(5 * n);
+      long[] supply = new long[n];
+      for (int k = 0; k < 3; k++) {
+        long amount = random.nextInt(1000);
+        supply[random.nextInt(n)] += amount;
+        supply[random.nextInt(n)] -= amount;
+      }
+      // Route the supplies from a super source to a super sink as a reference.
+      int superSource = n, superSink = n + 1;
+      MinCostMaxFlowJohnsons johnsons = new MinCostMaxFlowJohnsons(n + 2, superSource, superSink);
+      NetworkSimplexMinCostFlow simplex = new NetworkSimplexMinCostFlow(n);
+      CostScalingMinCostFlow scaling = new CostScalingMinCostFlow(n);
+      long total = 0;
+      for (int i = 0; i < n; i++) {
+        simplex.setSupply(i, supply[i]);
+        scaling.setSupply(i, supply[i]);
+        if (supply[i] > 0) johnsons.addEdge(superSource, i, supply[i], 0);
+        if (supply[i] < 0) johnsons.addEdge(i, superSink, -supply[i], 0);
+        total += max(0, supply[i]);
+      }
+      for (int i = 0; i < m; i++) {
+        int u = random.nextInt(n), v = random.nextInt(n);
+        long cap = random.nextInt(500), cost = random.nextInt(100);
+        johnsons.addEdge(u, v, cap, cost);
+        simplex.addEdge(u, v, cap, cost);
+        scaling.addEdge(u, v, cap, cost);
+      }
+      if (johnsons.getMaxFlow() == total) {
+        assertThat(simplex.getMinCost()).isEqualTo(johnsons.getMinCost());
+        assertThat(scaling.getMinCost()).isEqualTo(johnsons.getMinCost());
+        assertThat(simplex.getMaxFlow()).isEqualTo(total);
+      } else {
+        assertInfeasible(simplex);
+        assertInfeasible(scaling);
+      }
+    }
+  }
+
+  static void assertInfeasible(MinCostFlowSolverBase solver) {
+    try {
+      solver.getMinCost();
+    } catch (IllegalStateException e) {
+      return;
+    }
+    throw new AssertionError("Expected the supplies to be infeasible");
+  }
 }
@@ -0,0 +1,148 @@
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.LowestCommonAncestor.addUndirectedEdge;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.LowestCommonAncestor.createEmptyGraph;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.assertRejectsInvalidParents;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.bfsDistances;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.path;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.randomParents;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.toGraph;
+
+import com.williamfiset.algorithms.graphtheory.treealgorithms.CentroidDecomposition.DistanceCounter;
+import com.williamfiset.algorithms.graphtheory.treealgorithms.CentroidDecomposition.NearestMarkedNode;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class CentroidDecompositionTest {
+
+  @Test
+  public void testInvalidParentArrays() {
+    assertRejectsInvalidParents(p -> CentroidDecomposition.of(new CompactTree(p)));
+  }
+
+  @Test
+  public void testCentroidTreeIsBalanced() {
+    Random random = new Random(45);
+    for (int loop = 0; loop < 10; loop++) {
+      int n = 1 + random.nextInt(5000);
+      CompactTree tree = new CompactTree(randomParents(random, n, 1 + random.nextInt(n)));
+      CentroidDecomposition cd = CentroidDecomposition.of(tree);
+      int maxHeight = 32 - Integer.numberOfLeadingZeros(n);
+      assertThat(cd.height()).isAtMost(maxHeight);
+      assertThat(cd.centroidParent(cd.root())).isEqualTo(-1);
+      for (int v = 0; v < n; v++) {
+        if (v == cd.root()) continue;
+        assertThat(cd.level(v)).isEqualTo(cd.level(cd.centroidParent(v)) + 1);
+      }
+    }
+  }
+
+  @Test
+  public void testLongPath() {
+    int n = 1 << 20;
+    CentroidDecomposition cd = CentroidDecomposition.of(new CompactTree(path(n)));
+    assertThat(cd.height()).isEqualTo(21);
+    assertThat(cd.distance(3, n - 5)).isEqualTo(n - 8);
+    DistanceCounter counter = new DistanceCounter(cd);
+    assertThat(counter.sumWithin(100, 1000)).isEqualTo(1101L);
+  }
+
+  @Test
+  public void testAdjacencyListInput() {
+    List<List<Integer>> tree = createEmptyGraph(4);
+    addUndirectedEdge(tree, 0, 1);
+    addUndirectedEdge(tree, 0, 2);
+    addUndirectedEdge(tree, 0, 3);
+    CentroidDecomposition cd = new CentroidDecomposition(tree);
+    assertThat(cd.root()).isEqualTo(0);
+    assertThat(cd.distance(1, 3)).isEqualTo(2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testGraphWithCycle() {
+    List<List<Integer>> graph = createEmptyGraph(4);
+    addUndirectedEdge(graph, 0, 1);
+    addUndirectedEdge(graph, 1, 2);
+    addUndirectedEdge(graph, 2, 0);
+    new CentroidDecomposition(graph);
+  }
+
+  @Test
+  public void testRandomQueriesAgainstBfs() {
+    Random random = new Random(46);
+    for (int loop = 0; loop < 20; loop++) {
+      int n = 1 + random.nextInt(200);
+      int[] parent = randomParents(random, n, 1 + random.nextInt(n));
+      List<List<Integer>> tree = toGraph(parent);
+      int[][] dist = new int[n][];
+      for (int v = 0; v < n; v++) dist[v] = bfsDistances(tree, v);
+
+      CentroidDecomposition cd = CentroidDecomposition.of(new CompactTree(parent));
+      long[] weights = new long[n];
+      for (int v = 0; v < n; v++) weights[v] = random.nextInt(10);
+      DistanceCounter counter = new DistanceCounter(cd, weights.clone());
+      NearestMarkedNode nearest = new NearestMarkedNode(cd);
+      boolean[] marked = new boolean[n];
+
+      for (int op = 0; op < 400; op++) {
+        int u = random.nextInt(n), v = random.nextInt(n);
+        assertThat(cd.distance(u, v)).isEqualTo(dist[u][v]);
+        switch (random.nextInt(4)) {
+          case 0:
+            if (random.nextInt(5) == 0) {
+              nearest.mark(v);
+              marked[v] = true;
+            }
+            int expected = -1;
+            for (int w = 0; w < n; w++) {
+              if (marked[w] && (expected == -1 || dist[u][w] < expected)) expected = dist[u][w];
+            }
+            assertThat(nearest.nearest(u)).isEqualTo(expected);
+            break;
+          case 1:
+            long delta = random.nextInt(21) - 10;
+            counter.add(v, delta);
+            weights[v] += delta;
+            break;
+          default:
+            int k = random.nextInt(n + 1) - 1;
+            long sum = 0;
+            for (int w = 0; w < n; w++) if (dist[u][w] <= k) sum += weights[w];
+            assertThat(counter.sumWithin(u, k)).isEqualTo(sum);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testForEachAncestorCountsNodesByDistance() {
+    // Count the nodes at exactly distance 2 from node 0 with a per centroid histogram.
+    Random random = new Random(47);
+    int n = 300;
+    int[] parent = randomParents(random, n, 1 + random.nextInt(n));
+    CentroidDecomposition cd = CentroidDecomposition.of(new CompactTree(parent));
+    int[][] own = new int[n][n], up = new int[n][n];
+    for (int v = 0; v < n; v++) {
+      cd.forEachAncestor(
+          v,
+          (c, child, d) -> {
+            own[c][d]++;
+            if (child != -1) up[child][d]++;
+          });
+    }
+    long[] count = new long[1];
+    cd.forEachAncestor(
+        0,
+        (c, child, d) -> {
+          if (d > 2) return;
+          count[0] += own[c][2 - d];
+          if (child != -1) count[0] -= up[child][2 - d];
+        });
+    int[] dist = bfsDistances(toGraph(parent), 0);
+    long expected = 0;
+    for (int v = 0; v < n; v++) if (dist[v] == 2) expected++;
+    assertThat(count[0]).isEqualTo(expected);
+  }
+}
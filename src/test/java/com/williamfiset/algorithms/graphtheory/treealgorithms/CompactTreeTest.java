@@ -0,0 +1,137 @@
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.assertRejectsInvalidParents;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.randomParents;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.root;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class CompactTreeTest {
+
+  // Checks every array of the tree against definitions computed by walking parent pointers.
+  private static void checkTree(CompactTree tree, int[] parent) {
+    int n = parent.length;
+    assertThat(tree.size()).isEqualTo(n);
+    assertThat(tree.parentArray()).isEqualTo(parent);
+    int[] size = new int[n];
+    for (int v = 0; v < n; v++) {
+      int depth = 0;
+      for (int w = v; w != -1; w = parent[w]) {
+        size[w]++;
+        if (w != v) depth++;
+      }
+      assertThat(tree.depth(v)).isEqualTo(depth);
+      if (parent[v] == -1) assertThat(tree.root()).isEqualTo(v);
+    }
+    for (int v = 0; v < n; v++) {
+      assertThat(tree.subtreeSize(v)).isEqualTo(size[v]);
+      for (int i = 0; i < tree.childCount(v); i++) {
+        assertThat(parent[tree.child(v, i)]).isEqualTo(v);
+      }
+      assertThat(tree.nodeAt(tree.preorder(v))).isEqualTo(v);
+      // The subtree of v is a contiguous range of preorder positions.
+      for (int i = tree.preorder(v); i < tree.preorder(v) + size[v]; i++) {
+        int w = tree.nodeAt(i);
+        while (w != -1 && w != v) w = parent[w];
+        assertThat(w).isEqualTo(v);
+      }
+    }
+  }
+
+  @Test
+  public void testInvalidParentArrays() {
+    assertRejectsInvalidParents(CompactTree::new);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDisconnectedEdges() {
+    new CompactTree(4, new int[] {0, 1, 2}, new int[] {1, 0, 3}, 0);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongNumberOfEdges() {
+    new CompactTree(3, new int[] {0}, new int[] {1}, 0);
+  }
+
+  @Test
+  public void testSmallTree() {
+    CompactTree tree = new CompactTree(6, new int[] {0, 0, 1, 4, 5}, new int[] {1, 2, 3, 1, 2}, 0);
+    assertThat(tree.parentArray()).isEqualTo(new int[] {-1, 0, 0, 1, 1, 2});
+    assertThat(tree.preorderArray()).isEqualTo(new int[] {0, 1, 3, 4, 2, 5});
+    assertThat(tree.childOffsets()).isEqualTo(new int[] {0, 2, 4, 5, 5, 5, 5});
+    assertThat(tree.children()).isEqualTo(new int[] {1, 2, 3, 4, 5});
+    assertThat(tree.isAncestor(1, 4)).isTrue();
+    assertThat(tree.isAncestor(4, 1)).isFalse();
+
+    CompactTree single = new CompactTree(1, new int[0], new int[0], 0);
+    assertThat(single.root()).isEqualTo(0);
+    assertThat(single.subtreeSize(0)).isEqualTo(1);
+  }
+
+  @Test
+  public void testRandomTreesFromAllInputs() {
+    Random random = new Random(56);
+    for (int loop = 0; loop < 100; loop++) {
+      int n = 1 + random.nextInt(60);
+      int[] parent = randomParents(random, n);
+      checkTree(new CompactTree(parent), parent);
+
+      // The same tree as a shuffled edge list and as an adjacency list.
+      int[] from = new int[n - 1], to = new int[n - 1];
+      int m = 0;
+      for (int v = 0; v < n; v++) {
+        if (parent[v] == -1) continue;
+        int j = random.nextInt(m + 1);
+        from[m] = from[j];
+        to[m++] = to[j];
+        boolean swap = random.nextBoolean();
+        from[j] = swap ? v : parent[v];
+        to[j] = swap ? parent[v] : v;
+      }
+      int root = root(parent);
+      checkTree(new CompactTree(n, from, to, root), parent);
+      checkTree(new CompactTree(new CompactTree(parent).toAdjacencyList(), root), parent);
+    }
+  }
+
+  @Test
+  public void testRerootedTreeWorksWithOtherClasses() {
+    Random random = new Random(57);
+    int n = 300;
+    int[] parent = randomParents(random, n);
+    int root = random.nextInt(n);
+    List<List<Integer>> graph = new CompactTree(parent).toAdjacencyList();
+    CompactTree tree = new CompactTree(graph, root);
+    assertThat(tree.root()).isEqualTo(root);
+
+    TreeIndex index = TreeIndex.of(tree);
+    HeavyLightDecomposition hld = HeavyLightDecomposition.of(tree);
+    EulerTourIndex tour = EulerTourIndex.of(tree);
+    LowestCommonAncestor.TreeNode lcaRoot = LowestCommonAncestor.TreeNode.rootTree(graph, root);
+    LowestCommonAncestor lca = new LowestCommonAncestor(lcaRoot);
+    for (int loop = 0; loop < 1000; loop++) {
+      int u = random.nextInt(n), v = random.nextInt(n);
+      int expected = lca.lca(u, v).id();
+      assertThat(index.lca(u, v)).isEqualTo(expected);
+      assertThat(hld.lca(u, v)).isEqualTo(expected);
+      assertThat(tour.isAncestor(u, v)).isEqualTo(tree.isAncestor(u, v));
+    }
+  }
+
+  @Test
+  public void testLongPathIsNotRecursive() {
+    int n = 2_000_000;
+    int[] from = new int[n - 1], to = new int[n - 1];
+    for (int i = 0; i < n - 1; i++) {
+      from[i] = i;
+      to[i] = i + 1;
+    }
+    CompactTree tree = new CompactTree(n, from, to, n - 1);
+    assertThat(tree.depth(0)).isEqualTo(n - 1);
+    assertThat(tree.subtreeSize(n / 2)).isEqualTo(n / 2 + 1);
+    assertThat(tree.preorder(0)).isEqualTo(n - 1);
+  }
+}
@@ -0,0 +1,121 @@
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.assertRejectsInvalidParents;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.isAncestor;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.path;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.randomParents;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class EulerTourIndexTest {
+
+  @Test
+  public void testInvalidParentArrays() {
+    assertRejectsInvalidParents(EulerTourIndex::new);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongNumberOfValues() {
+    new EulerTourIndex.SubtreeSums(new EulerTourIndex(new int[] {-1, 0}), new long[3]);
+  }
+
+  @Test
+  public void testSmallTree() {
+    int[] parent = {-1, 0, 0, 1, 1, 2};
+    EulerTourIndex tour = new EulerTourIndex(parent);
+    assertThat(tour.tin(0)).isEqualTo(1);
+    assertThat(tour.tout(0)).isEqualTo(6);
+    assertThat(tour.subtreeSize(1)).isEqualTo(3);
+    assertThat(tour.isAncestor(1, 4)).isTrue();
+    assertThat(tour.isAncestor(2, 4)).isFalse();
+
+    EulerTourIndex.SubtreeSums subtree =
+        new EulerTourIndex.SubtreeSums(tour, new long[] {1, 2, 3, 4, 5, 6});
+    assertThat(subtree.sumSubtree(1)).isEqualTo(11L);
+    subtree.addSubtree(1, 10);
+    assertThat(subtree.sumSubtree(1)).isEqualTo(41L);
+    assertThat(subtree.sumSubtree(0)).isEqualTo(51L);
+    assertThat(subtree.get(4)).isEqualTo(15L);
+    subtree.set(4, 0);
+    assertThat(subtree.sumSubtree(1)).isEqualTo(26L);
+
+    EulerTourIndex.RootPathSums paths =
+        new EulerTourIndex.RootPathSums(tour, new long[] {1, 2, 3, 4, 5, 6});
+    assertThat(paths.sumToRoot(4)).isEqualTo(8L);
+    paths.add(1, 100);
+    assertThat(paths.sumToRoot(4)).isEqualTo(108L);
+    assertThat(paths.sumToRoot(5)).isEqualTo(10L);
+    assertThat(paths.get(1)).isEqualTo(102L);
+  }
+
+  @Test
+  public void testRandomOperationsAgainstBruteForce() {
+    Random random = new Random(55);
+    for (int loop = 0; loop < 50; loop++) {
+      int n = 1 + random.nextInt(50);
+      int[] parent = randomParents(random, n);
+      long[] values = new long[n];
+      for (int v = 0; v < n; v++) values[v] = random.nextInt(201) - 100;
+
+      EulerTourIndex tour = new EulerTourIndex(parent);
+      EulerTourIndex.SubtreeSums subtree = new EulerTourIndex.SubtreeSums(tour, values);
+      EulerTourIndex.RootPathSums paths = new EulerTourIndex.RootPathSums(tour, values);
+      long[] expected = values.clone();
+
+      for (int op = 0; op < 500; op++) {
+        int v = random.nextInt(n);
+        long x = random.nextInt(201) - 100;
+        switch (random.nextInt(5)) {
+          case 0:
+            subtree.add(v, x);
+            paths.add(v, x);
+            expected[v] += x;
+            break;
+          case 1:
+            // Only SubtreeSums supports subtree updates, replay them as point updates on paths.
+            subtree.addSubtree(v, x);
+            for (int w = 0; w < n; w++) {
+              if (!isAncestor(parent, v, w)) continue;
+              paths.add(w, x);
+              expected[w] += x;
+            }
+            break;
+          case 2:
+            long sum = 0;
+            for (int w = 0; w < n; w++) if (isAncestor(parent, v, w)) sum += expected[w];
+            assertThat(subtree.sumSubtree(v)).isEqualTo(sum);
+            break;
+          case 3:
+            long pathSum = 0;
+            for (int w = v; w != -1; w = parent[w]) pathSum += expected[w];
+            assertThat(paths.sumToRoot(v)).isEqualTo(pathSum);
+            break;
+          default:
+            assertThat(subtree.get(v)).isEqualTo(expected[v]);
+            assertThat(paths.get(v)).isEqualTo(expected[v]);
+        }
+      }
+      for (int a = 0; a < n; a++) {
+        for (int v = 0; v < n; v++) {
+          assertThat(tour.isAncestor(a, v)).isEqualTo(isAncestor(parent, a, v));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testLongPathIsNotRecursive() {
+    int n = 1_000_000;
+    EulerTourIndex tour = new EulerTourIndex(path(n));
+    EulerTourIndex.SubtreeSums subtree = new EulerTourIndex.SubtreeSums(tour);
+    EulerTourIndex.RootPathSums paths = new EulerTourIndex.RootPathSums(tour);
+    subtree.addSubtree(n / 2, 1);
+    paths.add(n / 2, 3);
+    assertThat(subtree.sumSubtree(0)).isEqualTo((long) (n - n / 2));
+    assertThat(paths.sumToRoot(n - 1)).isEqualTo(3L);
+    assertThat(paths.sumToRoot(n / 2 - 1)).isEqualTo(0L);
+    assertThat(tour.tout(0)).isEqualTo(n);
+  }
+}
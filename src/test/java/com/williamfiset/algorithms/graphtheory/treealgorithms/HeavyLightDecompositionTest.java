@@ -0,0 +1,183 @@
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.LowestCommonAncestor.addUndirectedEdge;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.LowestCommonAncestor.createEmptyGraph;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.assertRejectsInvalidParents;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.path;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.randomParents;
+
+import com.williamfiset.algorithms.datastructures.segmenttree.GenericSegmentTree;
+import com.williamfiset.algorithms.datastructures.segmenttree.GenericSegmentTree.RangeUpdateFn;
+import com.williamfiset.algorithms.datastructures.segmenttree.GenericSegmentTree.SegmentCombinationFn;
+import com.williamfiset.algorithms.datastructures.segmenttree.MinQueryAssignUpdateSegmentTree;
+import com.williamfiset.algorithms.datastructures.segmenttree.SumQuerySumUpdateSegmentTree;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class HeavyLightDecompositionTest {
+
+  // Returns the nodes on the path between u and v by walking parent pointers.
+  private static int[] bruteForcePath(int[] parent, int[] depth, int u, int v) {
+    int[] path = new int[depth[u] + depth[v] + 1];
+    int size = 0;
+    while (u != v) {
+      if (depth[u] >= depth[v]) {
+        path[size++] = u;
+        u = parent[u];
+      } else {
+        path[size++] = v;
+        v = parent[v];
+      }
+    }
+    path[size++] = u;
+    return Arrays.copyOf(path, size);
+  }
+
+  @Test
+  public void testAdjacencyListInput() {
+    List<List<Integer>> tree = createEmptyGraph(6);
+    addUndirectedEdge(tree, 0, 1);
+    addUndirectedEdge(tree, 1, 2);
+    addUndirectedEdge(tree, 2, 3);
+    addUndirectedEdge(tree, 1, 4);
+    addUndirectedEdge(tree, 4, 5);
+    HeavyLightDecomposition hld = new HeavyLightDecomposition(tree, 3);
+    assertThat(hld.parent(3)).isEqualTo(-1);
+    assertThat(hld.parent(0)).isEqualTo(1);
+    assertThat(hld.lca(0, 5)).isEqualTo(1);
+    assertThat(hld.subtreeSize(1)).isEqualTo(4);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testAdjacencyListWithCycle() {
+    List<List<Integer>> graph = createEmptyGraph(3);
+    addUndirectedEdge(graph, 0, 1);
+    addUndirectedEdge(graph, 1, 2);
+    addUndirectedEdge(graph, 2, 0);
+    new HeavyLightDecomposition(graph, 0);
+  }
+
+  @Test
+  public void testInvalidParentArrays() {
+    assertRejectsInvalidParents(HeavyLightDecomposition::new);
+  }
+
+  @Test
+  public void testChainsAndSubtreesAreContiguous() {
+    Random random = new Random(43);
+    int n = 2000;
+    int[] parent = randomParents(random, n, 1 + random.nextInt(n));
+    HeavyLightDecomposition hld = new HeavyLightDecomposition(parent);
+    int[] seen = new int[n];
+    for (int v = 0; v < n; v++) seen[hld.position(v)]++;
+    for (int i = 0; i < n; i++) assertThat(seen[i]).isEqualTo(1);
+    for (int v = 0; v < n; v++) {
+      int p = parent[v];
+      if (p == -1) continue;
+      assertThat(hld.position(v)).isGreaterThan(hld.position(p));
+      assertThat(hld.position(v) + hld.subtreeSize(v))
+          .isAtMost(hld.position(p) + hld.subtreeSize(p));
+    }
+  }
+
+  @Test
+  public void testPathQueriesWithLogarithmicRanges() {
+    // A complete binary tree, every path must be covered by O(log n) ranges.
+    int n = (1 << 16) - 1;
+    int[] parent = new int[n];
+    parent[0] = -1;
+    for (int v = 1; v < n; v++) parent[v] = (v - 1) / 2;
+    HeavyLightDecomposition hld = new HeavyLightDecomposition(parent);
+    int[] ranges = new int[1];
+    hld.queryPath(n - 1, n / 2, (l, r) -> ++ranges[0], Long::sum);
+    assertThat(ranges[0]).isAtMost(2 * 16);
+  }
+
+  @Test
+  public void testDeepPath() {
+    int n = 500_000;
+    HeavyLightDecomposition hld = new HeavyLightDecomposition(path(n));
+    long[] values = new long[n];
+    Arrays.fill(values, 1);
+    SumQuerySumUpdateSegmentTree st = new SumQuerySumUpdateSegmentTree(hld.arrange(values));
+    assertThat(hld.queryPath(n - 1, 10, st::rangeQuery1, Long::sum)).isEqualTo(n - 10L);
+    assertThat(hld.lca(n - 1, 77)).isEqualTo(77);
+  }
+
+  @Test
+  public void testRandomOperationsWithEachSegmentTree() {
+    Random random = new Random(44);
+    for (int loop = 0; loop < 20; loop++) {
+      int n = 1 + random.nextInt(300);
+      int[] parent = randomParents(random, n, 1 + random.nextInt(n));
+      HeavyLightDecomposition hld = new HeavyLightDecomposition(parent);
+      int[] depth = new int[n];
+      for (int v = 0; v < n; v++) depth[v] = hld.depth(v);
+
+      long[] sums = new long[n], mins = new long[n], maxs = new long[n];
+      for (int v = 0; v < n; v++) sums[v] = mins[v] = maxs[v] = random.nextInt(100) - 50;
+      SumQuerySumUpdateSegmentTree sumTree = new SumQuerySumUpdateSegmentTree(hld.arrange(sums));
+      MinQueryAssignUpdateSegmentTree minTree =
+          new MinQueryAssignUpdateSegmentTree(hld.arrange(mins));
+      GenericSegmentTree maxTree =
+          new GenericSegmentTree(
+              hld.arrange(maxs), SegmentCombinationFn.MAX, RangeUpdateFn.ADDITION);
+
+      for (int op = 0; op < 300; op++) {
+        int u = random.nextInt(n), v = random.nextInt(n);
+        long x = random.nextInt(100) - 50;
+        boolean subtree = random.nextInt(4) == 0;
+        int[] nodes;
+        if (subtree) {
+          nodes = new int[hld.subtreeSize(u)];
+          int size = 0;
+          for (int w = 0; w < n; w++) {
+            if (bruteForcePath(parent, depth, u, w).length == depth[w] - depth[u] + 1) {
+              nodes[size++] = w;
+            }
+          }
+          assertThat(size).isEqualTo(nodes.length);
+        } else {
+          nodes = bruteForcePath(parent, depth, u, v);
+        }
+
+        switch (random.nextInt(6)) {
+          case 0:
+            if (subtree) hld.updateSubtree(u, x, sumTree::rangeUpdate1);
+            else hld.updatePath(u, v, x, sumTree::rangeUpdate1);
+            for (int w : nodes) sums[w] += x;
+            break;
+          case 1:
+            if (subtree) hld.updateSubtree(u, x, minTree::rangeUpdate1);
+            else hld.updatePath(u, v, x, minTree::rangeUpdate1);
+            for (int w : nodes) mins[w] = x;
+            break;
+          case 2:
+            if (subtree) hld.updateSubtree(u, x, maxTree::rangeUpdate1);
+            else hld.updatePath(u, v, x, maxTree::rangeUpdate1);
+            for (int w : nodes) maxs[w] += x;
+            break;
+          default:
+            long sum = 0, min = Long.MAX_VALUE, max = Long.MIN_VALUE;
+            for (int w : nodes) {
+              sum += sums[w];
+              min = Math.min(min, mins[w]);
+              max = Math.max(max, maxs[w]);
+            }
+            if (subtree) {
+              assertThat(hld.querySubtree(u, sumTree::rangeQuery1)).isEqualTo(sum);
+              assertThat(hld.querySubtree(u, minTree::rangeQuery1)).isEqualTo(min);
+              assertThat(hld.querySubtree(u, maxTree::rangeQuery1)).isEqualTo(max);
+            } else {
+              assertThat(hld.queryPath(u, v, sumTree::rangeQuery1, Long::sum)).isEqualTo(sum);
+              assertThat(hld.queryPath(u, v, minTree::rangeQuery1, Math::min)).isEqualTo(min);
+              assertThat(hld.queryPath(u, v, maxTree::rangeQuery1, Math::max)).isEqualTo(max);
+            }
+        }
+      }
+    }
+  }
+}
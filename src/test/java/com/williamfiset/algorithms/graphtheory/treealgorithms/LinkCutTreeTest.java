@@ -0,0 +1,186 @@
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+public class LinkCutTreeTest {
+
+  // A forest stored as a parent array, every query walks parent pointers.
+  private static class NaiveForest {
+    final int[] parent;
+    final long[] value;
+
+    NaiveForest(long[] values) {
+      value = values.clone();
+      parent = new int[values.length];
+      Arrays.fill(parent, -1);
+    }
+
+    int root(int v) {
+      while (parent[v] != -1) v = parent[v];
+      return v;
+    }
+
+    int depth(int v) {
+      int d = 0;
+      for (; parent[v] != -1; v = parent[v]) d++;
+      return d;
+    }
+
+    int lca(int u, int v) {
+      if (root(u) != root(v)) return -1;
+      int du = depth(u), dv = depth(v);
+      for (; du > dv; du--) u = parent[u];
+      for (; dv > du; dv--) v = parent[v];
+      while (u != v) {
+        u = parent[u];
+        v = parent[v];
+      }
+      return u;
+    }
+
+    // Returns {sum, min, max} of the values on the path between u and v.
+    long[] path(int u, int v) {
+      int a = lca(u, v);
+      long sum = value[a], min = value[a], max = value[a];
+      for (int x : new int[] {u, v}) {
+        for (; x != a; x = parent[x]) {
+          sum += value[x];
+          min = Math.min(min, value[x]);
+          max = Math.max(max, value[x]);
+        }
+      }
+      return new long[] {sum, min, max};
+    }
+  }
+
+  @Test
+  public void testSmallForest() {
+    LinkCutTree forest = new LinkCutTree(new long[] {5, 3, 8, 1, 7});
+    forest.link(1, 0);
+    forest.link(2, 1);
+    forest.link(3, 0);
+    assertThat(forest.pathSum(2, 3)).isEqualTo(17L);
+    assertThat(forest.pathMin(2, 3)).isEqualTo(1L);
+    assertThat(forest.pathMax(2, 3)).isEqualTo(8L);
+    assertThat(forest.lca(2, 3)).isEqualTo(0);
+    assertThat(forest.lca(2, 4)).isEqualTo(-1);
+    assertThat(forest.parent(2)).isEqualTo(1);
+    assertThat(forest.parent(0)).isEqualTo(-1);
+
+    forest.cut(1);
+    assertThat(forest.connected(2, 3)).isFalse();
+    forest.link(1, 4);
+    assertThat(forest.findRoot(2)).isEqualTo(4);
+    assertThat(forest.pathSum(4, 2)).isEqualTo(18L);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLinkNonRoot() {
+    LinkCutTree forest = new LinkCutTree(3);
+    forest.link(1, 0);
+    forest.link(1, 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLinkCreatingCycle() {
+    LinkCutTree forest = new LinkCutTree(3);
+    forest.link(1, 0);
+    forest.link(2, 1);
+    forest.link(0, 2);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCutRoot() {
+    new LinkCutTree(3).cut(0);
+  }
+
+  @Test
+  public void testMakeRoot() {
+    LinkCutTree forest = new LinkCutTree(4);
+    forest.link(1, 0);
+    forest.link(2, 1);
+    forest.link(3, 2);
+    forest.makeRoot(2);
+    assertThat(forest.findRoot(0)).isEqualTo(2);
+    assertThat(forest.parent(0)).isEqualTo(1);
+    assertThat(forest.parent(1)).isEqualTo(2);
+    assertThat(forest.lca(0, 3)).isEqualTo(2);
+  }
+
+  @Test
+  public void testLongPath() {
+    int n = 200_000;
+    LinkCutTree forest = new LinkCutTree(n);
+    for (int v = 1; v < n; v++) {
+      forest.link(v, v - 1);
+      forest.setValue(v, v);
+    }
+    assertThat(forest.findRoot(n - 1)).isEqualTo(0);
+    assertThat(forest.pathSum(0, n - 1)).isEqualTo((long) n * (n - 1) / 2);
+    assertThat(forest.lca(n - 1, 12345)).isEqualTo(12345);
+  }
+
+  @Test
+  public void testRandomOperationsAgainstNaiveForest() {
+    Random random = new Random(51);
+    for (int loop = 0; loop < 20; loop++) {
+      int n = 1 + random.nextInt(60);
+      long[] values = new long[n];
+      for (int v = 0; v < n; v++) values[v] = random.nextInt(201) - 100;
+      LinkCutTree forest = new LinkCutTree(values);
+      NaiveForest naive = new NaiveForest(values);
+
+      for (int op = 0; op < 2000; op++) {
+        int u = random.nextInt(n), v = random.nextInt(n);
+        switch (random.nextInt(8)) {
+          case 0:
+            int r = naive.root(u);
+            if (naive.root(v) != r) {
+              forest.link(r, v);
+              naive.parent[r] = v;
+            }
+            break;
+          case 1:
+            if (naive.parent[u] != -1) {
+              forest.cut(u);
+              naive.parent[u] = -1;
+            }
+            break;
+          case 2:
+            long x = random.nextInt(201) - 100;
+            forest.setValue(u, x);
+            naive.value[u] = x;
+            break;
+          case 3:
+            assertThat(forest.findRoot(u)).isEqualTo(naive.root(u));
+            assertThat(forest.parent(u)).isEqualTo(naive.parent[u]);
+            break;
+          case 4:
+            forest.makeRoot(u);
+            for (int prev = -1, w = u; w != -1; ) {
+              int next = naive.parent[w];
+              naive.parent[w] = prev;
+              prev = w;
+              w = next;
+            }
+            break;
+          case 5:
+            assertThat(forest.connected(u, v)).isEqualTo(naive.root(u) == naive.root(v));
+            assertThat(forest.lca(u, v)).isEqualTo(naive.lca(u, v));
+            break;
+          default:
+            if (naive.root(u) != naive.root(v)) break;
+            long[] expected = naive.path(u, v);
+            assertThat(forest.pathSum(u, v)).isEqualTo(expected[0]);
+            assertThat(forest.pathMin(u, v)).isEqualTo(expected[1]);
+            assertThat(forest.pathMax(u, v)).isEqualTo(expected[2]);
+            assertThat(forest.getValue(u)).isEqualTo(naive.value[u]);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,126 @@
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.assertRejectsInvalidParents;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.bfsOrder;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.path;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.randomParents;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.randomValues;
+
+import com.williamfiset.algorithms.graphtheory.treealgorithms.examples.TreeSum;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.Test;
+
+public class ParallelSubtreeAggregatesTest {
+
+  // Checks the results against a sequential pass over the nodes in BFS order.
+  private static void checkAgainstSequential(int[] parent, long[] values, ForkJoinPool pool) {
+    int n = parent.length;
+    int[] order = bfsOrder(parent);
+    int[] size = new int[n], height = new int[n], depth = new int[n];
+    long[] sum = values.clone();
+    for (int i = 1; i < n; i++) depth[order[i]] = depth[parent[order[i]]] + 1;
+    for (int i = n - 1; i >= 0; i--) {
+      int v = order[i];
+      size[v]++;
+      if (i == 0) break;
+      size[parent[v]] += size[v];
+      sum[parent[v]] += sum[v];
+      height[parent[v]] = Math.max(height[parent[v]], height[v] + 1);
+    }
+
+    ParallelSubtreeAggregates aggregates = new ParallelSubtreeAggregates(parent, values, pool);
+    assertThat(aggregates.root()).isEqualTo(order[0]);
+    assertThat(aggregates.subtreeSizes()).isEqualTo(size);
+    assertThat(aggregates.subtreeSums()).isEqualTo(sum);
+    assertThat(aggregates.heights()).isEqualTo(height);
+    assertThat(aggregates.depths()).isEqualTo(depth);
+  }
+
+  @Test
+  public void testInvalidParentArrays() {
+    assertRejectsInvalidParents(
+        p -> new ParallelSubtreeAggregates(p, new long[p == null ? 0 : p.length]));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testLargeCycle() {
+    // A long path with a long cycle of its own, which spans many sublists of the tour.
+    int n = 300_000;
+    int[] parent = path(n);
+    for (int v = 200_000; v < n; v++) parent[v] = v + 1 < n ? v + 1 : 200_000;
+    new ParallelSubtreeAggregates(parent, new long[n]);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testTooManyNodes() {
+    ParallelSubtreeAggregates.checkNodeCount(ParallelSubtreeAggregates.MAX_NODES + 1);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testWrongNumberOfValues() {
+    new ParallelSubtreeAggregates(new int[] {-1, 0}, new long[1]);
+  }
+
+  @Test
+  public void testEmptyAndSingletonTrees() {
+    assertThat(new ParallelSubtreeAggregates(new int[0], new long[0]).size()).isEqualTo(0);
+    ParallelSubtreeAggregates single =
+        new ParallelSubtreeAggregates(new int[] {-1}, new long[] {7});
+    assertThat(single.subtreeSums()).isEqualTo(new long[] {7});
+    assertThat(single.heights()).isEqualTo(new int[] {0});
+  }
+
+  @Test
+  public void testMatchesTreeSum() {
+    Random random = new Random(58);
+    for (int loop = 0; loop < 50; loop++) {
+      int n = 1 + random.nextInt(100);
+      int[] parent = randomParents(random, n, 1 + random.nextInt(n));
+      long[] values = randomValues(random, n, 1000);
+      TreeSum.TreeNode[] nodes = new TreeSum.TreeNode[n];
+      for (int v = 0; v < n; v++) nodes[v] = new TreeSum.TreeNode((int) values[v]);
+      for (int v = 0; v < n; v++) if (parent[v] != -1) nodes[parent[v]].addChild(nodes[v]);
+
+      long[] sums = new ParallelSubtreeAggregates(parent, values).subtreeSums();
+      long[] fromTree = ParallelSubtreeAggregates.of(new CompactTree(parent), values).subtreeSums();
+      for (int v = 0; v < n; v++) {
+        assertThat(sums[v]).isEqualTo((long) TreeSum.treeSum(nodes[v]));
+        assertThat(fromTree[v]).isEqualTo(sums[v]);
+      }
+    }
+  }
+
+  @Test
+  public void testRandomTreesOnSeveralThreads() {
+    Random random = new Random(59);
+    ForkJoinPool pool = new ForkJoinPool(4);
+    try {
+      for (int spread : new int[] {1, 2, 10, 1000, 1_000_000}) {
+        int n = 200_000;
+        int[] parent = randomParents(random, n, spread);
+        checkAgainstSequential(parent, randomValues(random, n, 1000), pool);
+      }
+      for (int loop = 0; loop < 100; loop++) {
+        int n = 1 + random.nextInt(200);
+        int[] parent = randomParents(random, n, 1 + random.nextInt(n));
+        checkAgainstSequential(parent, randomValues(random, n, 1000), pool);
+      }
+    } finally {
+      pool.shutdown();
+    }
+  }
+
+  @Test
+  public void testCompactTreeInput() {
+    int[] parent = {-1, 0, 0, 1, 1, 2, 2, 2, 3, 3, 6};
+    long[] values = {5, 4, 3, 1, -6, 0, 7, -4, 2, 9, 8};
+    CompactTree tree = new CompactTree(parent);
+    ParallelSubtreeAggregates aggregates = ParallelSubtreeAggregates.of(tree, values);
+    assertThat(aggregates.subtreeSizes()).isEqualTo(tree.subtreeSizeArray());
+    assertThat(aggregates.depths()).isEqualTo(tree.depthArray());
+    assertThat(aggregates.subtreeSums()[0]).isEqualTo(29L);
+    assertThat(aggregates.heights()[0]).isEqualTo(3);
+  }
+}
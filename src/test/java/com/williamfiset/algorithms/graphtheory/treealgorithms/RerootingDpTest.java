@@ -0,0 +1,170 @@
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.RerootingDp.ECCENTRICITY;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.RerootingDp.SUM_OF_DISTANCES;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.assertRejectsInvalidParents;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.bfsDistances;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.path;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.randomParents;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.toGraph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class RerootingDpTest {
+
+  // A hash of the rooted shape of every subtree, children are combined independent of their order.
+  private static final RerootingDp.Rule SHAPE_HASH =
+      new RerootingDp.Rule() {
+        public long identity() {
+          return 0;
+        }
+
+        public long combine(long a, long b) {
+          return a + b;
+        }
+
+        public long addNode(long children, int v, int size) {
+          long z = children + 0x9E3779B97F4A7C15L;
+          z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+          z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+          return z ^ (z >>> 31);
+        }
+      };
+
+  // Sum of distances without 'exclude', forcing the prefix and suffix combinations.
+  private static final RerootingDp.Rule SUM_OF_DISTANCES_NOT_INVERTIBLE =
+      new RerootingDp.Rule() {
+        public long identity() {
+          return 0;
+        }
+
+        public long combine(long a, long b) {
+          return a + b;
+        }
+
+        public long addNode(long children, int v, int size) {
+          return children + size;
+        }
+      };
+
+  // Returns the parent array of the tree rooted at 'root', computed with a BFS.
+  private static int[] bfsParents(List<List<Integer>> tree, int root) {
+    int n = tree.size();
+    int[] parent = new int[n], queue = new int[n];
+    Arrays.fill(parent, -2);
+    parent[root] = -1;
+    queue[0] = root;
+    for (int head = 0, tail = 1; head < tail; head++) {
+      int v = queue[head];
+      for (int w : tree.get(v)) {
+        if (parent[w] != -2) continue;
+        parent[w] = v;
+        queue[tail++] = w;
+      }
+    }
+    return parent;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testNullInput() {
+    new RerootingDp(null);
+  }
+
+  @Test
+  public void testInvalidParentArrays() {
+    assertRejectsInvalidParents(p -> RerootingDp.of(new CompactTree(p)));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testDisconnectedGraph() {
+    // A triangle and an isolated node have as many edges as a tree on four nodes.
+    List<List<Integer>> graph = toGraph(new int[] {-1, 0, 1, -1});
+    graph.get(0).add(2);
+    graph.get(2).add(0);
+    new RerootingDp(graph);
+  }
+
+  @Test
+  public void testSmallTree() {
+    RerootingDp dp = RerootingDp.of(new CompactTree(new int[] {-1, 0, 1, 2, 1}));
+    assertThat(dp.solve(SUM_OF_DISTANCES)).isEqualTo(new long[] {8, 5, 6, 9, 8});
+    assertThat(dp.solve(ECCENTRICITY)).isEqualTo(new long[] {3, 2, 2, 3, 3});
+    assertThat(new RerootingDp(toGraph(new int[] {-1})).solve(ECCENTRICITY))
+        .isEqualTo(new long[] {0});
+    assertThat(new RerootingDp(toGraph(new int[0])).solve(ECCENTRICITY)).isEqualTo(new long[0]);
+  }
+
+  @Test
+  public void testAgainstBfsFromEveryNode() {
+    Random random = new Random(52);
+    for (int loop = 0; loop < 200; loop++) {
+      int n = 1 + random.nextInt(40);
+      int[] parent = randomParents(random, n);
+      List<List<Integer>> tree = toGraph(parent);
+      RerootingDp dp =
+          random.nextBoolean() ? RerootingDp.of(new CompactTree(parent)) : new RerootingDp(tree);
+      long[] sums = dp.solve(SUM_OF_DISTANCES);
+      long[] eccentricity = dp.solve(ECCENTRICITY);
+      assertThat(dp.solve(SUM_OF_DISTANCES_NOT_INVERTIBLE)).isEqualTo(sums);
+      for (int v = 0; v < n; v++) {
+        long sum = 0, max = 0;
+        for (int d : bfsDistances(tree, v)) {
+          sum += d;
+          max = Math.max(max, d);
+        }
+        assertThat(sums[v]).isEqualTo(sum);
+        assertThat(eccentricity[v]).isEqualTo(max);
+      }
+    }
+  }
+
+  @Test
+  public void testSmallestEccentricityIsTreeCenter() {
+    Random random = new Random(54);
+    for (int loop = 0; loop < 200; loop++) {
+      int n = 1 + random.nextInt(40);
+      List<List<Integer>> tree = toGraph(randomParents(random, n));
+      long[] eccentricity = new RerootingDp(tree).solve(ECCENTRICITY);
+      long min = Arrays.stream(eccentricity).min().getAsLong();
+      List<Integer> centers = new ArrayList<>();
+      for (int v = 0; v < n; v++) if (eccentricity[v] == min) centers.add(v);
+      List<Integer> expected = new ArrayList<>(TreeCenter.findTreeCenters(tree));
+      expected.sort(null);
+      assertThat(centers).isEqualTo(expected);
+    }
+  }
+
+  @Test
+  public void testShapeHashMatchesRootedIsomorphism() {
+    Random random = new Random(53);
+    for (int loop = 0; loop < 100; loop++) {
+      int n = 1 + random.nextInt(15);
+      List<List<Integer>> tree = toGraph(randomParents(random, n));
+      long[] hash = new RerootingDp(tree).solve(SHAPE_HASH);
+      for (int u = 0; u < n; u++) {
+        for (int v = u + 1; v < n; v++) {
+          boolean same =
+              TreeIsomorphismAhu.rootedTreesAreIsomorphic(
+                  bfsParents(tree, u), bfsParents(tree, v));
+          assertThat(hash[u] == hash[v]).isEqualTo(same);
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testLongPathIsNotRecursive() {
+    int n = 1_000_000;
+    RerootingDp dp = RerootingDp.of(new CompactTree(path(n)));
+    long[] sums = dp.solve(SUM_OF_DISTANCES);
+    long[] eccentricity = dp.solve(ECCENTRICITY);
+    assertThat(sums[0]).isEqualTo((long) n * (n - 1) / 2);
+    assertThat(eccentricity[n / 2]).isEqualTo((long) (n / 2));
+    assertThat(eccentricity[n - 1]).isEqualTo((long) (n - 1));
+  }
+}
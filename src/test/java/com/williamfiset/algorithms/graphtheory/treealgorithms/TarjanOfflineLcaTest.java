@@ -0,0 +1,64 @@
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.SLIDES_TREE;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.assertRejectsInvalidParents;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.path;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.randomParents;
+
+import java.util.Random;
+import org.junit.Test;
+
+public class TarjanOfflineLcaTest {
+
+  @Test
+  public void testLcaTreeFromSlides() {
+    TarjanOfflineLca solver = new TarjanOfflineLca(SLIDES_TREE);
+    int[] u = {14, 10, 9, 8, 4, 6, 7, 10, 2, 16};
+    int[] v = {13, 16, 11, 9, 8, 13, 13, 5, 16, 16};
+    int[] expected = {2, 5, 0, 3, 1, 2, 7, 5, 2, 16};
+    assertThat(solver.lca(u, v)).isEqualTo(expected);
+  }
+
+  @Test
+  public void testEmptyBatch() {
+    TarjanOfflineLca solver = new TarjanOfflineLca(SLIDES_TREE);
+    assertThat(solver.lca(new int[0], new int[0])).isEqualTo(new int[0]);
+  }
+
+  @Test
+  public void testInvalidParentArrays() {
+    assertRejectsInvalidParents(TarjanOfflineLca::new);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testMismatchedQueries() {
+    new TarjanOfflineLca(SLIDES_TREE).lca(new int[] {1, 2}, new int[] {3});
+  }
+
+  @Test
+  public void testDeepPath() {
+    int n = 1_000_000;
+    int[] lca = new TarjanOfflineLca(path(n)).lca(new int[] {n - 1, 5}, new int[] {12345, n - 2});
+    assertThat(lca).isEqualTo(new int[] {12345, 5});
+  }
+
+  @Test
+  public void testRandomTreesAgainstTreeIndex() {
+    Random random = new Random(42);
+    for (int loop = 0; loop < 30; loop++) {
+      int n = 1 + random.nextInt(loop < 20 ? 50 : 5000);
+      int[] parent = randomParents(random, n, 1 + random.nextInt(n));
+
+      int q = 2000;
+      int[] u = new int[q], v = new int[q];
+      for (int i = 0; i < q; i++) {
+        u[i] = random.nextInt(n);
+        v[i] = random.nextInt(n);
+      }
+      int[] lca = new TarjanOfflineLca(parent).lca(u, v);
+      TreeIndex index = new TreeIndex(parent);
+      for (int i = 0; i < q; i++) assertThat(lca[i]).isEqualTo(index.lca(u[i], v[i]));
+    }
+  }
+}
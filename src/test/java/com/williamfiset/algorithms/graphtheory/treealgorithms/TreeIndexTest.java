@@ -0,0 +1,127 @@
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.SLIDES_TREE;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.assertRejectsInvalidParents;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.path;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.randomParents;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.root;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.toGraph;
+import static org.junit.Assert.fail;
+
+import com.williamfiset.algorithms.graphtheory.treealgorithms.LowestCommonAncestor.TreeNode;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntConsumer;
+import org.junit.Test;
+
+public class TreeIndexTest {
+
+  @Test
+  public void testLcaTreeFromSlides() {
+    TreeIndex index = new TreeIndex(SLIDES_TREE);
+    assertThat(index.lca(14, 13)).isEqualTo(2);
+    assertThat(index.lca(10, 16)).isEqualTo(5);
+    assertThat(index.lca(9, 11)).isEqualTo(0);
+    assertThat(index.lca(8, 9)).isEqualTo(3);
+    assertThat(index.lca(4, 8)).isEqualTo(1);
+    assertThat(index.lca(7, 13)).isEqualTo(7);
+    assertThat(index.lca(2, 16)).isEqualTo(2);
+    assertThat(index.lca(16, 16)).isEqualTo(16);
+  }
+
+  @Test
+  public void testDistanceAndAncestors() {
+    TreeIndex index = new TreeIndex(SLIDES_TREE);
+    assertThat(index.distance(13, 14)).isEqualTo(5);
+    assertThat(index.distance(0, 16)).isEqualTo(4);
+    assertThat(index.distance(6, 6)).isEqualTo(0);
+    assertThat(index.kthAncestor(16, 0)).isEqualTo(16);
+    assertThat(index.kthAncestor(16, 2)).isEqualTo(5);
+    assertThat(index.kthAncestor(16, 4)).isEqualTo(0);
+    assertThat(index.kthAncestor(16, 5)).isEqualTo(-1);
+    assertThat(index.isAncestor(2, 15)).isTrue();
+    assertThat(index.isAncestor(1, 15)).isFalse();
+    assertThat(index.subtreeSize(5)).isEqualTo(6);
+  }
+
+  @Test
+  public void testCsrInputMatchesParentArray() {
+    // Children of the slides tree in CSR form.
+    int[] offsets = {0, 2, 4, 7, 9, 9, 11, 11, 13, 13, 13, 13, 16, 16, 16, 16, 16, 16};
+    int[] children = {1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16};
+    TreeIndex a = new TreeIndex(SLIDES_TREE);
+    TreeIndex b = new TreeIndex(offsets, children, 0);
+    for (int u = 0; u < SLIDES_TREE.length; u++) {
+      assertThat(b.parent(u)).isEqualTo(SLIDES_TREE[u]);
+      for (int v = 0; v < SLIDES_TREE.length; v++) assertThat(b.lca(u, v)).isEqualTo(a.lca(u, v));
+    }
+  }
+
+  @Test
+  public void testInvalidNodes() {
+    TreeIndex index = new TreeIndex(SLIDES_TREE);
+    List<IntConsumer> queries =
+        Arrays.asList(
+            v -> index.lca(v, 0),
+            v -> index.distance(0, v),
+            v -> index.kthAncestor(v, 0),
+            v -> index.isAncestor(0, v),
+            index::parent,
+            index::depth,
+            index::subtreeSize,
+            index::preorder);
+    for (IntConsumer query : queries) {
+      for (int v : new int[] {-1, SLIDES_TREE.length}) {
+        try {
+          query.accept(v);
+          fail("Accepted node " + v);
+        } catch (IllegalArgumentException expected) {
+        }
+      }
+    }
+  }
+
+  @Test
+  public void testInvalidParentArrays() {
+    assertRejectsInvalidParents(TreeIndex::new);
+  }
+
+  @Test
+  public void testLongPathIsNotRecursive() {
+    int n = 1_000_000;
+    TreeIndex index = new TreeIndex(path(n));
+    assertThat(index.lca(n - 1, 12345)).isEqualTo(12345);
+    assertThat(index.distance(7, n - 1)).isEqualTo(n - 8);
+    assertThat(index.kthAncestor(n - 1, 777_777)).isEqualTo(n - 1 - 777_777);
+    assertThat(index.depth(n - 1)).isEqualTo(n - 1);
+  }
+
+  @Test
+  public void testRandomTreesAgainstLowestCommonAncestor() {
+    Random random = new Random(41);
+    for (int loop = 0; loop < 30; loop++) {
+      int n = 1 + random.nextInt(loop < 20 ? 50 : 3000);
+      // Small fan outs give deep trees which cross many RMQ blocks.
+      int[] parent = randomParents(random, n, 1 + random.nextInt(4));
+      TreeNode root = TreeNode.rootTree(toGraph(parent), root(parent));
+      LowestCommonAncestor expected = new LowestCommonAncestor(root);
+      TreeIndex index = new TreeIndex(parent);
+
+      for (int q = 0; q < 500; q++) {
+        int u = random.nextInt(n), v = random.nextInt(n);
+        int lca = expected.lca(u, v).id();
+        assertThat(index.lca(u, v)).isEqualTo(lca);
+        assertThat(index.distance(u, v))
+            .isEqualTo(index.depth(u) + index.depth(v) - 2 * index.depth(lca));
+        assertThat(index.isAncestor(lca, u)).isTrue();
+
+        int k = random.nextInt(index.depth(u) + 2);
+        int w = u;
+        for (int i = 0; i < k && w != -1; i++) w = parent[w];
+        assertThat(index.kthAncestor(u, k)).isEqualTo(w);
+      }
+    }
+  }
+}
@@ -0,0 +1,116 @@
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import static com.google.common.truth.Truth.assertThat;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeIsomorphism.addUndirectedEdge;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeIsomorphism.createEmptyGraph;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeIsomorphismAhu.canonicalHash;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeIsomorphismAhu.rootedCanonicalHash;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeIsomorphismAhu.rootedTreesAreIsomorphic;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeIsomorphismAhu.treesAreIsomorphic;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.bfsDistances;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.path;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.randomParents;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.randomPermutation;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.relabel;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.root;
+import static com.williamfiset.algorithms.graphtheory.treealgorithms.TreeTestUtils.toGraph;
+
+import com.williamfiset.algorithms.graphtheory.treealgorithms.TreeIsomorphism.TreeNode;
+import java.util.List;
+import java.util.Random;
+import org.junit.Test;
+
+public class TreeIsomorphismAhuTest {
+
+  private static TreeNode toTreeNode(int[] parent) {
+    TreeNode[] nodes = new TreeNode[parent.length];
+    for (int v = 0; v < parent.length; v++) nodes[v] = new TreeNode(v);
+    TreeNode root = null;
+    for (int v = 0; v < parent.length; v++) {
+      if (parent[v] == -1) root = nodes[v];
+      else nodes[parent[v]].addChildren(nodes[v]);
+    }
+    return root;
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void emptyTreeThrowsException() {
+    treesAreIsomorphic(createEmptyGraph(0), createEmptyGraph(1));
+  }
+
+  @Test
+  public void testSmallTrees() {
+    assertThat(treesAreIsomorphic(createEmptyGraph(1), createEmptyGraph(1))).isTrue();
+
+    List<List<Integer>> tree1 = createEmptyGraph(2);
+    List<List<Integer>> tree2 = createEmptyGraph(2);
+    addUndirectedEdge(tree1, 0, 1);
+    addUndirectedEdge(tree2, 1, 0);
+    assertThat(treesAreIsomorphic(tree1, tree2)).isTrue();
+    assertThat(canonicalHash(tree1)).isEqualTo(canonicalHash(tree2));
+
+    // A path of three nodes is not a star of three nodes when rooted at different places.
+    assertThat(rootedTreesAreIsomorphic(new int[] {-1, 0, 1}, new int[] {1, -1, 1})).isFalse();
+    assertThat(rootedTreesAreIsomorphic(new int[] {-1, 0, 0}, new int[] {1, -1, 1})).isTrue();
+  }
+
+  @Test
+  public void testUnrootedIsomorphismAgainstTreeIsomorphism() {
+    Random random = new Random(48);
+    for (int n = 1; n <= 12; n++) {
+      for (int loop = 0; loop < 300; loop++) {
+        List<List<Integer>> tree1 = toGraph(randomParents(random, n));
+        List<List<Integer>> tree2 = toGraph(randomParents(random, n));
+        boolean expected = TreeIsomorphism.treesAreIsomorphic(tree1, tree2);
+        assertThat(treesAreIsomorphic(tree1, tree2)).isEqualTo(expected);
+        assertThat(canonicalHash(tree1) == canonicalHash(tree2)).isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  public void testRootedIsomorphismAgainstEncoding() {
+    Random random = new Random(49);
+    for (int n = 1; n <= 10; n++) {
+      for (int loop = 0; loop < 300; loop++) {
+        int[] parent1 = randomParents(random, n), parent2 = randomParents(random, n);
+        boolean expected =
+            TreeIsomorphism.encode(toTreeNode(parent1))
+                .equals(TreeIsomorphism.encode(toTreeNode(parent2)));
+        assertThat(rootedTreesAreIsomorphic(parent1, parent2)).isEqualTo(expected);
+        assertThat(rootedCanonicalHash(parent1) == rootedCanonicalHash(parent2))
+            .isEqualTo(expected);
+      }
+    }
+  }
+
+  @Test
+  public void testLargeRelabeledTrees() {
+    Random random = new Random(50);
+    int n = 200_000;
+    int[] parent = randomParents(random, n);
+    int[] copy = relabel(parent, randomPermutation(random, n));
+    assertThat(rootedTreesAreIsomorphic(parent, copy)).isTrue();
+    assertThat(rootedCanonicalHash(parent)).isEqualTo(rootedCanonicalHash(copy));
+    assertThat(treesAreIsomorphic(toGraph(parent), toGraph(copy))).isTrue();
+
+    // Moving the deepest leaf next to the root changes the depths, so the shape differs.
+    int root = root(parent), leaf = root;
+    int[] depth = bfsDistances(toGraph(parent), root);
+    for (int v = 0; v < n; v++) if (depth[v] > depth[leaf]) leaf = v;
+    int[] moved = parent.clone();
+    moved[leaf] = root;
+    assertThat(rootedTreesAreIsomorphic(parent, moved)).isFalse();
+    assertThat(rootedCanonicalHash(parent)).isNotEqualTo(rootedCanonicalHash(moved));
+  }
+
+  @Test
+  public void testLongPathIsNotRecursive() {
+    int n = 1_000_000;
+    int[] path = path(n);
+    int[] reversed = new int[n];
+    for (int v = 0; v < n; v++) reversed[v] = v == n - 1 ? -1 : v + 1;
+    assertThat(rootedTreesAreIsomorphic(path, reversed)).isTrue();
+    assertThat(treesAreIsomorphic(toGraph(path), toGraph(reversed))).isTrue();
+  }
+}
@@ -0,0 +1,138 @@
+package com.williamfiset.algorithms.graphtheory.treealgorithms;
+
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+// Tree generators and reference implementations shared by the tests of the parent array based
+// tree classes.
+final class TreeTestUtils {
+
+  private TreeTestUtils() {}
+
+  // The tree from LowestCommonAncestorEulerTour, given by its parent array.
+  static final int[] SLIDES_TREE = {-1, 0, 0, 1, 1, 2, 2, 2, 3, 3, 5, 5, 7, 7, 11, 11, 11};
+
+  // Parent arrays every class must reject: no array, two roots, no root, a parent out of range
+  // and a cycle which is not connected to the root.
+  private static final int[][] INVALID_PARENTS = {
+    null, {-1, 0, -1}, {1, 2, 0}, {-1, 0, 3}, {-1, 0, -2}, {-1, 2, 1}, {-1, 0, 3, 4, 2}
+  };
+
+  // Checks that 'build' throws an IllegalArgumentException for every invalid parent array.
+  static void assertRejectsInvalidParents(Consumer<int[]> build) {
+    for (int[] parent : INVALID_PARENTS) {
+      try {
+        build.accept(parent == null ? null : parent.clone());
+        fail("Accepted the parent array " + Arrays.toString(parent));
+      } catch (IllegalArgumentException expected) {
+      }
+    }
+  }
+
+  // Returns a random tree on n nodes. Every node attaches to one of the 'spread' nodes created
+  // right before it, so small spreads give deep trees and a spread of n gives random recursive
+  // trees of depth O(log n). The nodes are relabeled at random so that neither the root nor the
+  // order of the parents is predictable.
+  static int[] randomParents(Random random, int n, int spread) {
+    int[] parent = new int[n];
+    if (n > 0) parent[0] = -1;
+    for (int v = 1; v < n; v++) parent[v] = v - 1 - random.nextInt(Math.min(spread, v));
+    return relabel(parent, randomPermutation(random, n));
+  }
+
+  // Returns a random recursive tree on n nodes, relabeled at random.
+  static int[] randomParents(Random random, int n) {
+    return randomParents(random, n, Math.max(1, n));
+  }
+
+  static int[] randomPermutation(Random random, int n) {
+    int[] label = new int[n];
+    for (int i = 0; i < n; i++) label[i] = i;
+    for (int i = n - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1), tmp = label[i];
+      label[i] = label[j];
+      label[j] = tmp;
+    }
+    return label;
+  }
+
+  // Returns the same tree with node v renamed to label[v].
+  static int[] relabel(int[] parent, int[] label) {
+    int n = parent.length;
+    int[] relabeled = new int[n];
+    for (int v = 0; v < n; v++) relabeled[label[v]] = parent[v] == -1 ? -1 : label[parent[v]];
+    return relabeled;
+  }
+
+  // Returns the path 0 - 1 - ... - (n-1) rooted at node 0.
+  static int[] path(int n) {
+    int[] parent = new int[n];
+    for (int v = 0; v < n; v++) parent[v] = v - 1;
+    return parent;
+  }
+
+  static long[] randomValues(Random random, int n, int max) {
+    long[] values = new long[n];
+    for (int v = 0; v < n; v++) values[v] = random.nextInt(2 * max + 1) - max;
+    return values;
+  }
+
+  static int root(int[] parent) {
+    for (int v = 0; v < parent.length; v++) if (parent[v] == -1) return v;
+    throw new IllegalArgumentException("No root");
+  }
+
+  // Returns the nodes in BFS order from the root, so every parent comes before its children.
+  static int[] bfsOrder(int[] parent) {
+    int n = parent.length;
+    List<List<Integer>> children = new ArrayList<>(n);
+    for (int v = 0; v < n; v++) children.add(new ArrayList<>());
+    for (int v = 0; v < n; v++) if (parent[v] != -1) children.get(parent[v]).add(v);
+    int[] order = new int[n];
+    int size = 0;
+    if (n > 0) order[size++] = root(parent);
+    for (int i = 0; i < size; i++) for (int c : children.get(order[i])) order[size++] = c;
+    return order;
+  }
+
+  static boolean isAncestor(int[] parent, int a, int v) {
+    for (; v != -1; v = parent[v]) if (v == a) return true;
+    return false;
+  }
+
+  // Returns the tree as an undirected adjacency list.
+  static List<List<Integer>> toGraph(int[] parent) {
+    List<List<Integer>> graph = new ArrayList<>(parent.length);
+    for (int v = 0; v < parent.length; v++) graph.add(new ArrayList<>());
+    for (int v = 0; v < parent.length; v++) {
+      if (parent[v] == -1) continue;
+      graph.get(v).add(parent[v]);
+      graph.get(parent[v]).add(v);
+    }
+    return graph;
+  }
+
+  // Returns the number of edges from 'source' to every node of an undirected graph.
+  static int[] bfsDistances(List<List<Integer>> graph, int source) {
+    int n = graph.size();
+    int[] dist = new int[n], queue = new int[n];
+    Arrays.fill(dist, -1);
+    dist[source] = 0;
+    int head = 0, tail = 0;
+    queue[tail++] = source;
+    while (head < tail) {
+      int u = queue[head++];
+      for (int w : graph.get(u)) {
+        if (dist[w] != -1) continue;
+        dist[w] = dist[u] + 1;
+        queue[tail++] = w;
+      }
+    }
+    return dist;
+  }
+}
@@ -0,0 +1,146 @@
+package com.williamfiset.algorithms.utils.graphutils;
+
+import static com.google.common.truth.Truth.assertThat;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import org.junit.Test;
+
+public class GraphGeneratorTest {
+
+  @Test
+  public void testRmatEdgeCountAndDeterminism() {
+    GraphGenerator.RmatGenerator generator = new GraphGenerator.RmatGenerator(12, 200_000, 42);
+    CsrGraph g1 = build(generator.nodeCount(), false, generator::generate);
+    CsrGraph g2 = build(generator.nodeCount(), false, generator::generate);
+
+    assertThat(g1.nodeCount()).isEqualTo(1 << 12);
+    assertThat(g1.edgeCount()).isEqualTo(200_000);
+    assertThat(sameGraph(g1, g2)).isTrue();
+
+    // The quadrant probabilities make node 0 far more popular than a uniform random graph.
+    assertThat(g1.degree(0)).isGreaterThan(10 * 200_000 / (1 << 12));
+  }
+
+  @Test
+  public void testErdosRenyiExtremeProbabilities() {
+    int n = 50;
+    GraphGenerator.ErdosRenyiGenerator complete =
+        new GraphGenerator.ErdosRenyiGenerator(n, 1.0, false, 1);
+    CsrGraph g = build(n, true, complete::generate);
+    for (int u = 0; u < n; u++) assertThat(g.degree(u)).isEqualTo(n - 1);
+
+    GraphGenerator.ErdosRenyiGenerator directed =
+        new GraphGenerator.ErdosRenyiGenerator(n, 1.0, true, 1);
+    g = build(n, false, directed::generate);
+    for (int u = 0; u < n; u++) {
+      assertThat(g.degree(u)).isEqualTo(n - 1);
+      for (int e = g.offsets()[u]; e < g.offsets()[u + 1]; e++) {
+        assertThat(g.targets()[e]).isNotEqualTo(u);
+      }
+    }
+
+    GraphGenerator.ErdosRenyiGenerator empty =
+        new GraphGenerator.ErdosRenyiGenerator(n, 0.0, false, 1);
+    assertThat(build(n, false, empty::generate).edgeCount()).isEqualTo(0);
+
+    // 1 - p rounds to 1 here, the skip lengths must still be finite and move past every row.
+    GraphGenerator.ErdosRenyiGenerator tiny =
+        new GraphGenerator.ErdosRenyiGenerator(n, 1e-300, false, 1);
+    assertThat(build(n, false, tiny::generate).edgeCount()).isEqualTo(0);
+  }
+
+  @Test
+  public void testErdosRenyiExpectedEdgeCount() {
+    int n = 20_000;
+    double p = 0.001;
+    GraphGenerator.ErdosRenyiGenerator generator =
+        new GraphGenerator.ErdosRenyiGenerator(n, p, false, 7);
+    CsrGraph g = build(n, false, generator::generate);
+
+    double expected = p * n * (n - 1) / 2.0;
+    assertThat((double) g.edgeCount()).isWithin(0.02 * expected).of(expected);
+    int[] targets = g.targets();
+    for (int u = 0; u < n; u++) {
+      for (int e = g.offsets()[u]; e < g.offsets()[u + 1]; e++) {
+        assertThat(targets[e]).isLessThan(u);
+      }
+    }
+  }
+
+  @Test
+  public void testFullGrid() {
+    int rows = 300, cols = 7;
+    GraphGenerator.GridGenerator generator =
+        new GraphGenerator.GridGenerator(rows, cols, 1.0, 0.0, 3);
+    CsrGraph g = build(generator.nodeCount(), true, generator::generate);
+    assertThat(g.edgeCount()).isEqualTo(2 * (rows * (cols - 1) + (rows - 1) * cols));
+    assertThat(g.degree(0)).isEqualTo(2);
+    assertThat(g.degree(cols + 1)).isEqualTo(4);
+  }
+
+  @Test
+  public void testBarabasiAlbert() {
+    int n = 100_000, d = 3;
+    GraphGenerator.BarabasiAlbertGenerator generator =
+        new GraphGenerator.BarabasiAlbertGenerator(n, d, 11);
+    CsrGraph g1 = build(n, false, generator::generate);
+    CsrGraph g2 = build(n, false, generator::generate);
+    assertThat(g1.edgeCount()).isEqualTo(n * d);
+    assertThat(sameGraph(g1, g2)).isTrue();
+
+    // Every node attaches to earlier nodes (or itself) and early nodes become hubs.
+    int maxInDegree = 0;
+    int[] inDegree = new int[n];
+    for (int u = 0; u < n; u++) {
+      assertThat(g1.degree(u)).isEqualTo(d);
+      for (int e = g1.offsets()[u]; e < g1.offsets()[u + 1]; e++) {
+        int v = g1.targets()[e];
+        assertThat(v).isAtMost(u);
+        maxInDegree = Math.max(maxInDegree, ++inDegree[v]);
+      }
+    }
+    assertThat(maxInDegree).isGreaterThan(100);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void testCsrBuilderRejectsTooManyEdges() {
+    // Twice this many directed edges do not fit into an array, the batch must fail up front.
+    new CsrGraph.Builder(2, true).addEdges(new int[0], new int[0], Integer.MAX_VALUE / 2 + 1);
+  }
+
+  @Test
+  public void testBinaryEdgeFileRoundTrip() throws IOException {
+    GraphGenerator.RmatGenerator generator = new GraphGenerator.RmatGenerator(10, 50_000, 5);
+    File file = File.createTempFile("edges", ".bin");
+    file.deleteOnExit();
+    try (BinaryEdgeFile.Writer writer = new BinaryEdgeFile.Writer(file, generator.nodeCount())) {
+      generator.generate(writer);
+      assertThat(writer.edgeCount()).isEqualTo(50_000L);
+    }
+    CsrGraph fromFile = BinaryEdgeFile.readCsr(file, false);
+    CsrGraph inMemory = build(generator.nodeCount(), false, generator::generate);
+    assertThat(sameGraph(fromFile, inMemory)).isTrue();
+  }
+
+  private static CsrGraph build(int n, boolean undirected, Consumer<EdgeSink> generator) {
+    CsrGraph.Builder builder = new CsrGraph.Builder(n, undirected);
+    generator.accept(builder);
+    return builder.build();
+  }
+
+  // Edges arrive in a nondeterministic order, so compare the sorted adjacency of every node.
+  private static boolean sameGraph(CsrGraph g1, CsrGraph g2) {
+    if (g1.nodeCount() != g2.nodeCount() || g1.edgeCount() != g2.edgeCount()) return false;
+    for (int u = 0; u < g1.nodeCount(); u++) {
+      int[] a = Arrays.copyOfRange(g1.targets(), g1.offsets()[u], g1.offsets()[u + 1]);
+      int[] b = Arrays.copyOfRange(g2.targets(), g2.offsets()[u], g2.offsets()[u + 1]);
+      Arrays.sort(a);
+      Arrays.sort(b);
+      if (!Arrays.equals(a, b)) return false;
+    }
+    return true;
+  }
+}